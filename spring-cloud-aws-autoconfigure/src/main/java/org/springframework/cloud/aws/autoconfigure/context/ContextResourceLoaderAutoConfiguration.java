@@ -16,16 +16,26 @@
 
 package org.springframework.cloud.aws.autoconfigure.context;
 
+import org.springframework.beans.MutablePropertyValues;
 import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinitionHolder;
 import org.springframework.beans.factory.support.BeanDefinitionBuilder;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.ConfigurationPropertyName;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySource;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySources;
 import org.springframework.cloud.aws.autoconfigure.context.properties.AwsS3ResourceLoaderProperties;
 import org.springframework.cloud.aws.context.config.annotation.ContextResourceLoaderConfiguration;
+import org.springframework.cloud.aws.core.io.s3.SimpleStorageFileCache;
+import org.springframework.cloud.aws.core.io.s3.SimpleStorageFileCheckpointStore;
+import org.springframework.cloud.aws.core.io.s3.SimpleStorageMetadataCache;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.util.unit.DataSize;
 
 /**
  * @author Agim Emruli
@@ -56,39 +66,131 @@ public class ContextResourceLoaderAutoConfiguration {
 	 */
 	public static class Registrar extends ContextResourceLoaderConfiguration.Registrar {
 
-		private static final String CORE_POOL_SIZE_PROPERTY_NAME = "corePoolSize";
+		private static final String CORE_POOL_SIZE_PROPERTY_NAME = "core-pool-size";
 
-		private static final String MAX_POOL_SIZE_PROPERTY_NAME = "maxPoolSize";
+		private static final String MAX_POOL_SIZE_PROPERTY_NAME = "max-pool-size";
 
-		private static final String QUEUE_CAPACITY_PROPERTY_NAME = "queueCapacity";
+		private static final String QUEUE_CAPACITY_PROPERTY_NAME = "queue-capacity";
+
+		private static final String UPLOAD_PART_SIZE_PROPERTY_NAME = "upload-part-size";
+
+		private static final String MAX_CONCURRENT_UPLOAD_PARTS_PROPERTY_NAME = "max-concurrent-upload-parts";
+
+		private static final String DOWNLOAD_RANGE_SIZE_PROPERTY_NAME = "download-range-size";
+
+		private static final String MAX_CONCURRENT_DOWNLOAD_RANGES_PROPERTY_NAME = "max-concurrent-download-ranges";
+
+		private AwsS3ResourceLoaderProperties properties;
+
+		@Override
+		protected BeanDefinition getProtocolResolver(BeanDefinitionHolder client) {
+			BeanDefinition resolver = super.getProtocolResolver(client);
+			AwsS3ResourceLoaderProperties properties = getProperties();
+			MutablePropertyValues propertyValues = resolver.getPropertyValues();
+			if (containsProperty(UPLOAD_PART_SIZE_PROPERTY_NAME)) {
+				propertyValues.add("uploadPartSize",
+						toIntBytes(UPLOAD_PART_SIZE_PROPERTY_NAME, properties.getUploadPartSize()));
+			}
+			if (containsProperty(MAX_CONCURRENT_UPLOAD_PARTS_PROPERTY_NAME)) {
+				propertyValues.add("maxConcurrentUploadParts", properties.getMaxConcurrentUploadParts());
+			}
+			if (containsProperty(DOWNLOAD_RANGE_SIZE_PROPERTY_NAME)) {
+				propertyValues.add("downloadRangeSize",
+						toIntBytes(DOWNLOAD_RANGE_SIZE_PROPERTY_NAME, properties.getDownloadRangeSize()));
+			}
+			if (containsProperty(MAX_CONCURRENT_DOWNLOAD_RANGES_PROPERTY_NAME)) {
+				propertyValues.add("maxConcurrentDownloadRanges", properties.getMaxConcurrentDownloadRanges());
+			}
+			if (properties.getFileCacheDirectory() != null) {
+				propertyValues.add("fileCache",
+						BeanDefinitionBuilder.rootBeanDefinition(SimpleStorageFileCache.class)
+								.addConstructorArgValue(properties.getFileCacheDirectory())
+								.addConstructorArgValue(properties.getFileCacheMaxSize().toBytes()).getBeanDefinition());
+			}
+			if (properties.getMetadataCacheTimeToLive() != null) {
+				propertyValues.add("metadataCache",
+						BeanDefinitionBuilder.rootBeanDefinition(SimpleStorageMetadataCache.class)
+								.addConstructorArgValue(properties.getMetadataCacheMaxSize())
+								.addConstructorArgValue(properties.getMetadataCacheTimeToLive()).getBeanDefinition());
+			}
+			if (properties.getUploadCheckpointDirectory() != null) {
+				propertyValues.add("uploadCheckpointStore",
+						BeanDefinitionBuilder.rootBeanDefinition(SimpleStorageFileCheckpointStore.class)
+								.addConstructorArgValue(properties.getUploadCheckpointDirectory()).getBeanDefinition());
+			}
+			return resolver;
+		}
 
 		@Override
 		protected BeanDefinition getTaskExecutorDefinition() {
+			AwsS3ResourceLoaderProperties properties = getProperties();
 			if (containsProperty(CORE_POOL_SIZE_PROPERTY_NAME) || containsProperty(MAX_POOL_SIZE_PROPERTY_NAME)
 					|| containsProperty(QUEUE_CAPACITY_PROPERTY_NAME)) {
 				BeanDefinitionBuilder builder = BeanDefinitionBuilder.rootBeanDefinition(ThreadPoolTaskExecutor.class);
 
-				setPropertyIfConfigured(builder, CORE_POOL_SIZE_PROPERTY_NAME);
-				setPropertyIfConfigured(builder, MAX_POOL_SIZE_PROPERTY_NAME);
-				setPropertyIfConfigured(builder, QUEUE_CAPACITY_PROPERTY_NAME);
+				if (containsProperty(CORE_POOL_SIZE_PROPERTY_NAME)) {
+					builder.addPropertyValue("corePoolSize", properties.getCorePoolSize());
+				}
+				if (containsProperty(MAX_POOL_SIZE_PROPERTY_NAME)) {
+					builder.addPropertyValue("maxPoolSize", properties.getMaxPoolSize());
+				}
+				if (containsProperty(QUEUE_CAPACITY_PROPERTY_NAME)) {
+					builder.addPropertyValue("queueCapacity", properties.getQueueCapacity());
+				}
 
 				return builder.getBeanDefinition();
 			}
+			if (containsProperty(MAX_CONCURRENT_UPLOAD_PARTS_PROPERTY_NAME)
+					|| containsProperty(MAX_CONCURRENT_DOWNLOAD_RANGES_PROPERTY_NAME)) {
+				// Dedicated transfer executor, otherwise parts and ranges are transferred one
+				// after another
+				int poolSize = Math.max(
+						containsProperty(MAX_CONCURRENT_UPLOAD_PARTS_PROPERTY_NAME)
+								? properties.getMaxConcurrentUploadParts() : 1,
+						containsProperty(MAX_CONCURRENT_DOWNLOAD_RANGES_PROPERTY_NAME)
+								? properties.getMaxConcurrentDownloadRanges() : 1);
+				return BeanDefinitionBuilder.rootBeanDefinition(ThreadPoolTaskExecutor.class)
+						.addPropertyValue("corePoolSize", poolSize).addPropertyValue("maxPoolSize", poolSize)
+						.addPropertyValue("threadNamePrefix", "s3-transfer-").getBeanDefinition();
+			}
 			return super.getTaskExecutorDefinition();
 		}
 
-		private boolean containsProperty(String name) {
-			return this.environment.containsProperty(AWS_LOADER_PROPERTY_PREFIX + "." + name);
+		/**
+		 * Binds the properties with relaxed names, as the bean definitions are registered
+		 * before the {@link AwsS3ResourceLoaderProperties} bean is bound.
+		 */
+		private AwsS3ResourceLoaderProperties getProperties() {
+			if (this.properties == null) {
+				this.properties = Binder.get(this.environment)
+						.bind(AWS_LOADER_PROPERTY_PREFIX, AwsS3ResourceLoaderProperties.class)
+						.orElseGet(AwsS3ResourceLoaderProperties::new);
+			}
+			return this.properties;
 		}
 
-		private String getProperty(String name) {
-			return this.environment.getProperty(AWS_LOADER_PROPERTY_PREFIX + "." + name);
+		/**
+		 * Checks if a property is configured in any of the relaxed forms of its name.
+		 * @param name the name of the property in the canonical (kebab-case) form
+		 */
+		private boolean containsProperty(String name) {
+			ConfigurationPropertyName propertyName = ConfigurationPropertyName
+					.of(AWS_LOADER_PROPERTY_PREFIX + "." + name);
+			for (ConfigurationPropertySource source : ConfigurationPropertySources.get(this.environment)) {
+				if (source.getConfigurationProperty(propertyName) != null) {
+					return true;
+				}
+			}
+			return false;
 		}
 
-		private void setPropertyIfConfigured(BeanDefinitionBuilder builder, String name) {
-			if (containsProperty(name)) {
-				builder.addPropertyValue(name, getProperty(name));
+		private static int toIntBytes(String name, DataSize dataSize) {
+			if (dataSize.toBytes() < 0 || dataSize.toBytes() > Integer.MAX_VALUE) {
+				throw new IllegalArgumentException("Invalid value '" + dataSize + "' of property '"
+						+ AWS_LOADER_PROPERTY_PREFIX + "." + name + "', must be between 0B and "
+						+ Integer.MAX_VALUE + "B");
 			}
+			return (int) dataSize.toBytes();
 		}
 
 	}
@@ -16,6 +16,10 @@
 
 package org.springframework.cloud.aws.autoconfigure.context.properties;
 
+import java.time.Duration;
+
+import org.springframework.util.unit.DataSize;
+
 /**
  * Properties related to S3 client behavior within the application
  * {@link org.springframework.core.io.ResourceLoader}.
@@ -47,6 +51,61 @@ public class AwsS3ResourceLoaderProperties {
 	 */
 	private int queueCapacity = Integer.MAX_VALUE;
 
+	/**
+	 * The size of the parts of multipart uploads through S3 resources. Must be at least
+	 * 5MB, the part size is doubled every 1000 parts for very large objects.
+	 */
+	private DataSize uploadPartSize = DataSize.ofMegabytes(5);
+
+	/**
+	 * The maximum number of parts of a single upload that are uploaded concurrently. If
+	 * set and no pool settings are configured, a dedicated Task Executor with this number
+	 * of threads is used for S3 transfers.
+	 */
+	private int maxConcurrentUploadParts = 3;
+
+	/**
+	 * The size of the ranges that are downloaded in parallel from S3 resources.
+	 */
+	private DataSize downloadRangeSize = DataSize.ofMegabytes(8);
+
+	/**
+	 * The number of ranges of an object that are downloaded in parallel. The default of 1
+	 * downloads objects with a single request. If set and no pool settings are
+	 * configured, a dedicated Task Executor is used for S3 transfers.
+	 */
+	private int maxConcurrentDownloadRanges = 1;
+
+	/**
+	 * Directory of a local cache for the content of S3 resources. If set, resources are
+	 * read through the cache and unchanged objects are not downloaded again.
+	 */
+	private String fileCacheDirectory;
+
+	/**
+	 * The maximum total size of the files in the local cache.
+	 */
+	private DataSize fileCacheMaxSize = DataSize.ofGigabytes(1);
+
+	/**
+	 * Time to live of the object metadata that is shared between S3 resources. If set,
+	 * exists, content length and last modification checks of the same object are served
+	 * from the cache instead of issuing a HEAD request each time.
+	 */
+	private Duration metadataCacheTimeToLive;
+
+	/**
+	 * The maximum number of objects in the metadata cache.
+	 */
+	private int metadataCacheMaxSize = 10000;
+
+	/**
+	 * Directory for the checkpoints of multipart uploads. If set, uploads of S3 resources
+	 * are resumable: failed uploads are not aborted and the next upload of the same
+	 * object skips the parts that were already uploaded.
+	 */
+	private String uploadCheckpointDirectory;
+
 	public int getCorePoolSize() {
 		return this.corePoolSize;
 	}
@@ -71,4 +130,76 @@ public class AwsS3ResourceLoaderProperties {
 		this.queueCapacity = queueCapacity;
 	}
 
+	public DataSize getUploadPartSize() {
+		return this.uploadPartSize;
+	}
+
+	public void setUploadPartSize(DataSize uploadPartSize) {
+		this.uploadPartSize = uploadPartSize;
+	}
+
+	public int getMaxConcurrentUploadParts() {
+		return this.maxConcurrentUploadParts;
+	}
+
+	public void setMaxConcurrentUploadParts(int maxConcurrentUploadParts) {
+		this.maxConcurrentUploadParts = maxConcurrentUploadParts;
+	}
+
+	public DataSize getDownloadRangeSize() {
+		return this.downloadRangeSize;
+	}
+
+	public void setDownloadRangeSize(DataSize downloadRangeSize) {
+		this.downloadRangeSize = downloadRangeSize;
+	}
+
+	public int getMaxConcurrentDownloadRanges() {
+		return this.maxConcurrentDownloadRanges;
+	}
+
+	public void setMaxConcurrentDownloadRanges(int maxConcurrentDownloadRanges) {
+		this.maxConcurrentDownloadRanges = maxConcurrentDownloadRanges;
+	}
+
+	public String getFileCacheDirectory() {
+		return this.fileCacheDirectory;
+	}
+
+	public void setFileCacheDirectory(String fileCacheDirectory) {
+		this.fileCacheDirectory = fileCacheDirectory;
+	}
+
+	public DataSize getFileCacheMaxSize() {
+		return this.fileCacheMaxSize;
+	}
+
+	public void setFileCacheMaxSize(DataSize fileCacheMaxSize) {
+		this.fileCacheMaxSize = fileCacheMaxSize;
+	}
+
+	public Duration getMetadataCacheTimeToLive() {
+		return this.metadataCacheTimeToLive;
+	}
+
+	public void setMetadataCacheTimeToLive(Duration metadataCacheTimeToLive) {
+		this.metadataCacheTimeToLive = metadataCacheTimeToLive;
+	}
+
+	public int getMetadataCacheMaxSize() {
+		return this.metadataCacheMaxSize;
+	}
+
+	public void setMetadataCacheMaxSize(int metadataCacheMaxSize) {
+		this.metadataCacheMaxSize = metadataCacheMaxSize;
+	}
+
+	public String getUploadCheckpointDirectory() {
+		return this.uploadCheckpointDirectory;
+	}
+
+	public void setUploadCheckpointDirectory(String uploadCheckpointDirectory) {
+		this.uploadCheckpointDirectory = uploadCheckpointDirectory;
+	}
+
 }
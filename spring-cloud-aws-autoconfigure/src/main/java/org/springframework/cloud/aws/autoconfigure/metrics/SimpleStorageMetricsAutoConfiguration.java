@@ -0,0 +1,51 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.aws.autoconfigure.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.MetricsAutoConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.cloud.aws.core.io.s3.MicrometerSimpleStorageMetrics;
+import org.springframework.cloud.aws.core.io.s3.SimpleStorageMetrics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration that records the metrics of S3 resources in the {@link MeterRegistry}
+ * of the application. The {@link SimpleStorageMetrics} are picked up by the resources
+ * that are resolved through the resource loader.
+ *
+ * @since 3.0
+ */
+@Configuration(proxyBeanMethods = false)
+@AutoConfigureAfter({ MetricsAutoConfiguration.class, CompositeMeterRegistryAutoConfiguration.class })
+@ConditionalOnClass({ MeterRegistry.class, MicrometerSimpleStorageMetrics.class })
+@ConditionalOnBean(MeterRegistry.class)
+public class SimpleStorageMetricsAutoConfiguration {
+
+	@Bean
+	@ConditionalOnMissingBean(SimpleStorageMetrics.class)
+	public MicrometerSimpleStorageMetrics simpleStorageMetrics(MeterRegistry meterRegistry) {
+		return new MicrometerSimpleStorageMetrics(meterRegistry);
+	}
+
+}
@@ -17,17 +17,22 @@
 package org.springframework.cloud.aws.autoconfigure.context;
 
 import java.net.URI;
+import java.nio.file.Path;
 
 import com.amazonaws.ClientConfiguration;
 import com.amazonaws.regions.Regions;
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.AmazonS3Client;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import org.springframework.boot.autoconfigure.AutoConfigurations;
 import org.springframework.boot.test.context.runner.ApplicationContextRunner;
 import org.springframework.cloud.aws.autoconfigure.context.properties.AwsS3ResourceLoaderProperties;
 import org.springframework.cloud.aws.context.support.io.SimpleStorageProtocolResolverConfigurer;
+import org.springframework.cloud.aws.core.io.s3.SimpleStorageFileCache;
+import org.springframework.cloud.aws.core.io.s3.SimpleStorageFileCheckpointStore;
+import org.springframework.cloud.aws.core.io.s3.SimpleStorageMetadataCache;
 import org.springframework.cloud.aws.core.io.s3.SimpleStorageProtocolResolver;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -89,6 +94,148 @@ class ContextResourceLoaderAutoConfigurationTest {
 
 	}
 
+	@Test
+	void createResourceLoader_withTransferSettings_transferExecutorConfigured() {
+		this.contextRunner.withPropertyValues("cloud.aws.loader.uploadPartSize:16MB",
+				"cloud.aws.loader.maxConcurrentUploadParts:8", "cloud.aws.loader.downloadRangeSize:4MB",
+				"cloud.aws.loader.maxConcurrentDownloadRanges:12").run(context -> {
+					SimpleStorageProtocolResolverConfigurer simpleStorageProtocolResolverConfigurer = context
+							.getBean(SimpleStorageProtocolResolverConfigurer.class);
+
+					SimpleStorageProtocolResolver simpleStorageProtocolResolver = (SimpleStorageProtocolResolver) ReflectionTestUtils
+							.getField(simpleStorageProtocolResolverConfigurer, "protocolResolver");
+
+					ThreadPoolTaskExecutor taskExecutor = (ThreadPoolTaskExecutor) ReflectionTestUtils
+							.getField(simpleStorageProtocolResolver, "taskExecutor");
+
+					assertThat(taskExecutor.getCorePoolSize()).isEqualTo(12);
+					assertThat(taskExecutor.getMaxPoolSize()).isEqualTo(12);
+					assertThat(ReflectionTestUtils.getField(simpleStorageProtocolResolver, "uploadPartSize"))
+							.isEqualTo(16 * 1024 * 1024);
+					assertThat(ReflectionTestUtils.getField(simpleStorageProtocolResolver, "maxConcurrentUploadParts"))
+							.isEqualTo(8);
+					assertThat(ReflectionTestUtils.getField(simpleStorageProtocolResolver, "downloadRangeSize"))
+							.isEqualTo(4 * 1024 * 1024);
+					assertThat(ReflectionTestUtils.getField(simpleStorageProtocolResolver,
+							"maxConcurrentDownloadRanges")).isEqualTo(12);
+				});
+	}
+
+	@Test
+	void createResourceLoader_withFileCacheDirectory_fileCacheConfigured(@TempDir Path cacheDirectory) {
+		this.contextRunner.withPropertyValues("cloud.aws.loader.fileCacheDirectory:" + cacheDirectory,
+				"cloud.aws.loader.fileCacheMaxSize:10MB").run(context -> {
+					SimpleStorageProtocolResolverConfigurer simpleStorageProtocolResolverConfigurer = context
+							.getBean(SimpleStorageProtocolResolverConfigurer.class);
+
+					SimpleStorageProtocolResolver simpleStorageProtocolResolver = (SimpleStorageProtocolResolver) ReflectionTestUtils
+							.getField(simpleStorageProtocolResolverConfigurer, "protocolResolver");
+
+					SimpleStorageFileCache fileCache = (SimpleStorageFileCache) ReflectionTestUtils
+							.getField(simpleStorageProtocolResolver, "fileCache");
+
+					assertThat(fileCache).isNotNull();
+					assertThat(ReflectionTestUtils.getField(fileCache, "directory")).isEqualTo(cacheDirectory);
+					assertThat(ReflectionTestUtils.getField(fileCache, "maxSize")).isEqualTo(10L * 1024 * 1024);
+				});
+	}
+
+	@Test
+	void createResourceLoader_withMetadataCacheTimeToLive_metadataCacheConfigured() {
+		this.contextRunner.withPropertyValues("cloud.aws.loader.metadataCacheTimeToLive:30s",
+				"cloud.aws.loader.metadataCacheMaxSize:500").run(context -> {
+					SimpleStorageProtocolResolverConfigurer simpleStorageProtocolResolverConfigurer = context
+							.getBean(SimpleStorageProtocolResolverConfigurer.class);
+
+					SimpleStorageProtocolResolver simpleStorageProtocolResolver = (SimpleStorageProtocolResolver) ReflectionTestUtils
+							.getField(simpleStorageProtocolResolverConfigurer, "protocolResolver");
+
+					SimpleStorageMetadataCache metadataCache = (SimpleStorageMetadataCache) ReflectionTestUtils
+							.getField(simpleStorageProtocolResolver, "metadataCache");
+
+					assertThat(metadataCache).isNotNull();
+					assertThat(ReflectionTestUtils.getField(metadataCache, "maxSize")).isEqualTo(500);
+					assertThat(ReflectionTestUtils.getField(metadataCache, "timeToLiveNanos"))
+							.isEqualTo(30_000_000_000L);
+				});
+	}
+
+	@Test
+	void createResourceLoader_withUploadCheckpointDirectory_checkpointStoreConfigured(
+			@TempDir Path checkpointDirectory) {
+		this.contextRunner.withPropertyValues("cloud.aws.loader.uploadCheckpointDirectory:" + checkpointDirectory)
+				.run(context -> {
+					SimpleStorageProtocolResolverConfigurer simpleStorageProtocolResolverConfigurer = context
+							.getBean(SimpleStorageProtocolResolverConfigurer.class);
+
+					SimpleStorageProtocolResolver simpleStorageProtocolResolver = (SimpleStorageProtocolResolver) ReflectionTestUtils
+							.getField(simpleStorageProtocolResolverConfigurer, "protocolResolver");
+
+					SimpleStorageFileCheckpointStore checkpointStore = (SimpleStorageFileCheckpointStore) ReflectionTestUtils
+							.getField(simpleStorageProtocolResolver, "uploadCheckpointStore");
+
+					assertThat(checkpointStore).isNotNull();
+					assertThat(ReflectionTestUtils.getField(checkpointStore, "directory"))
+							.isEqualTo(checkpointDirectory);
+				});
+	}
+
+	@Test
+	void createResourceLoader_withKebabCaseProperties_resolverAndExecutorConfigured(@TempDir Path directory) {
+		this.contextRunner.withPropertyValues("cloud.aws.loader.core-pool-size:4", "cloud.aws.loader.max-pool-size:6",
+				"cloud.aws.loader.upload-part-size:16MB", "cloud.aws.loader.max-concurrent-upload-parts:8",
+				"cloud.aws.loader.download-range-size:4MB", "cloud.aws.loader.max-concurrent-download-ranges:12",
+				"cloud.aws.loader.file-cache-directory:" + directory.resolve("cache"),
+				"cloud.aws.loader.file-cache-max-size:10MB", "cloud.aws.loader.metadata-cache-time-to-live:30s",
+				"cloud.aws.loader.metadata-cache-max-size:500",
+				"cloud.aws.loader.upload-checkpoint-directory:" + directory.resolve("checkpoints")).run(context -> {
+					SimpleStorageProtocolResolverConfigurer simpleStorageProtocolResolverConfigurer = context
+							.getBean(SimpleStorageProtocolResolverConfigurer.class);
+
+					SimpleStorageProtocolResolver simpleStorageProtocolResolver = (SimpleStorageProtocolResolver) ReflectionTestUtils
+							.getField(simpleStorageProtocolResolverConfigurer, "protocolResolver");
+
+					ThreadPoolTaskExecutor taskExecutor = (ThreadPoolTaskExecutor) ReflectionTestUtils
+							.getField(simpleStorageProtocolResolver, "taskExecutor");
+
+					assertThat(taskExecutor.getCorePoolSize()).isEqualTo(4);
+					assertThat(taskExecutor.getMaxPoolSize()).isEqualTo(6);
+					assertThat(ReflectionTestUtils.getField(simpleStorageProtocolResolver, "uploadPartSize"))
+							.isEqualTo(16 * 1024 * 1024);
+					assertThat(ReflectionTestUtils.getField(simpleStorageProtocolResolver, "maxConcurrentUploadParts"))
+							.isEqualTo(8);
+					assertThat(ReflectionTestUtils.getField(simpleStorageProtocolResolver, "downloadRangeSize"))
+							.isEqualTo(4 * 1024 * 1024);
+					assertThat(ReflectionTestUtils.getField(simpleStorageProtocolResolver,
+							"maxConcurrentDownloadRanges")).isEqualTo(12);
+
+					SimpleStorageFileCache fileCache = (SimpleStorageFileCache) ReflectionTestUtils
+							.getField(simpleStorageProtocolResolver, "fileCache");
+					assertThat(ReflectionTestUtils.getField(fileCache, "directory"))
+							.isEqualTo(directory.resolve("cache"));
+					assertThat(ReflectionTestUtils.getField(fileCache, "maxSize")).isEqualTo(10L * 1024 * 1024);
+
+					SimpleStorageMetadataCache metadataCache = (SimpleStorageMetadataCache) ReflectionTestUtils
+							.getField(simpleStorageProtocolResolver, "metadataCache");
+					assertThat(ReflectionTestUtils.getField(metadataCache, "maxSize")).isEqualTo(500);
+					assertThat(ReflectionTestUtils.getField(metadataCache, "timeToLiveNanos"))
+							.isEqualTo(30_000_000_000L);
+
+					SimpleStorageFileCheckpointStore checkpointStore = (SimpleStorageFileCheckpointStore) ReflectionTestUtils
+							.getField(simpleStorageProtocolResolver, "uploadCheckpointStore");
+					assertThat(ReflectionTestUtils.getField(checkpointStore, "directory"))
+							.isEqualTo(directory.resolve("checkpoints"));
+				});
+	}
+
+	@Test
+	void createResourceLoader_withDownloadRangeSizeOf2GB_failsWithPropertyName() {
+		this.contextRunner.withPropertyValues("cloud.aws.loader.download-range-size:2GB").run(context -> {
+			assertThat(context).hasFailed();
+			assertThat(context.getStartupFailure()).hasMessageContaining("cloud.aws.loader.download-range-size");
+		});
+	}
+
 	@Test
 	void enableS3withCustomEndpoint() {
 		this.contextRunner.withPropertyValues("cloud.aws.s3.endpoint:http://localhost:8090").run((context) -> {
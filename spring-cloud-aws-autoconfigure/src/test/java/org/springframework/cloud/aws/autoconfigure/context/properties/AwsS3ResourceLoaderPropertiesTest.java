@@ -19,6 +19,8 @@ package org.springframework.cloud.aws.autoconfigure.context.properties;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import org.springframework.util.unit.DataSize;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 /**
@@ -66,4 +68,49 @@ class AwsS3ResourceLoaderPropertiesTest {
 		assertThat(this.properties.getQueueCapacity()).as("Queue capacity should have been reset").isEqualTo(newSize);
 	}
 
+	@Test
+	void uploadPartSizeCanBeSet() {
+		assertThat(this.properties.getUploadPartSize()).as("Default value of the upload part size should be 5MB")
+				.isEqualTo(DataSize.ofMegabytes(5));
+
+		this.properties.setUploadPartSize(DataSize.ofMegabytes(16));
+		assertThat(this.properties.getUploadPartSize()).as("Upload part size should have been reset")
+				.isEqualTo(DataSize.ofMegabytes(16));
+	}
+
+	@Test
+	void maxConcurrentUploadPartsCanBeSet() {
+		assertThat(this.properties.getMaxConcurrentUploadParts())
+				.as("Default value of the concurrent upload parts should be three").isEqualTo(3);
+
+		this.properties.setMaxConcurrentUploadParts(8);
+		assertThat(this.properties.getMaxConcurrentUploadParts())
+				.as("Concurrent upload parts should have been reset").isEqualTo(8);
+	}
+
+	@Test
+	void downloadRangeSettingsCanBeSet() {
+		assertThat(this.properties.getDownloadRangeSize()).as("Default value of the download range size should be 8MB")
+				.isEqualTo(DataSize.ofMegabytes(8));
+		assertThat(this.properties.getMaxConcurrentDownloadRanges())
+				.as("Default value of the concurrent download ranges should be one").isEqualTo(1);
+
+		this.properties.setDownloadRangeSize(DataSize.ofMegabytes(32));
+		this.properties.setMaxConcurrentDownloadRanges(4);
+		assertThat(this.properties.getDownloadRangeSize()).isEqualTo(DataSize.ofMegabytes(32));
+		assertThat(this.properties.getMaxConcurrentDownloadRanges()).isEqualTo(4);
+	}
+
+	@Test
+	void fileCacheSettingsCanBeSet() {
+		assertThat(this.properties.getFileCacheDirectory()).as("The file cache should be disabled by default").isNull();
+		assertThat(this.properties.getFileCacheMaxSize()).as("Default value of the file cache size should be 1GB")
+				.isEqualTo(DataSize.ofGigabytes(1));
+
+		this.properties.setFileCacheDirectory("/tmp/s3-cache");
+		this.properties.setFileCacheMaxSize(DataSize.ofMegabytes(100));
+		assertThat(this.properties.getFileCacheDirectory()).isEqualTo("/tmp/s3-cache");
+		assertThat(this.properties.getFileCacheMaxSize()).isEqualTo(DataSize.ofMegabytes(100));
+	}
+
 }
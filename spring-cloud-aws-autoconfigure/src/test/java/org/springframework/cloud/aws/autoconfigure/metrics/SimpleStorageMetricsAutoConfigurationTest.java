@@ -0,0 +1,90 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.aws.autoconfigure.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.cloud.aws.autoconfigure.context.ContextResourceLoaderAutoConfiguration;
+import org.springframework.cloud.aws.core.io.s3.MicrometerSimpleStorageMetrics;
+import org.springframework.cloud.aws.core.io.s3.SimpleStorageMetrics;
+import org.springframework.cloud.aws.core.io.s3.SimpleStorageResource;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class SimpleStorageMetricsAutoConfigurationTest {
+
+	private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+			.withConfiguration(AutoConfigurations.of(SimpleStorageMetricsAutoConfiguration.class));
+
+	@Test
+	void simpleStorageMetrics_withoutMeterRegistry_notConfigured() {
+		this.contextRunner.run(context -> assertThat(context).doesNotHaveBean(SimpleStorageMetrics.class));
+	}
+
+	@Test
+	void simpleStorageMetrics_withMeterRegistry_configured() {
+		this.contextRunner.withUserConfiguration(MeterRegistryConfiguration.class)
+				.run(context -> assertThat(context).hasSingleBean(MicrometerSimpleStorageMetrics.class));
+	}
+
+	@Test
+	void simpleStorageMetrics_withCustomMetrics_backsOff() {
+		this.contextRunner.withUserConfiguration(MeterRegistryConfiguration.class, CustomMetricsConfiguration.class)
+				.run(context -> {
+					assertThat(context).hasSingleBean(SimpleStorageMetrics.class);
+					assertThat(context).doesNotHaveBean(MicrometerSimpleStorageMetrics.class);
+				});
+	}
+
+	@Test
+	void simpleStorageMetrics_withResourceLoader_setOnResolvedResources() {
+		this.contextRunner.withConfiguration(AutoConfigurations.of(ContextResourceLoaderAutoConfiguration.class))
+				.withUserConfiguration(MeterRegistryConfiguration.class).run(context -> {
+					SimpleStorageResource resource = (SimpleStorageResource) context.getResource("s3://bucket/object");
+
+					assertThat(resource.getMetrics()).isSameAs(context.getBean(SimpleStorageMetrics.class));
+				});
+	}
+
+	@Configuration(proxyBeanMethods = false)
+	static class MeterRegistryConfiguration {
+
+		@Bean
+		MeterRegistry meterRegistry() {
+			return new SimpleMeterRegistry();
+		}
+
+	}
+
+	@Configuration(proxyBeanMethods = false)
+	static class CustomMetricsConfiguration {
+
+		@Bean
+		SimpleStorageMetrics customMetrics() {
+			return mock(SimpleStorageMetrics.class);
+		}
+
+	}
+
+}
@@ -0,0 +1,408 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.aws.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import com.amazonaws.services.s3.AbstractAmazonS3;
+import com.amazonaws.services.s3.Headers;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
+import com.amazonaws.services.s3.model.AmazonS3Exception;
+import com.amazonaws.services.s3.model.Bucket;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadResult;
+import com.amazonaws.services.s3.model.GetObjectMetadataRequest;
+import com.amazonaws.services.s3.model.GetObjectRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadResult;
+import com.amazonaws.services.s3.model.ListObjectsV2Request;
+import com.amazonaws.services.s3.model.ListObjectsV2Result;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PutObjectRequest;
+import com.amazonaws.services.s3.model.PutObjectResult;
+import com.amazonaws.services.s3.model.S3Object;
+import com.amazonaws.services.s3.model.S3ObjectInputStream;
+import com.amazonaws.services.s3.model.S3ObjectSummary;
+import com.amazonaws.services.s3.model.UploadPartRequest;
+import com.amazonaws.services.s3.model.UploadPartResult;
+
+/**
+ * In-process {@link com.amazonaws.services.s3.AmazonS3} that keeps the objects of its
+ * buckets in memory. Only the operations used by the resources and the pattern resolver
+ * are implemented. The content of uploaded objects is read completely but only its size
+ * is kept, so that write benchmarks do not measure the heap of the fake. Objects that are
+ * read by benchmarks are stored with {@link #putContent(String, String, byte[])}.
+ * <p>
+ * An optional latency is added to every request, which simulates the round trip to S3
+ * and makes the effect of concurrent requests visible.
+ *
+ * @since 3.0
+ */
+public class InMemoryAmazonS3 extends AbstractAmazonS3 {
+
+	private static final int MAX_KEYS = 1000;
+
+	private static final int DRAIN_BUFFER_SIZE = 64 * 1024;
+
+	private static final ThreadLocal<ByteBuffer> DRAIN_BUFFER = ThreadLocal
+			.withInitial(() -> ByteBuffer.allocate(DRAIN_BUFFER_SIZE));
+
+	private final Map<String, ConcurrentNavigableMap<String, StoredObject>> buckets = new ConcurrentHashMap<>();
+
+	private final Map<String, AtomicLong> multipartUploads = new ConcurrentHashMap<>();
+
+	private volatile long requestLatencyNanos;
+
+	/**
+	 * Sets the latency that is added to every request.
+	 * @param requestLatencyNanos the latency in nanoseconds, 0 for none
+	 */
+	public void setRequestLatencyNanos(long requestLatencyNanos) {
+		this.requestLatencyNanos = requestLatencyNanos;
+	}
+
+	@Override
+	public Bucket createBucket(String bucketName) {
+		this.buckets.computeIfAbsent(bucketName, name -> new ConcurrentSkipListMap<>());
+		return new Bucket(bucketName);
+	}
+
+	/**
+	 * Stores an object of which the content is returned by later reads.
+	 * @param bucketName the bucket of the object
+	 * @param key the key of the object
+	 * @param content the content of the object
+	 */
+	public void putContent(String bucketName, String key, byte[] content) {
+		getBucket(bucketName).put(key, new StoredObject(content.length, content));
+	}
+
+	/**
+	 * Stores an object without content, which is enough for listings.
+	 * @param bucketName the bucket of the object
+	 * @param key the key of the object
+	 * @param size the size of the object
+	 */
+	public void putEmpty(String bucketName, String key, long size) {
+		getBucket(bucketName).put(key, new StoredObject(size, null));
+	}
+
+	@Override
+	public List<Bucket> listBuckets() {
+		simulateLatency();
+		List<Bucket> result = new ArrayList<>();
+		for (String bucketName : this.buckets.keySet()) {
+			result.add(new Bucket(bucketName));
+		}
+		return result;
+	}
+
+	@Override
+	public PutObjectResult putObject(PutObjectRequest putObjectRequest) {
+		simulateLatency();
+		long size;
+		if (putObjectRequest.getFile() != null) {
+			size = drain(putObjectRequest.getFile().toPath(), 0, putObjectRequest.getFile().length());
+		}
+		else {
+			size = drain(putObjectRequest.getInputStream(), Long.MAX_VALUE);
+		}
+		StoredObject storedObject = new StoredObject(size, null);
+		getBucket(putObjectRequest.getBucketName()).put(putObjectRequest.getKey(), storedObject);
+		PutObjectResult result = new PutObjectResult();
+		result.setETag(storedObject.eTag);
+		return result;
+	}
+
+	@Override
+	public PutObjectResult putObject(String bucketName, String key, InputStream input, ObjectMetadata metadata) {
+		return putObject(new PutObjectRequest(bucketName, key, input, metadata));
+	}
+
+	@Override
+	public InitiateMultipartUploadResult initiateMultipartUpload(InitiateMultipartUploadRequest request) {
+		simulateLatency();
+		getBucket(request.getBucketName());
+		String uploadId = UUID.randomUUID().toString();
+		this.multipartUploads.put(uploadId, new AtomicLong());
+		InitiateMultipartUploadResult result = new InitiateMultipartUploadResult();
+		result.setBucketName(request.getBucketName());
+		result.setKey(request.getKey());
+		result.setUploadId(uploadId);
+		return result;
+	}
+
+	@Override
+	public UploadPartResult uploadPart(UploadPartRequest request) {
+		simulateLatency();
+		AtomicLong uploadedBytes = getMultipartUpload(request.getUploadId());
+		long size;
+		if (request.getFile() != null) {
+			size = drain(request.getFile().toPath(), request.getFileOffset(), request.getPartSize());
+		}
+		else {
+			try (InputStream inputStream = request.getInputStream()) {
+				size = drain(inputStream, request.getPartSize());
+			}
+			catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		uploadedBytes.addAndGet(size);
+		UploadPartResult result = new UploadPartResult();
+		result.setPartNumber(request.getPartNumber());
+		result.setETag(Long.toHexString(size));
+		return result;
+	}
+
+	@Override
+	public CompleteMultipartUploadResult completeMultipartUpload(CompleteMultipartUploadRequest request) {
+		simulateLatency();
+		AtomicLong uploadedBytes = getMultipartUpload(request.getUploadId());
+		this.multipartUploads.remove(request.getUploadId());
+		StoredObject storedObject = new StoredObject(uploadedBytes.get(), null);
+		getBucket(request.getBucketName()).put(request.getKey(), storedObject);
+		CompleteMultipartUploadResult result = new CompleteMultipartUploadResult();
+		result.setBucketName(request.getBucketName());
+		result.setKey(request.getKey());
+		result.setETag(storedObject.eTag);
+		return result;
+	}
+
+	@Override
+	public void abortMultipartUpload(AbortMultipartUploadRequest request) {
+		simulateLatency();
+		this.multipartUploads.remove(request.getUploadId());
+	}
+
+	@Override
+	public ObjectMetadata getObjectMetadata(GetObjectMetadataRequest getObjectMetadataRequest) {
+		simulateLatency();
+		return getStoredObject(getObjectMetadataRequest.getBucketName(), getObjectMetadataRequest.getKey())
+				.createMetadata(-1);
+	}
+
+	@Override
+	public S3Object getObject(GetObjectRequest getObjectRequest) {
+		simulateLatency();
+		StoredObject storedObject = getStoredObject(getObjectRequest.getBucketName(), getObjectRequest.getKey());
+		if (storedObject.content == null) {
+			throw new IllegalStateException("Object " + getObjectRequest.getKey() + " has been stored without content");
+		}
+		int start = 0;
+		int end = storedObject.content.length - 1;
+		long[] range = getObjectRequest.getRange();
+		if (range != null) {
+			start = (int) range[0];
+			end = (int) Math.min(range[1], end);
+		}
+		int length = end - start + 1;
+		S3Object s3Object = new S3Object();
+		s3Object.setBucketName(getObjectRequest.getBucketName());
+		s3Object.setKey(getObjectRequest.getKey());
+		s3Object.setObjectMetadata(storedObject.createMetadata(length));
+		s3Object.setObjectContent(
+				new S3ObjectInputStream(new ByteArrayInputStream(storedObject.content, start, length), null, false));
+		return s3Object;
+	}
+
+	@Override
+	public ListObjectsV2Result listObjectsV2(ListObjectsV2Request request) {
+		simulateLatency();
+		ConcurrentNavigableMap<String, StoredObject> bucket = getBucket(request.getBucketName());
+		String prefix = request.getPrefix() != null ? request.getPrefix() : "";
+		String delimiter = request.getDelimiter();
+		int maxKeys = request.getMaxKeys() != null ? Math.min(request.getMaxKeys(), MAX_KEYS) : MAX_KEYS;
+
+		ListObjectsV2Result result = new ListObjectsV2Result();
+		result.setBucketName(request.getBucketName());
+		result.setPrefix(request.getPrefix());
+		result.setDelimiter(delimiter);
+		result.setMaxKeys(maxKeys);
+
+		// The continuation token is the last key or common prefix of the previous page
+		String continuationToken = request.getContinuationToken();
+		ConcurrentNavigableMap<String, StoredObject> candidates = continuationToken != null
+				? bucket.tailMap(continuationToken, false) : bucket.tailMap(prefix, true);
+		String lastEntry = null;
+		int keyCount = 0;
+		for (Map.Entry<String, StoredObject> entry : candidates.entrySet()) {
+			String key = entry.getKey();
+			if (!key.startsWith(prefix)) {
+				break;
+			}
+			String commonPrefix = getCommonPrefix(key, prefix, delimiter);
+			if (commonPrefix != null && (commonPrefix.equals(lastEntry) || commonPrefix.equals(continuationToken))) {
+				continue;
+			}
+			if (keyCount == maxKeys) {
+				result.setTruncated(true);
+				result.setNextContinuationToken(lastEntry);
+				break;
+			}
+			if (commonPrefix != null) {
+				result.getCommonPrefixes().add(commonPrefix);
+				lastEntry = commonPrefix;
+			}
+			else {
+				result.getObjectSummaries().add(entry.getValue().createSummary(request.getBucketName(), key));
+				lastEntry = key;
+			}
+			keyCount++;
+		}
+		result.setKeyCount(keyCount);
+		return result;
+	}
+
+	private static String getCommonPrefix(String key, String prefix, String delimiter) {
+		if (delimiter == null || delimiter.isEmpty()) {
+			return null;
+		}
+		int index = key.indexOf(delimiter, prefix.length());
+		return index != -1 ? key.substring(0, index + delimiter.length()) : null;
+	}
+
+	private void simulateLatency() {
+		long latency = this.requestLatencyNanos;
+		if (latency > 0) {
+			LockSupport.parkNanos(latency);
+		}
+	}
+
+	private ConcurrentNavigableMap<String, StoredObject> getBucket(String bucketName) {
+		ConcurrentNavigableMap<String, StoredObject> bucket = this.buckets.get(bucketName);
+		if (bucket == null) {
+			throw createException(404, "NoSuchBucket", "The specified bucket does not exist");
+		}
+		return bucket;
+	}
+
+	private StoredObject getStoredObject(String bucketName, String key) {
+		StoredObject storedObject = getBucket(bucketName).get(key);
+		if (storedObject == null) {
+			throw createException(404, "NoSuchKey", "The specified key does not exist");
+		}
+		return storedObject;
+	}
+
+	private AtomicLong getMultipartUpload(String uploadId) {
+		AtomicLong uploadedBytes = this.multipartUploads.get(uploadId);
+		if (uploadedBytes == null) {
+			throw createException(404, "NoSuchUpload", "The specified upload does not exist");
+		}
+		return uploadedBytes;
+	}
+
+	private static AmazonS3Exception createException(int statusCode, String errorCode, String message) {
+		AmazonS3Exception exception = new AmazonS3Exception(message);
+		exception.setStatusCode(statusCode);
+		exception.setErrorCode(errorCode);
+		return exception;
+	}
+
+	private static long drain(InputStream inputStream, long maxBytes) {
+		byte[] buffer = DRAIN_BUFFER.get().array();
+		long total = 0;
+		try {
+			while (total < maxBytes) {
+				int read = inputStream.read(buffer, 0, (int) Math.min(buffer.length, maxBytes - total));
+				if (read == -1) {
+					break;
+				}
+				total += read;
+			}
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return total;
+	}
+
+	private static long drain(Path file, long offset, long length) {
+		ByteBuffer buffer = DRAIN_BUFFER.get();
+		long total = 0;
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			while (total < length) {
+				buffer.clear();
+				buffer.limit((int) Math.min(buffer.capacity(), length - total));
+				int read = channel.read(buffer, offset + total);
+				if (read == -1) {
+					break;
+				}
+				total += read;
+			}
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return total;
+	}
+
+	private static final class StoredObject {
+
+		private final long size;
+
+		private final byte[] content;
+
+		private final String eTag;
+
+		private final Date lastModified = new Date();
+
+		private StoredObject(long size, byte[] content) {
+			this.size = size;
+			this.content = content;
+			this.eTag = Long.toHexString(size) + "-" + Long.toHexString(System.nanoTime());
+		}
+
+		private ObjectMetadata createMetadata(long contentLength) {
+			ObjectMetadata metadata = new ObjectMetadata();
+			metadata.setContentLength(contentLength != -1 ? contentLength : this.size);
+			metadata.setLastModified(this.lastModified);
+			metadata.setHeader(Headers.ETAG, this.eTag);
+			return metadata;
+		}
+
+		private S3ObjectSummary createSummary(String bucketName, String key) {
+			S3ObjectSummary summary = new S3ObjectSummary();
+			summary.setBucketName(bucketName);
+			summary.setKey(key);
+			summary.setSize(this.size);
+			summary.setETag(this.eTag);
+			summary.setLastModified(this.lastModified);
+			return summary;
+		}
+
+	}
+
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.aws.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.cloud.aws.core.io.s3.PathMatchingSimpleStorageResourcePatternResolver;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+/**
+ * Measures the resolution of patterns in a deep prefix tree of 10,000 objects, which are
+ * stored under three levels of ten prefixes each, by the number of concurrent listings.
+ *
+ * @since 3.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PathMatchingResourceListingBenchmark {
+
+	private static final String BUCKET_NAME = "benchmark";
+
+	private static final int FAN_OUT = 10;
+
+	@Param({ "1", "8" })
+	int maxConcurrentListings;
+
+	@Param({ "0", "5" })
+	int requestLatencyMillis;
+
+	private ExecutorService executorService;
+
+	private PathMatchingSimpleStorageResourcePatternResolver resolver;
+
+	@Setup
+	public void setUp() {
+		InMemoryAmazonS3 amazonS3 = new InMemoryAmazonS3();
+		amazonS3.createBucket(BUCKET_NAME);
+		for (int first = 0; first < FAN_OUT; first++) {
+			for (int second = 0; second < FAN_OUT; second++) {
+				for (int third = 0; third < FAN_OUT; third++) {
+					for (int file = 0; file < FAN_OUT; file++) {
+						amazonS3.putEmpty(BUCKET_NAME, "data/dir-" + first + "/dir-" + second + "/dir-" + third
+								+ "/file-" + file + ".txt", 1024);
+					}
+				}
+			}
+		}
+		amazonS3.setRequestLatencyNanos(TimeUnit.MILLISECONDS.toNanos(this.requestLatencyMillis));
+
+		this.executorService = Executors.newFixedThreadPool(this.maxConcurrentListings);
+		this.resolver = new PathMatchingSimpleStorageResourcePatternResolver(amazonS3,
+				new PathMatchingResourcePatternResolver());
+		this.resolver.setTaskExecutor(this.executorService::execute);
+		this.resolver.setMaxConcurrentListings(this.maxConcurrentListings);
+	}
+
+	@TearDown
+	public void tearDown() {
+		this.executorService.shutdownNow();
+	}
+
+	@Benchmark
+	public Resource[] getAllResources() throws IOException {
+		return this.resolver.getResources("s3://" + BUCKET_NAME + "/data/**/*.txt");
+	}
+
+	@Benchmark
+	public Resource[] getResourcesOfWildcardPrefixes() throws IOException {
+		return this.resolver.getResources("s3://" + BUCKET_NAME + "/data/dir-*/dir-3/*/file-1.txt");
+	}
+
+	@Benchmark
+	public long streamAllResources() throws IOException {
+		try (Stream<Resource> resources = this.resolver.streamResources("s3://" + BUCKET_NAME + "/data/**/*.txt")) {
+			return resources.count();
+		}
+	}
+
+}
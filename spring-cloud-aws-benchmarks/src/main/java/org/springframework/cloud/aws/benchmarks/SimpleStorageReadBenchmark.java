@@ -0,0 +1,133 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.aws.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import org.springframework.cloud.aws.core.io.s3.SimpleStorageResource;
+
+/**
+ * Measures sequential reads of a 64 MB object through the input stream of a resource by
+ * the number of ranges that are downloaded in parallel, and random reads of small blocks
+ * through its {@link SimpleStorageResource#readableChannel() channel}.
+ *
+ * @since 3.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SimpleStorageReadBenchmark {
+
+	private static final String BUCKET_NAME = "benchmark";
+
+	private static final int OBJECT_SIZE = 64 * 1024 * 1024;
+
+	private static final int READ_SIZE = 64 * 1024;
+
+	private static final int RANDOM_READ_SIZE = 4 * 1024;
+
+	private static final int RANDOM_READS = 64;
+
+	@Param({ "1", "4" })
+	int maxConcurrentDownloadRanges;
+
+	@Param({ "0", "10" })
+	int requestLatencyMillis;
+
+	private ExecutorService executorService;
+
+	private SimpleStorageResource resource;
+
+	private byte[] buffer;
+
+	private long[] randomPositions;
+
+	@Setup
+	public void setUp() {
+		byte[] content = new byte[OBJECT_SIZE];
+		Random random = new Random(42);
+		random.nextBytes(content);
+		InMemoryAmazonS3 amazonS3 = new InMemoryAmazonS3();
+		amazonS3.createBucket(BUCKET_NAME);
+		amazonS3.putContent(BUCKET_NAME, "read", content);
+		amazonS3.setRequestLatencyNanos(TimeUnit.MILLISECONDS.toNanos(this.requestLatencyMillis));
+
+		this.executorService = Executors.newFixedThreadPool(this.maxConcurrentDownloadRanges);
+		this.resource = new SimpleStorageResource(amazonS3, BUCKET_NAME, "read", this.executorService::execute);
+		this.resource.setMaxConcurrentDownloadRanges(this.maxConcurrentDownloadRanges);
+
+		this.buffer = new byte[READ_SIZE];
+		this.randomPositions = new long[RANDOM_READS];
+		for (int i = 0; i < RANDOM_READS; i++) {
+			this.randomPositions[i] = (long) random.nextInt(OBJECT_SIZE - RANDOM_READ_SIZE);
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		this.executorService.shutdownNow();
+	}
+
+	@Benchmark
+	public long readInputStream() throws IOException {
+		long total = 0;
+		try (InputStream inputStream = this.resource.getInputStream()) {
+			int read;
+			while ((read = inputStream.read(this.buffer)) != -1) {
+				total += read;
+			}
+		}
+		return total;
+	}
+
+	@Benchmark
+	public void readChannelRandomBlocks(Blackhole blackhole) throws IOException {
+		ByteBuffer block = ByteBuffer.wrap(this.buffer, 0, RANDOM_READ_SIZE);
+		try (SeekableByteChannel channel = this.resource.readableChannel()) {
+			for (long position : this.randomPositions) {
+				block.clear().limit(RANDOM_READ_SIZE);
+				channel.position(position);
+				blackhole.consume(channel.read(block));
+			}
+		}
+	}
+
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.aws.benchmarks;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.cloud.aws.core.io.s3.SimpleStorageResource;
+
+/**
+ * Measures the throughput of multipart uploads of a 64 MB object by part size and the
+ * number of parts that are uploaded concurrently, both for the output stream of a
+ * resource and for {@link SimpleStorageResource#upload(Path) file uploads}. The score is
+ * in uploads per second, so that 64 times the score is the throughput in MB/s.
+ *
+ * @since 3.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SimpleStorageUploadBenchmark {
+
+	private static final String BUCKET_NAME = "benchmark";
+
+	private static final int OBJECT_SIZE = 64 * 1024 * 1024;
+
+	private static final int WRITE_SIZE = 64 * 1024;
+
+	@Param({ "5", "16" })
+	int uploadPartSizeMegabytes;
+
+	@Param({ "1", "4" })
+	int maxConcurrentUploadParts;
+
+	@Param({ "0", "10" })
+	int requestLatencyMillis;
+
+	private ExecutorService executorService;
+
+	private SimpleStorageResource resource;
+
+	private byte[] chunk;
+
+	private Path file;
+
+	@Setup
+	public void setUp() throws IOException {
+		InMemoryAmazonS3 amazonS3 = new InMemoryAmazonS3();
+		amazonS3.createBucket(BUCKET_NAME);
+		amazonS3.setRequestLatencyNanos(TimeUnit.MILLISECONDS.toNanos(this.requestLatencyMillis));
+
+		this.executorService = Executors.newFixedThreadPool(this.maxConcurrentUploadParts);
+		this.resource = new SimpleStorageResource(amazonS3, BUCKET_NAME, "upload", this.executorService::execute);
+		this.resource.setUploadPartSize(this.uploadPartSizeMegabytes * 1024 * 1024);
+		this.resource.setMaxConcurrentUploadParts(this.maxConcurrentUploadParts);
+
+		this.chunk = new byte[WRITE_SIZE];
+		new Random(42).nextBytes(this.chunk);
+		this.file = Files.createTempFile("upload-benchmark", ".bin");
+		try (OutputStream outputStream = Files.newOutputStream(this.file)) {
+			for (int written = 0; written < OBJECT_SIZE; written += WRITE_SIZE) {
+				outputStream.write(this.chunk);
+			}
+		}
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		this.executorService.shutdownNow();
+		Files.deleteIfExists(this.file);
+	}
+
+	@Benchmark
+	public void outputStream() throws IOException {
+		try (OutputStream outputStream = this.resource.getOutputStream()) {
+			for (int written = 0; written < OBJECT_SIZE; written += WRITE_SIZE) {
+				outputStream.write(this.chunk);
+			}
+		}
+	}
+
+	@Benchmark
+	public void uploadFile() throws IOException {
+		this.resource.upload(this.file);
+	}
+
+}
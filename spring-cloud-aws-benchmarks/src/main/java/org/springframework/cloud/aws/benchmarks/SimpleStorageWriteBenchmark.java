@@ -0,0 +1,91 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.aws.benchmarks;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.cloud.aws.core.io.s3.SimpleStorageResource;
+import org.springframework.core.task.SyncTaskExecutor;
+
+/**
+ * Compares the cost of writing an object byte by byte with writing it in chunks through
+ * the output stream of a resource. Objects up to the part size are uploaded with a single
+ * request, larger ones with a multipart upload.
+ *
+ * @since 3.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SimpleStorageWriteBenchmark {
+
+	private static final String BUCKET_NAME = "benchmark";
+
+	@Param({ "1024", "1048576", "16777216" })
+	int objectSize;
+
+	@Param({ "8192" })
+	int chunkSize;
+
+	private SimpleStorageResource resource;
+
+	private byte[] chunk;
+
+	@Setup
+	public void setUp() {
+		InMemoryAmazonS3 amazonS3 = new InMemoryAmazonS3();
+		amazonS3.createBucket(BUCKET_NAME);
+		this.resource = new SimpleStorageResource(amazonS3, BUCKET_NAME, "write", new SyncTaskExecutor());
+		this.chunk = new byte[this.chunkSize];
+	}
+
+	@Benchmark
+	public void writeSingleBytes() throws IOException {
+		try (OutputStream outputStream = this.resource.getOutputStream()) {
+			for (int i = 0; i < this.objectSize; i++) {
+				outputStream.write(i);
+			}
+		}
+	}
+
+	@Benchmark
+	public void writeChunks() throws IOException {
+		try (OutputStream outputStream = this.resource.getOutputStream()) {
+			for (int written = 0; written < this.objectSize; written += this.chunk.length) {
+				outputStream.write(this.chunk, 0, Math.min(this.chunk.length, this.objectSize - written));
+			}
+		}
+	}
+
+}
@@ -103,6 +103,20 @@ public class AmazonS3ClientFactory {
 		String region = bucketRegion != null ? bucketRegion.getName() : getRegion(endpointUrl);
 		Assert.notNull(region, "Error detecting region from endpoint url:'" + endpointUrl + "'");
 
+		return createClientForRegion(prototype, region);
+	}
+
+	/**
+	 * Returns the cached client for the region, creates it with the credentials of the
+	 * prototype if needed.
+	 * @param prototype the client providing the credentials
+	 * @param region the name of the region
+	 * @return the client for the region
+	 */
+	AmazonS3 createClientForRegion(AmazonS3 prototype, String region) {
+		Assert.notNull(prototype, "AmazonS3 must not be null");
+		Assert.hasText(region, "Region must not be empty");
+
 		if (!this.clientCache.containsKey(region)) {
 			AmazonS3ClientBuilder amazonS3ClientBuilder = buildAmazonS3ForRegion(prototype, region);
 			this.clientCache.putIfAbsent(region, amazonS3ClientBuilder.build());
@@ -16,6 +16,10 @@
 
 package org.springframework.cloud.aws.core.io.s3;
 
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.util.Map;
+
 import com.amazonaws.regions.Regions;
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.model.AmazonS3Exception;
@@ -30,7 +34,9 @@ import org.springframework.aop.framework.ProxyFactory;
 import org.springframework.aop.support.AopUtils;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.ReflectionUtils;
+import org.springframework.util.StringUtils;
 
 /**
  * Proxy to wrap an {@link AmazonS3} handler and handle redirects wrapped inside
@@ -42,6 +48,10 @@ import org.springframework.util.ReflectionUtils;
  */
 public final class AmazonS3ProxyFactory {
 
+	// Proxies are shared per client, so that all resources of a client share the cached
+	// bucket regions and region specific clients
+	private static final Map<AmazonS3, AmazonS3> PROXIES = new ConcurrentReferenceHashMap<>();
+
 	private AmazonS3ProxyFactory() {
 		throw new IllegalStateException("Can't instantiate a utility class");
 	}
@@ -52,7 +62,8 @@ public final class AmazonS3ProxyFactory {
 	 * uses the amazonS3 parameter as a "prototype" and re-uses the credentials from the
 	 * passed in {@link AmazonS3} instance. Proxy implementations uses the
 	 * {@link AmazonS3ClientFactory} to create region specific clients, which are cached
-	 * by the implementation on a region basis to avoid unnecessary object creation.
+	 * by the implementation on a region basis to avoid unnecessary object creation. The
+	 * proxy of a client is created once and shared by all callers.
 	 * @param amazonS3 Fully configured AmazonS3 client, the client can be an immutable
 	 * instance (created by the {@link com.amazonaws.services.s3.AmazonS3ClientBuilder})
 	 * as this proxy will not change the underlying implementation.
@@ -82,6 +93,10 @@ public final class AmazonS3ProxyFactory {
 			return amazonS3;
 		}
 
+		return PROXIES.computeIfAbsent(amazonS3, AmazonS3ProxyFactory::createRedirectProxy);
+	}
+
+	private static AmazonS3 createRedirectProxy(AmazonS3 amazonS3) {
 		ProxyFactory factory = new ProxyFactory(amazonS3);
 		factory.setInterfaces(AmazonS3.class);
 		factory.addAdvice(new SimpleStorageRedirectInterceptor(amazonS3));
@@ -89,10 +104,45 @@ public final class AmazonS3ProxyFactory {
 		return (AmazonS3) factory.getProxy();
 	}
 
+	/**
+	 * Returns the bucket region cache of a proxy created by {@link #createProxy(AmazonS3)}.
+	 * @param amazonS3 the proxy
+	 * @return the cache or {@code null} if the client is not a redirect proxy
+	 */
+	static SimpleStorageBucketRegionCache getBucketRegionCache(AmazonS3 amazonS3) {
+		if (AopUtils.isAopProxy(amazonS3)) {
+			for (Advisor advisor : ((Advised) amazonS3).getAdvisors()) {
+				if (advisor.getAdvice() instanceof SimpleStorageRedirectInterceptor) {
+					return ((SimpleStorageRedirectInterceptor) advisor.getAdvice()).bucketRegionCache;
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Records the redirects of a proxy created by {@link #createProxy(AmazonS3)} with the
+	 * given metrics. The proxy is shared, so the metrics receive the redirects of all
+	 * requests of the client.
+	 * @param amazonS3 the proxy
+	 * @param metrics the metrics for the redirects
+	 */
+	static void setMetrics(AmazonS3 amazonS3, SimpleStorageMetrics metrics) {
+		if (AopUtils.isAopProxy(amazonS3)) {
+			for (Advisor advisor : ((Advised) amazonS3).getAdvisors()) {
+				if (advisor.getAdvice() instanceof SimpleStorageRedirectInterceptor) {
+					((SimpleStorageRedirectInterceptor) advisor.getAdvice()).metrics = metrics;
+				}
+			}
+		}
+	}
+
 	/**
 	 * {@link MethodInterceptor} implementation that is handles redirect which are
 	 * {@link AmazonS3Exception} with a return code of 301. This class creates a region
-	 * specific client for the redirected endpoint.
+	 * specific client for the redirected endpoint. The region of a redirected bucket is
+	 * remembered, so that later calls for the bucket are sent to the region specific
+	 * client directly instead of being redirected again.
 	 *
 	 * @author Greg Turnquist
 	 * @author Agim Emruli
@@ -103,23 +153,56 @@ public final class AmazonS3ProxyFactory {
 
 		private static final Logger LOGGER = LoggerFactory.getLogger(SimpleStorageRedirectInterceptor.class);
 
+		private static final String BUCKET_REGION_DETAIL = "x-amz-bucket-region";
+
 		private final AmazonS3 amazonS3;
 
 		private final AmazonS3ClientFactory amazonS3ClientFactory;
 
+		private final SimpleStorageBucketRegionCache bucketRegionCache = new SimpleStorageBucketRegionCache();
+
+		private volatile String defaultRegion;
+
+		private volatile SimpleStorageMetrics metrics;
+
 		private SimpleStorageRedirectInterceptor(AmazonS3 amazonS3) {
+			this(amazonS3, new AmazonS3ClientFactory());
+		}
+
+		SimpleStorageRedirectInterceptor(AmazonS3 amazonS3, AmazonS3ClientFactory amazonS3ClientFactory) {
 			this.amazonS3 = amazonS3;
-			this.amazonS3ClientFactory = new AmazonS3ClientFactory();
+			this.amazonS3ClientFactory = amazonS3ClientFactory;
 		}
 
 		@Override
 		public Object invoke(MethodInvocation invocation) throws Throwable {
+			String bucketName = getBucketName(invocation.getMethod(), invocation.getArguments());
+			AmazonS3 regionClient = getClientForBucket(bucketName);
+			if (regionClient != null) {
+				try {
+					return ReflectionUtils.invokeMethod(invocation.getMethod(), regionClient,
+							invocation.getArguments());
+				}
+				catch (AmazonS3Exception e) {
+					if (301 != e.getStatusCode()) {
+						throw e;
+					}
+					// The bucket has been re-created in another region
+					this.bucketRegionCache.evict(bucketName);
+				}
+			}
+
 			try {
 				return invocation.proceed();
 			}
 			catch (AmazonS3Exception e) {
 				if (301 == e.getStatusCode()) {
+					SimpleStorageMetrics metrics = this.metrics;
+					if (metrics != null) {
+						metrics.recordRedirect(bucketName);
+					}
 					AmazonS3 redirectClient = buildAmazonS3ForRedirectLocation(this.amazonS3, e);
+					rememberBucketRegion(bucketName, e);
 					return ReflectionUtils.invokeMethod(invocation.getMethod(), redirectClient,
 							invocation.getArguments());
 				}
@@ -129,6 +212,85 @@ public final class AmazonS3ProxyFactory {
 			}
 		}
 
+		/**
+		 * Returns the region specific client for a bucket with a known region that is
+		 * different from the region of the default client.
+		 */
+		private AmazonS3 getClientForBucket(String bucketName) {
+			String region = bucketName != null ? this.bucketRegionCache.getRegion(bucketName) : null;
+			if (region == null) {
+				return null;
+			}
+			String defaultRegion = getDefaultRegion();
+			if (defaultRegion == null || region.equals(defaultRegion)) {
+				return null;
+			}
+			return this.amazonS3ClientFactory.createClientForRegion(this.amazonS3, region);
+		}
+
+		/**
+		 * Returns the region of the default client or {@code null} if the client does
+		 * not use an AWS endpoint (e.g. a local S3 compatible storage), calls are never
+		 * routed to region specific AWS clients then.
+		 */
+		private String getDefaultRegion() {
+			if (this.defaultRegion == null) {
+				String region = null;
+				try {
+					URL url = this.amazonS3.getUrl("bucket", "key");
+					if (url != null && isAwsHost(url.getHost())) {
+						region = this.amazonS3.getRegionName();
+					}
+				}
+				catch (RuntimeException e) {
+					LOGGER.debug("Could not determine the region of the Amazon S3 client", e);
+				}
+				// Empty if unknown, to resolve the region only once
+				this.defaultRegion = region != null ? region : "";
+			}
+			return StringUtils.hasText(this.defaultRegion) ? this.defaultRegion : null;
+		}
+
+		private static boolean isAwsHost(String host) {
+			return host != null && (host.endsWith(".amazonaws.com") || host.endsWith(".amazonaws.com.cn"));
+		}
+
+		private void rememberBucketRegion(String bucketName, AmazonS3Exception e) {
+			String region = e.getAdditionalDetails() != null ? e.getAdditionalDetails().get(BUCKET_REGION_DETAIL)
+					: null;
+			if (bucketName != null && StringUtils.hasText(region)) {
+				this.bucketRegionCache.putRegion(bucketName, region);
+			}
+		}
+
+		/**
+		 * Returns the bucket a call is sent to, which is either the first argument of the
+		 * methods taking a bucket name or the bucket of the request object. Copies are
+		 * sent to the destination bucket, so its region is the one that is used and
+		 * remembered.
+		 */
+		private static String getBucketName(Method method, Object[] arguments) {
+			if (arguments.length == 0 || arguments[0] == null) {
+				return null;
+			}
+			if (arguments[0] instanceof String) {
+				if ("copyObject".equals(method.getName()) && arguments.length == 4) {
+					return (String) arguments[2];
+				}
+				return (String) arguments[0];
+			}
+			String bucketName = invokeStringGetter(arguments[0], "getDestinationBucketName");
+			return bucketName != null ? bucketName : invokeStringGetter(arguments[0], "getBucketName");
+		}
+
+		private static String invokeStringGetter(Object target, String name) {
+			Method getter = ReflectionUtils.findMethod(target.getClass(), name);
+			if (getter == null || getter.getReturnType() != String.class) {
+				return null;
+			}
+			return (String) ReflectionUtils.invokeMethod(getter, target);
+		}
+
 		/**
 		 * Builds a new S3 client based on the information from the
 		 * {@link AmazonS3Exception}. Extracts from the exception's additional details the
@@ -144,7 +306,7 @@ public final class AmazonS3ProxyFactory {
 			try {
 				Regions redirectRegion;
 				try {
-					redirectRegion = Regions.fromName(e.getAdditionalDetails().get("x-amz-bucket-region"));
+					redirectRegion = Regions.fromName(e.getAdditionalDetails().get(BUCKET_REGION_DETAIL));
 				}
 				catch (IllegalArgumentException iae) {
 					redirectRegion = null;
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.aws.core.io.s3;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.BaseUnits;
+
+import org.springframework.util.Assert;
+
+/**
+ * {@link SimpleStorageMetrics} that records the measurements as Micrometer meters. All
+ * meters except {@code aws.s3.resolution.listing.requests} are tagged with the bucket.
+ * <ul>
+ * <li>{@code aws.s3.bytes.read} and {@code aws.s3.bytes.written}: counters of the
+ * transferred bytes</li>
+ * <li>{@code aws.s3.upload.part}: timer of part uploads, tagged with the outcome
+ * {@code success} or {@code error}</li>
+ * <li>{@code aws.s3.upload.part.retries}: counter of retried part upload requests</li>
+ * <li>{@code aws.s3.upload.parts.active}: gauge of the parts that are being uploaded</li>
+ * <li>{@code aws.s3.head.requests}: counter of metadata requests</li>
+ * <li>{@code aws.s3.redirects}: counter of requests redirected to another region</li>
+ * <li>{@code aws.s3.resolution.listing.requests}: distribution of the listing requests
+ * per resolved location pattern</li>
+ * </ul>
+ *
+ * @since 3.0
+ */
+public class MicrometerSimpleStorageMetrics implements SimpleStorageMetrics {
+
+	private static final String BUCKET_TAG = "bucket";
+
+	private final MeterRegistry meterRegistry;
+
+	private final Map<String, AtomicInteger> activePartUploads = new ConcurrentHashMap<>();
+
+	public MicrometerSimpleStorageMetrics(MeterRegistry meterRegistry) {
+		Assert.notNull(meterRegistry, "MeterRegistry must not be null");
+		this.meterRegistry = meterRegistry;
+	}
+
+	@Override
+	public void recordBytesRead(String bucketName, long bytes) {
+		Counter.builder("aws.s3.bytes.read").description("Bytes downloaded from Amazon S3").baseUnit(BaseUnits.BYTES)
+				.tag(BUCKET_TAG, bucketName).register(this.meterRegistry).increment(bytes);
+	}
+
+	@Override
+	public void recordBytesWritten(String bucketName, long bytes) {
+		Counter.builder("aws.s3.bytes.written").description("Bytes uploaded to Amazon S3").baseUnit(BaseUnits.BYTES)
+				.tag(BUCKET_TAG, bucketName).register(this.meterRegistry).increment(bytes);
+	}
+
+	@Override
+	public void partUploadStarted(String bucketName) {
+		getActivePartUploads(bucketName).incrementAndGet();
+	}
+
+	@Override
+	public void partUploadFinished(String bucketName, long durationNanos, int retries, boolean successful) {
+		getActivePartUploads(bucketName).decrementAndGet();
+		Timer.builder("aws.s3.upload.part").description("Uploads of parts of multipart uploads")
+				.tag(BUCKET_TAG, bucketName).tag("outcome", successful ? "success" : "error")
+				.register(this.meterRegistry).record(durationNanos, TimeUnit.NANOSECONDS);
+		if (retries > 0) {
+			Counter.builder("aws.s3.upload.part.retries").description("Retried part upload requests")
+					.tag(BUCKET_TAG, bucketName).register(this.meterRegistry).increment(retries);
+		}
+	}
+
+	@Override
+	public void recordHeadRequest(String bucketName) {
+		Counter.builder("aws.s3.head.requests").description("Requests for the metadata of objects")
+				.tag(BUCKET_TAG, bucketName).register(this.meterRegistry).increment();
+	}
+
+	@Override
+	public void recordRedirect(String bucketName) {
+		Counter.builder("aws.s3.redirects").description("Requests redirected to the region of a bucket")
+				.tag(BUCKET_TAG, bucketName != null ? bucketName : "none").register(this.meterRegistry).increment();
+	}
+
+	@Override
+	public void recordResolution(int listingRequests) {
+		DistributionSummary.builder("aws.s3.resolution.listing.requests")
+				.description("Listing requests per resolved location pattern").register(this.meterRegistry)
+				.record(listingRequests);
+	}
+
+	private AtomicInteger getActivePartUploads(String bucketName) {
+		return this.activePartUploads.computeIfAbsent(bucketName, name -> {
+			AtomicInteger activePartUploads = new AtomicInteger();
+			Gauge.builder("aws.s3.upload.parts.active", activePartUploads, AtomicInteger::get)
+					.description("Parts of multipart uploads that are being uploaded").tag(BUCKET_TAG, name)
+					.register(this.meterRegistry);
+			return activePartUploads;
+		});
+	}
+
+}
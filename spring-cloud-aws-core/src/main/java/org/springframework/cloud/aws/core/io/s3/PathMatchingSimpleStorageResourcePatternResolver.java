@@ -17,23 +17,41 @@
 package org.springframework.cloud.aws.core.io.s3;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
-
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.amazonaws.AmazonClientException;
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.model.AmazonS3Exception;
 import com.amazonaws.services.s3.model.Bucket;
-import com.amazonaws.services.s3.model.ListObjectsRequest;
-import com.amazonaws.services.s3.model.ObjectListing;
+import com.amazonaws.services.s3.model.ListObjectsV2Request;
+import com.amazonaws.services.s3.model.ListObjectsV2Result;
 import com.amazonaws.services.s3.model.S3ObjectSummary;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.util.AntPathMatcher;
 import org.springframework.util.Assert;
 import org.springframework.util.PathMatcher;
@@ -50,6 +68,16 @@ import org.springframework.util.StringUtils;
  * performance problems. For more information look at the
  * {@code findProgressivelyWithPartialMatch} method.
  * </p>
+ * <p>
+ * Prefixes of a bucket are listed one after another by default. With
+ * {@link #setMaxConcurrentListings(int)} sibling prefixes are listed concurrently, which
+ * speeds up the resolution of patterns over many prefixes (e.g. date partitioned keys).
+ * The resources are returned in the same order in both modes.
+ * </p>
+ * <p>
+ * For very large result sets {@link #streamResources(String)} resolves a pattern lazily
+ * without collecting all matching resources in memory.
+ * </p>
  *
  * @author Alain Sahli
  * @author Agim Emruli
@@ -66,6 +94,12 @@ public class PathMatchingSimpleStorageResourcePatternResolver implements Resourc
 
 	private PathMatcher pathMatcher = new AntPathMatcher();
 
+	private TaskExecutor taskExecutor = new SimpleAsyncTaskExecutor("s3-listing-");
+
+	private int maxConcurrentListings = 1;
+
+	private SimpleStorageMetrics metrics;
+
 	/**
 	 * Construct a new instance of the
 	 * {@link PathMatchingSimpleStorageResourcePatternResolver} with a
@@ -94,6 +128,41 @@ public class PathMatchingSimpleStorageResourcePatternResolver implements Resourc
 		this.pathMatcher = pathMatcher;
 	}
 
+	/**
+	 * Set the task executor that lists prefixes concurrently if
+	 * {@link #setMaxConcurrentListings(int) concurrent listings} are enabled. Default is a
+	 * {@link SimpleAsyncTaskExecutor}.
+	 * @param taskExecutor the task executor used for listings, must not be null
+	 */
+	public void setTaskExecutor(TaskExecutor taskExecutor) {
+		Assert.notNull(taskExecutor, "TaskExecutor must not be null");
+		this.taskExecutor = taskExecutor;
+	}
+
+	/**
+	 * Set the maximum number of prefixes of a bucket that are listed at the same time,
+	 * which also bounds the concurrent region lookups of buckets that match a wildcard
+	 * bucket name. Default is 1 which sends all requests one after another.
+	 * @param maxConcurrentListings the maximum number of concurrent listing requests
+	 */
+	public void setMaxConcurrentListings(int maxConcurrentListings) {
+		Assert.isTrue(maxConcurrentListings > 0, "maxConcurrentListings must be greater than 0");
+		this.maxConcurrentListings = maxConcurrentListings;
+	}
+
+	/**
+	 * Set the metrics that record the number of listing requests per resolved pattern
+	 * and the redirects of the requests to the region of a bucket. Streams of
+	 * {@link #streamResources(String)} are recorded once they are consumed completely.
+	 * @param metrics the metrics, may be {@code null} to disable metrics
+	 */
+	public void setMetrics(SimpleStorageMetrics metrics) {
+		this.metrics = metrics;
+		if (metrics != null) {
+			AmazonS3ProxyFactory.setMetrics(this.amazonS3, metrics);
+		}
+	}
+
 	@Override
 	public Resource[] getResources(String locationPattern) throws IOException {
 		if (SimpleStorageNameUtils.isSimpleStorageResource(locationPattern)) {
@@ -110,6 +179,52 @@ public class PathMatchingSimpleStorageResourcePatternResolver implements Resourc
 		}
 	}
 
+	/**
+	 * Resolve the given location pattern into a lazily populated stream of resources.
+	 * In contrast to {@link #getResources(String)} the matching S3 resources are not
+	 * collected in memory, the listings are requested page by page while the stream is
+	 * consumed. This allows to process buckets with millions of objects in constant
+	 * memory. Prefixes are always listed sequentially and no duplicates are removed.
+	 * Non-S3 locations are resolved with the delegate resolver.
+	 * @param locationPattern the location pattern to resolve
+	 * @return a sequential stream of the matching resources
+	 * @throws IOException in case of I/O errors of the delegate resolver
+	 */
+	public Stream<Resource> streamResources(String locationPattern) throws IOException {
+		if (SimpleStorageNameUtils.isSimpleStorageResource(locationPattern)
+				&& this.pathMatcher.isPattern(SimpleStorageNameUtils.stripProtocol(locationPattern))) {
+			return streamPathMatchingResources(locationPattern);
+		}
+		return Arrays.stream(getResources(locationPattern));
+	}
+
+	protected Stream<Resource> streamPathMatchingResources(String locationPattern) {
+		String bucketPattern = SimpleStorageNameUtils.getBucketNameFromLocation(locationPattern);
+		String keyPattern = SimpleStorageNameUtils.getObjectNameFromLocation(locationPattern);
+		List<String> matchingBuckets;
+		if (this.pathMatcher.isPattern(bucketPattern)) {
+			matchingBuckets = findMatchingBuckets(bucketPattern);
+			// See findPathMatchingResources
+			if (bucketPattern.startsWith("**")) {
+				keyPattern = "**/" + keyPattern;
+			}
+		}
+		else {
+			matchingBuckets = Collections.singletonList(bucketPattern);
+		}
+
+		if (!this.pathMatcher.isPattern(keyPattern)) {
+			String objectName = keyPattern;
+			return matchingBuckets.stream()
+					.map(bucketName -> this.resourcePatternResolverDelegate
+							.getResource(SimpleStorageNameUtils.getLocationForBucketAndObject(bucketName, objectName)))
+					.filter(Resource::exists);
+		}
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(
+				new PathMatchingResourceIterator(matchingBuckets, keyPattern), Spliterator.ORDERED | Spliterator.NONNULL),
+				false);
+	}
+
 	protected Resource[] findPathMatchingResources(String locationPattern) {
 		// Separate the bucket and key patterns as each one uses a different aws API for
 		// resolving.
@@ -140,11 +255,20 @@ public class PathMatchingSimpleStorageResourcePatternResolver implements Resourc
 	}
 
 	private Set<Resource> findPathMatchingKeys(String keyPattern, List<String> matchingBuckets) {
-		Set<Resource> resources = new HashSet<>();
+		Set<Resource> resources = new LinkedHashSet<>();
 		if (this.pathMatcher.isPattern(keyPattern)) {
+			int listingRequests = 0;
 			for (String bucketName : matchingBuckets) {
-				findPathMatchingKeyInBucket(bucketName, resources, getValidPrefix(keyPattern), keyPattern);
+				if (this.maxConcurrentListings > 1) {
+					listingRequests += new ConcurrentPrefixListing(bucketName, keyPattern)
+							.findResources(getValidPrefix(keyPattern), resources);
+				}
+				else {
+					listingRequests += findProgressivelyWithPartialMatch(bucketName, resources,
+							getValidPrefix(keyPattern), keyPattern);
+				}
 			}
+			recordResolution(listingRequests);
 		}
 		else {
 			for (String matchingBucket : matchingBuckets) {
@@ -167,83 +291,55 @@ public class PathMatchingSimpleStorageResourcePatternResolver implements Resourc
 		return beforeIndex.contains("/") ? beforeIndex.substring(0, beforeIndex.lastIndexOf('/') + 1) : null;
 	}
 
-	private void findPathMatchingKeyInBucket(String bucketName, Set<Resource> resources, String prefix,
-			String keyPattern) {
+	/**
+	 * Returns the prefix of the listing request for a prefix of the traversal. The
+	 * literal part of the pattern that follows the prefix is appended up to the first
+	 * wildcard, so that only keys and common prefixes that can match are listed (e.g.
+	 * {@code logs/2020-} instead of {@code logs/} for the pattern {@code logs/2020-*.gz}).
+	 */
+	private String getListingPrefix(String prefix, String keyPattern) {
 		String remainingPatternPart = getRemainingPatternPart(keyPattern, prefix);
-		if (remainingPatternPart != null && remainingPatternPart.startsWith("**")) {
-			findAllResourcesThatMatches(bucketName, resources, prefix, keyPattern);
-		}
-		else {
-			findProgressivelyWithPartialMatch(bucketName, resources, prefix, keyPattern);
+		if (remainingPatternPart == null) {
+			return prefix;
 		}
-	}
-
-	private void findAllResourcesThatMatches(String bucketName, Set<Resource> resources, String prefix,
-			String keyPattern) {
-		ListObjectsRequest listObjectsRequest = new ListObjectsRequest().withBucketName(bucketName).withPrefix(prefix);
-		ObjectListing objectListing = null;
-
-		do {
-			try {
-				if (objectListing == null) {
-					objectListing = this.amazonS3.listObjects(listObjectsRequest);
-				}
-				else {
-					objectListing = this.amazonS3.listNextBatchOfObjects(objectListing);
-				}
-				Set<Resource> newResources = getResourcesFromObjectSummaries(bucketName, keyPattern,
-						objectListing.getObjectSummaries());
-				if (!newResources.isEmpty()) {
-					resources.addAll(newResources);
-				}
-			}
-			catch (AmazonS3Exception e) {
-				if (301 != e.getStatusCode()) {
-					throw e;
-				}
+		int wildcardIndex = remainingPatternPart.length();
+		for (char wildcard : new char[] { '*', '?', '{' }) {
+			int index = remainingPatternPart.indexOf(wildcard);
+			if (index != -1 && index < wildcardIndex) {
+				wildcardIndex = index;
 			}
 		}
-		while (objectListing != null && objectListing.isTruncated());
+		if (wildcardIndex == 0) {
+			return prefix;
+		}
+		return (prefix != null ? prefix : "") + remainingPatternPart.substring(0, wildcardIndex);
 	}
 
 	/**
 	 * Searches for matching keys progressively. This means that instead of retrieving all
 	 * keys given a prefix, it goes down one level at a time and filters out all
-	 * non-matching results. This avoids a lot of unused requests results. WARNING: This
-	 * method does not truncate results. Therefore all matching resources will be returned
-	 * regardless of the truncation.
+	 * non-matching results. This avoids a lot of unused requests results. If the
+	 * remaining pattern starts with '**' all keys below the prefix are listed at once.
+	 * WARNING: This method does not truncate results. Therefore all matching resources
+	 * will be returned regardless of the truncation.
 	 * @param bucketName name of the bucket
 	 * @param resources retrieved resources
 	 * @param prefix bucket prefix
 	 * @param keyPattern pattern for key
+	 * @return the number of listing requests
 	 */
-	private void findProgressivelyWithPartialMatch(String bucketName, Set<Resource> resources, String prefix,
+	private int findProgressivelyWithPartialMatch(String bucketName, Set<Resource> resources, String prefix,
 			String keyPattern) {
-		ListObjectsRequest listObjectsRequest = new ListObjectsRequest().withBucketName(bucketName).withDelimiter("/")
-				.withPrefix(prefix);
-		ObjectListing objectListing = null;
-
-		do {
-			if (objectListing == null) {
-				objectListing = this.amazonS3.listObjects(listObjectsRequest);
-			}
-			else {
-				objectListing = this.amazonS3.listNextBatchOfObjects(objectListing);
-			}
-
-			Set<Resource> newResources = getResourcesFromObjectSummaries(bucketName, keyPattern,
-					objectListing.getObjectSummaries());
-			if (!newResources.isEmpty()) {
-				resources.addAll(newResources);
-			}
-
-			for (String commonPrefix : objectListing.getCommonPrefixes()) {
-				if (isKeyPathMatchesPartially(keyPattern, commonPrefix)) {
-					findPathMatchingKeyInBucket(bucketName, resources, commonPrefix, keyPattern);
-				}
+		PrefixListing prefixListing = listPrefix(bucketName, prefix, keyPattern);
+		int listingRequests = prefixListing.requests;
+		for (PrefixListingPage page : prefixListing.pages) {
+			resources.addAll(page.resources);
+			for (String matchingPrefix : page.matchingPrefixes) {
+				listingRequests += findProgressivelyWithPartialMatch(bucketName, resources, matchingPrefix,
+						keyPattern);
 			}
 		}
-		while (objectListing.isTruncated());
+		return listingRequests;
 	}
 
 	private String getRemainingPatternPart(String keyPattern, String path) {
@@ -281,11 +377,16 @@ public class PathMatchingSimpleStorageResourcePatternResolver implements Resourc
 
 	private Set<Resource> getResourcesFromObjectSummaries(String bucketName, String keyPattern,
 			List<S3ObjectSummary> objectSummaries) {
-		Set<Resource> resources = new HashSet<>();
+		Set<Resource> resources = new LinkedHashSet<>();
 		for (S3ObjectSummary objectSummary : objectSummaries) {
 			String keyPath = SimpleStorageNameUtils.getLocationForBucketAndObject(bucketName, objectSummary.getKey());
 			if (this.pathMatcher.match(keyPattern, objectSummary.getKey())) {
 				Resource resource = this.resourcePatternResolverDelegate.getResource(keyPath);
+				if (resource instanceof SimpleStorageResource) {
+					// The listing already contains the metadata needed by exists(),
+					// contentLength() and lastModified()
+					((SimpleStorageResource) resource).setObjectSummary(objectSummary);
+				}
 				resources.add(resource);
 			}
 		}
@@ -293,18 +394,133 @@ public class PathMatchingSimpleStorageResourcePatternResolver implements Resourc
 		return resources;
 	}
 
+	/**
+	 * Creates the listing request for a prefix. If the remaining pattern starts with
+	 * '**' all keys below the prefix are listed, otherwise only the direct children and
+	 * the common prefixes are returned.
+	 */
+	private ListObjectsV2Request createListObjectsRequest(String bucketName, String prefix, String keyPattern) {
+		ListObjectsV2Request listObjectsRequest = new ListObjectsV2Request().withBucketName(bucketName)
+				.withPrefix(getListingPrefix(prefix, keyPattern));
+		String remainingPatternPart = getRemainingPatternPart(keyPattern, prefix);
+		if (remainingPatternPart == null || !remainingPatternPart.startsWith("**")) {
+			listObjectsRequest.setDelimiter("/");
+		}
+		return listObjectsRequest;
+	}
+
+	/**
+	 * Requests the next page of a listing and advances the continuation token of the
+	 * request.
+	 * @return the page or {@code null} if a listing of all keys is redirected
+	 */
+	private PrefixListingPage listNextPage(String bucketName, String keyPattern,
+			ListObjectsV2Request listObjectsRequest) {
+		ListObjectsV2Result result;
+		try {
+			result = this.amazonS3.listObjectsV2(listObjectsRequest);
+		}
+		catch (AmazonS3Exception e) {
+			if (listObjectsRequest.getDelimiter() != null || 301 != e.getStatusCode()) {
+				throw e;
+			}
+			return null;
+		}
+		listObjectsRequest.setContinuationToken(result.isTruncated() ? result.getNextContinuationToken() : null);
+
+		List<String> matchingPrefixes = new ArrayList<>();
+		for (String commonPrefix : result.getCommonPrefixes()) {
+			if (isKeyPathMatchesPartially(keyPattern, commonPrefix)) {
+				matchingPrefixes.add(commonPrefix);
+			}
+		}
+		return new PrefixListingPage(getResourcesFromObjectSummaries(bucketName, keyPattern,
+				result.getObjectSummaries()), matchingPrefixes);
+	}
+
+	/**
+	 * Lists a single prefix with all its pages.
+	 */
+	private PrefixListing listPrefix(String bucketName, String prefix, String keyPattern) {
+		ListObjectsV2Request listObjectsRequest = createListObjectsRequest(bucketName, prefix, keyPattern);
+		PrefixListing prefixListing = new PrefixListing(prefix);
+		do {
+			PrefixListingPage page = listNextPage(bucketName, keyPattern, listObjectsRequest);
+			prefixListing.requests++;
+			if (page == null) {
+				break;
+			}
+			prefixListing.pages.add(page);
+		}
+		while (listObjectsRequest.getContinuationToken() != null);
+
+		return prefixListing;
+	}
+
+	private void recordResolution(int listingRequests) {
+		if (this.metrics != null) {
+			this.metrics.recordResolution(listingRequests);
+		}
+	}
+
 	private List<String> findMatchingBuckets(String bucketPattern) {
 		List<Bucket> buckets = this.amazonS3.listBuckets();
 		List<String> matchingBuckets = new ArrayList<>();
 		for (Bucket bucket : buckets) {
-			this.amazonS3.getBucketLocation(bucket.getName());
 			if (this.pathMatcher.match(bucketPattern, bucket.getName())) {
 				matchingBuckets.add(bucket.getName());
 			}
 		}
+		resolveBucketRegions(matchingBuckets);
 		return matchingBuckets;
 	}
 
+	/**
+	 * Resolves the regions of the buckets that are not known yet, up to
+	 * {@code maxConcurrentListings} at the same time. The regions are cached by the
+	 * client proxy so that the requests for the buckets are sent to the right region.
+	 */
+	private void resolveBucketRegions(List<String> bucketNames) {
+		SimpleStorageBucketRegionCache bucketRegionCache = AmazonS3ProxyFactory.getBucketRegionCache(this.amazonS3);
+		if (bucketRegionCache == null) {
+			return;
+		}
+		Iterator<String> unresolvedBuckets = bucketNames.stream()
+				.filter(bucketName -> !bucketRegionCache.containsBucket(bucketName)).iterator();
+		if (this.maxConcurrentListings == 1) {
+			unresolvedBuckets.forEachRemaining(bucketName -> resolveBucketRegion(bucketRegionCache, bucketName));
+			return;
+		}
+
+		CompletionService<Object> completionService = new ExecutorCompletionService<>(this.taskExecutor);
+		int runningRequests = 0;
+		try {
+			while (unresolvedBuckets.hasNext() || runningRequests > 0) {
+				while (runningRequests < this.maxConcurrentListings && unresolvedBuckets.hasNext()) {
+					String bucketName = unresolvedBuckets.next();
+					completionService.submit(() -> resolveBucketRegion(bucketRegionCache, bucketName), null);
+					runningRequests++;
+				}
+				completionService.take();
+				runningRequests--;
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while resolving the regions of buckets " + bucketNames, e);
+		}
+	}
+
+	private void resolveBucketRegion(SimpleStorageBucketRegionCache bucketRegionCache, String bucketName) {
+		try {
+			bucketRegionCache.putLocation(bucketName, this.amazonS3.getBucketLocation(bucketName));
+		}
+		catch (AmazonClientException e) {
+			// Requests for the bucket fall back to the redirect handling of the proxy
+			LOGGER.debug("Could not resolve the region of bucket {}", bucketName, e);
+		}
+	}
+
 	@Override
 	public Resource getResource(String location) {
 		return this.resourcePatternResolverDelegate.getResource(location);
@@ -315,4 +531,219 @@ public class PathMatchingSimpleStorageResourcePatternResolver implements Resourc
 		return this.resourcePatternResolverDelegate.getClassLoader();
 	}
 
+	/**
+	 * Traverses the prefixes of a bucket with up to {@code maxConcurrentListings}
+	 * concurrent listings. The listings are merged once the traversal is complete, in
+	 * the same order as the sequential traversal in
+	 * {@code findProgressivelyWithPartialMatch}.
+	 */
+	private final class ConcurrentPrefixListing {
+
+		private final String bucketName;
+
+		private final String keyPattern;
+
+		private final int maxRunningListings;
+
+		private final CompletionService<PrefixListing> completionService;
+
+		private final List<Future<PrefixListing>> futures = new ArrayList<>();
+
+		private final Deque<String> pendingPrefixes = new ArrayDeque<>();
+
+		private final Map<String, PrefixListing> listings = new HashMap<>();
+
+		private int runningListings;
+
+		private ConcurrentPrefixListing(String bucketName, String keyPattern) {
+			this.bucketName = bucketName;
+			this.keyPattern = keyPattern;
+			this.maxRunningListings = PathMatchingSimpleStorageResourcePatternResolver.this.maxConcurrentListings;
+			this.completionService = new ExecutorCompletionService<>(
+					PathMatchingSimpleStorageResourcePatternResolver.this.taskExecutor);
+		}
+
+		/**
+		 * @return the number of listing requests
+		 */
+		private int findResources(String rootPrefix, Set<Resource> resources) {
+			int listingRequests = 0;
+			submit(rootPrefix);
+			try {
+				while (this.runningListings > 0) {
+					PrefixListing listing = this.completionService.take().get();
+					this.runningListings--;
+					listingRequests += listing.requests;
+					this.listings.put(listing.prefix, listing);
+					for (PrefixListingPage page : listing.pages) {
+						this.pendingPrefixes.addAll(page.matchingPrefixes);
+					}
+					while (this.runningListings < this.maxRunningListings && !this.pendingPrefixes.isEmpty()) {
+						submit(this.pendingPrefixes.removeFirst());
+					}
+				}
+			}
+			catch (InterruptedException e) {
+				cancelListings();
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while listing bucket " + this.bucketName, e);
+			}
+			catch (ExecutionException e) {
+				cancelListings();
+				if (e.getCause() instanceof RuntimeException) {
+					throw (RuntimeException) e.getCause();
+				}
+				throw new IllegalStateException("Listing of bucket " + this.bucketName + " failed", e.getCause());
+			}
+			collectResources(rootPrefix, resources);
+			return listingRequests;
+		}
+
+		private void submit(String prefix) {
+			this.futures.add(
+					this.completionService.submit(() -> listPrefix(this.bucketName, prefix, this.keyPattern)));
+			this.runningListings++;
+		}
+
+		private void cancelListings() {
+			for (Future<?> future : this.futures) {
+				future.cancel(true);
+			}
+		}
+
+		private void collectResources(String prefix, Set<Resource> resources) {
+			for (PrefixListingPage page : this.listings.get(prefix).pages) {
+				resources.addAll(page.resources);
+				for (String matchingPrefix : page.matchingPrefixes) {
+					collectResources(matchingPrefix, resources);
+				}
+			}
+		}
+
+	}
+
+	/**
+	 * Depth-first traversal of the matching prefixes of the buckets that requests one
+	 * page of a listing at a time. The memory is bounded by one page per level of the
+	 * traversed prefixes. The resources are returned in the same order as by
+	 * {@code findProgressivelyWithPartialMatch}.
+	 */
+	private final class PathMatchingResourceIterator implements Iterator<Resource> {
+
+		private final Iterator<String> bucketNames;
+
+		private final String keyPattern;
+
+		private final Deque<PrefixCursor> cursors = new ArrayDeque<>();
+
+		private String bucketName;
+
+		private Iterator<Resource> pageResources = Collections.emptyIterator();
+
+		private int listingRequests;
+
+		private boolean recorded;
+
+		private PathMatchingResourceIterator(List<String> bucketNames, String keyPattern) {
+			this.bucketNames = bucketNames.iterator();
+			this.keyPattern = keyPattern;
+		}
+
+		@Override
+		public boolean hasNext() {
+			while (!this.pageResources.hasNext()) {
+				PrefixCursor cursor = this.cursors.peek();
+				if (cursor == null) {
+					if (!this.bucketNames.hasNext()) {
+						if (!this.recorded) {
+							this.recorded = true;
+							recordResolution(this.listingRequests);
+						}
+						return false;
+					}
+					this.bucketName = this.bucketNames.next();
+					this.cursors.push(new PrefixCursor(getValidPrefix(this.keyPattern)));
+				}
+				else if (!cursor.pendingPrefixes.isEmpty()) {
+					this.cursors.push(new PrefixCursor(cursor.pendingPrefixes.removeFirst()));
+				}
+				else if (cursor.hasNextPage()) {
+					this.pageResources = cursor.nextPage().iterator();
+				}
+				else {
+					this.cursors.pop();
+				}
+			}
+			return true;
+		}
+
+		@Override
+		public Resource next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			return this.pageResources.next();
+		}
+
+		private final class PrefixCursor {
+
+			private final ListObjectsV2Request request;
+
+			private final Deque<String> pendingPrefixes = new ArrayDeque<>();
+
+			private boolean hasNextPage = true;
+
+			private PrefixCursor(String prefix) {
+				this.request = createListObjectsRequest(PathMatchingResourceIterator.this.bucketName, prefix,
+						PathMatchingResourceIterator.this.keyPattern);
+			}
+
+			private boolean hasNextPage() {
+				return this.hasNextPage;
+			}
+
+			private Set<Resource> nextPage() {
+				PrefixListingPage page = listNextPage(PathMatchingResourceIterator.this.bucketName,
+						PathMatchingResourceIterator.this.keyPattern, this.request);
+				PathMatchingResourceIterator.this.listingRequests++;
+				if (page == null) {
+					this.hasNextPage = false;
+					return Collections.emptySet();
+				}
+				this.hasNextPage = this.request.getContinuationToken() != null;
+				this.pendingPrefixes.addAll(page.matchingPrefixes);
+				return page.resources;
+			}
+
+		}
+
+	}
+
+	private static final class PrefixListing {
+
+		private final String prefix;
+
+		private final List<PrefixListingPage> pages = new ArrayList<>();
+
+		private int requests;
+
+		private PrefixListing(String prefix) {
+			this.prefix = prefix;
+		}
+
+	}
+
+	private static final class PrefixListingPage {
+
+		private final Set<Resource> resources;
+
+		private final List<String> matchingPrefixes;
+
+		private PrefixListingPage(Set<Resource> resources, List<String> matchingPrefixes) {
+			this.resources = resources;
+			this.matchingPrefixes = matchingPrefixes;
+		}
+
+	}
+
 }
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.aws.core.io.s3;
+
+import java.io.OutputStream;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * {@link OutputStream} that uploads the written content to an S3 object and tracks the
+ * completion of the upload, see {@link SimpleStorageResource#getAsyncOutputStream()}.
+ *
+ * @since 3.0
+ */
+public abstract class SimpleStorageAsyncOutputStream extends OutputStream {
+
+	/**
+	 * Returns the completion of the upload. The future completes once the stream has
+	 * been closed and the object has been stored, or exceptionally if the upload failed.
+	 * A failed multipart upload is aborted before the future completes.
+	 * @return the completion of the upload
+	 */
+	public abstract CompletableFuture<Void> getCompletion();
+
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.aws.core.io.s3;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.amazonaws.services.s3.model.Region;
+
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * Remembers the region of buckets, shared by all users of an {@link AmazonS3} proxy
+ * created by {@link AmazonS3ProxyFactory}. Entries do not expire, a bucket only moves to
+ * another region if it is deleted and re-created there, which is detected by a redirect
+ * and evicts the entry.
+ *
+ * @since 3.0
+ */
+final class SimpleStorageBucketRegionCache {
+
+	private final Map<String, String> regionByBucket = new ConcurrentHashMap<>();
+
+	/**
+	 * Returns the cached region of the bucket.
+	 * @param bucketName the name of the bucket
+	 * @return the region name (e.g. {@code eu-west-1}) or {@code null} if unknown
+	 */
+	String getRegion(String bucketName) {
+		return this.regionByBucket.get(bucketName);
+	}
+
+	boolean containsBucket(String bucketName) {
+		return this.regionByBucket.containsKey(bucketName);
+	}
+
+	void putRegion(String bucketName, String region) {
+		Assert.hasText(region, "region must not be empty");
+		this.regionByBucket.put(bucketName, region);
+	}
+
+	/**
+	 * Stores the region of the bucket based on a location constraint as returned by
+	 * {@link com.amazonaws.services.s3.AmazonS3#getBucketLocation(String)}. The legacy
+	 * constraints {@code US} and {@code EU} are mapped to their region names.
+	 * @param bucketName the name of the bucket
+	 * @param location the location constraint of the bucket
+	 */
+	void putLocation(String bucketName, String location) {
+		String region;
+		try {
+			region = Region.fromValue(location).toAWSRegion().getName();
+		}
+		catch (IllegalArgumentException e) {
+			// Regions that are newer than the SDK are reported with their name
+			region = location;
+		}
+		if (StringUtils.hasText(region)) {
+			putRegion(bucketName, region);
+		}
+	}
+
+	void evict(String bucketName) {
+		this.regionByBucket.remove(bucketName);
+	}
+
+}
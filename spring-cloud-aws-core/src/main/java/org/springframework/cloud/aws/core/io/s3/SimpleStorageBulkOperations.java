@@ -0,0 +1,470 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.aws.core.io.s3;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.CopyObjectRequest;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest.KeyVersion;
+import com.amazonaws.services.s3.model.ListObjectsV2Request;
+import com.amazonaws.services.s3.model.ListObjectsV2Result;
+import com.amazonaws.services.s3.model.S3ObjectSummary;
+
+import org.springframework.core.io.Resource;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.util.Assert;
+import org.springframework.util.DigestUtils;
+
+/**
+ * Operations on many {@link SimpleStorageResource} instances at once, e.g. the resources
+ * that are resolved by {@link PathMatchingSimpleStorageResourcePatternResolver}.
+ * Deletions are batched into {@code DeleteObjects} requests with up to
+ * {@value #MAX_KEYS_PER_DELETE} keys each, copies are performed server-side and
+ * downloads are written into a local directory. A local directory can be synchronized
+ * with a prefix in both directions, which transfers only the files that differ. The
+ * requests of an operation run concurrently on the configured {@link TaskExecutor},
+ * bounded by {@link #setMaxConcurrentRequests(int)}.
+ * <p>
+ * An operation fails with the first failed request, requests that have not completed
+ * yet are cancelled. Requests that completed before are not rolled back.
+ *
+ * @since 3.0
+ */
+public class SimpleStorageBulkOperations {
+
+	/**
+	 * Maximum number of keys that S3 accepts in a single {@code DeleteObjects} request.
+	 */
+	public static final int MAX_KEYS_PER_DELETE = 1000;
+
+	/**
+	 * Default number of requests that run concurrently.
+	 */
+	public static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 8;
+
+	private final AmazonS3 amazonS3;
+
+	private final TaskExecutor taskExecutor;
+
+	private int maxConcurrentRequests = DEFAULT_MAX_CONCURRENT_REQUESTS;
+
+	public SimpleStorageBulkOperations(AmazonS3 amazonS3) {
+		this(amazonS3, new SimpleAsyncTaskExecutor("s3-bulk-"));
+	}
+
+	public SimpleStorageBulkOperations(AmazonS3 amazonS3, TaskExecutor taskExecutor) {
+		Assert.notNull(amazonS3, "amazonS3 must not be null");
+		Assert.notNull(taskExecutor, "taskExecutor must not be null");
+		this.amazonS3 = AmazonS3ProxyFactory.createProxy(amazonS3);
+		this.taskExecutor = taskExecutor;
+	}
+
+	public int getMaxConcurrentRequests() {
+		return this.maxConcurrentRequests;
+	}
+
+	/**
+	 * Configures how many requests of an operation run concurrently.
+	 * @param maxConcurrentRequests the maximum number of concurrent requests
+	 */
+	public void setMaxConcurrentRequests(int maxConcurrentRequests) {
+		Assert.isTrue(maxConcurrentRequests > 0, "maxConcurrentRequests must be greater than 0");
+		this.maxConcurrentRequests = maxConcurrentRequests;
+	}
+
+	/**
+	 * Deletes the objects of the resources with {@code DeleteObjects} requests of up to
+	 * {@value #MAX_KEYS_PER_DELETE} keys. Objects that do not exist are ignored by S3.
+	 * @param resources the resources to delete, must be {@link SimpleStorageResource}
+	 * instances
+	 * @throws IOException if a request fails
+	 */
+	public void delete(Collection<? extends Resource> resources) throws IOException {
+		Map<String, List<SimpleStorageResource>> resourcesByBucket = new LinkedHashMap<>();
+		for (Resource resource : resources) {
+			SimpleStorageResource storageResource = asSimpleStorageResource(resource);
+			resourcesByBucket.computeIfAbsent(storageResource.getBucketName(), bucketName -> new ArrayList<>())
+					.add(storageResource);
+		}
+
+		List<Callable<Void>> requests = new ArrayList<>();
+		for (Map.Entry<String, List<SimpleStorageResource>> bucketResources : resourcesByBucket.entrySet()) {
+			List<SimpleStorageResource> bucketResourceList = bucketResources.getValue();
+			for (int start = 0; start < bucketResourceList.size(); start += MAX_KEYS_PER_DELETE) {
+				List<SimpleStorageResource> batch = bucketResourceList.subList(start,
+						Math.min(start + MAX_KEYS_PER_DELETE, bucketResourceList.size()));
+				requests.add(() -> {
+					deleteBatch(bucketResources.getKey(), batch);
+					return null;
+				});
+			}
+		}
+		execute(requests);
+	}
+
+	/**
+	 * Copies the objects server-side, without transferring the content through this
+	 * application. Objects larger than 5 GB can not be copied with a single request and
+	 * are rejected by S3.
+	 * @param targetsBySource the target resource for every source resource, all
+	 * resources must be {@link SimpleStorageResource} instances
+	 * @throws IOException if a request fails
+	 */
+	public void copy(Map<? extends Resource, ? extends Resource> targetsBySource) throws IOException {
+		List<Callable<Void>> requests = new ArrayList<>(targetsBySource.size());
+		for (Map.Entry<? extends Resource, ? extends Resource> entry : targetsBySource.entrySet()) {
+			SimpleStorageResource source = asSimpleStorageResource(entry.getKey());
+			SimpleStorageResource target = asSimpleStorageResource(entry.getValue());
+			requests.add(() -> {
+				CopyObjectRequest copyObjectRequest = new CopyObjectRequest(source.getBucketName(),
+						source.getObjectName(), source.getVersionId(), target.getBucketName(), target.getObjectName());
+				this.amazonS3.copyObject(copyObjectRequest);
+				target.evictObjectMetadata();
+				return null;
+			});
+		}
+		execute(requests);
+	}
+
+	/**
+	 * Downloads the objects into the target directory. The key of an object is used as
+	 * path relative to the directory, so keys with slashes are downloaded into
+	 * subdirectories.
+	 * @param resources the resources to download, must be {@link SimpleStorageResource}
+	 * instances
+	 * @param targetDirectory the directory to download into
+	 * @return the downloaded files, in the order of the resources
+	 * @throws IOException if a download fails
+	 * @see #download(Collection, String, Path)
+	 */
+	public List<Path> download(Collection<? extends Resource> resources, Path targetDirectory) throws IOException {
+		return download(resources, "", targetDirectory);
+	}
+
+	/**
+	 * Downloads the objects into the target directory. The key of an object without the
+	 * given prefix is used as path relative to the directory, e.g. the object
+	 * {@code logs/2020/01.gz} is downloaded to {@code 2020/01.gz} with the prefix
+	 * {@code logs/}. Objects with a key that ends with a slash are folder markers and are
+	 * skipped. Every file is written to a temporary file first and moved to its final
+	 * location once it is complete, existing files are replaced.
+	 * @param resources the resources to download, must be {@link SimpleStorageResource}
+	 * instances
+	 * @param keyPrefix the prefix that all keys start with and that is not part of the
+	 * local paths
+	 * @param targetDirectory the directory to download into
+	 * @return the downloaded files, in the order of the resources
+	 * @throws IOException if a download fails
+	 */
+	public List<Path> download(Collection<? extends Resource> resources, String keyPrefix, Path targetDirectory)
+			throws IOException {
+		Assert.notNull(keyPrefix, "keyPrefix must not be null");
+		Path directory = targetDirectory.toAbsolutePath().normalize();
+		List<Callable<Path>> requests = new ArrayList<>(resources.size());
+		for (Resource resource : resources) {
+			SimpleStorageResource storageResource = asSimpleStorageResource(resource);
+			String objectName = storageResource.getObjectName();
+			if (objectName.endsWith("/")) {
+				continue;
+			}
+			Path file = resolveFile(directory, keyPrefix, objectName);
+			requests.add(() -> downloadTo(storageResource, file));
+		}
+		return execute(requests);
+	}
+
+	/**
+	 * Downloads the objects that differ from the files in the target directory, the
+	 * paths of the files are derived from the keys as with
+	 * {@link #download(Collection, String, Path)}. An object is skipped if a file with
+	 * the same size exists and either has the last modification date of the object or
+	 * the MD5 digest of the ETag of the object. Downloaded files get the last
+	 * modification date of their object, so that unchanged files are detected without
+	 * reading them on the next synchronization. The metadata of resources that were
+	 * resolved by {@link PathMatchingSimpleStorageResourcePatternResolver} is taken
+	 * from the listing, other resources request it individually.
+	 * <p>
+	 * Files without an object are not deleted.
+	 * @param resources the resources to synchronize, must be {@link SimpleStorageResource}
+	 * instances
+	 * @param keyPrefix the prefix that all keys start with and that is not part of the
+	 * local paths
+	 * @param targetDirectory the directory to download into
+	 * @return the transferred and unchanged keys
+	 * @throws IOException if a download fails
+	 */
+	public SimpleStorageSyncResult syncToDirectory(Collection<? extends Resource> resources, String keyPrefix,
+			Path targetDirectory) throws IOException {
+		Assert.notNull(keyPrefix, "keyPrefix must not be null");
+		Path directory = targetDirectory.toAbsolutePath().normalize();
+		List<String> keys = new ArrayList<>(resources.size());
+		List<Callable<Long>> requests = new ArrayList<>(resources.size());
+		for (Resource resource : resources) {
+			SimpleStorageResource storageResource = asSimpleStorageResource(resource);
+			String objectName = storageResource.getObjectName();
+			if (objectName.endsWith("/")) {
+				continue;
+			}
+			Path file = resolveFile(directory, keyPrefix, objectName);
+			keys.add(objectName);
+			requests.add(() -> {
+				long size = storageResource.contentLength();
+				long lastModified = storageResource.lastModified();
+				if (Files.isRegularFile(file) && Files.size(file) == size) {
+					if (Files.getLastModifiedTime(file).toMillis() == lastModified) {
+						return null;
+					}
+					if (hasContentDigest(file, storageResource.getETag())) {
+						Files.setLastModifiedTime(file, FileTime.fromMillis(lastModified));
+						return null;
+					}
+				}
+				downloadTo(storageResource, file);
+				Files.setLastModifiedTime(file, FileTime.fromMillis(lastModified));
+				return size;
+			});
+		}
+		return createSyncResult(keys, execute(requests));
+	}
+
+	/**
+	 * Uploads the files of the source directory that differ from the objects below the
+	 * key prefix. The path of a file relative to the directory is appended to the prefix,
+	 * e.g. the file {@code 2020/01.gz} is uploaded to {@code logs/2020/01.gz} with the
+	 * prefix {@code logs/}. The prefix is listed once, a file is skipped if an object with
+	 * the same size exists and either was modified after the file or has the MD5 digest
+	 * of the file as ETag.
+	 * <p>
+	 * Objects without a file are not deleted.
+	 * @param sourceDirectory the directory to upload
+	 * @param bucketName the bucket to upload into
+	 * @param keyPrefix the prefix of the keys of the uploaded files, usually ending with a
+	 * slash
+	 * @return the transferred and unchanged keys
+	 * @throws IOException if the directory can not be read or an upload fails
+	 */
+	public SimpleStorageSyncResult syncFromDirectory(Path sourceDirectory, String bucketName, String keyPrefix)
+			throws IOException {
+		Assert.notNull(bucketName, "bucketName must not be null");
+		Assert.notNull(keyPrefix, "keyPrefix must not be null");
+		Path directory = sourceDirectory.toAbsolutePath().normalize();
+		List<Path> files;
+		try (Stream<Path> paths = Files.walk(directory)) {
+			files = paths.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+		}
+		Map<String, S3ObjectSummary> objectSummaries = listObjectSummaries(bucketName, keyPrefix);
+
+		List<String> keys = new ArrayList<>(files.size());
+		List<Callable<Long>> requests = new ArrayList<>(files.size());
+		for (Path file : files) {
+			StringBuilder key = new StringBuilder(keyPrefix);
+			for (Path name : directory.relativize(file)) {
+				if (key.length() > keyPrefix.length()) {
+					key.append('/');
+				}
+				key.append(name);
+			}
+			String objectName = key.toString();
+			S3ObjectSummary objectSummary = objectSummaries.get(objectName);
+			keys.add(objectName);
+			requests.add(() -> {
+				long size = Files.size(file);
+				if (objectSummary != null && objectSummary.getSize() == size
+						&& (Files.getLastModifiedTime(file).toMillis() <= objectSummary.getLastModified().getTime()
+								|| hasContentDigest(file, objectSummary.getETag()))) {
+					return null;
+				}
+				// Files are uploaded concurrently, so the parts of a file are uploaded
+				// one after another
+				new SimpleStorageResource(this.amazonS3, bucketName, objectName, new SyncTaskExecutor())
+						.upload(file);
+				return size;
+			});
+		}
+		return createSyncResult(keys, execute(requests));
+	}
+
+	private Map<String, S3ObjectSummary> listObjectSummaries(String bucketName, String keyPrefix) {
+		Map<String, S3ObjectSummary> objectSummaries = new HashMap<>();
+		ListObjectsV2Request listObjectsRequest = new ListObjectsV2Request().withBucketName(bucketName)
+				.withPrefix(keyPrefix);
+		ListObjectsV2Result listObjectsResult;
+		do {
+			listObjectsResult = this.amazonS3.listObjectsV2(listObjectsRequest);
+			for (S3ObjectSummary objectSummary : listObjectsResult.getObjectSummaries()) {
+				objectSummaries.put(objectSummary.getKey(), objectSummary);
+			}
+			listObjectsRequest.setContinuationToken(listObjectsResult.getNextContinuationToken());
+		}
+		while (listObjectsResult.isTruncated());
+		return objectSummaries;
+	}
+
+	private void deleteBatch(String bucketName, List<SimpleStorageResource> batch) {
+		List<KeyVersion> keys = new ArrayList<>(batch.size());
+		for (SimpleStorageResource resource : batch) {
+			keys.add(new KeyVersion(resource.getObjectName(), resource.getVersionId()));
+		}
+		// Quiet mode only reports failed keys, which are raised as a
+		// MultiObjectDeleteException
+		this.amazonS3.deleteObjects(new DeleteObjectsRequest(bucketName).withKeys(keys).withQuiet(true));
+		for (SimpleStorageResource resource : batch) {
+			resource.evictObjectMetadata();
+		}
+	}
+
+	private static Path downloadTo(SimpleStorageResource resource, Path file) throws IOException {
+		Path parent = file.getParent();
+		Files.createDirectories(parent);
+		Path temporaryFile = Files.createTempFile(parent, "." + file.getFileName(), ".download");
+		try {
+			try (InputStream inputStream = resource.getInputStream()) {
+				Files.copy(inputStream, temporaryFile, StandardCopyOption.REPLACE_EXISTING);
+			}
+			return Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING);
+		}
+		finally {
+			Files.deleteIfExists(temporaryFile);
+		}
+	}
+
+	private static Path resolveFile(Path directory, String keyPrefix, String objectName) {
+		Assert.isTrue(objectName.startsWith(keyPrefix),
+				() -> "Object '" + objectName + "' does not start with prefix '" + keyPrefix + "'");
+		Path file = directory.resolve(objectName.substring(keyPrefix.length())).normalize();
+		// Keys are arbitrary strings and must not escape the target directory
+		Assert.isTrue(file.startsWith(directory) && !file.equals(directory),
+				() -> "Object '" + objectName + "' can not be downloaded into " + directory);
+		return file;
+	}
+
+	/**
+	 * Checks whether the ETag is the MD5 digest of the file. ETags of multipart uploads
+	 * contain the number of parts and never match, so that these objects are only
+	 * compared by size and modification date.
+	 */
+	private static boolean hasContentDigest(Path file, String eTag) throws IOException {
+		if (eTag == null || eTag.indexOf('-') != -1) {
+			return false;
+		}
+		try (InputStream inputStream = Files.newInputStream(file)) {
+			return DigestUtils.md5DigestAsHex(inputStream).equalsIgnoreCase(eTag.replace("\"", ""));
+		}
+	}
+
+	private static SimpleStorageSyncResult createSyncResult(List<String> keys, List<Long> transferredSizes) {
+		List<String> transferredKeys = new ArrayList<>();
+		List<String> unchangedKeys = new ArrayList<>();
+		long transferredBytes = 0;
+		for (int i = 0; i < keys.size(); i++) {
+			Long transferredSize = transferredSizes.get(i);
+			if (transferredSize != null) {
+				transferredKeys.add(keys.get(i));
+				transferredBytes += transferredSize;
+			}
+			else {
+				unchangedKeys.add(keys.get(i));
+			}
+		}
+		return new SimpleStorageSyncResult(transferredKeys, unchangedKeys, transferredBytes);
+	}
+
+	private static SimpleStorageResource asSimpleStorageResource(Resource resource) {
+		Assert.isInstanceOf(SimpleStorageResource.class, resource, "Bulk operations require S3 resources:");
+		return (SimpleStorageResource) resource;
+	}
+
+	/**
+	 * Runs the requests with at most {@link #maxConcurrentRequests} at a time and returns
+	 * their results in the order of the requests.
+	 */
+	private <T> List<T> execute(List<Callable<T>> requests) throws IOException {
+		CompletionService<Integer> completionService = new ExecutorCompletionService<>(this.taskExecutor);
+		List<Future<Integer>> futures = new ArrayList<>(requests.size());
+		List<T> results = new ArrayList<>(requests.size());
+		for (int i = 0; i < requests.size(); i++) {
+			results.add(null);
+		}
+		int submitted = 0;
+		int running = 0;
+		try {
+			while (submitted < requests.size() || running > 0) {
+				while (submitted < requests.size() && running < this.maxConcurrentRequests) {
+					int index = submitted++;
+					Callable<T> request = requests.get(index);
+					futures.add(completionService.submit(() -> {
+						T result = request.call();
+						synchronized (results) {
+							results.set(index, result);
+						}
+						return index;
+					}));
+					running++;
+				}
+				completionService.take().get();
+				running--;
+			}
+		}
+		catch (InterruptedException e) {
+			cancel(futures);
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while waiting for bulk operation", e);
+		}
+		catch (ExecutionException e) {
+			cancel(futures);
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			}
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new IOException("Bulk operation failed", e.getCause());
+		}
+		synchronized (results) {
+			return results;
+		}
+	}
+
+	private static void cancel(List<? extends Future<?>> futures) {
+		for (Future<?> future : futures) {
+			future.cancel(true);
+		}
+	}
+
+}
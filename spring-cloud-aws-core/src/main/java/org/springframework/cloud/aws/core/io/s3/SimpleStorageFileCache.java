@@ -0,0 +1,453 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.aws.core.io.s3;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.AmazonS3Exception;
+import com.amazonaws.services.s3.model.GetObjectRequest;
+import com.amazonaws.services.s3.model.S3Object;
+import com.amazonaws.services.s3.model.S3ObjectInputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.util.Assert;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Read-through cache that stores the content of S3 objects in a local directory. Cached
+ * objects are validated with a conditional GET request ({@code If-None-Match}) using
+ * the ETag of the cached content, so unchanged objects are not downloaded again. Objects
+ * that are referenced with a version id are immutable and served without validation.
+ * <p>
+ * The cache is bounded by the total size of the cached files, the least recently used
+ * files are evicted first. The cached files survive restarts of the application, the
+ * cache index is rebuilt from the directory on startup. Files are memory-mapped when
+ * they are read. Objects that are larger than the whole cache are not cached, they are
+ * downloaded into a temporary file each time they are read.
+ *
+ * @since 3.0
+ */
+public class SimpleStorageFileCache {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(SimpleStorageFileCache.class);
+
+	private static final String DATA_FILE_SUFFIX = ".data";
+
+	private static final String ETAG_FILE_SUFFIX = ".etag";
+
+	private static final String TEMP_FILE_SUFFIX = ".tmp";
+
+	private static final int MAX_OPEN_ATTEMPTS = 3;
+
+	private final Path directory;
+
+	private final long maxSize;
+
+	private final Object monitor = new Object();
+
+	// Access ordered, the eldest entry is the least recently used one
+	private final LinkedHashMap<String, CacheEntry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+	private long size;
+
+	public SimpleStorageFileCache(Path directory, long maxSize) throws IOException {
+		Assert.notNull(directory, "directory must not be null");
+		Assert.isTrue(maxSize > 0, "maxSize must be greater than 0");
+		this.directory = Files.createDirectories(directory);
+		this.maxSize = maxSize;
+		loadEntries();
+	}
+
+	/**
+	 * Returns the cached file for the object, downloads the object if it is not cached
+	 * or has been modified. The file may be evicted by later downloads into the cache,
+	 * use {@link #getInputStream(AmazonS3, String, String, String)} if other threads use
+	 * the cache concurrently. Objects that are larger than the maximum size of the cache
+	 * are returned as a temporary file that is deleted when the JVM exits.
+	 * @param amazonS3 the client used to download the object
+	 * @param bucketName the bucket of the object
+	 * @param objectName the key of the object
+	 * @param versionId the version of the object, may be {@code null}
+	 * @return the local file with the content of the object
+	 * @throws IOException if the object does not exist or could not be downloaded
+	 */
+	public File getFile(AmazonS3 amazonS3, String bucketName, String objectName, String versionId)
+			throws IOException {
+		CacheEntry entry = getEntry(amazonS3, getKey(bucketName, objectName, versionId), bucketName, objectName,
+				versionId);
+		if (!entry.cached) {
+			entry.file.toFile().deleteOnExit();
+		}
+		return entry.file.toFile();
+	}
+
+	/**
+	 * Returns an input stream for the memory-mapped cached file of the object. The file
+	 * is opened while it is still part of the cache, so it can not be evicted before it
+	 * is read.
+	 * @param amazonS3 the client used to download the object
+	 * @param bucketName the bucket of the object
+	 * @param objectName the key of the object
+	 * @param versionId the version of the object, may be {@code null}
+	 * @return a stream with the content of the object
+	 * @throws IOException if the object does not exist or could not be downloaded
+	 * @see #getFile(AmazonS3, String, String, String)
+	 */
+	public InputStream getInputStream(AmazonS3 amazonS3, String bucketName, String objectName, String versionId)
+			throws IOException {
+		String key = getKey(bucketName, objectName, versionId);
+		for (int attempt = 1;; attempt++) {
+			CacheEntry entry = getEntry(amazonS3, key, bucketName, objectName, versionId);
+			FileChannel channel = openChannel(key, entry);
+			if (channel == null) {
+				if (attempt < MAX_OPEN_ATTEMPTS) {
+					// Evicted by a concurrent download, download the object again
+					continue;
+				}
+				throw new FileNotFoundException("Cached file of resource with bucket='" + bucketName
+						+ "' and objectName='" + objectName + "' has been evicted before it could be read");
+			}
+			try {
+				if (channel.size() > Integer.MAX_VALUE) {
+					return Channels.newInputStream(channel);
+				}
+				try {
+					return new ByteBufferInputStream(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+				}
+				finally {
+					channel.close();
+				}
+			}
+			catch (IOException | RuntimeException e) {
+				channel.close();
+				throw e;
+			}
+		}
+	}
+
+	public long getSize() {
+		synchronized (this.monitor) {
+			return this.size;
+		}
+	}
+
+	private CacheEntry getEntry(AmazonS3 amazonS3, String key, String bucketName, String objectName,
+			String versionId) throws IOException {
+		CacheEntry cached = getExistingEntry(key);
+		if (cached != null && versionId != null) {
+			return cached;
+		}
+
+		GetObjectRequest getObjectRequest = new GetObjectRequest(bucketName, objectName);
+		if (versionId != null) {
+			getObjectRequest.setVersionId(versionId);
+		}
+		if (cached != null && StringUtils.hasText(cached.eTag)) {
+			getObjectRequest.withNonmatchingETagConstraint(cached.eTag);
+		}
+
+		S3Object s3Object = getObject(amazonS3, key, getObjectRequest);
+		if (s3Object == null) {
+			// Not modified, the cached content is still valid unless it has been evicted
+			// by a concurrent download in the meantime
+			if (getExistingEntry(key) == cached) {
+				return cached;
+			}
+			return getEntry(amazonS3, key, bucketName, objectName, versionId);
+		}
+		return store(key, s3Object);
+	}
+
+	private S3Object getObject(AmazonS3 amazonS3, String key, GetObjectRequest getObjectRequest) throws IOException {
+		try {
+			return amazonS3.getObject(getObjectRequest);
+		}
+		catch (AmazonS3Exception e) {
+			if (e.getStatusCode() == 404) {
+				evict(key);
+				throw new FileNotFoundException("Resource with bucket='" + getObjectRequest.getBucketName()
+						+ "' and objectName='" + getObjectRequest.getKey() + "' not found!");
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Returns the entry of the key if its file still exists, removes the entry if the
+	 * file has been deleted outside of the cache.
+	 */
+	private CacheEntry getExistingEntry(String key) throws IOException {
+		synchronized (this.monitor) {
+			CacheEntry entry = this.entries.get(key);
+			if (entry != null && !Files.exists(entry.file)) {
+				evict(key);
+				return null;
+			}
+			return entry;
+		}
+	}
+
+	/**
+	 * Opens the file of the entry if the entry is still part of the cache. The check and
+	 * the opening happen under the monitor so that the file is not evicted in between.
+	 * The temporary file of an object that is not cached is deleted once it is open.
+	 * @return the open channel or {@code null} if the entry has been evicted
+	 */
+	private FileChannel openChannel(String key, CacheEntry entry) throws IOException {
+		if (!entry.cached) {
+			FileChannel channel = FileChannel.open(entry.file, StandardOpenOption.READ);
+			try {
+				Files.delete(entry.file);
+			}
+			catch (IOException e) {
+				// Open files can not be deleted on some platforms
+				entry.file.toFile().deleteOnExit();
+			}
+			return channel;
+		}
+		synchronized (this.monitor) {
+			if (this.entries.get(key) != entry) {
+				return null;
+			}
+			try {
+				return FileChannel.open(entry.file, StandardOpenOption.READ);
+			}
+			catch (NoSuchFileException e) {
+				evict(key);
+				return null;
+			}
+		}
+	}
+
+	private CacheEntry store(String key, S3Object s3Object) throws IOException {
+		Path dataFile = this.directory.resolve(key + DATA_FILE_SUFFIX);
+		Path eTagFile = this.directory.resolve(key + ETAG_FILE_SUFFIX);
+		Path tempFile = Files.createTempFile(this.directory, key, TEMP_FILE_SUFFIX);
+		boolean keepTempFile = false;
+		try (S3ObjectInputStream inputStream = s3Object.getObjectContent()) {
+			Files.copy(inputStream, tempFile, StandardCopyOption.REPLACE_EXISTING);
+			String eTag = s3Object.getObjectMetadata().getETag();
+			long size = Files.size(tempFile);
+			if (size > this.maxSize) {
+				// Caching the object would evict all other entries and still exceed the
+				// maximum size, the temporary file is served instead and an outdated entry
+				// of the object is dropped
+				evict(key);
+				keepTempFile = true;
+				return new CacheEntry(tempFile, eTag, size, false);
+			}
+			synchronized (this.monitor) {
+				move(tempFile, dataFile);
+				Files.write(eTagFile, eTag != null ? eTag.getBytes(StandardCharsets.UTF_8) : new byte[0]);
+				CacheEntry entry = new CacheEntry(dataFile, eTag, size, true);
+				CacheEntry previous = this.entries.put(key, entry);
+				if (previous != null) {
+					this.size -= previous.size;
+				}
+				this.size += entry.size;
+				evictLeastRecentlyUsed(key);
+				return entry;
+			}
+		}
+		finally {
+			if (!keepTempFile) {
+				Files.deleteIfExists(tempFile);
+			}
+		}
+	}
+
+	private void evict(String key) throws IOException {
+		synchronized (this.monitor) {
+			CacheEntry entry = this.entries.remove(key);
+			if (entry != null) {
+				this.size -= entry.size;
+				deleteFiles(key);
+			}
+		}
+	}
+
+	private void evictLeastRecentlyUsed(String retainedKey) throws IOException {
+		Iterator<Map.Entry<String, CacheEntry>> iterator = this.entries.entrySet().iterator();
+		while (this.size > this.maxSize && iterator.hasNext()) {
+			Map.Entry<String, CacheEntry> eldest = iterator.next();
+			if (eldest.getKey().equals(retainedKey)) {
+				continue;
+			}
+			iterator.remove();
+			this.size -= eldest.getValue().size;
+			deleteFiles(eldest.getKey());
+		}
+	}
+
+	private void deleteFiles(String key) throws IOException {
+		Files.deleteIfExists(this.directory.resolve(key + DATA_FILE_SUFFIX));
+		Files.deleteIfExists(this.directory.resolve(key + ETAG_FILE_SUFFIX));
+	}
+
+	private void loadEntries() throws IOException {
+		List<CacheEntry> entries = new ArrayList<>();
+		try (DirectoryStream<Path> eTagFiles = Files.newDirectoryStream(this.directory, "*" + ETAG_FILE_SUFFIX)) {
+			for (Path eTagFile : eTagFiles) {
+				String fileName = eTagFile.getFileName().toString();
+				Path dataFile = this.directory
+						.resolve(fileName.substring(0, fileName.length() - ETAG_FILE_SUFFIX.length()) + DATA_FILE_SUFFIX);
+				try {
+					String eTag = new String(Files.readAllBytes(eTagFile), StandardCharsets.UTF_8);
+					entries.add(new CacheEntry(dataFile, eTag, Files.size(dataFile), true));
+				}
+				catch (NoSuchFileException e) {
+					LOGGER.debug("Ignoring incomplete cache entry {}", eTagFile);
+				}
+			}
+		}
+		entries.sort(Comparator.comparingLong(entry -> entry.file.toFile().lastModified()));
+		synchronized (this.monitor) {
+			for (CacheEntry entry : entries) {
+				String fileName = entry.file.getFileName().toString();
+				this.entries.put(fileName.substring(0, fileName.length() - DATA_FILE_SUFFIX.length()), entry);
+				this.size += entry.size;
+			}
+			deleteUntrackedFiles();
+			evictLeastRecentlyUsed(null);
+		}
+	}
+
+	/**
+	 * Deletes the files of downloads that were interrupted by a crash, i.e. temporary
+	 * files and data or ETag files without a complete entry. They would otherwise take
+	 * up space that is not accounted for in the size of the cache.
+	 */
+	private void deleteUntrackedFiles() throws IOException {
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(this.directory)) {
+			for (Path file : files) {
+				String fileName = file.getFileName().toString();
+				boolean untracked;
+				if (fileName.endsWith(DATA_FILE_SUFFIX)) {
+					untracked = !this.entries
+							.containsKey(fileName.substring(0, fileName.length() - DATA_FILE_SUFFIX.length()));
+				}
+				else if (fileName.endsWith(ETAG_FILE_SUFFIX)) {
+					untracked = !this.entries
+							.containsKey(fileName.substring(0, fileName.length() - ETAG_FILE_SUFFIX.length()));
+				}
+				else {
+					untracked = fileName.endsWith(TEMP_FILE_SUFFIX);
+				}
+				if (untracked) {
+					LOGGER.debug("Deleting untracked cache file {}", file);
+					Files.deleteIfExists(file);
+				}
+			}
+		}
+	}
+
+	private static void move(Path source, Path target) throws IOException {
+		try {
+			Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (AtomicMoveNotSupportedException e) {
+			Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	private static String getKey(String bucketName, String objectName, String versionId) {
+		String location = bucketName + "/" + objectName + (versionId != null ? "?versionId=" + versionId : "");
+		return DigestUtils.md5DigestAsHex(location.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static final class CacheEntry {
+
+		private final Path file;
+
+		private final String eTag;
+
+		private final long size;
+
+		// False for the temporary file of an object that is larger than the cache
+		private final boolean cached;
+
+		private CacheEntry(Path file, String eTag, long size, boolean cached) {
+			this.file = file;
+			this.eTag = eTag;
+			this.size = size;
+			this.cached = cached;
+		}
+
+	}
+
+	private static final class ByteBufferInputStream extends InputStream {
+
+		private final ByteBuffer buffer;
+
+		private ByteBufferInputStream(MappedByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public int read() {
+			return this.buffer.hasRemaining() ? this.buffer.get() & 0xFF : -1;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) {
+			if (!this.buffer.hasRemaining()) {
+				return -1;
+			}
+			int length = Math.min(len, this.buffer.remaining());
+			this.buffer.get(b, off, length);
+			return length;
+		}
+
+		@Override
+		public long skip(long n) {
+			int skipped = (int) Math.max(0, Math.min(n, this.buffer.remaining()));
+			this.buffer.position(this.buffer.position() + skipped);
+			return skipped;
+		}
+
+		@Override
+		public int available() {
+			return this.buffer.remaining();
+		}
+
+	}
+
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.aws.core.io.s3;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.amazonaws.services.s3.model.PartETag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.util.Assert;
+import org.springframework.util.DigestUtils;
+
+/**
+ * {@link SimpleStorageUploadCheckpointStore} that keeps one file per object in a local
+ * directory. The file starts with the bucket, key, upload id and part size of the upload,
+ * every uploaded part is appended as a line and synced to disk, so the checkpoint
+ * survives a crash of the application. Incomplete lines of an interrupted append are
+ * ignored when the checkpoint is loaded, checkpoints with a corrupt header are treated
+ * like missing ones.
+ *
+ * @since 3.0
+ */
+public class SimpleStorageFileCheckpointStore implements SimpleStorageUploadCheckpointStore {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(SimpleStorageFileCheckpointStore.class);
+
+	private static final String CHECKPOINT_FILE_SUFFIX = ".checkpoint";
+
+	private static final String PART_LINE_PREFIX = "part ";
+
+	private static final int HEADER_LINES = 4;
+
+	private final Path directory;
+
+	private final Object monitor = new Object();
+
+	public SimpleStorageFileCheckpointStore(Path directory) throws IOException {
+		Assert.notNull(directory, "directory must not be null");
+		this.directory = Files.createDirectories(directory);
+	}
+
+	@Override
+	public SimpleStorageUploadCheckpoint load(String bucketName, String objectName) {
+		List<String> lines;
+		synchronized (this.monitor) {
+			try {
+				lines = Files.readAllLines(getFile(bucketName, objectName), StandardCharsets.UTF_8);
+			}
+			catch (NoSuchFileException e) {
+				return null;
+			}
+			catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		if (lines.size() < HEADER_LINES || !bucketName.equals(decode(lines.get(0)))
+				|| !objectName.equals(decode(lines.get(1)))) {
+			return null;
+		}
+		String uploadId = decode(lines.get(2));
+		Integer partSize = parseInteger(lines.get(3));
+		if (uploadId == null || partSize == null) {
+			// A corrupt checkpoint is treated like a missing one, the upload starts over
+			LOGGER.debug("Ignoring corrupt checkpoint of object '{}' in bucket '{}'", objectName, bucketName);
+			return null;
+		}
+		Map<Integer, String> partETags = new HashMap<>();
+		for (String line : lines.subList(HEADER_LINES, lines.size())) {
+			String[] part = line.split(" ");
+			// Parts of other uploads and incomplete lines are skipped
+			if (line.startsWith(PART_LINE_PREFIX) && part.length == 4 && uploadId.equals(decode(part[3]))) {
+				Integer partNumber = parseInteger(part[1]);
+				if (partNumber != null) {
+					partETags.put(partNumber, part[2]);
+				}
+			}
+		}
+		return new SimpleStorageUploadCheckpoint(bucketName, objectName, uploadId, partSize, partETags);
+	}
+
+	@Override
+	public void save(SimpleStorageUploadCheckpoint checkpoint) {
+		ByteArrayOutputStream content = new ByteArrayOutputStream();
+		for (String headerLine : Arrays.asList(encode(checkpoint.getBucketName()),
+				encode(checkpoint.getObjectName()), encode(checkpoint.getUploadId()),
+				String.valueOf(checkpoint.getPartSize()))) {
+			byte[] line = (headerLine + "\n").getBytes(StandardCharsets.UTF_8);
+			content.write(line, 0, line.length);
+		}
+		for (Map.Entry<Integer, String> partETag : checkpoint.getPartETags().entrySet()) {
+			byte[] line = getPartLine(checkpoint.getUploadId(), partETag.getKey(), partETag.getValue());
+			content.write(line, 0, line.length);
+		}
+		Path file = getFile(checkpoint.getBucketName(), checkpoint.getObjectName());
+		synchronized (this.monitor) {
+			Path temporaryFile = null;
+			try {
+				temporaryFile = Files.createTempFile(this.directory, file.getFileName().toString(), ".tmp");
+				try (FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.WRITE)) {
+					ByteBuffer buffer = ByteBuffer.wrap(content.toByteArray());
+					while (buffer.hasRemaining()) {
+						channel.write(buffer);
+					}
+					// Synced before the move, so that a crash can not replace the previous
+					// checkpoint with an incomplete file
+					channel.force(true);
+				}
+				Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING);
+			}
+			catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			finally {
+				deleteIfExists(temporaryFile);
+			}
+		}
+	}
+
+	@Override
+	public void addPart(String bucketName, String objectName, String uploadId, PartETag partETag) {
+		Path file = getFile(bucketName, objectName);
+		synchronized (this.monitor) {
+			try {
+				Files.write(file, getPartLine(uploadId, partETag.getPartNumber(), partETag.getETag()),
+						StandardOpenOption.APPEND, StandardOpenOption.DSYNC);
+			}
+			catch (NoSuchFileException e) {
+				LOGGER.debug("No checkpoint for upload {} of object '{}' in bucket '{}'", uploadId, objectName,
+						bucketName);
+			}
+			catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+
+	@Override
+	public void delete(String bucketName, String objectName) {
+		synchronized (this.monitor) {
+			try {
+				Files.deleteIfExists(getFile(bucketName, objectName));
+			}
+			catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+
+	private Path getFile(String bucketName, String objectName) {
+		String location = bucketName + "/" + objectName;
+		return this.directory
+				.resolve(DigestUtils.md5DigestAsHex(location.getBytes(StandardCharsets.UTF_8)) + CHECKPOINT_FILE_SUFFIX);
+	}
+
+	private static void deleteIfExists(Path file) {
+		if (file != null) {
+			try {
+				Files.deleteIfExists(file);
+			}
+			catch (IOException e) {
+				LOGGER.debug("Could not delete temporary checkpoint file {}", file, e);
+			}
+		}
+	}
+
+	private static Integer parseInteger(String value) {
+		try {
+			return Integer.valueOf(value);
+		}
+		catch (NumberFormatException e) {
+			return null;
+		}
+	}
+
+	private static byte[] getPartLine(String uploadId, int partNumber, String eTag) {
+		return (PART_LINE_PREFIX + partNumber + " " + eTag + " " + encode(uploadId) + "\n")
+				.getBytes(StandardCharsets.UTF_8);
+	}
+
+	// Keys may contain line breaks and spaces
+	private static String encode(String value) {
+		try {
+			return URLEncoder.encode(value, StandardCharsets.UTF_8.name());
+		}
+		catch (UnsupportedEncodingException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static String decode(String value) {
+		try {
+			return URLDecoder.decode(value, StandardCharsets.UTF_8.name());
+		}
+		catch (UnsupportedEncodingException | IllegalArgumentException e) {
+			return null;
+		}
+	}
+
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.aws.core.io.s3;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.amazonaws.services.s3.model.ObjectMetadata;
+
+import org.springframework.util.Assert;
+
+/**
+ * In-memory cache for the {@link ObjectMetadata} of S3 objects that is shared between
+ * {@link SimpleStorageResource} instances, so that checking {@code exists()},
+ * {@code contentLength()} or {@code lastModified()} of the same object from different
+ * resource instances does not issue a {@code HEAD} request each time. The cache is
+ * populated by metadata requests and by the object listings of
+ * {@link PathMatchingSimpleStorageResourcePatternResolver}.
+ * <p>
+ * Entries expire after the configured time to live, which bounds how long changes that
+ * are made by other clients stay invisible. The number of entries is bounded, once the
+ * maximum size is reached the oldest entry is evicted. Writes through a
+ * {@link SimpleStorageResource} evict the entry of the written object.
+ *
+ * @since 3.0
+ */
+public class SimpleStorageMetadataCache {
+
+	private static final int DEFAULT_MAX_SIZE = 10000;
+
+	private static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofMinutes(1);
+
+	private final int maxSize;
+
+	private final long timeToLiveNanos;
+
+	private final LinkedHashMap<String, CacheEntry> entries;
+
+	public SimpleStorageMetadataCache(int maxSize, Duration timeToLive) {
+		Assert.isTrue(maxSize > 0, "maxSize must be greater than 0");
+		Assert.isTrue(timeToLive != null && !timeToLive.isNegative() && !timeToLive.isZero(),
+				"timeToLive must be positive");
+		this.maxSize = maxSize;
+		this.timeToLiveNanos = timeToLive.toNanos();
+		this.entries = new LinkedHashMap<String, CacheEntry>(16, 0.75f, false) {
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+				return size() > SimpleStorageMetadataCache.this.maxSize;
+			}
+
+		};
+	}
+
+	public SimpleStorageMetadataCache() {
+		this(DEFAULT_MAX_SIZE, DEFAULT_TIME_TO_LIVE);
+	}
+
+	/**
+	 * Returns the cached metadata of the object.
+	 * @param bucketName the bucket of the object
+	 * @param objectName the key of the object
+	 * @param versionId the version of the object, may be {@code null}
+	 * @return the metadata or {@code null} if the object is not cached or the entry has
+	 * expired
+	 */
+	public ObjectMetadata get(String bucketName, String objectName, String versionId) {
+		long now = System.nanoTime();
+		synchronized (this.entries) {
+			removeExpiredEntries(now);
+			CacheEntry entry = this.entries.get(getKey(bucketName, objectName, versionId));
+			return entry != null ? entry.metadata : null;
+		}
+	}
+
+	/**
+	 * Stores the metadata of the object, replacing an existing entry.
+	 * @param bucketName the bucket of the object
+	 * @param objectName the key of the object
+	 * @param versionId the version of the object, may be {@code null}
+	 * @param metadata the metadata to cache
+	 */
+	public void put(String bucketName, String objectName, String versionId, ObjectMetadata metadata) {
+		Assert.notNull(metadata, "metadata must not be null");
+		String key = getKey(bucketName, objectName, versionId);
+		long now = System.nanoTime();
+		synchronized (this.entries) {
+			// Re-insert to keep the entries ordered by their expiration
+			this.entries.remove(key);
+			this.entries.put(key, new CacheEntry(metadata, now + this.timeToLiveNanos));
+		}
+	}
+
+	/**
+	 * Removes the cached metadata of the object.
+	 * @param bucketName the bucket of the object
+	 * @param objectName the key of the object
+	 * @param versionId the version of the object, may be {@code null}
+	 */
+	public void evict(String bucketName, String objectName, String versionId) {
+		synchronized (this.entries) {
+			this.entries.remove(getKey(bucketName, objectName, versionId));
+		}
+	}
+
+	public void clear() {
+		synchronized (this.entries) {
+			this.entries.clear();
+		}
+	}
+
+	int size() {
+		synchronized (this.entries) {
+			return this.entries.size();
+		}
+	}
+
+	private static String getKey(String bucketName, String objectName, String versionId) {
+		return versionId != null ? bucketName + "/" + objectName + "?versionId=" + versionId
+				: bucketName + "/" + objectName;
+	}
+
+	// Entries are kept in insertion order and share the same time to live, so the
+	// expired entries are always at the head of the map.
+	private void removeExpiredEntries(long now) {
+		Iterator<CacheEntry> iterator = this.entries.values().iterator();
+		while (iterator.hasNext()) {
+			if (iterator.next().expiration - now > 0) {
+				return;
+			}
+			iterator.remove();
+		}
+	}
+
+	private static final class CacheEntry {
+
+		private final ObjectMetadata metadata;
+
+		private final long expiration;
+
+		private CacheEntry(ObjectMetadata metadata, long expiration) {
+			this.metadata = metadata;
+			this.expiration = expiration;
+		}
+
+	}
+
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.aws.core.io.s3;
+
+/**
+ * Receives measurements of the requests that S3 resources and the
+ * {@link PathMatchingSimpleStorageResourcePatternResolver} send to Amazon S3, see
+ * {@link SimpleStorageResource#setMetrics(SimpleStorageMetrics)}. Implementations must be
+ * thread-safe, parts are uploaded and ranges are read concurrently.
+ *
+ * @since 3.0
+ * @see MicrometerSimpleStorageMetrics
+ */
+public interface SimpleStorageMetrics {
+
+	/**
+	 * Records bytes that have been downloaded from an object.
+	 * @param bucketName the bucket of the object
+	 * @param bytes the number of downloaded bytes
+	 */
+	void recordBytesRead(String bucketName, long bytes);
+
+	/**
+	 * Records bytes that have been uploaded with a successful put or part upload.
+	 * @param bucketName the bucket of the object
+	 * @param bytes the number of uploaded bytes
+	 */
+	void recordBytesWritten(String bucketName, long bytes);
+
+	/**
+	 * Called before a part of a multipart upload is sent.
+	 * @param bucketName the bucket of the object
+	 */
+	void partUploadStarted(String bucketName);
+
+	/**
+	 * Called once a part upload started with {@link #partUploadStarted(String)} has
+	 * finished.
+	 * @param bucketName the bucket of the object
+	 * @param durationNanos the duration of the upload including retries
+	 * @param retries the number of retries of the request by the client
+	 * @param successful whether the part has been uploaded
+	 */
+	void partUploadFinished(String bucketName, long durationNanos, int retries, boolean successful);
+
+	/**
+	 * Records a HEAD request for the metadata of an object.
+	 * @param bucketName the bucket of the object
+	 */
+	void recordHeadRequest(String bucketName);
+
+	/**
+	 * Records a request that has been redirected to the region of a bucket.
+	 * @param bucketName the bucket that is located in another region
+	 */
+	void recordRedirect(String bucketName);
+
+	/**
+	 * Records the number of listing requests that were needed to resolve a location
+	 * pattern.
+	 * @param listingRequests the number of listing requests
+	 */
+	void recordResolution(int listingRequests);
+
+}
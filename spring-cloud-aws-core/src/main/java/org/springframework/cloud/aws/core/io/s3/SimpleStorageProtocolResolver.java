@@ -47,6 +47,24 @@ public class SimpleStorageProtocolResolver implements ProtocolResolver, Initiali
 
 	private BeanFactory beanFactory;
 
+	private int uploadPartSize = SimpleStorageResource.MIN_UPLOAD_PART_SIZE;
+
+	private int maxConcurrentUploadParts = SimpleStorageResource.DEFAULT_MAX_CONCURRENT_UPLOAD_PARTS;
+
+	private int downloadRangeSize = SimpleStorageResource.DEFAULT_DOWNLOAD_RANGE_SIZE;
+
+	private int maxConcurrentDownloadRanges = 1;
+
+	private SimpleStorageFileCache fileCache;
+
+	private SimpleStorageMetadataCache metadataCache;
+
+	private SimpleStorageUploadCheckpointStore uploadCheckpointStore;
+
+	private SimpleStorageMetrics metrics;
+
+	private boolean metricsLookedUp;
+
 	public SimpleStorageProtocolResolver() {
 	}
 
@@ -59,6 +77,82 @@ public class SimpleStorageProtocolResolver implements ProtocolResolver, Initiali
 		this.taskExecutor = taskExecutor;
 	}
 
+	/**
+	 * Configures the part size of multipart uploads for all resolved resources.
+	 * @param uploadPartSize the part size in bytes
+	 * @see SimpleStorageResource#setUploadPartSize(int)
+	 */
+	public void setUploadPartSize(int uploadPartSize) {
+		this.uploadPartSize = uploadPartSize;
+	}
+
+	/**
+	 * Configures the number of parts of a multipart upload that are uploaded
+	 * concurrently by the task executor.
+	 * @param maxConcurrentUploadParts the maximum number of parts in flight per upload
+	 * @see SimpleStorageResource#setMaxConcurrentUploadParts(int)
+	 */
+	public void setMaxConcurrentUploadParts(int maxConcurrentUploadParts) {
+		this.maxConcurrentUploadParts = maxConcurrentUploadParts;
+	}
+
+	/**
+	 * Configures the size of the ranges of parallel downloads.
+	 * @param downloadRangeSize the range size in bytes
+	 * @see SimpleStorageResource#setDownloadRangeSize(int)
+	 */
+	public void setDownloadRangeSize(int downloadRangeSize) {
+		this.downloadRangeSize = downloadRangeSize;
+	}
+
+	/**
+	 * Configures the number of ranges of an object that are downloaded in parallel by
+	 * the task executor.
+	 * @param maxConcurrentDownloadRanges the number of ranges downloaded in parallel
+	 * @see SimpleStorageResource#setMaxConcurrentDownloadRanges(int)
+	 */
+	public void setMaxConcurrentDownloadRanges(int maxConcurrentDownloadRanges) {
+		this.maxConcurrentDownloadRanges = maxConcurrentDownloadRanges;
+	}
+
+	/**
+	 * Configures a local file cache that is used by all resolved resources.
+	 * @param fileCache the cache for the content of the objects
+	 * @see SimpleStorageResource#setFileCache(SimpleStorageFileCache)
+	 */
+	public void setFileCache(SimpleStorageFileCache fileCache) {
+		this.fileCache = fileCache;
+	}
+
+	/**
+	 * Configures a metadata cache that is shared by all resolved resources.
+	 * @param metadataCache the cache for the metadata of the objects
+	 * @see SimpleStorageResource#setMetadataCache(SimpleStorageMetadataCache)
+	 */
+	public void setMetadataCache(SimpleStorageMetadataCache metadataCache) {
+		this.metadataCache = metadataCache;
+	}
+
+	/**
+	 * Makes the multipart uploads of all resolved resources resumable.
+	 * @param uploadCheckpointStore the store for the checkpoints of the uploads
+	 * @see SimpleStorageResource#setUploadCheckpointStore(SimpleStorageUploadCheckpointStore)
+	 */
+	public void setUploadCheckpointStore(SimpleStorageUploadCheckpointStore uploadCheckpointStore) {
+		this.uploadCheckpointStore = uploadCheckpointStore;
+	}
+
+	/**
+	 * Configures the metrics of all resolved resources. If no metrics are set, a unique
+	 * {@link SimpleStorageMetrics} bean of the bean factory is used.
+	 * @param metrics the metrics of the resources
+	 * @see SimpleStorageResource#setMetrics(SimpleStorageMetrics)
+	 */
+	public void setMetrics(SimpleStorageMetrics metrics) {
+		this.metrics = metrics;
+		this.metricsLookedUp = true;
+	}
+
 	@Override
 	public void afterPropertiesSet() {
 		if (this.taskExecutor == null) {
@@ -69,11 +163,20 @@ public class SimpleStorageProtocolResolver implements ProtocolResolver, Initiali
 	@Override
 	public Resource resolve(String location, ResourceLoader resourceLoader) {
 		if (SimpleStorageNameUtils.isSimpleStorageResource(location)) {
-			return new SimpleStorageResource(this.getAmazonS3(),
+			SimpleStorageResource resource = new SimpleStorageResource(this.getAmazonS3(),
 					SimpleStorageNameUtils.getBucketNameFromLocation(location),
 					SimpleStorageNameUtils.getObjectNameFromLocation(location), this.taskExecutor,
 					SimpleStorageNameUtils.getVersionIdFromLocation(location),
 					SimpleStorageNameUtils.getContentTypeFromLocation(location));
+			resource.setUploadPartSize(this.uploadPartSize);
+			resource.setMaxConcurrentUploadParts(this.maxConcurrentUploadParts);
+			resource.setDownloadRangeSize(this.downloadRangeSize);
+			resource.setMaxConcurrentDownloadRanges(this.maxConcurrentDownloadRanges);
+			resource.setFileCache(this.fileCache);
+			resource.setMetadataCache(this.metadataCache);
+			resource.setUploadCheckpointStore(this.uploadCheckpointStore);
+			resource.setMetrics(getMetrics());
+			return resource;
 		}
 		else {
 			return null;
@@ -87,6 +190,16 @@ public class SimpleStorageProtocolResolver implements ProtocolResolver, Initiali
 		return this.amazonS3;
 	}
 
+	private SimpleStorageMetrics getMetrics() {
+		if (!this.metricsLookedUp) {
+			if (this.beanFactory != null) {
+				this.metrics = this.beanFactory.getBeanProvider(SimpleStorageMetrics.class).getIfUnique();
+			}
+			this.metricsLookedUp = true;
+		}
+		return this.metrics;
+	}
+
 	@Override
 	public void setBeanFactory(BeanFactory beanFactory) throws BeansException {
 		this.beanFactory = beanFactory;
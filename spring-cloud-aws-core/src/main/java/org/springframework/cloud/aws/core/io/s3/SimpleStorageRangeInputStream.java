@@ -0,0 +1,158 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.aws.core.io.s3;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.support.ExecutorServiceAdapter;
+
+/**
+ * {@link InputStream} that downloads an object with multiple ranged GET requests in
+ * parallel and returns the ranges in order. At most {@code maxConcurrentRanges} ranges
+ * are downloaded ahead of the reader, which bounds the memory of the stream to
+ * {@code (maxConcurrentRanges + 1) * rangeSize}.
+ *
+ * @since 3.0
+ */
+class SimpleStorageRangeInputStream extends InputStream {
+
+	private final SimpleStorageRangeReader rangeReader;
+
+	private final long contentLength;
+
+	private final int rangeSize;
+
+	private final int maxConcurrentRanges;
+
+	private final ExecutorService executorService;
+
+	private final Deque<Future<byte[]>> pendingRanges = new ArrayDeque<>();
+
+	private long nextRangeStart;
+
+	private byte[] currentRange;
+
+	private int position;
+
+	private boolean closed;
+
+	SimpleStorageRangeInputStream(SimpleStorageRangeReader rangeReader, long contentLength, int rangeSize,
+			int maxConcurrentRanges, TaskExecutor taskExecutor) {
+		this.rangeReader = rangeReader;
+		this.contentLength = contentLength;
+		this.rangeSize = rangeSize;
+		this.maxConcurrentRanges = maxConcurrentRanges;
+		this.executorService = new ExecutorServiceAdapter(taskExecutor);
+	}
+
+	@Override
+	public int read() throws IOException {
+		if (!ensureData()) {
+			return -1;
+		}
+		return this.currentRange[this.position++] & 0xFF;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		if (off < 0 || len < 0 || len > b.length - off) {
+			throw new IndexOutOfBoundsException();
+		}
+		if (len == 0) {
+			return 0;
+		}
+		if (!ensureData()) {
+			return -1;
+		}
+		int length = Math.min(len, this.currentRange.length - this.position);
+		System.arraycopy(this.currentRange, this.position, b, off, length);
+		this.position += length;
+		return length;
+	}
+
+	@Override
+	public int available() throws IOException {
+		return this.currentRange != null ? this.currentRange.length - this.position : 0;
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (this.closed) {
+			return;
+		}
+		this.closed = true;
+		this.currentRange = null;
+		for (Future<byte[]> pendingRange : this.pendingRanges) {
+			pendingRange.cancel(true);
+		}
+		this.pendingRanges.clear();
+	}
+
+	private boolean ensureData() throws IOException {
+		if (this.closed) {
+			throw new IOException("Stream already closed");
+		}
+		while (this.currentRange == null || this.position == this.currentRange.length) {
+			fillReadAheadWindow();
+			Future<byte[]> nextRange = this.pendingRanges.poll();
+			if (nextRange == null) {
+				this.currentRange = null;
+				return false;
+			}
+			this.currentRange = awaitRange(nextRange);
+			this.position = 0;
+			fillReadAheadWindow();
+		}
+		return true;
+	}
+
+	private void fillReadAheadWindow() {
+		while (this.pendingRanges.size() < this.maxConcurrentRanges && this.nextRangeStart < this.contentLength) {
+			long start = this.nextRangeStart;
+			long end = Math.min(start + this.rangeSize, this.contentLength) - 1;
+			this.pendingRanges.add(this.executorService.submit(() -> this.rangeReader.read(start, end)));
+			this.nextRangeStart = end + 1;
+		}
+	}
+
+	private byte[] awaitRange(Future<byte[]> range) throws IOException {
+		try {
+			return range.get();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			close();
+			throw new InterruptedIOException("Interrupted while waiting for a range download");
+		}
+		catch (ExecutionException e) {
+			close();
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			}
+			throw new IOException("Download of range failed", e.getCause());
+		}
+	}
+
+}
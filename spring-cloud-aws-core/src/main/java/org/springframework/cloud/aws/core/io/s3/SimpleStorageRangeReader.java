@@ -0,0 +1,112 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.aws.core.io.s3;
+
+import java.io.IOException;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.GetObjectRequest;
+import com.amazonaws.services.s3.model.S3Object;
+import com.amazonaws.services.s3.model.S3ObjectInputStream;
+
+/**
+ * Reads byte ranges of a single object version. Every range is requested with the version
+ * id or, if the resource is not versioned, the ETag of the object so that a concurrent
+ * modification is detected instead of mixing the content of two versions.
+ *
+ * @since 3.0
+ */
+final class SimpleStorageRangeReader {
+
+	private final AmazonS3 amazonS3;
+
+	private final String bucketName;
+
+	private final String objectName;
+
+	private final String versionId;
+
+	private final String eTag;
+
+	private final SimpleStorageMetrics metrics;
+
+	SimpleStorageRangeReader(AmazonS3 amazonS3, String bucketName, String objectName, String versionId, String eTag,
+			SimpleStorageMetrics metrics) {
+		this.amazonS3 = amazonS3;
+		this.bucketName = bucketName;
+		this.objectName = objectName;
+		this.versionId = versionId;
+		this.eTag = eTag;
+		this.metrics = metrics;
+	}
+
+	/**
+	 * Downloads the given range of the object.
+	 * @param start the first byte of the range
+	 * @param end the last byte of the range (inclusive)
+	 * @return the content of the range
+	 * @throws IOException if the object was modified or the range could not be read
+	 */
+	byte[] read(long start, long end) throws IOException {
+		byte[] content = new byte[Math.toIntExact(end - start + 1)];
+		read(start, content, 0, content.length);
+		return content;
+	}
+
+	/**
+	 * Downloads {@code length} bytes starting at {@code start} into the given array.
+	 * @param start the first byte of the range
+	 * @param target the array to read into
+	 * @param offset the offset in the target array
+	 * @param length the number of bytes to read
+	 * @throws IOException if the object was modified or the range could not be read
+	 */
+	void read(long start, byte[] target, int offset, int length) throws IOException {
+		long end = start + length - 1;
+		GetObjectRequest getObjectRequest = new GetObjectRequest(this.bucketName, this.objectName).withRange(start,
+				end);
+		if (this.versionId != null) {
+			getObjectRequest.setVersionId(this.versionId);
+		}
+		else if (this.eTag != null) {
+			getObjectRequest.withMatchingETagConstraint(this.eTag);
+		}
+		S3Object s3Object = this.amazonS3.getObject(getObjectRequest);
+		if (s3Object == null) {
+			throw new IOException("Object with bucket='" + this.bucketName + "' and objectName='" + this.objectName
+					+ "' has been modified while it was read");
+		}
+
+		try (S3ObjectInputStream inputStream = s3Object.getObjectContent()) {
+			int position = offset;
+			int remaining = length;
+			while (remaining > 0) {
+				int read = inputStream.read(target, position, remaining);
+				if (read == -1) {
+					throw new IOException("Premature end of range " + start + "-" + end + " of object with bucket='"
+							+ this.bucketName + "' and objectName='" + this.objectName + "'");
+				}
+				position += read;
+				remaining -= read;
+			}
+		}
+		if (this.metrics != null) {
+			this.metrics.recordBytesRead(this.bucketName, length);
+		}
+	}
+
+}
@@ -17,47 +17,80 @@
 package org.springframework.cloud.aws.core.io.s3;
 
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.CompletionService;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.Future;
-
+import java.util.function.ObjLongConsumer;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.AmazonWebServiceClient;
+import com.amazonaws.Request;
+import com.amazonaws.Response;
+import com.amazonaws.metrics.AwsSdkMetrics;
+import com.amazonaws.metrics.RequestMetricCollector;
 import com.amazonaws.regions.Region;
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.AmazonS3Client;
+import com.amazonaws.services.s3.Headers;
 import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
 import com.amazonaws.services.s3.model.AmazonS3Exception;
 import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
 import com.amazonaws.services.s3.model.GetObjectMetadataRequest;
 import com.amazonaws.services.s3.model.GetObjectRequest;
 import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
-import com.amazonaws.services.s3.model.InitiateMultipartUploadResult;
+import com.amazonaws.services.s3.model.InputSerialization;
 import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.OutputSerialization;
 import com.amazonaws.services.s3.model.PartETag;
+import com.amazonaws.services.s3.model.PutObjectRequest;
+import com.amazonaws.services.s3.model.S3ObjectSummary;
 import com.amazonaws.services.s3.model.UploadPartRequest;
 import com.amazonaws.services.s3.model.UploadPartResult;
+import com.amazonaws.util.AWSRequestMetrics;
 import com.amazonaws.util.BinaryUtils;
 
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.aop.support.AopUtils;
 import org.springframework.core.io.AbstractResource;
 import org.springframework.core.io.WritableResource;
 import org.springframework.core.task.TaskExecutor;
 import org.springframework.core.task.support.ExecutorServiceAdapter;
+import org.springframework.util.Assert;
+import org.springframework.util.StreamUtils;
 
 /**
  * {@link org.springframework.core.io.Resource} implementation for
@@ -70,6 +103,42 @@ import org.springframework.core.task.support.ExecutorServiceAdapter;
  */
 public class SimpleStorageResource extends AbstractResource implements WritableResource {
 
+	/**
+	 * Minimum size of a part in a multipart upload (except the last one), also the
+	 * default part size.
+	 */
+	public static final int MIN_UPLOAD_PART_SIZE = 1024 * 1024 * 5;
+
+	/**
+	 * Default number of parts of a single multipart upload that are uploaded
+	 * concurrently.
+	 */
+	public static final int DEFAULT_MAX_CONCURRENT_UPLOAD_PARTS = 3;
+
+	/**
+	 * Default size of the ranges of a parallel download.
+	 */
+	public static final int DEFAULT_DOWNLOAD_RANGE_SIZE = 1024 * 1024 * 8;
+
+	// Block size and number of cached blocks of the readable channel, sized for random
+	// reads of indexes and footers
+	private static final int CHANNEL_BLOCK_SIZE = 1024 * 256;
+
+	private static final int CHANNEL_CACHED_BLOCKS = 8;
+
+	// Amazon S3 accepts at most 10,000 parts per upload, the part size is doubled every
+	// PARTS_PER_SIZE_STEP parts so that very large objects stay below the limit
+	private static final int PARTS_PER_SIZE_STEP = 1000;
+
+	// Largest part buffer, bounded by the maximum size of a Java array
+	private static final int MAX_UPLOAD_PART_SIZE = 1024 * 1024 * 1024;
+
+	private static final MessageDigest MD5_DIGEST_PROTOTYPE = createMd5Digest();
+
+	private static final int DIGEST_BUFFER_SIZE = 1024 * 64;
+
+	private static final String NO_SUCH_UPLOAD_ERROR_CODE = "NoSuchUpload";
+
 	private final String bucketName;
 
 	private final String objectName;
@@ -84,6 +153,22 @@ public class SimpleStorageResource extends AbstractResource implements WritableR
 
 	private volatile ObjectMetadata objectMetadata;
 
+	private int uploadPartSize = MIN_UPLOAD_PART_SIZE;
+
+	private int maxConcurrentUploadParts = DEFAULT_MAX_CONCURRENT_UPLOAD_PARTS;
+
+	private int downloadRangeSize = DEFAULT_DOWNLOAD_RANGE_SIZE;
+
+	private int maxConcurrentDownloadRanges = 1;
+
+	private SimpleStorageFileCache fileCache;
+
+	private SimpleStorageMetadataCache metadataCache;
+
+	private SimpleStorageUploadCheckpointStore uploadCheckpointStore;
+
+	private SimpleStorageMetrics metrics;
+
 	public SimpleStorageResource(AmazonS3 amazonS3, String bucketName, String objectName, TaskExecutor taskExecutor) {
 		this(amazonS3, bucketName, objectName, taskExecutor, null, null);
 	}
@@ -114,11 +199,37 @@ public class SimpleStorageResource extends AbstractResource implements WritableR
 
 	@Override
 	public InputStream getInputStream() throws IOException {
+		if (this.fileCache != null) {
+			return this.fileCache.getInputStream(this.amazonS3, this.bucketName, this.objectName, this.versionId);
+		}
+		if (this.maxConcurrentDownloadRanges > 1) {
+			ObjectMetadata metadata = getRequiredObjectMetadata();
+			if (metadata.getContentLength() > this.downloadRangeSize) {
+				return new SimpleStorageRangeInputStream(createRangeReader(metadata), metadata.getContentLength(),
+						this.downloadRangeSize, this.maxConcurrentDownloadRanges, this.taskExecutor);
+			}
+		}
 		GetObjectRequest getObjectRequest = new GetObjectRequest(this.bucketName, this.objectName);
 		if (this.versionId != null) {
 			getObjectRequest.setVersionId(this.versionId);
 		}
-		return this.amazonS3.getObject(getObjectRequest).getObjectContent();
+		InputStream content = this.amazonS3.getObject(getObjectRequest).getObjectContent();
+		return this.metrics != null ? new MeteredInputStream(content) : content;
+	}
+
+	/**
+	 * Returns a read-only channel that supports random access to the content of the
+	 * object. Only the requested parts of the object are downloaded with ranged requests,
+	 * which allows to read e.g. the index of an archive without downloading the whole
+	 * object.
+	 * @return a seekable channel for the object
+	 * @throws IOException if the object does not exist
+	 */
+	@Override
+	public SeekableByteChannel readableChannel() throws IOException {
+		ObjectMetadata metadata = getRequiredObjectMetadata();
+		return new SimpleStorageSeekableByteChannel(createRangeReader(metadata), metadata.getContentLength(),
+				CHANNEL_BLOCK_SIZE, CHANNEL_CACHED_BLOCKS);
 	}
 
 	@Override
@@ -158,8 +269,17 @@ public class SimpleStorageResource extends AbstractResource implements WritableR
 		}
 	}
 
+	/**
+	 * Returns the locally cached file of the object if a
+	 * {@link #setFileCache(SimpleStorageFileCache) file cache} is configured.
+	 * @return the cached file with the content of the object
+	 * @throws UnsupportedOperationException if no file cache is configured
+	 */
 	@Override
 	public File getFile() throws IOException {
+		if (this.fileCache != null) {
+			return this.fileCache.getFile(this.amazonS3, this.bucketName, this.objectName, this.versionId);
+		}
 		throw new UnsupportedOperationException("Amazon S3 resource can not be resolved to java.io.File objects.Use "
 				+ "getInputStream() to retrieve the contents of the object!");
 	}
@@ -187,20 +307,320 @@ public class SimpleStorageResource extends AbstractResource implements WritableR
 
 	@Override
 	public OutputStream getOutputStream() throws IOException {
-		return new SimpleStorageOutputStream();
+		return new SimpleStorageOutputStream(false);
+	}
+
+	/**
+	 * Returns an output stream whose {@code close()} method returns as soon as the last
+	 * part has been handed to the task executor. The upload is finished in the
+	 * background and tracked by {@link SimpleStorageAsyncOutputStream#getCompletion()},
+	 * which also reports failed uploads. Writing still blocks if all part buffers are in
+	 * use, so the memory of an upload stays bounded.
+	 * @return an output stream that does not wait for the upload on close
+	 */
+	public SimpleStorageAsyncOutputStream getAsyncOutputStream() {
+		return new SimpleStorageOutputStream(true);
+	}
+
+	/**
+	 * Uploads the content of a local file without copying it into heap buffers. Files up
+	 * to the {@link #setUploadPartSize(int) upload part size} are uploaded with a single
+	 * request, larger files with a multipart upload whose parts are read from regions of
+	 * the file. Up to {@link #setMaxConcurrentUploadParts(int) maxConcurrentUploadParts}
+	 * parts are uploaded at the same time. Multipart uploads are resumable if an
+	 * {@link #setUploadCheckpointStore upload checkpoint store} is configured.
+	 * @param file the file to upload
+	 * @throws IOException if the file can not be read or the upload fails
+	 */
+	public void upload(Path file) throws IOException {
+		File content = file.toFile();
+		long contentLength = Files.size(file);
+		try {
+			if (contentLength <= this.uploadPartSize) {
+				this.amazonS3.putObject(new PutObjectRequest(this.bucketName, this.objectName, content)
+						.withMetadata(createObjectMetadata()));
+				recordBytesWritten(contentLength);
+			}
+			else {
+				uploadParts(contentLength, this.maxConcurrentUploadParts,
+						(uploadPartRequest, offset) -> uploadPartRequest.withFile(content).withFileOffset(offset),
+						(offset, length) -> digest(file, offset, length));
+			}
+		}
+		finally {
+			evictObjectMetadata();
+		}
+	}
+
+	/**
+	 * Uploads the given number of bytes from the channel, which are streamed to S3
+	 * without buffering whole parts in memory. As the channel can only be read
+	 * sequentially, the parts of a multipart upload are uploaded one after another and
+	 * the upload can not be resumed. The channel is not closed.
+	 * @param channel the channel to read the content from
+	 * @param contentLength the number of bytes to upload
+	 * @throws IOException if the channel can not be read or the upload fails
+	 * @see #upload(Path)
+	 */
+	public void upload(ReadableByteChannel channel, long contentLength) throws IOException {
+		Assert.isTrue(contentLength >= 0, "contentLength must not be negative");
+		// The SDK closes the streams of the requests
+		InputStream content = StreamUtils.nonClosing(Channels.newInputStream(channel));
+		try {
+			if (contentLength <= this.uploadPartSize) {
+				ObjectMetadata objectMetadata = createObjectMetadata();
+				objectMetadata.setContentLength(contentLength);
+				this.amazonS3.putObject(new PutObjectRequest(this.bucketName, this.objectName, content, objectMetadata));
+				recordBytesWritten(contentLength);
+			}
+			else {
+				uploadParts(contentLength, 1,
+						(uploadPartRequest, offset) -> uploadPartRequest.withInputStream(content), null);
+			}
+		}
+		finally {
+			evictObjectMetadata();
+		}
+	}
+
+	/**
+	 * Returns a resource with the records of the object that match an S3 Select SQL
+	 * expression, e.g. {@code SELECT s.time FROM S3Object s WHERE s.level = 'ERROR'}.
+	 * The format of the object is derived from the extension of its name, which must be
+	 * {@code .csv} or {@code .tsv} with a header line, {@code .json}, {@code .jsonl},
+	 * {@code .ndjson} or {@code .parquet}, optionally followed by {@code .gz} or
+	 * {@code .bz2}. Records are returned as CSV for CSV objects and as JSON lines
+	 * otherwise.
+	 * @param expression the SQL expression
+	 * @return a resource whose content is the result of the query
+	 * @throws IllegalArgumentException if the format can not be derived from the name
+	 */
+	public SimpleStorageSelectResource select(String expression) {
+		InputSerialization inputSerialization = SimpleStorageSelectResource.createInputSerialization(this.objectName);
+		return select(expression, inputSerialization,
+				SimpleStorageSelectResource.createOutputSerialization(inputSerialization));
+	}
+
+	/**
+	 * Returns a resource with the records of the object that match an S3 Select SQL
+	 * expression.
+	 * @param expression the SQL expression
+	 * @param inputSerialization the format of the object
+	 * @param outputSerialization the format of the returned records
+	 * @return a resource whose content is the result of the query
+	 */
+	public SimpleStorageSelectResource select(String expression, InputSerialization inputSerialization,
+			OutputSerialization outputSerialization) {
+		Assert.state(this.versionId == null, "S3 Select does not support versions of objects");
+		return new SimpleStorageSelectResource(this, expression, inputSerialization, outputSerialization);
 	}
 
 	@Override
 	public SimpleStorageResource createRelative(String relativePath) throws IOException {
 		String relativeKey = this.objectName + "/" + relativePath;
-		return new SimpleStorageResource(this.amazonS3, this.bucketName, relativeKey, this.taskExecutor);
+		SimpleStorageResource relative = new SimpleStorageResource(this.amazonS3, this.bucketName, relativeKey,
+				this.taskExecutor);
+		relative.setUploadPartSize(this.uploadPartSize);
+		relative.setMaxConcurrentUploadParts(this.maxConcurrentUploadParts);
+		relative.setDownloadRangeSize(this.downloadRangeSize);
+		relative.setMaxConcurrentDownloadRanges(this.maxConcurrentDownloadRanges);
+		relative.setFileCache(this.fileCache);
+		relative.setMetadataCache(this.metadataCache);
+		relative.setUploadCheckpointStore(this.uploadCheckpointStore);
+		relative.setMetrics(this.metrics);
+		return relative;
 	}
 
 	public AmazonS3 getAmazonS3() {
 		return amazonS3;
 	}
 
+	String getBucketName() {
+		return this.bucketName;
+	}
+
+	String getObjectName() {
+		return this.objectName;
+	}
+
+	String getVersionId() {
+		return this.versionId;
+	}
+
+	public int getUploadPartSize() {
+		return this.uploadPartSize;
+	}
+
+	/**
+	 * Configures the size of the parts of a multipart upload, objects up to this size
+	 * are uploaded with a single request. The part size is doubled every 1,000 parts to
+	 * stay below the limit of 10,000 parts for very large objects.
+	 * @param uploadPartSize the part size in bytes, at least {@link #MIN_UPLOAD_PART_SIZE}
+	 */
+	public void setUploadPartSize(int uploadPartSize) {
+		Assert.isTrue(uploadPartSize >= MIN_UPLOAD_PART_SIZE && uploadPartSize <= MAX_UPLOAD_PART_SIZE,
+				"uploadPartSize must be between " + MIN_UPLOAD_PART_SIZE + " and " + MAX_UPLOAD_PART_SIZE);
+		this.uploadPartSize = uploadPartSize;
+	}
+
+	public int getMaxConcurrentUploadParts() {
+		return this.maxConcurrentUploadParts;
+	}
+
+	/**
+	 * Configures how many parts of a single multipart upload are uploaded at the same
+	 * time. Writers block once this number of parts is waiting for the task executor, so
+	 * the memory of an upload is bounded to {@code (maxConcurrentUploadParts + 1) *
+	 * uploadPartSize}. Parts are only uploaded in parallel if the task executor is
+	 * asynchronous.
+	 * @param maxConcurrentUploadParts the maximum number of parts in flight
+	 */
+	public void setMaxConcurrentUploadParts(int maxConcurrentUploadParts) {
+		Assert.isTrue(maxConcurrentUploadParts > 0, "maxConcurrentUploadParts must be greater than 0");
+		this.maxConcurrentUploadParts = maxConcurrentUploadParts;
+	}
+
+	public int getDownloadRangeSize() {
+		return this.downloadRangeSize;
+	}
+
+	/**
+	 * Configures the size of the ranges that are downloaded in parallel, only objects
+	 * larger than one range are downloaded with ranged requests.
+	 * @param downloadRangeSize the range size in bytes
+	 * @see #setMaxConcurrentDownloadRanges(int)
+	 */
+	public void setDownloadRangeSize(int downloadRangeSize) {
+		Assert.isTrue(downloadRangeSize > 0, "downloadRangeSize must be greater than 0");
+		this.downloadRangeSize = downloadRangeSize;
+	}
+
+	public int getMaxConcurrentDownloadRanges() {
+		return this.maxConcurrentDownloadRanges;
+	}
+
+	/**
+	 * Configures how many ranges of an object are downloaded ahead of the reader of
+	 * {@link #getInputStream()}. A value greater than 1 enables parallel downloads of
+	 * large objects with the task executor, the memory of a download is bounded to
+	 * {@code (maxConcurrentDownloadRanges + 1) * downloadRangeSize}. Default is 1 which
+	 * streams the object with a single request.
+	 * @param maxConcurrentDownloadRanges the number of ranges downloaded in parallel
+	 */
+	public void setMaxConcurrentDownloadRanges(int maxConcurrentDownloadRanges) {
+		Assert.isTrue(maxConcurrentDownloadRanges > 0, "maxConcurrentDownloadRanges must be greater than 0");
+		this.maxConcurrentDownloadRanges = maxConcurrentDownloadRanges;
+	}
+
+	public SimpleStorageFileCache getFileCache() {
+		return this.fileCache;
+	}
+
+	/**
+	 * Configures a local file cache for the content of the object. If set,
+	 * {@link #getInputStream()} reads the object through the cache and
+	 * {@link #getFile()} returns the cached file.
+	 * @param fileCache the cache, may be {@code null} to disable caching
+	 */
+	public void setFileCache(SimpleStorageFileCache fileCache) {
+		this.fileCache = fileCache;
+	}
+
+	public SimpleStorageMetadataCache getMetadataCache() {
+		return this.metadataCache;
+	}
+
+	/**
+	 * Configures a metadata cache that is shared with other resource instances. If set,
+	 * the metadata of the object is looked up in the cache before a {@code HEAD} request
+	 * is issued.
+	 * @param metadataCache the cache, may be {@code null} to disable sharing
+	 */
+	public void setMetadataCache(SimpleStorageMetadataCache metadataCache) {
+		this.metadataCache = metadataCache;
+	}
+
+	public SimpleStorageUploadCheckpointStore getUploadCheckpointStore() {
+		return this.uploadCheckpointStore;
+	}
+
+	/**
+	 * Makes multipart uploads resumable. The upload id and the ETags of the uploaded
+	 * parts are stored in the given store and a failed upload is not aborted, so that the
+	 * next upload of the same object continues the upload. Parts that were uploaded
+	 * before are only skipped if their MD5 digest matches the ETag, other parts are
+	 * uploaded again. Applies to {@link #getOutputStream()},
+	 * {@link #getAsyncOutputStream()} and {@link #upload(Path)}.
+	 * <p>
+	 * Unfinished uploads are stored by S3 until they are completed or aborted, a bucket
+	 * lifecycle rule should abort incomplete multipart uploads after some days.
+	 * @param uploadCheckpointStore the store for the checkpoints of the uploads, or
+	 * {@code null} to abort failed uploads
+	 */
+	public void setUploadCheckpointStore(SimpleStorageUploadCheckpointStore uploadCheckpointStore) {
+		this.uploadCheckpointStore = uploadCheckpointStore;
+	}
+
+	public SimpleStorageMetrics getMetrics() {
+		return this.metrics;
+	}
+
+	/**
+	 * Records the transferred bytes, the part uploads and the metadata requests of the
+	 * resource. The metrics also receive the redirects of the requests of the client to
+	 * the region of a bucket.
+	 * @param metrics the metrics, may be {@code null} to disable metrics
+	 */
+	public void setMetrics(SimpleStorageMetrics metrics) {
+		this.metrics = metrics;
+		if (metrics != null) {
+			AmazonS3ProxyFactory.setMetrics(this.amazonS3, metrics);
+		}
+	}
+
+	/**
+	 * Initializes the metadata of the resource from the summary of an object listing,
+	 * which avoids a {@code HEAD} request for resources that are resolved from a
+	 * listing. The summary only provides the size, the last modification date and the
+	 * ETag of the object.
+	 */
+	void setObjectSummary(S3ObjectSummary objectSummary) {
+		ObjectMetadata metadata = new ObjectMetadata();
+		metadata.setContentLength(objectSummary.getSize());
+		metadata.setLastModified(objectSummary.getLastModified());
+		metadata.setHeader(Headers.ETAG, objectSummary.getETag());
+		this.objectMetadata = metadata;
+		if (this.metadataCache != null) {
+			this.metadataCache.put(this.bucketName, this.objectName, this.versionId, metadata);
+		}
+	}
+
+	/**
+	 * Returns the ETag of the object, which is the MD5 digest of the content for objects
+	 * that were not uploaded in parts or encrypted with KMS keys.
+	 */
+	String getETag() throws FileNotFoundException {
+		return getRequiredObjectMetadata().getETag();
+	}
+
+	/**
+	 * Returns the size of the given part, the part size doubles every
+	 * {@link #PARTS_PER_SIZE_STEP} parts.
+	 */
+	int getUploadPartSize(int partNumber) {
+		int doublings = Math.min((partNumber - 1) / PARTS_PER_SIZE_STEP, 30);
+		return (int) Math.min((long) this.uploadPartSize << doublings, MAX_UPLOAD_PART_SIZE);
+	}
+
+	private SimpleStorageRangeReader createRangeReader(ObjectMetadata metadata) {
+		return new SimpleStorageRangeReader(this.amazonS3, this.bucketName, this.objectName, this.versionId,
+				metadata.getETag(), this.metrics);
+	}
+
 	private ObjectMetadata getObjectMetadata() {
+		if (this.objectMetadata == null && this.metadataCache != null) {
+			this.objectMetadata = this.metadataCache.get(this.bucketName, this.objectName, this.versionId);
+		}
 		if (this.objectMetadata == null) {
 			try {
 				GetObjectMetadataRequest metadataRequest = new GetObjectMetadataRequest(this.bucketName,
@@ -208,7 +628,13 @@ public class SimpleStorageResource extends AbstractResource implements WritableR
 				if (this.versionId != null) {
 					metadataRequest.setVersionId(this.versionId);
 				}
+				if (this.metrics != null) {
+					this.metrics.recordHeadRequest(this.bucketName);
+				}
 				this.objectMetadata = this.amazonS3.getObjectMetadata(metadataRequest);
+				if (this.objectMetadata != null && this.metadataCache != null) {
+					this.metadataCache.put(this.bucketName, this.objectName, this.versionId, this.objectMetadata);
+				}
 			}
 			catch (AmazonS3Exception e) {
 				// Catch 404 (object not found) and 301 (bucket not found, moved
@@ -224,145 +650,582 @@ public class SimpleStorageResource extends AbstractResource implements WritableR
 		return this.objectMetadata;
 	}
 
-	private class SimpleStorageOutputStream extends OutputStream {
+	/**
+	 * Creates an MD5 digest by cloning a prototype, which avoids the provider lookup of
+	 * {@link MessageDigest#getInstance(String)} for every upload.
+	 */
+	private static MessageDigest createContentDigest() {
+		try {
+			return (MessageDigest) MD5_DIGEST_PROTOTYPE.clone();
+		}
+		catch (CloneNotSupportedException e) {
+			return createMd5Digest();
+		}
+	}
+
+	private static MessageDigest createMd5Digest() {
+		try {
+			return MessageDigest.getInstance("MD5");
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(
+					"MessageDigest could not be initialized because it uses an unknown algorithm", e);
+		}
+	}
+
+	private ObjectMetadata createObjectMetadata() {
+		ObjectMetadata objectMetadata = new ObjectMetadata();
+		if (this.contentType != null) {
+			objectMetadata.setContentType(this.contentType);
+		}
+		return objectMetadata;
+	}
+
+	/**
+	 * Uploads the content as multipart upload with at most {@code maxConcurrentParts}
+	 * parts at a time, the content of each part request is set by the given function.
+	 * Parts of a resumed upload are skipped if the digest of their content matches.
+	 */
+	private void uploadParts(long contentLength, int maxConcurrentParts,
+			ObjLongConsumer<UploadPartRequest> partContent, PartDigest partDigest) throws IOException {
+		MultipartUpload multipartUpload = new MultipartUpload(partDigest != null);
+		CompletionService<UploadPartResult> completionService = new ExecutorCompletionService<>(
+				new ExecutorServiceAdapter(this.taskExecutor));
+		List<Future<UploadPartResult>> futures = new ArrayList<>();
+		List<PartETag> partETags = new ArrayList<>();
+		try {
+			long offset = 0;
+			int partNumber = 1;
+			int runningParts = 0;
+			while (offset < contentLength || runningParts > 0) {
+				while (offset < contentLength && runningParts < maxConcurrentParts) {
+					long partSize = Math.min(getUploadPartSize(partNumber), contentLength - offset);
+					String checkpointedETag = multipartUpload.getCheckpointedETag(partNumber);
+					if (checkpointedETag != null
+							&& isSameContent(checkpointedETag, partDigest.digest(offset, partSize))) {
+						partETags.add(new PartETag(partNumber, checkpointedETag));
+					}
+					else {
+						UploadPartRequest uploadPartRequest = new UploadPartRequest().withBucketName(this.bucketName)
+								.withKey(this.objectName).withUploadId(multipartUpload.getUploadId())
+								.withPartNumber(partNumber).withPartSize(partSize)
+								.withLastPart(offset + partSize == contentLength);
+						partContent.accept(uploadPartRequest, offset);
+						futures.add(completionService.submit(() -> multipartUpload.uploadPart(uploadPartRequest)));
+						runningParts++;
+					}
+					partNumber++;
+					offset += partSize;
+				}
+				if (runningParts > 0) {
+					partETags.add(completionService.take().get().getPartETag());
+					runningParts--;
+				}
+			}
+			partETags.sort(Comparator.comparingInt(PartETag::getPartNumber));
+			multipartUpload.complete(partETags);
+		}
+		catch (ExecutionException e) {
+			abortMultipartUpload(multipartUpload, futures);
+			throw new IOException("Multi part upload failed ", e.getCause());
+		}
+		catch (InterruptedException e) {
+			abortMultipartUpload(multipartUpload, futures);
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for a part upload to finish");
+		}
+		catch (IOException | RuntimeException e) {
+			abortMultipartUpload(multipartUpload, futures);
+			throw e;
+		}
+	}
+
+	private void abortMultipartUpload(MultipartUpload multipartUpload, List<Future<UploadPartResult>> futures) {
+		for (Future<UploadPartResult> future : futures) {
+			future.cancel(true);
+		}
+		multipartUpload.abort();
+	}
+
+	private static byte[] digest(Path file, long offset, long length) throws IOException {
+		MessageDigest digest = createContentDigest();
+		ByteBuffer buffer = ByteBuffer.allocate(DIGEST_BUFFER_SIZE);
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			long position = offset;
+			long end = offset + length;
+			while (position < end) {
+				buffer.clear();
+				buffer.limit((int) Math.min(buffer.capacity(), end - position));
+				int read = channel.read(buffer, position);
+				if (read < 0) {
+					break;
+				}
+				buffer.flip();
+				digest.update(buffer);
+				position += read;
+			}
+		}
+		return digest.digest();
+	}
+
+	/**
+	 * Compares the ETag of an uploaded part with the MD5 digest of the content, which
+	 * is the ETag of parts that are not encrypted with KMS.
+	 */
+	private static boolean isSameContent(String eTag, byte[] md5Digest) {
+		return eTag.replace("\"", "").equalsIgnoreCase(BinaryUtils.toHex(md5Digest));
+	}
+
+	private void recordBytesWritten(long bytes) {
+		if (this.metrics != null) {
+			this.metrics.recordBytesWritten(this.bucketName, bytes);
+		}
+	}
+
+	void evictObjectMetadata() {
+		this.objectMetadata = null;
+		if (this.metadataCache != null) {
+			this.metadataCache.evict(this.bucketName, this.objectName, this.versionId);
+		}
+	}
+
+	/**
+	 * Computes the MD5 digest of a part of the uploaded content.
+	 */
+	@FunctionalInterface
+	private interface PartDigest {
+
+		byte[] digest(long offset, long length) throws IOException;
+
+	}
+
+	/**
+	 * Multipart upload of the object. A resumable upload continues the upload of the
+	 * checkpoint in the {@link #uploadCheckpointStore}, records the uploaded parts and
+	 * is not aborted on failures.
+	 */
+	private final class MultipartUpload {
+
+		private final SimpleStorageUploadCheckpointStore checkpointStore;
+
+		private final String uploadId;
+
+		private final Map<Integer, String> checkpointedParts;
+
+		private MultipartUpload(boolean resumable) {
+			this.checkpointStore = resumable ? SimpleStorageResource.this.uploadCheckpointStore : null;
+			SimpleStorageUploadCheckpoint checkpoint = this.checkpointStore != null
+					? this.checkpointStore.load(SimpleStorageResource.this.bucketName,
+							SimpleStorageResource.this.objectName)
+					: null;
+			if (checkpoint != null && checkpoint.getPartSize() == SimpleStorageResource.this.uploadPartSize) {
+				this.uploadId = checkpoint.getUploadId();
+				this.checkpointedParts = checkpoint.getPartETags();
+				return;
+			}
+			if (checkpoint != null) {
+				// The parts do not line up with the current part size
+				abortQuietly(checkpoint.getUploadId());
+			}
+			this.uploadId = SimpleStorageResource.this.amazonS3
+					.initiateMultipartUpload(new InitiateMultipartUploadRequest(SimpleStorageResource.this.bucketName,
+							SimpleStorageResource.this.objectName, createObjectMetadata()))
+					.getUploadId();
+			this.checkpointedParts = Collections.emptyMap();
+			if (this.checkpointStore != null) {
+				this.checkpointStore.save(new SimpleStorageUploadCheckpoint(SimpleStorageResource.this.bucketName,
+						SimpleStorageResource.this.objectName, this.uploadId,
+						SimpleStorageResource.this.uploadPartSize, Collections.emptyMap()));
+			}
+		}
+
+		private String getUploadId() {
+			return this.uploadId;
+		}
+
+		/**
+		 * @return the ETag of the part if it was uploaded by a previous attempt
+		 */
+		private String getCheckpointedETag(int partNumber) {
+			return this.checkpointedParts.get(partNumber);
+		}
+
+		private UploadPartResult uploadPart(UploadPartRequest uploadPartRequest) {
+			UploadPartResult result;
+			try {
+				result = SimpleStorageResource.this.metrics != null ? uploadPartMetered(uploadPartRequest)
+						: SimpleStorageResource.this.amazonS3.uploadPart(uploadPartRequest);
+			}
+			catch (AmazonS3Exception e) {
+				deleteCheckpointIfUploadIsGone(e);
+				throw e;
+			}
+			if (this.checkpointStore != null) {
+				this.checkpointStore.addPart(SimpleStorageResource.this.bucketName,
+						SimpleStorageResource.this.objectName, this.uploadId, result.getPartETag());
+			}
+			return result;
+		}
+
+		private UploadPartResult uploadPartMetered(UploadPartRequest uploadPartRequest) {
+			SimpleStorageMetrics metrics = SimpleStorageResource.this.metrics;
+			String bucketName = SimpleStorageResource.this.bucketName;
+			RetryCountingMetricCollector retryCounter = new RetryCountingMetricCollector(
+					getClientRequestMetricCollector());
+			uploadPartRequest.setRequestMetricCollector(retryCounter);
+			metrics.partUploadStarted(bucketName);
+			long start = System.nanoTime();
+			boolean successful = false;
+			try {
+				UploadPartResult result = SimpleStorageResource.this.amazonS3.uploadPart(uploadPartRequest);
+				successful = true;
+				metrics.recordBytesWritten(bucketName, uploadPartRequest.getPartSize());
+				return result;
+			}
+			finally {
+				metrics.partUploadFinished(bucketName, System.nanoTime() - start, retryCounter.retries, successful);
+			}
+		}
+
+		/**
+		 * Returns the collector the SDK would use for the request without a request
+		 * specific one: the collector of the client or the default collector.
+		 */
+		private RequestMetricCollector getClientRequestMetricCollector() {
+			Object client = SimpleStorageResource.this.amazonS3;
+			while (AopUtils.isAopProxy(client)) {
+				Object target = AopProxyUtils.getSingletonTarget(client);
+				if (target == null) {
+					break;
+				}
+				client = target;
+			}
+			if (client instanceof AmazonWebServiceClient) {
+				RequestMetricCollector clientCollector = ((AmazonWebServiceClient) client).getRequestMetricsCollector();
+				if (clientCollector != null) {
+					return clientCollector;
+				}
+			}
+			return AwsSdkMetrics.getRequestMetricCollector();
+		}
+
+		private void complete(List<PartETag> partETags) {
+			try {
+				SimpleStorageResource.this.amazonS3
+						.completeMultipartUpload(new CompleteMultipartUploadRequest(SimpleStorageResource.this.bucketName,
+								SimpleStorageResource.this.objectName, this.uploadId, partETags));
+			}
+			catch (AmazonS3Exception e) {
+				deleteCheckpointIfUploadIsGone(e);
+				throw e;
+			}
+			if (this.checkpointStore != null) {
+				this.checkpointStore.delete(SimpleStorageResource.this.bucketName,
+						SimpleStorageResource.this.objectName);
+			}
+		}
+
+		/**
+		 * Aborts the upload, resumable uploads are kept for the next attempt.
+		 */
+		private void abort() {
+			if (this.checkpointStore == null) {
+				SimpleStorageResource.this.amazonS3.abortMultipartUpload(new AbortMultipartUploadRequest(
+						SimpleStorageResource.this.bucketName, SimpleStorageResource.this.objectName, this.uploadId));
+			}
+		}
+
+		private void abortQuietly(String staleUploadId) {
+			try {
+				SimpleStorageResource.this.amazonS3.abortMultipartUpload(new AbortMultipartUploadRequest(
+						SimpleStorageResource.this.bucketName, SimpleStorageResource.this.objectName, staleUploadId));
+			}
+			catch (AmazonClientException e) {
+				// The upload may have been aborted by a lifecycle rule already
+			}
+		}
+
+		// An upload that was aborted or expired can not be continued
+		private void deleteCheckpointIfUploadIsGone(AmazonS3Exception e) {
+			if (this.checkpointStore != null && NO_SUCH_UPLOAD_ERROR_CODE.equals(e.getErrorCode())) {
+				this.checkpointStore.delete(SimpleStorageResource.this.bucketName,
+						SimpleStorageResource.this.objectName);
+			}
+		}
+
+	}
+
+	private class SimpleStorageOutputStream extends SimpleStorageAsyncOutputStream {
 
-		// The minimum size for a multi part is 5 MB, hence the buffer size of 5 MB
-		private static final int BUFFER_SIZE = 1024 * 1024 * 5;
+		// Small objects never need the full part buffer, the first buffer grows on demand
+		private static final int INITIAL_BUFFER_SIZE = 1024 * 8;
 
 		private final Object monitor = new Object();
 
-		private final CompletionService<UploadPartResult> completionService;
+		// Whether close() returns before the upload is finished
+		private final boolean async;
+
+		private final CompletableFuture<Void> completion = new CompletableFuture<>();
+
+		private final List<CompletableFuture<PartETag>> uploadedParts = new ArrayList<>();
 
-		@SuppressWarnings("FieldMayBeFinal")
-		private ByteArrayOutputStream currentOutputStream = new ByteArrayOutputStream(BUFFER_SIZE);
+		// One buffer is filled while the others are uploaded
+		private final PartBufferPool partBufferPool = new PartBufferPool(
+				SimpleStorageResource.this.maxConcurrentUploadParts + 1);
+
+		private byte[] currentBuffer = new byte[INITIAL_BUFFER_SIZE];
+
+		// Content-MD5 of a simple upload, updated while the bytes are written and dropped
+		// once the upload turns into a multipart upload
+		private MessageDigest contentDigest = createContentDigest();
+
+		private int currentBufferSize;
+
+		private boolean closed;
 
 		private int partNumberCounter = 1;
 
-		private InitiateMultipartUploadResult multiPartUploadResult;
+		private MultipartUpload multipartUpload;
 
-		SimpleStorageOutputStream() {
-			this.completionService = new ExecutorCompletionService<>(
-					new ExecutorServiceAdapter(SimpleStorageResource.this.taskExecutor));
+		SimpleStorageOutputStream(boolean async) {
+			this.async = async;
 		}
 
 		@Override
 		public void write(int b) throws IOException {
 			synchronized (this.monitor) {
-				if (this.currentOutputStream.size() == BUFFER_SIZE) {
-					initiateMultiPartIfNeeded();
-					this.completionService.submit(new UploadPartResultCallable(SimpleStorageResource.this.amazonS3,
-							this.currentOutputStream.toByteArray(), this.currentOutputStream.size(),
-							SimpleStorageResource.this.bucketName, SimpleStorageResource.this.objectName,
-							this.multiPartUploadResult.getUploadId(), this.partNumberCounter++, false));
-					this.currentOutputStream.reset();
+				ensureBufferCapacity();
+				this.currentBuffer[this.currentBufferSize++] = (byte) b;
+				if (this.contentDigest != null) {
+					this.contentDigest.update((byte) b);
+				}
+			}
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			if (off < 0 || len < 0 || len > b.length - off) {
+				throw new IndexOutOfBoundsException();
+			}
+			synchronized (this.monitor) {
+				int offset = off;
+				int remaining = len;
+				while (remaining > 0) {
+					ensureBufferCapacity();
+					int length = Math.min(remaining, this.currentBuffer.length - this.currentBufferSize);
+					System.arraycopy(b, offset, this.currentBuffer, this.currentBufferSize, length);
+					if (this.contentDigest != null) {
+						this.contentDigest.update(b, offset, length);
+					}
+					this.currentBufferSize += length;
+					offset += length;
+					remaining -= length;
 				}
-				this.currentOutputStream.write(b);
 			}
 		}
 
 		@Override
 		public void close() throws IOException {
 			synchronized (this.monitor) {
-				if (this.currentOutputStream == null) {
+				if (this.closed) {
 					return;
 				}
+				this.closed = true;
 
-				if (isMultiPartUpload()) {
-					finishMultiPartUpload();
+				CompletableFuture<Void> upload;
+				try {
+					upload = isMultiPartUpload() ? finishMultiPartUpload() : finishSimpleUpload();
 				}
-				else {
-					finishSimpleUpload();
+				catch (RuntimeException e) {
+					evictObjectMetadata();
+					this.completion.completeExceptionally(e);
+					throw e;
 				}
+				upload.whenComplete((result, failure) -> {
+					evictObjectMetadata();
+					if (failure != null) {
+						this.completion.completeExceptionally(unwrap(failure));
+					}
+					else {
+						this.completion.complete(null);
+					}
+				});
+			}
+			if (!this.async) {
+				awaitCompletion();
 			}
 		}
 
-		private boolean isMultiPartUpload() {
-			return this.multiPartUploadResult != null;
+		@Override
+		public CompletableFuture<Void> getCompletion() {
+			return this.completion;
 		}
 
-		private void finishSimpleUpload() {
-			ObjectMetadata objectMetadata = new ObjectMetadata();
-			objectMetadata.setContentLength(this.currentOutputStream.size());
-
-			byte[] content = this.currentOutputStream.toByteArray();
+		private void awaitCompletion() throws IOException {
 			try {
-				MessageDigest messageDigest = MessageDigest.getInstance("MD5");
-				String md5Digest = BinaryUtils.toBase64(messageDigest.digest(content));
-				objectMetadata.setContentMD5(md5Digest);
-				if (SimpleStorageResource.this.contentType != null) {
-					objectMetadata.setContentType(SimpleStorageResource.this.contentType);
+				this.completion.get();
+			}
+			catch (ExecutionException e) {
+				if (e.getCause() instanceof IOException) {
+					throw (IOException) e.getCause();
+				}
+				if (e.getCause() instanceof RuntimeException) {
+					throw (RuntimeException) e.getCause();
 				}
+				throw new IOException("Upload failed", e.getCause());
 			}
-			catch (NoSuchAlgorithmException e) {
-				throw new IllegalStateException(
-						"MessageDigest could not be initialized because it uses an unknown algorithm", e);
+			catch (InterruptedException e) {
+				cancelPartUploads();
+				abortMultiPartUpload();
+				Thread.currentThread().interrupt();
 			}
-
-			SimpleStorageResource.this.amazonS3.putObject(SimpleStorageResource.this.bucketName,
-					SimpleStorageResource.this.objectName, new ByteArrayInputStream(content), objectMetadata);
-
-			// Release the memory early
-			this.currentOutputStream = null;
 		}
 
-		private void finishMultiPartUpload() throws IOException {
-			this.completionService.submit(new UploadPartResultCallable(SimpleStorageResource.this.amazonS3,
-					this.currentOutputStream.toByteArray(), this.currentOutputStream.size(),
-					SimpleStorageResource.this.bucketName, SimpleStorageResource.this.objectName,
-					this.multiPartUploadResult.getUploadId(), this.partNumberCounter, true));
-			try {
-				List<PartETag> partETags = getMultiPartsUploadResults();
-				SimpleStorageResource.this.amazonS3.completeMultipartUpload(new CompleteMultipartUploadRequest(
-						this.multiPartUploadResult.getBucketName(), this.multiPartUploadResult.getKey(),
-						this.multiPartUploadResult.getUploadId(), partETags));
+		/**
+		 * Makes room for at least one more byte in the current buffer. The first buffer
+		 * is grown up to the part size, a full part is only uploaded once more data is
+		 * written so that the last part is never empty.
+		 */
+		private void ensureBufferCapacity() throws IOException {
+			if (this.closed) {
+				throw new IOException("Stream already closed");
 			}
-			catch (ExecutionException e) {
-				abortMultiPartUpload();
-				throw new IOException("Multi part upload failed ", e.getCause());
+			if (this.currentBufferSize < this.currentBuffer.length) {
+				return;
+			}
+			int partSize = getUploadPartSize(this.partNumberCounter);
+			if (this.currentBuffer.length < partSize) {
+				this.currentBuffer = Arrays.copyOf(this.currentBuffer,
+						(int) Math.min(this.currentBuffer.length * 2L, partSize));
+				return;
+			}
+
+			initiateMultiPartIfNeeded();
+			this.contentDigest = null;
+			submitPart(false);
+			try {
+				this.currentBuffer = this.partBufferPool.acquire(getUploadPartSize(this.partNumberCounter));
 			}
 			catch (InterruptedException e) {
-				abortMultiPartUpload();
 				Thread.currentThread().interrupt();
+				this.closed = true;
+				cancelPartUploads();
+				abortMultiPartUpload();
+				InterruptedIOException interrupted = new InterruptedIOException(
+						"Interrupted while waiting for a part upload to finish");
+				evictObjectMetadata();
+				this.completion.completeExceptionally(interrupted);
+				throw interrupted;
 			}
-			finally {
-				this.currentOutputStream = null;
+		}
+
+		private void submitPart(boolean last) {
+			int partNumber = last ? this.partNumberCounter : this.partNumberCounter++;
+			String checkpointedETag = this.multipartUpload.getCheckpointedETag(partNumber);
+			if (checkpointedETag != null && isSameContent(checkpointedETag, digestCurrentBuffer())) {
+				this.uploadedParts.add(CompletableFuture.completedFuture(new PartETag(partNumber, checkpointedETag)));
+				this.partBufferPool.release(this.currentBuffer);
+				this.currentBuffer = null;
+				this.currentBufferSize = 0;
+				return;
 			}
+			UploadPartResultCallable uploadPart = new UploadPartResultCallable(this.multipartUpload,
+					this.currentBuffer, this.currentBufferSize, SimpleStorageResource.this.bucketName,
+					SimpleStorageResource.this.objectName, this.multipartUpload.getUploadId(), partNumber, last);
+			this.uploadedParts.add(CompletableFuture.supplyAsync(() -> {
+				try {
+					return uploadPart.call().getPartETag();
+				}
+				catch (Exception e) {
+					throw new CompletionException(e);
+				}
+			}, SimpleStorageResource.this.taskExecutor));
+			this.currentBuffer = null;
+			this.currentBufferSize = 0;
 		}
 
-		private void initiateMultiPartIfNeeded() {
-			if (this.multiPartUploadResult == null) {
+		private byte[] digestCurrentBuffer() {
+			MessageDigest digest = createContentDigest();
+			digest.update(this.currentBuffer, 0, this.currentBufferSize);
+			return digest.digest();
+		}
+
+		private boolean isMultiPartUpload() {
+			return this.multipartUpload != null;
+		}
+
+		private CompletableFuture<Void> finishSimpleUpload() {
+			ObjectMetadata objectMetadata = createObjectMetadata();
+			objectMetadata.setContentLength(this.currentBufferSize);
+			objectMetadata.setContentMD5(BinaryUtils.toBase64(this.contentDigest.digest()));
+			InputStream content = new ByteArrayInputStream(this.currentBuffer, 0, this.currentBufferSize);
 
-				ObjectMetadata metadata = new ObjectMetadata();
-				if (SimpleStorageResource.this.contentType != null) {
-					metadata.setContentType(SimpleStorageResource.this.contentType);
+			// Release the memory early
+			this.currentBuffer = null;
+
+			int contentLength = this.currentBufferSize;
+			Runnable putObject = () -> {
+				SimpleStorageResource.this.amazonS3.putObject(SimpleStorageResource.this.bucketName,
+						SimpleStorageResource.this.objectName, content, objectMetadata);
+				recordBytesWritten(contentLength);
+			};
+			if (!this.async) {
+				putObject.run();
+				return CompletableFuture.completedFuture(null);
+			}
+			return CompletableFuture.runAsync(putObject, SimpleStorageResource.this.taskExecutor);
+		}
+
+		/**
+		 * Uploads the last part and completes the upload once all parts are uploaded,
+		 * without blocking the calling thread.
+		 */
+		private CompletableFuture<Void> finishMultiPartUpload() {
+			submitPart(true);
+			return CompletableFuture.allOf(this.uploadedParts.toArray(new CompletableFuture<?>[0])).thenRun(() -> {
+				List<PartETag> partETags = new ArrayList<>(this.uploadedParts.size());
+				for (CompletableFuture<PartETag> uploadedPart : this.uploadedParts) {
+					partETags.add(uploadedPart.join());
+				}
+				this.multipartUpload.complete(partETags);
+			}).handle((result, failure) -> {
+				if (failure != null) {
+					abortMultiPartUpload();
+					throw new CompletionException(new IOException("Multi part upload failed ", unwrap(failure)));
 				}
+				return result;
+			});
+		}
+
+		private void initiateMultiPartIfNeeded() {
+			if (this.multipartUpload == null) {
+				this.multipartUpload = new MultipartUpload(true);
+			}
+		}
 
-				this.multiPartUploadResult = SimpleStorageResource.this.amazonS3.initiateMultipartUpload(
-						new InitiateMultipartUploadRequest(SimpleStorageResource.this.bucketName,
-								SimpleStorageResource.this.objectName, metadata));
+		private void cancelPartUploads() {
+			for (CompletableFuture<PartETag> uploadedPart : this.uploadedParts) {
+				uploadedPart.cancel(true);
 			}
 		}
 
 		private void abortMultiPartUpload() {
 			if (isMultiPartUpload()) {
-				SimpleStorageResource.this.amazonS3.abortMultipartUpload(
-						new AbortMultipartUploadRequest(this.multiPartUploadResult.getBucketName(),
-								this.multiPartUploadResult.getKey(), this.multiPartUploadResult.getUploadId()));
+				this.multipartUpload.abort();
 			}
 		}
 
-		private List<PartETag> getMultiPartsUploadResults() throws ExecutionException, InterruptedException {
-			List<PartETag> result = new ArrayList<>(this.partNumberCounter);
-			for (int i = 0; i < this.partNumberCounter; i++) {
-				Future<UploadPartResult> uploadPartResultFuture = this.completionService.take();
-				result.add(uploadPartResultFuture.get().getPartETag());
+		private Throwable unwrap(Throwable failure) {
+			Throwable cause = failure;
+			while (cause instanceof CompletionException && cause.getCause() != null) {
+				cause = cause.getCause();
 			}
-			return result;
+			return cause;
 		}
 
 		private final class UploadPartResultCallable implements Callable<UploadPartResult> {
 
-			private final AmazonS3 amazonS3;
+			private final MultipartUpload multipartUpload;
 
 			private final int contentLength;
 
@@ -379,9 +1242,9 @@ public class SimpleStorageResource extends AbstractResource implements WritableR
 			@SuppressWarnings("FieldMayBeFinal")
 			private byte[] content;
 
-			private UploadPartResultCallable(AmazonS3 amazon, byte[] content, int writtenDataSize, String bucketName,
-					String key, String uploadId, int partNumber, boolean last) {
-				this.amazonS3 = amazon;
+			private UploadPartResultCallable(MultipartUpload multipartUpload, byte[] content, int writtenDataSize,
+					String bucketName, String key, String uploadId, int partNumber, boolean last) {
+				this.multipartUpload = multipartUpload;
 				this.content = content;
 				this.contentLength = writtenDataSize;
 				this.partNumber = partNumber;
@@ -394,15 +1257,17 @@ public class SimpleStorageResource extends AbstractResource implements WritableR
 			@Override
 			public UploadPartResult call() throws Exception {
 				try {
-					return this.amazonS3.uploadPart(new UploadPartRequest().withBucketName(this.bucketName)
+					return this.multipartUpload.uploadPart(new UploadPartRequest().withBucketName(this.bucketName)
 							.withKey(this.key).withUploadId(this.uploadId)
-							.withInputStream(new ByteArrayInputStream(this.content)).withPartNumber(this.partNumber)
-							.withLastPart(this.last).withPartSize(this.contentLength));
+							.withInputStream(new ByteArrayInputStream(this.content, 0, this.contentLength))
+							.withPartNumber(this.partNumber).withLastPart(this.last)
+							.withPartSize(this.contentLength));
 				}
 				finally {
-					// Release the memory, as the callable may still live inside the
-					// CompletionService which would cause
+					// Hand the buffer back for the next part and release the reference, as the
+					// callable may still live inside the CompletionService which would cause
 					// an exhaustive memory usage
+					SimpleStorageOutputStream.this.partBufferPool.release(this.content);
 					this.content = null;
 				}
 			}
@@ -411,4 +1276,136 @@ public class SimpleStorageResource extends AbstractResource implements WritableR
 
 	}
 
+	/**
+	 * Counts the bytes read from the content of an object. The bytes are recorded in
+	 * batches to keep the overhead of single byte reads low.
+	 */
+	private final class MeteredInputStream extends FilterInputStream {
+
+		private static final int RECORD_THRESHOLD = 1024 * 1024;
+
+		private long unrecordedBytes;
+
+		private MeteredInputStream(InputStream inputStream) {
+			super(inputStream);
+		}
+
+		@Override
+		public int read() throws IOException {
+			int read = super.read();
+			count(read != -1 ? 1 : -1);
+			return read;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			int read = super.read(b, off, len);
+			count(read);
+			return read;
+		}
+
+		@Override
+		public void close() throws IOException {
+			try {
+				super.close();
+			}
+			finally {
+				record();
+			}
+		}
+
+		private void count(int read) {
+			if (read > 0) {
+				this.unrecordedBytes += read;
+			}
+			if (read == -1 || this.unrecordedBytes >= RECORD_THRESHOLD) {
+				record();
+			}
+		}
+
+		private void record() {
+			if (this.unrecordedBytes > 0) {
+				SimpleStorageResource.this.metrics.recordBytesRead(SimpleStorageResource.this.bucketName,
+						this.unrecordedBytes);
+				this.unrecordedBytes = 0;
+			}
+		}
+
+	}
+
+	/**
+	 * Reads the number of retries of a request from the request metrics of the client,
+	 * which are only collected for requests with a metric collector. Every attempt of the
+	 * retry policy of the SDK, e.g. after throttling or server errors, is counted as a
+	 * request. The metrics are passed on to the collector that would have received them
+	 * without this one.
+	 */
+	private static final class RetryCountingMetricCollector extends RequestMetricCollector {
+
+		private final RequestMetricCollector delegate;
+
+		private volatile int retries;
+
+		private RetryCountingMetricCollector(RequestMetricCollector delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public void collectMetrics(Request<?> request, Response<?> response) {
+			Number requestCount = request.getAWSRequestMetrics().getTimingInfo()
+					.getCounter(AWSRequestMetrics.Field.RequestCount.name());
+			this.retries = requestCount != null ? Math.max(requestCount.intValue() - 1, 0) : 0;
+			this.delegate.collectMetrics(request, response);
+		}
+
+	}
+
+	/**
+	 * Bounded pool of part buffers. Buffers are allocated lazily up to the maximum
+	 * number, afterwards {@link #acquire(int)} blocks until an uploaded part hands its
+	 * buffer back. Buffers of a smaller part size are dropped once the part size grows.
+	 */
+	private static final class PartBufferPool {
+
+		private final int maxBuffers;
+
+		private final BlockingQueue<byte[]> availableBuffers;
+
+		// The buffer that is filled first is allocated by the stream itself
+		private int allocatedBuffers = 1;
+
+		private PartBufferPool(int maxBuffers) {
+			this.maxBuffers = maxBuffers;
+			this.availableBuffers = new ArrayBlockingQueue<>(maxBuffers);
+		}
+
+		private byte[] acquire(int bufferSize) throws InterruptedException {
+			while (true) {
+				byte[] buffer = this.availableBuffers.poll();
+				if (buffer == null) {
+					synchronized (this) {
+						if (this.allocatedBuffers < this.maxBuffers) {
+							this.allocatedBuffers++;
+							return new byte[bufferSize];
+						}
+					}
+					buffer = this.availableBuffers.take();
+				}
+				if (buffer.length == bufferSize) {
+					return buffer;
+				}
+				synchronized (this) {
+					this.allocatedBuffers--;
+				}
+			}
+		}
+
+		private void release(byte[] buffer) {
+			if (buffer != null) {
+				this.availableBuffers.offer(buffer);
+			}
+		}
+
+	}
+
 }
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.aws.core.io.s3;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.util.Assert;
+
+/**
+ * Read-only {@link SeekableByteChannel} for an S3 object. The content is read with ranged
+ * GET requests in blocks of a fixed size, the most recently used blocks are cached so
+ * that small reads around the same position (e.g. the footer of a Parquet or ZIP file)
+ * do not cause additional requests. Reads of at least one block that are not cached are
+ * transferred directly into the buffer of the caller.
+ *
+ * @since 3.0
+ */
+class SimpleStorageSeekableByteChannel implements SeekableByteChannel {
+
+	private final SimpleStorageRangeReader rangeReader;
+
+	private final long size;
+
+	private final int blockSize;
+
+	private final Map<Long, byte[]> blocks;
+
+	private long position;
+
+	private volatile boolean open = true;
+
+	SimpleStorageSeekableByteChannel(SimpleStorageRangeReader rangeReader, long size, int blockSize,
+			int maxCachedBlocks) {
+		Assert.isTrue(blockSize > 0, "blockSize must be greater than 0");
+		this.rangeReader = rangeReader;
+		this.size = size;
+		this.blockSize = blockSize;
+		this.blocks = new LinkedHashMap<Long, byte[]>(16, 0.75f, true) {
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Long, byte[]> eldest) {
+				return size() > maxCachedBlocks;
+			}
+
+		};
+	}
+
+	@Override
+	public synchronized int read(ByteBuffer dst) throws IOException {
+		ensureOpen();
+		if (this.position >= this.size) {
+			return -1;
+		}
+
+		int read = 0;
+		while (dst.hasRemaining() && this.position < this.size) {
+			long blockIndex = this.position / this.blockSize;
+			byte[] block = this.blocks.get(blockIndex);
+			if (block == null && dst.hasArray() && dst.remaining() >= this.blockSize) {
+				int length = (int) Math.min(dst.remaining(), this.size - this.position);
+				this.rangeReader.read(this.position, dst.array(), dst.arrayOffset() + dst.position(), length);
+				dst.position(dst.position() + length);
+				this.position += length;
+				read += length;
+				continue;
+			}
+			if (block == null) {
+				long blockStart = blockIndex * this.blockSize;
+				block = this.rangeReader.read(blockStart, Math.min(blockStart + this.blockSize, this.size) - 1);
+				this.blocks.put(blockIndex, block);
+			}
+			int offset = (int) (this.position - blockIndex * this.blockSize);
+			int length = Math.min(dst.remaining(), block.length - offset);
+			dst.put(block, offset, length);
+			this.position += length;
+			read += length;
+		}
+		return read;
+	}
+
+	@Override
+	public int write(ByteBuffer src) {
+		throw new NonWritableChannelException();
+	}
+
+	@Override
+	public synchronized long position() throws IOException {
+		ensureOpen();
+		return this.position;
+	}
+
+	@Override
+	public synchronized SeekableByteChannel position(long newPosition) throws IOException {
+		Assert.isTrue(newPosition >= 0, "newPosition must not be negative");
+		ensureOpen();
+		this.position = newPosition;
+		return this;
+	}
+
+	@Override
+	public long size() throws IOException {
+		ensureOpen();
+		return this.size;
+	}
+
+	@Override
+	public SeekableByteChannel truncate(long size) {
+		throw new NonWritableChannelException();
+	}
+
+	@Override
+	public boolean isOpen() {
+		return this.open;
+	}
+
+	@Override
+	public synchronized void close() {
+		this.open = false;
+		this.blocks.clear();
+	}
+
+	private void ensureOpen() throws ClosedChannelException {
+		if (!this.open) {
+			throw new ClosedChannelException();
+		}
+	}
+
+}
@@ -0,0 +1,260 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.aws.core.io.s3;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.CSVInput;
+import com.amazonaws.services.s3.model.CSVOutput;
+import com.amazonaws.services.s3.model.CompressionType;
+import com.amazonaws.services.s3.model.ExpressionType;
+import com.amazonaws.services.s3.model.FileHeaderInfo;
+import com.amazonaws.services.s3.model.InputSerialization;
+import com.amazonaws.services.s3.model.JSONInput;
+import com.amazonaws.services.s3.model.JSONOutput;
+import com.amazonaws.services.s3.model.JSONType;
+import com.amazonaws.services.s3.model.OutputSerialization;
+import com.amazonaws.services.s3.model.ParquetInput;
+import com.amazonaws.services.s3.model.SelectObjectContentEvent;
+import com.amazonaws.services.s3.model.SelectObjectContentEventVisitor;
+import com.amazonaws.services.s3.model.SelectObjectContentRequest;
+import com.amazonaws.services.s3.model.SelectObjectContentResult;
+import com.amazonaws.services.s3.model.Stats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.core.io.AbstractResource;
+import org.springframework.util.Assert;
+
+/**
+ * Read-only {@link org.springframework.core.io.Resource} with the result of an S3 Select
+ * query on a CSV, JSON or Parquet object. The SQL expression is evaluated by Amazon S3,
+ * so {@link #getInputStream()} only transfers the matching records instead of the whole
+ * object. Every call of {@link #getInputStream()} runs the query again.
+ * <p>
+ * Instances are created with {@link SimpleStorageResource#select(String)}.
+ *
+ * @since 3.0
+ */
+public class SimpleStorageSelectResource extends AbstractResource {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(SimpleStorageSelectResource.class);
+
+	private final SimpleStorageResource resource;
+
+	private final AmazonS3 amazonS3;
+
+	private final String expression;
+
+	private final InputSerialization inputSerialization;
+
+	private final OutputSerialization outputSerialization;
+
+	SimpleStorageSelectResource(SimpleStorageResource resource, String expression,
+			InputSerialization inputSerialization, OutputSerialization outputSerialization) {
+		Assert.hasText(expression, "Expression must not be empty");
+		Assert.notNull(inputSerialization, "InputSerialization must not be null");
+		Assert.notNull(outputSerialization, "OutputSerialization must not be null");
+		this.resource = resource;
+		this.amazonS3 = resource.getAmazonS3();
+		this.expression = expression;
+		this.inputSerialization = inputSerialization;
+		this.outputSerialization = outputSerialization;
+	}
+
+	/**
+	 * Derives the format of an object from the extension of its name. CSV objects are
+	 * expected to have a header line whose column names can be used in the expression,
+	 * {@code .json} objects may contain multi-line documents while {@code .jsonl} and
+	 * {@code .ndjson} objects contain one document per line. A {@code .gz} or
+	 * {@code .bz2} suffix selects the compression.
+	 * @param objectName the name of the object
+	 * @return the input serialization for the object
+	 * @throws IllegalArgumentException if the format can not be derived from the name
+	 */
+	static InputSerialization createInputSerialization(String objectName) {
+		String name = objectName.toLowerCase(Locale.ROOT);
+		InputSerialization inputSerialization = new InputSerialization();
+		if (name.endsWith(".gz")) {
+			inputSerialization.setCompressionType(CompressionType.GZIP);
+			name = name.substring(0, name.length() - ".gz".length());
+		}
+		else if (name.endsWith(".bz2")) {
+			inputSerialization.setCompressionType(CompressionType.BZIP2);
+			name = name.substring(0, name.length() - ".bz2".length());
+		}
+		else {
+			inputSerialization.setCompressionType(CompressionType.NONE);
+		}
+
+		if (name.endsWith(".csv") || name.endsWith(".tsv")) {
+			CSVInput csvInput = new CSVInput().withFileHeaderInfo(FileHeaderInfo.USE);
+			if (name.endsWith(".tsv")) {
+				csvInput.setFieldDelimiter('\t');
+			}
+			inputSerialization.setCsv(csvInput);
+		}
+		else if (name.endsWith(".json")) {
+			inputSerialization.setJson(new JSONInput().withType(JSONType.DOCUMENT));
+		}
+		else if (name.endsWith(".jsonl") || name.endsWith(".ndjson")) {
+			inputSerialization.setJson(new JSONInput().withType(JSONType.LINES));
+		}
+		else if (name.endsWith(".parquet")
+				&& CompressionType.NONE.toString().equals(inputSerialization.getCompressionType())) {
+			inputSerialization.setParquet(new ParquetInput());
+		}
+		else {
+			throw new IllegalArgumentException("Can't derive the format of object '" + objectName
+					+ "' from its name, the input serialization must be specified");
+		}
+		return inputSerialization;
+	}
+
+	/**
+	 * Returns records in the format of the object, which is CSV for CSV objects and JSON
+	 * lines for JSON and Parquet objects.
+	 * @param inputSerialization the format of the object
+	 * @return the output serialization for the records
+	 */
+	static OutputSerialization createOutputSerialization(InputSerialization inputSerialization) {
+		OutputSerialization outputSerialization = new OutputSerialization();
+		if (inputSerialization.getCsv() != null) {
+			outputSerialization.setCsv(new CSVOutput()
+					.withFieldDelimiter(inputSerialization.getCsv().getFieldDelimiter()));
+		}
+		else {
+			outputSerialization.setJson(new JSONOutput());
+		}
+		return outputSerialization;
+	}
+
+	@Override
+	public String getDescription() {
+		StringBuilder builder = new StringBuilder("Amazon s3 select [expression='");
+		builder.append(this.expression);
+		builder.append("'] of ");
+		builder.append(this.resource.getDescription());
+		return builder.toString();
+	}
+
+	@Override
+	public boolean exists() {
+		return this.resource.exists();
+	}
+
+	@Override
+	public long lastModified() throws IOException {
+		return this.resource.lastModified();
+	}
+
+	@Override
+	public String getFilename() {
+		return this.resource.getFilename();
+	}
+
+	/**
+	 * Runs the query and returns a stream of the matching records. Reading the stream
+	 * fails with an {@link IOException} if the response ends before all records have been
+	 * received, so a truncated result is never mistaken for a complete one.
+	 * @return the records in the format of the output serialization
+	 * @throws IOException if the query can not be run
+	 */
+	@Override
+	public InputStream getInputStream() throws IOException {
+		SelectObjectContentResult result = this.amazonS3.selectObjectContent(createRequest());
+		RecordsEventVisitor visitor = new RecordsEventVisitor();
+		return new RecordsInputStream(result.getPayload().getRecordsInputStream(visitor), visitor);
+	}
+
+	public String getExpression() {
+		return this.expression;
+	}
+
+	public InputSerialization getInputSerialization() {
+		return this.inputSerialization.clone();
+	}
+
+	public OutputSerialization getOutputSerialization() {
+		return this.outputSerialization.clone();
+	}
+
+	private SelectObjectContentRequest createRequest() {
+		SelectObjectContentRequest request = new SelectObjectContentRequest();
+		request.setBucketName(this.resource.getBucketName());
+		request.setKey(this.resource.getObjectName());
+		request.setExpression(this.expression);
+		request.setExpressionType(ExpressionType.SQL);
+		request.setInputSerialization(this.inputSerialization.clone());
+		request.setOutputSerialization(this.outputSerialization.clone());
+		return request;
+	}
+
+	private final class RecordsEventVisitor extends SelectObjectContentEventVisitor {
+
+		private volatile boolean ended;
+
+		@Override
+		public void visit(SelectObjectContentEvent.StatsEvent event) {
+			Stats stats = event.getDetails();
+			if (stats != null) {
+				LOGGER.debug("Selected {} bytes of {} scanned bytes of {}", stats.getBytesReturned(),
+						stats.getBytesScanned(), SimpleStorageSelectResource.this.resource.getDescription());
+			}
+		}
+
+		@Override
+		public void visit(SelectObjectContentEvent.EndEvent event) {
+			this.ended = true;
+		}
+
+	}
+
+	private final class RecordsInputStream extends FilterInputStream {
+
+		private final RecordsEventVisitor visitor;
+
+		private RecordsInputStream(InputStream inputStream, RecordsEventVisitor visitor) {
+			super(inputStream);
+			this.visitor = visitor;
+		}
+
+		@Override
+		public int read() throws IOException {
+			return checkEnd(super.read());
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			return checkEnd(super.read(b, off, len));
+		}
+
+		private int checkEnd(int read) throws IOException {
+			if (read == -1 && !this.visitor.ended) {
+				throw new IOException(
+						"The response of " + getDescription() + " ended before all records were received");
+			}
+			return read;
+		}
+
+	}
+
+}
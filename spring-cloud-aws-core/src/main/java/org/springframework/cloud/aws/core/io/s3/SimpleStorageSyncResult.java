@@ -0,0 +1,70 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.aws.core.io.s3;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Result of a synchronization between a local directory and an S3 prefix, see
+ * {@link SimpleStorageBulkOperations#syncToDirectory} and
+ * {@link SimpleStorageBulkOperations#syncFromDirectory}.
+ *
+ * @since 3.0
+ */
+public final class SimpleStorageSyncResult {
+
+	private final List<String> transferredKeys;
+
+	private final List<String> unchangedKeys;
+
+	private final long transferredBytes;
+
+	SimpleStorageSyncResult(List<String> transferredKeys, List<String> unchangedKeys, long transferredBytes) {
+		this.transferredKeys = Collections.unmodifiableList(transferredKeys);
+		this.unchangedKeys = Collections.unmodifiableList(unchangedKeys);
+		this.transferredBytes = transferredBytes;
+	}
+
+	/**
+	 * Returns the keys of the objects that were downloaded or uploaded.
+	 * @return the transferred keys
+	 */
+	public List<String> getTransferredKeys() {
+		return this.transferredKeys;
+	}
+
+	/**
+	 * Returns the keys of the objects that were skipped because the local file has the
+	 * same content.
+	 * @return the unchanged keys
+	 */
+	public List<String> getUnchangedKeys() {
+		return this.unchangedKeys;
+	}
+
+	public long getTransferredBytes() {
+		return this.transferredBytes;
+	}
+
+	@Override
+	public String toString() {
+		return "SimpleStorageSyncResult{transferred=" + this.transferredKeys.size() + ", unchanged="
+				+ this.unchangedKeys.size() + ", transferredBytes=" + this.transferredBytes + "}";
+	}
+
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.aws.core.io.s3;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.util.Assert;
+
+/**
+ * State of an unfinished multipart upload that allows a later attempt to continue the
+ * upload: the upload id, the part size the upload was started with and the ETags of the
+ * parts that have been uploaded.
+ *
+ * @since 3.0
+ * @see SimpleStorageUploadCheckpointStore
+ */
+public final class SimpleStorageUploadCheckpoint {
+
+	private final String bucketName;
+
+	private final String objectName;
+
+	private final String uploadId;
+
+	private final int partSize;
+
+	private final Map<Integer, String> partETags;
+
+	public SimpleStorageUploadCheckpoint(String bucketName, String objectName, String uploadId, int partSize,
+			Map<Integer, String> partETags) {
+		Assert.hasText(bucketName, "bucketName must not be empty");
+		Assert.hasText(objectName, "objectName must not be empty");
+		Assert.hasText(uploadId, "uploadId must not be empty");
+		this.bucketName = bucketName;
+		this.objectName = objectName;
+		this.uploadId = uploadId;
+		this.partSize = partSize;
+		this.partETags = Collections.unmodifiableMap(new TreeMap<>(partETags));
+	}
+
+	public String getBucketName() {
+		return this.bucketName;
+	}
+
+	public String getObjectName() {
+		return this.objectName;
+	}
+
+	public String getUploadId() {
+		return this.uploadId;
+	}
+
+	public int getPartSize() {
+		return this.partSize;
+	}
+
+	/**
+	 * @return the ETags of the uploaded parts by part number
+	 */
+	public Map<Integer, String> getPartETags() {
+		return this.partETags;
+	}
+
+}
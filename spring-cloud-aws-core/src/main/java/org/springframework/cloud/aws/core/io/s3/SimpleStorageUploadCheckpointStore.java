@@ -0,0 +1,63 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.aws.core.io.s3;
+
+import com.amazonaws.services.s3.model.PartETag;
+
+/**
+ * Stores the {@link SimpleStorageUploadCheckpoint checkpoints} of resumable multipart
+ * uploads, see {@link SimpleStorageResource#setUploadCheckpointStore}. There is at most
+ * one checkpoint per object. Implementations must be thread-safe, parts of an upload
+ * are added concurrently.
+ *
+ * @since 3.0
+ * @see SimpleStorageFileCheckpointStore
+ */
+public interface SimpleStorageUploadCheckpointStore {
+
+	/**
+	 * Returns the checkpoint of the unfinished upload of an object.
+	 * @param bucketName the bucket of the object
+	 * @param objectName the key of the object
+	 * @return the checkpoint or {@code null} if there is no unfinished upload
+	 */
+	SimpleStorageUploadCheckpoint load(String bucketName, String objectName);
+
+	/**
+	 * Stores the checkpoint of a new upload, replacing the checkpoint of a previous
+	 * upload of the same object.
+	 * @param checkpoint the checkpoint to store
+	 */
+	void save(SimpleStorageUploadCheckpoint checkpoint);
+
+	/**
+	 * Adds an uploaded part to the checkpoint of an upload.
+	 * @param bucketName the bucket of the object
+	 * @param objectName the key of the object
+	 * @param uploadId the id of the upload the part belongs to
+	 * @param partETag the number and ETag of the uploaded part
+	 */
+	void addPart(String bucketName, String objectName, String uploadId, PartETag partETag);
+
+	/**
+	 * Removes the checkpoint of an object once the upload is finished.
+	 * @param bucketName the bucket of the object
+	 * @param objectName the key of the object
+	 */
+	void delete(String bucketName, String objectName);
+
+}
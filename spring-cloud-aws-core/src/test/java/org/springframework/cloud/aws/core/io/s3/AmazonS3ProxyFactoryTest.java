@@ -16,13 +16,19 @@
 
 package org.springframework.cloud.aws.core.io.s3;
 
+import java.net.URL;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import com.amazonaws.regions.Regions;
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.AmazonS3Client;
 import com.amazonaws.services.s3.AmazonS3ClientBuilder;
+import com.amazonaws.services.s3.model.AmazonS3Exception;
+import com.amazonaws.services.s3.model.CopyObjectResult;
+import com.amazonaws.services.s3.model.ObjectMetadata;
 import org.aopalliance.intercept.MethodInterceptor;
 import org.aopalliance.intercept.MethodInvocation;
 import org.junit.jupiter.api.Test;
@@ -33,7 +39,14 @@ import org.springframework.aop.framework.ProxyFactory;
 import org.springframework.aop.support.AopUtils;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 /**
  * @author Greg Turnquist
@@ -112,6 +125,140 @@ class AmazonS3ProxyFactoryTest {
 
 	}
 
+	@Test
+	void verifyProxyIsSharedPerClient() {
+
+		AmazonS3 amazonS3 = mock(AmazonS3.class);
+
+		AmazonS3 proxy1 = AmazonS3ProxyFactory.createProxy(amazonS3);
+		AmazonS3 proxy2 = AmazonS3ProxyFactory.createProxy(amazonS3);
+
+		assertThat(proxy2).isSameAs(proxy1);
+	}
+
+	@Test
+	void verifyCallsForRedirectedBucketAreRoutedToRegionClient() throws Exception {
+
+		AmazonS3 amazonS3 = mock(AmazonS3.class);
+		when(amazonS3.getRegionName()).thenReturn("us-west-2");
+		when(amazonS3.getUrl("bucket", "key")).thenReturn(new URL("https://bucket.s3.us-west-2.amazonaws.com/key"));
+		when(amazonS3.getObjectMetadata("bucket", "object")).thenThrow(createRedirectException("eu-west-1"));
+
+		AmazonS3 regionClient = mock(AmazonS3.class);
+		ObjectMetadata objectMetadata = new ObjectMetadata();
+		when(regionClient.getObjectMetadata("bucket", "object")).thenReturn(objectMetadata);
+		AmazonS3ClientFactory clientFactory = mock(AmazonS3ClientFactory.class);
+		when(clientFactory.createClientForEndpointUrl(eq(amazonS3), anyString(), any())).thenReturn(regionClient);
+		when(clientFactory.createClientForRegion(amazonS3, "eu-west-1")).thenReturn(regionClient);
+
+		AmazonS3 proxy = createProxy(amazonS3, clientFactory);
+
+		assertThat(proxy.getObjectMetadata("bucket", "object")).isSameAs(objectMetadata);
+		assertThat(proxy.getObjectMetadata("bucket", "object")).isSameAs(objectMetadata);
+
+		verify(amazonS3, times(1)).getObjectMetadata("bucket", "object");
+		verify(regionClient, times(2)).getObjectMetadata("bucket", "object");
+		verify(clientFactory, times(1)).createClientForRegion(amazonS3, "eu-west-1");
+	}
+
+	@Test
+	void verifyRedirectsAreRecordedInMetrics() throws Exception {
+
+		AmazonS3 amazonS3 = mock(AmazonS3.class);
+		when(amazonS3.getRegionName()).thenReturn("us-west-2");
+		when(amazonS3.getUrl("bucket", "key")).thenReturn(new URL("https://bucket.s3.us-west-2.amazonaws.com/key"));
+		when(amazonS3.getObjectMetadata("bucket", "object")).thenThrow(createRedirectException("eu-west-1"));
+
+		AmazonS3 regionClient = mock(AmazonS3.class);
+		when(regionClient.getObjectMetadata("bucket", "object")).thenReturn(new ObjectMetadata());
+		AmazonS3ClientFactory clientFactory = mock(AmazonS3ClientFactory.class);
+		when(clientFactory.createClientForEndpointUrl(eq(amazonS3), anyString(), any())).thenReturn(regionClient);
+		when(clientFactory.createClientForRegion(amazonS3, "eu-west-1")).thenReturn(regionClient);
+		SimpleStorageMetrics metrics = mock(SimpleStorageMetrics.class);
+
+		AmazonS3 proxy = createProxy(amazonS3, clientFactory);
+		AmazonS3ProxyFactory.setMetrics(proxy, metrics);
+
+		proxy.getObjectMetadata("bucket", "object");
+		proxy.getObjectMetadata("bucket", "object");
+
+		verify(metrics, times(1)).recordRedirect("bucket");
+	}
+
+	@Test
+	void verifyCopiesAreRoutedByDestinationBucket() throws Exception {
+
+		AmazonS3 amazonS3 = mock(AmazonS3.class);
+		when(amazonS3.getRegionName()).thenReturn("us-west-2");
+		when(amazonS3.getUrl("bucket", "key")).thenReturn(new URL("https://bucket.s3.us-west-2.amazonaws.com/key"));
+		when(amazonS3.getObjectMetadata("source", "object")).thenThrow(createRedirectException("eu-west-1"));
+		when(amazonS3.copyObject("source", "object", "destination", "object"))
+				.thenThrow(createRedirectException("ap-southeast-2"));
+
+		AmazonS3 sourceRegionClient = mock(AmazonS3.class);
+		when(sourceRegionClient.getObjectMetadata("source", "object")).thenReturn(new ObjectMetadata());
+		AmazonS3 destinationRegionClient = mock(AmazonS3.class);
+		CopyObjectResult copyObjectResult = new CopyObjectResult();
+		when(destinationRegionClient.copyObject("source", "object", "destination", "object"))
+				.thenReturn(copyObjectResult);
+		AmazonS3ClientFactory clientFactory = mock(AmazonS3ClientFactory.class);
+		when(clientFactory.createClientForEndpointUrl(eq(amazonS3), eq("https://bucket.s3.eu-west-1.amazonaws.com"),
+				any())).thenReturn(sourceRegionClient);
+		when(clientFactory.createClientForEndpointUrl(eq(amazonS3),
+				eq("https://bucket.s3.ap-southeast-2.amazonaws.com"), any())).thenReturn(destinationRegionClient);
+		when(clientFactory.createClientForRegion(amazonS3, "ap-southeast-2")).thenReturn(destinationRegionClient);
+
+		AmazonS3 proxy = createProxy(amazonS3, clientFactory);
+		proxy.getObjectMetadata("source", "object");
+
+		assertThat(proxy.copyObject("source", "object", "destination", "object")).isSameAs(copyObjectResult);
+		assertThat(proxy.copyObject("source", "object", "destination", "object")).isSameAs(copyObjectResult);
+
+		verify(sourceRegionClient, never()).copyObject(anyString(), anyString(), anyString(), anyString());
+		verify(amazonS3, times(1)).copyObject("source", "object", "destination", "object");
+		verify(destinationRegionClient, times(2)).copyObject("source", "object", "destination", "object");
+		SimpleStorageBucketRegionCache bucketRegionCache = AmazonS3ProxyFactory.getBucketRegionCache(proxy);
+		assertThat(bucketRegionCache.getRegion("source")).isEqualTo("eu-west-1");
+		assertThat(bucketRegionCache.getRegion("destination")).isEqualTo("ap-southeast-2");
+	}
+
+	@Test
+	void verifyCallsWithCustomEndpointAreNotRouted() throws Exception {
+
+		AmazonS3 amazonS3 = mock(AmazonS3.class);
+		when(amazonS3.getRegionName()).thenReturn("us-east-1");
+		when(amazonS3.getUrl("bucket", "key")).thenReturn(new URL("http://localhost:4566/bucket/key"));
+		when(amazonS3.getObjectMetadata("bucket", "object")).thenThrow(createRedirectException("eu-west-1"));
+
+		AmazonS3 regionClient = mock(AmazonS3.class);
+		AmazonS3ClientFactory clientFactory = mock(AmazonS3ClientFactory.class);
+		when(clientFactory.createClientForEndpointUrl(eq(amazonS3), anyString(), any())).thenReturn(regionClient);
+
+		AmazonS3 proxy = createProxy(amazonS3, clientFactory);
+		proxy.getObjectMetadata("bucket", "object");
+		proxy.getObjectMetadata("bucket", "object");
+
+		verify(amazonS3, times(2)).getObjectMetadata("bucket", "object");
+		verify(clientFactory, never()).createClientForRegion(any(), anyString());
+	}
+
+	private static AmazonS3 createProxy(AmazonS3 amazonS3, AmazonS3ClientFactory clientFactory) {
+		ProxyFactory factory = new ProxyFactory(amazonS3);
+		factory.setInterfaces(AmazonS3.class);
+		factory.addAdvice(new AmazonS3ProxyFactory.SimpleStorageRedirectInterceptor(amazonS3, clientFactory));
+		return (AmazonS3) factory.getProxy();
+	}
+
+	private static AmazonS3Exception createRedirectException(String region) {
+		AmazonS3Exception exception = new AmazonS3Exception("Moved Permanently");
+		exception.setStatusCode(301);
+		Map<String, String> additionalDetails = new HashMap<>();
+		additionalDetails.put("x-amz-bucket-region", region);
+		additionalDetails.put("Endpoint", "bucket.s3." + region + ".amazonaws.com");
+		exception.setAdditionalDetails(additionalDetails);
+		return exception;
+	}
+
 	static class TestAdvice implements MethodInterceptor {
 
 		@Override
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.aws.core.io.s3;
+
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MicrometerSimpleStorageMetricsTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private final MicrometerSimpleStorageMetrics metrics = new MicrometerSimpleStorageMetrics(this.meterRegistry);
+
+	@Test
+	void recordBytes_countsBytesPerBucket() {
+		// Act
+		this.metrics.recordBytesRead("bucket", 100);
+		this.metrics.recordBytesRead("bucket", 28);
+		this.metrics.recordBytesRead("other", 1);
+		this.metrics.recordBytesWritten("bucket", 64);
+
+		// Assert
+		assertThat(this.meterRegistry.get("aws.s3.bytes.read").tag("bucket", "bucket").counter().count())
+				.isEqualTo(128);
+		assertThat(this.meterRegistry.get("aws.s3.bytes.read").tag("bucket", "other").counter().count()).isEqualTo(1);
+		assertThat(this.meterRegistry.get("aws.s3.bytes.written").tag("bucket", "bucket").counter().count())
+				.isEqualTo(64);
+	}
+
+	@Test
+	void partUpload_tracksActivePartsDurationAndRetries() {
+		// Act
+		this.metrics.partUploadStarted("bucket");
+		this.metrics.partUploadStarted("bucket");
+		double activeWhileUploading = this.meterRegistry.get("aws.s3.upload.parts.active").gauge().value();
+		this.metrics.partUploadFinished("bucket", TimeUnit.MILLISECONDS.toNanos(20), 2, true);
+		this.metrics.partUploadFinished("bucket", TimeUnit.MILLISECONDS.toNanos(10), 0, false);
+
+		// Assert
+		assertThat(activeWhileUploading).isEqualTo(2);
+		assertThat(this.meterRegistry.get("aws.s3.upload.parts.active").gauge().value()).isEqualTo(0);
+		Timer successful = this.meterRegistry.get("aws.s3.upload.part").tag("outcome", "success").timer();
+		assertThat(successful.count()).isEqualTo(1);
+		assertThat(successful.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(20);
+		assertThat(this.meterRegistry.get("aws.s3.upload.part").tag("outcome", "error").timer().count()).isEqualTo(1);
+		assertThat(this.meterRegistry.get("aws.s3.upload.part.retries").counter().count()).isEqualTo(2);
+	}
+
+	@Test
+	void recordRequests_countsHeadRequestsRedirectsAndListingsPerResolution() {
+		// Act
+		this.metrics.recordHeadRequest("bucket");
+		this.metrics.recordRedirect("bucket");
+		this.metrics.recordRedirect(null);
+		this.metrics.recordResolution(3);
+		this.metrics.recordResolution(5);
+
+		// Assert
+		assertThat(this.meterRegistry.get("aws.s3.head.requests").tag("bucket", "bucket").counter().count())
+				.isEqualTo(1);
+		assertThat(this.meterRegistry.get("aws.s3.redirects").tag("bucket", "bucket").counter().count()).isEqualTo(1);
+		assertThat(this.meterRegistry.get("aws.s3.redirects").tag("bucket", "none").counter().count()).isEqualTo(1);
+		assertThat(this.meterRegistry.get("aws.s3.resolution.listing.requests").summary().count()).isEqualTo(2);
+		assertThat(this.meterRegistry.get("aws.s3.resolution.listing.requests").summary().totalAmount())
+				.isEqualTo(8);
+	}
+
+}
@@ -17,19 +17,21 @@
 package org.springframework.cloud.aws.core.io.s3;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
 
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.model.Bucket;
 import com.amazonaws.services.s3.model.GetObjectMetadataRequest;
-import com.amazonaws.services.s3.model.ListObjectsRequest;
-import com.amazonaws.services.s3.model.ObjectListing;
+import com.amazonaws.services.s3.model.ListObjectsV2Request;
+import com.amazonaws.services.s3.model.ListObjectsV2Result;
 import com.amazonaws.services.s3.model.ObjectMetadata;
 import com.amazonaws.services.s3.model.S3ObjectSummary;
 import org.junit.jupiter.api.Test;
-import org.mockito.ArgumentMatcher;
 
 import org.springframework.core.io.DefaultResourceLoader;
 import org.springframework.core.io.Resource;
@@ -38,8 +40,12 @@ import org.springframework.core.io.support.ResourcePatternResolver;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -64,6 +70,27 @@ class PathMatchingSimpleStorageResourcePatternResolverTest {
 				.isEqualTo(2);
 	}
 
+	@Test
+	void testWildcardInBucketNameResolvesRegionsOfMatchingBucketsOnly() throws Exception {
+		AmazonS3 amazonS3 = prepareMockForTestWildcardInBucketName();
+		when(amazonS3.getBucketLocation("myBucketOne")).thenReturn("eu-west-1");
+		when(amazonS3.getBucketLocation("myBucketTwo")).thenReturn("US");
+		AmazonS3 proxy = AmazonS3ProxyFactory.createProxy(amazonS3);
+
+		PathMatchingSimpleStorageResourcePatternResolver resourceLoader = (PathMatchingSimpleStorageResourcePatternResolver) getResourceLoader(
+				proxy);
+		resourceLoader.setMaxConcurrentListings(2);
+		resourceLoader.getResources("s3://myBucket*/test.txt");
+		resourceLoader.getResources("s3://myBucket*/test.txt");
+
+		SimpleStorageBucketRegionCache bucketRegionCache = AmazonS3ProxyFactory.getBucketRegionCache(proxy);
+		assertThat(bucketRegionCache.getRegion("myBucketOne")).isEqualTo("eu-west-1");
+		assertThat(bucketRegionCache.getRegion("myBucketTwo")).isEqualTo("us-east-1");
+		verify(amazonS3, times(1)).getBucketLocation("myBucketOne");
+		verify(amazonS3, times(1)).getBucketLocation("myBucketTwo");
+		verify(amazonS3, never()).getBucketLocation("anotherBucket");
+	}
+
 	@Test
 	void testWildcardInKey() throws IOException {
 		AmazonS3 amazonS3 = prepareMockForTestWildcardInKey();
@@ -80,6 +107,39 @@ class PathMatchingSimpleStorageResourcePatternResolverTest {
 		assertThat(resourceLoader.getResources("s3://myBucke?/**/*.txt").length).as("test all together").isEqualTo(5);
 	}
 
+	@Test
+	void testMetadataFromListing() throws Exception {
+		AmazonS3 amazonS3 = prepareMockForTestWildcardInKey();
+
+		ResourcePatternResolver resourceLoader = getResourceLoader(amazonS3);
+
+		Resource[] resources = resourceLoader.getResources("s3://myBucket/**/test.txt");
+		for (Resource resource : resources) {
+			assertThat(resource.contentLength()).isEqualTo(42);
+		}
+		verify(amazonS3, never()).getObjectMetadata(any(GetObjectMetadataRequest.class));
+	}
+
+	@Test
+	void testConcurrentListings() throws Exception {
+		AmazonS3 amazonS3 = prepareMockForTestWildcardInKey();
+
+		ResourcePatternResolver sequentialResourceLoader = getResourceLoader(amazonS3);
+		DefaultResourceLoader loader = new DefaultResourceLoader();
+		loader.addProtocolResolver(new SimpleStorageProtocolResolver(amazonS3));
+		PathMatchingSimpleStorageResourcePatternResolver concurrentResourceLoader = new PathMatchingSimpleStorageResourcePatternResolver(
+				amazonS3, new PathMatchingResourcePatternResolver(loader));
+		concurrentResourceLoader.setMaxConcurrentListings(4);
+
+		assertThat(concurrentResourceLoader.getResources("s3://myBucket/foo*/bar*/test.txt"))
+				.as("test the single '*' wildcard")
+				.containsExactly(sequentialResourceLoader.getResources("s3://myBucket/foo*/bar*/test.txt"));
+		assertThat(concurrentResourceLoader.getResources("s3://myBucket/**/test.txt")).as("test the double '**' wildcard")
+				.containsExactly(sequentialResourceLoader.getResources("s3://myBucket/**/test.txt"));
+		assertThat(concurrentResourceLoader.getResources("s3://myBucket/fooOne/ba?One/test.txt").length)
+				.as("test the '?' wildcard").isEqualTo(2);
+	}
+
 	@Test
 	void testLoadingClasspathFile() throws Exception {
 		AmazonS3 amazonS3 = mock(AmazonS3.class);
@@ -96,6 +156,75 @@ class PathMatchingSimpleStorageResourcePatternResolverTest {
 		assertThat(resourcesWithFileNameWildcard[0].exists()).as("load with wildcards").isTrue();
 	}
 
+	@Test
+	void testStreamResources() throws Exception {
+		AmazonS3 amazonS3 = prepareMockForTestStreamResources();
+		PathMatchingSimpleStorageResourcePatternResolver resourceLoader = (PathMatchingSimpleStorageResourcePatternResolver) getResourceLoader(
+				amazonS3);
+
+		List<String> filenames = resourceLoader.streamResources("s3://myBucket/logs/*/test.txt")
+				.map(Resource::getFilename).collect(Collectors.toList());
+
+		assertThat(filenames).containsExactly("logs/a/test.txt", "logs/b/test.txt");
+	}
+
+	@Test
+	void testStreamResourcesRequestsListingsLazily() throws Exception {
+		AmazonS3 amazonS3 = prepareMockForTestStreamResources();
+		PathMatchingSimpleStorageResourcePatternResolver resourceLoader = (PathMatchingSimpleStorageResourcePatternResolver) getResourceLoader(
+				amazonS3);
+
+		Resource first = resourceLoader.streamResources("s3://myBucket/logs/*/test.txt").findFirst().get();
+
+		assertThat(first.getFilename()).isEqualTo("logs/a/test.txt");
+		verify(amazonS3, times(2)).listObjectsV2(any(ListObjectsV2Request.class));
+	}
+
+	@Test
+	void testLiteralPatternPartsArePartOfListingPrefixes() throws Exception {
+		AmazonS3 amazonS3 = mock(AmazonS3.class);
+		List<String> listingPrefixes = mockBucket(amazonS3, "myBucket", 1000, "logs/2019-12/part-1.gz",
+				"logs/2020-01/index.html", "logs/2020-01/part-1.gz", "logs/2020-02/part-1.gz");
+		ResourcePatternResolver resourceLoader = getResourceLoader(amazonS3);
+
+		assertThat(resourceLoader.getResources("s3://myBucket/logs/2020-*/part-*.gz").length).isEqualTo(2);
+		assertThat(listingPrefixes).containsExactly("logs/2020-", "logs/2020-01/part-", "logs/2020-02/part-");
+	}
+
+	@Test
+	void testListingRequestsOfResolutionAreRecorded() throws Exception {
+		AmazonS3 amazonS3 = mock(AmazonS3.class);
+		mockBucket(amazonS3, "myBucket", 1000, "logs/2019-12/part-1.gz", "logs/2020-01/index.html",
+				"logs/2020-01/part-1.gz", "logs/2020-02/part-1.gz");
+		SimpleStorageMetrics metrics = mock(SimpleStorageMetrics.class);
+		PathMatchingSimpleStorageResourcePatternResolver resourceLoader = (PathMatchingSimpleStorageResourcePatternResolver) getResourceLoader(
+				amazonS3);
+		resourceLoader.setMetrics(metrics);
+
+		resourceLoader.getResources("s3://myBucket/logs/2020-*/part-*.gz");
+		resourceLoader.setMaxConcurrentListings(4);
+		resourceLoader.getResources("s3://myBucket/logs/2020-*/part-*.gz");
+
+		verify(metrics, times(2)).recordResolution(3);
+	}
+
+	@Test
+	void testListingRequestsOfStreamedResolutionAreRecordedOnceConsumed() throws Exception {
+		AmazonS3 amazonS3 = mock(AmazonS3.class);
+		mockBucket(amazonS3, "myBucket", 1000, "logs/2019-12/part-1.gz", "logs/2020-01/index.html",
+				"logs/2020-01/part-1.gz", "logs/2020-02/part-1.gz");
+		SimpleStorageMetrics metrics = mock(SimpleStorageMetrics.class);
+		PathMatchingSimpleStorageResourcePatternResolver resourceLoader = (PathMatchingSimpleStorageResourcePatternResolver) getResourceLoader(
+				amazonS3);
+		resourceLoader.setMetrics(metrics);
+
+		resourceLoader.streamResources("s3://myBucket/logs/2020-*/part-*.gz").findFirst();
+		verify(metrics, never()).recordResolution(anyInt());
+
+		assertThat(resourceLoader.streamResources("s3://myBucket/logs/2020-*/part-*.gz").count()).isEqualTo(2);
+		verify(metrics).recordResolution(3);
+	}
+
 	@Test
 	void testTruncatedListings() throws Exception {
 		AmazonS3 amazonS3 = prepareMockForTestTruncatedListings();
@@ -112,42 +241,10 @@ class PathMatchingSimpleStorageResourcePatternResolverTest {
 	private AmazonS3 prepareMockForTestTruncatedListings() {
 		AmazonS3 amazonS3 = mock(AmazonS3.class);
 
-		// Without prefix calls
-		ObjectListing objectListingWithoutPrefixPart1 = createObjectListingMock(
-				Arrays.asList(createS3ObjectSummaryWithKey("fooOne/barOne/test.txt"),
-						createS3ObjectSummaryWithKey("fooOne/bazOne/test.txt"),
-						createS3ObjectSummaryWithKey("fooTwo/barTwo/test.txt")),
-				Collections.emptyList(), true);
-		when(amazonS3.listObjects(argThat(new ListObjectsRequestMatcher("myBucket", null, null))))
-				.thenReturn(objectListingWithoutPrefixPart1);
-
-		ObjectListing objectListingWithoutPrefixPart2 = createObjectListingMock(
-				Arrays.asList(createS3ObjectSummaryWithKey("fooThree/baz/test.txt"),
-						createS3ObjectSummaryWithKey("foFour/barFour/test.txt")),
-				Collections.emptyList(), false);
-		when(amazonS3.listNextBatchOfObjects(objectListingWithoutPrefixPart1))
-				.thenReturn(objectListingWithoutPrefixPart2);
-
-		// With prefix calls
-		ObjectListing objectListingWithPrefixPart1 = createObjectListingMock(Collections.emptyList(),
-				Arrays.asList("dooOne/", "dooTwo/"), true);
-		when(amazonS3.listObjects(argThat(new ListObjectsRequestMatcher("myBucket", null, "/"))))
-				.thenReturn(objectListingWithPrefixPart1);
-
-		ObjectListing objectListingWithPrefixPart2 = createObjectListingMock(Collections.emptyList(),
-				Collections.singletonList("fooOne/"), false);
-		when(amazonS3.listNextBatchOfObjects(objectListingWithPrefixPart1)).thenReturn(objectListingWithPrefixPart2);
-
-		ObjectListing objectListingWithPrefixFooOne = createObjectListingMock(Collections.emptyList(),
-				Collections.singletonList("fooOne/barOne/"), false);
-		when(amazonS3.listObjects(argThat(new ListObjectsRequestMatcher("myBucket", "fooOne/", "/"))))
-				.thenReturn(objectListingWithPrefixFooOne);
-
-		ObjectListing objectListingWithPrefixFooOneBarOne = createObjectListingMock(
-				Collections.singletonList(createS3ObjectSummaryWithKey("fooOne/barOne/test.txt")),
-				Collections.emptyList(), false);
-		when(amazonS3.listObjects(argThat(new ListObjectsRequestMatcher("myBucket", "fooOne/barOne/", "/"))))
-				.thenReturn(objectListingWithPrefixFooOneBarOne);
+		// Two keys or common prefixes per page
+		mockBucket(amazonS3, "myBucket", 2, "dooOne/test.txt.bak", "dooTwo/test.txt.bak", "fooOne/baaOne/other.txt",
+				"fooOne/babOne/other.txt", "fooOne/barOne/test.txt", "fooOne/test.txt", "fooTwo/barTwo/test.txt",
+				"fooThree/baz/test.txt", "foFour/barFour/test.txt");
 
 		when(amazonS3.getObjectMetadata(any(GetObjectMetadataRequest.class))).thenReturn(new ObjectMetadata());
 
@@ -160,186 +257,110 @@ class PathMatchingSimpleStorageResourcePatternResolverTest {
 				new Bucket("anotherBucket"), new Bucket("myBuckez")));
 
 		// Mocks for the '**' case
-		ObjectListing objectListingWithOneFile = createObjectListingMock(
-				Collections.singletonList(createS3ObjectSummaryWithKey("test.txt")), Collections.emptyList(), false);
-		ObjectListing emptyObjectListing = createObjectListingMock(Collections.emptyList(), Collections.emptyList(),
-				false);
-		when(amazonS3.listObjects(argThat(new ListObjectsRequestMatcher("myBucketOne", null, null))))
-				.thenReturn(objectListingWithOneFile);
-		when(amazonS3.listObjects(argThat(new ListObjectsRequestMatcher("myBucketTwo", null, null))))
-				.thenReturn(emptyObjectListing);
-		when(amazonS3.listObjects(argThat(new ListObjectsRequestMatcher("anotherBucket", null, null))))
-				.thenReturn(objectListingWithOneFile);
-		when(amazonS3.listObjects(argThat(new ListObjectsRequestMatcher("myBuckez", null, null))))
-				.thenReturn(emptyObjectListing);
+		mockBucket(amazonS3, "myBucketOne", 1000, "test.txt");
+		mockBucket(amazonS3, "myBucketTwo", 1000);
+		mockBucket(amazonS3, "anotherBucket", 1000, "test.txt");
+		mockBucket(amazonS3, "myBuckez", 1000);
 
 		when(amazonS3.getObjectMetadata(any(GetObjectMetadataRequest.class))).thenReturn(new ObjectMetadata());
+
 		return amazonS3;
 	}
 
-	/**
-	 * Virtual test folder structure: fooOne/barOne/test.txt fooOne/bazOne/test.txt
-	 * fooTwo/barTwo/test.txt fooThree/baz/test.txt foFour/barFour/test.txt .
-	 */
 	private AmazonS3 prepareMockForTestWildcardInKey() {
 		AmazonS3 amazonS3 = mock(AmazonS3.class);
 
 		// List buckets mock
 		when(amazonS3.listBuckets()).thenReturn(Arrays.asList(new Bucket("myBucket"), new Bucket("myBuckets")));
 
-		// Root requests
-		ObjectListing objectListingMockAtRoot = createObjectListingMock(Collections.emptyList(),
-				Arrays.asList("foFour/", "fooOne/", "fooThree/", "fooTwo/"), false);
-		when(amazonS3.listObjects(argThat(new ListObjectsRequestMatcher("myBucket", null, "/"))))
-				.thenReturn(objectListingMockAtRoot);
-
-		// Requests on fooOne
-		ObjectListing objectListingFooOne = createObjectListingMock(
-				Collections.singletonList(createS3ObjectSummaryWithKey("fooOne/")),
-				Arrays.asList("fooOne/barOne/", "fooOne/bazOne/"), false);
-		when(amazonS3.listObjects(argThat(new ListObjectsRequestMatcher("myBucket", "fooOne/", "/"))))
-				.thenReturn(objectListingFooOne);
-
-		ObjectListing objectListingFooOneBarOne = createObjectListingMock(
-				Arrays.asList(createS3ObjectSummaryWithKey("fooOne/barOne/"),
-						createS3ObjectSummaryWithKey("fooOne/barOne/test.txt")),
-				Collections.emptyList(), false);
-		when(amazonS3.listObjects(argThat(new ListObjectsRequestMatcher("myBucket", "fooOne/barOne/", "/"))))
-				.thenReturn(objectListingFooOneBarOne);
-
-		ObjectListing objectListingFooOneBazOne = createObjectListingMock(
-				Arrays.asList(createS3ObjectSummaryWithKey("fooOne/bazOne/"),
-						createS3ObjectSummaryWithKey("fooOne/bazOne/test.txt")),
-				Collections.emptyList(), false);
-		when(amazonS3.listObjects(argThat(new ListObjectsRequestMatcher("myBucket", "fooOne/bazOne/", "/"))))
-				.thenReturn(objectListingFooOneBazOne);
-
-		// Requests on fooTwo
-		ObjectListing objectListingFooTwo = createObjectListingMock(
-				Collections.singletonList(createS3ObjectSummaryWithKey("fooTwo/")),
-				Collections.singletonList("fooTwo/barTwo/"), false);
-		when(amazonS3.listObjects(argThat(new ListObjectsRequestMatcher("myBucket", "fooTwo/", "/"))))
-				.thenReturn(objectListingFooTwo);
-
-		ObjectListing objectListingFooTwoBarTwo = createObjectListingMock(
-				Arrays.asList(createS3ObjectSummaryWithKey("fooTwo/barTwo/"),
-						createS3ObjectSummaryWithKey("fooTwo/barTwo/test.txt")),
-				Collections.emptyList(), false);
-		when(amazonS3.listObjects(argThat(new ListObjectsRequestMatcher("myBucket", "fooTwo/barTwo/", "/"))))
-				.thenReturn(objectListingFooTwoBarTwo);
-
-		// Requests on fooThree
-		ObjectListing objectListingFooThree = createObjectListingMock(
-				Collections.singletonList(createS3ObjectSummaryWithKey("fooThree/")),
-				Collections.singletonList("fooTwo/baz/"), false);
-		when(amazonS3.listObjects(argThat(new ListObjectsRequestMatcher("myBucket", "fooThree/", "/"))))
-				.thenReturn(objectListingFooThree);
-
-		ObjectListing objectListingFooThreeBaz = createObjectListingMock(
-				Arrays.asList(createS3ObjectSummaryWithKey("fooThree/baz/"),
-						createS3ObjectSummaryWithKey("fooThree/baz/test.txt")),
-				Collections.emptyList(), false);
-		when(amazonS3.listObjects(argThat(new ListObjectsRequestMatcher("myBucket", "fooThree/baz/", "/"))))
-				.thenReturn(objectListingFooThreeBaz);
-
-		// Requests for foFour
-		ObjectListing objectListingFoFour = createObjectListingMock(
-				Collections.singletonList(createS3ObjectSummaryWithKey("foFour/")),
-				Collections.singletonList("foFour/barFour/"), false);
-		when(amazonS3.listObjects(argThat(new ListObjectsRequestMatcher("myBucket", "foFour/", "/"))))
-				.thenReturn(objectListingFoFour);
-
-		ObjectListing objectListingFoFourBarFour = createObjectListingMock(
-				Arrays.asList(createS3ObjectSummaryWithKey("foFour/barFour/"),
-						createS3ObjectSummaryWithKey("foFour/barFour/test.txt")),
-				Collections.emptyList(), false);
-		when(amazonS3.listObjects(argThat(new ListObjectsRequestMatcher("myBucket", "foFour/barFour/", "/"))))
-				.thenReturn(objectListingFoFourBarFour);
-
-		// Requests for all
-		ObjectListing fullObjectListing = createObjectListingMock(
-				Arrays.asList(createS3ObjectSummaryWithKey("fooOne/barOne/test.txt"),
-						createS3ObjectSummaryWithKey("fooOne/bazOne/test.txt"),
-						createS3ObjectSummaryWithKey("fooTwo/barTwo/test.txt"),
-						createS3ObjectSummaryWithKey("fooThree/baz/test.txt"),
-						createS3ObjectSummaryWithKey("foFour/barFour/test.txt")),
-				Collections.emptyList(), false);
-		when(amazonS3.listObjects(argThat(new ListObjectsRequestMatcher("myBucket", null, null))))
-				.thenReturn(fullObjectListing);
+		// Folders are represented by empty objects with a trailing slash
+		mockBucket(amazonS3, "myBucket", 1000, "fooOne/", "fooOne/barOne/", "fooOne/barOne/test.txt",
+				"fooOne/bazOne/", "fooOne/bazOne/test.txt", "fooTwo/", "fooTwo/barTwo/", "fooTwo/barTwo/test.txt",
+				"fooThree/", "fooThree/baz/", "fooThree/baz/test.txt", "foFour/", "foFour/barFour/",
+				"foFour/barFour/test.txt");
+		mockBucket(amazonS3, "myBuckets", 1000);
 
 		when(amazonS3.getObjectMetadata(any(GetObjectMetadataRequest.class))).thenReturn(new ObjectMetadata());
 
 		return amazonS3;
 	}
 
-	private ObjectListing createObjectListingMock(List<S3ObjectSummary> objectSummaries, List<String> commonPrefixes,
-			boolean truncated) {
-		ObjectListing objectListing = mock(ObjectListing.class);
-		when(objectListing.getObjectSummaries()).thenReturn(objectSummaries);
-		when(objectListing.getCommonPrefixes()).thenReturn(commonPrefixes);
-		when(objectListing.isTruncated()).thenReturn(truncated);
-		return objectListing;
-	}
+	private AmazonS3 prepareMockForTestStreamResources() {
+		AmazonS3 amazonS3 = mock(AmazonS3.class);
 
-	private S3ObjectSummary createS3ObjectSummaryWithKey(String key) {
-		S3ObjectSummary s3ObjectSummary = new S3ObjectSummary();
-		s3ObjectSummary.setKey(key);
-		return s3ObjectSummary;
-	}
+		// One key or common prefix per page
+		mockBucket(amazonS3, "myBucket", 1, "logs/root.txt", "logs/a/other.txt", "logs/a/test.txt",
+				"logs/b/test.txt");
 
-	private ResourcePatternResolver getResourceLoader(AmazonS3 amazonS3) {
-		DefaultResourceLoader loader = new DefaultResourceLoader();
-		loader.addProtocolResolver(new SimpleStorageProtocolResolver(amazonS3));
-		return new PathMatchingSimpleStorageResourcePatternResolver(amazonS3,
-				new PathMatchingResourcePatternResolver(loader));
+		return amazonS3;
 	}
 
-	private static final class ListObjectsRequestMatcher implements ArgumentMatcher<ListObjectsRequest> {
-
-		private final String bucketName;
-
-		private final String prefix;
-
-		private final String delimiter;
-
-		private ListObjectsRequestMatcher(String bucketName, String prefix, String delimiter) {
-			this.bucketName = bucketName;
-			this.prefix = prefix;
-			this.delimiter = delimiter;
-		}
+	/**
+	 * Simulates the ListObjectsV2 requests of a bucket with the given keys.
+	 * @return the prefixes of the listings, in the order of the requests
+	 */
+	private List<String> mockBucket(AmazonS3 amazonS3, String bucketName, int maxKeys, String... keys) {
+		List<String> sortedKeys = Arrays.stream(keys).sorted().collect(Collectors.toList());
+		List<String> listingPrefixes = new CopyOnWriteArrayList<>();
+		when(amazonS3.listObjectsV2(argThat(
+				(ListObjectsV2Request request) -> request != null && bucketName.equals(request.getBucketName()))))
+						.thenAnswer(invocation -> {
+							ListObjectsV2Request request = invocation.getArgument(0);
+							if (request.getContinuationToken() == null) {
+								listingPrefixes.add(request.getPrefix());
+							}
+							return listObjects(request, sortedKeys, maxKeys);
+						});
+		return listingPrefixes;
+	}
 
-		@Override
-		public boolean matches(ListObjectsRequest listObjectsRequest) {
-			if (listObjectsRequest == null) {
-				return false;
+	private ListObjectsV2Result listObjects(ListObjectsV2Request request, List<String> keys, int maxKeys) {
+		String prefix = request.getPrefix() != null ? request.getPrefix() : "";
+		ListObjectsV2Result result = new ListObjectsV2Result();
+		List<String> commonPrefixes = new ArrayList<>();
+		String lastKey = null;
+		for (String key : keys) {
+			if (!key.startsWith(prefix) || (request.getContinuationToken() != null
+					&& key.compareTo(request.getContinuationToken()) <= 0)) {
+				continue;
 			}
-			boolean bucketNameIsEqual;
-			if (listObjectsRequest.getBucketName() != null) {
-				bucketNameIsEqual = listObjectsRequest.getBucketName().equals(this.bucketName);
+			int delimiterIndex = request.getDelimiter() != null
+					? key.indexOf(request.getDelimiter(), prefix.length()) : -1;
+			String commonPrefix = delimiterIndex != -1 ? key.substring(0, delimiterIndex + 1) : null;
+			if (commonPrefix != null && commonPrefixes.contains(commonPrefix)) {
+				continue;
 			}
-			else {
-				bucketNameIsEqual = this.bucketName == null;
+			if (result.getObjectSummaries().size() + commonPrefixes.size() == maxKeys) {
+				result.setTruncated(true);
+				result.setNextContinuationToken(lastKey);
+				break;
 			}
-
-			boolean prefixIsEqual;
-			if (listObjectsRequest.getPrefix() != null) {
-				prefixIsEqual = listObjectsRequest.getPrefix().equals(this.prefix);
+			if (commonPrefix != null) {
+				commonPrefixes.add(commonPrefix);
+				// Continue after all keys of the common prefix
+				lastKey = commonPrefix + Character.MAX_VALUE;
 			}
 			else {
-				prefixIsEqual = this.prefix == null;
-			}
-
-			boolean delimiterIsEqual;
-			if (listObjectsRequest.getDelimiter() != null) {
-				delimiterIsEqual = listObjectsRequest.getDelimiter().equals(this.delimiter);
+				result.getObjectSummaries().add(createS3ObjectSummaryWithKey(key));
+				lastKey = key;
 			}
-			else {
-				delimiterIsEqual = this.delimiter == null;
-			}
-
-			return delimiterIsEqual && prefixIsEqual && bucketNameIsEqual;
 		}
+		result.setCommonPrefixes(commonPrefixes);
+		return result;
+	}
 
+	private S3ObjectSummary createS3ObjectSummaryWithKey(String key) {
+		S3ObjectSummary s3ObjectSummary = new S3ObjectSummary();
+		s3ObjectSummary.setKey(key);
+		s3ObjectSummary.setSize(42);
+		return s3ObjectSummary;
+	}
+
+	private ResourcePatternResolver getResourceLoader(AmazonS3 amazonS3) {
+		DefaultResourceLoader loader = new DefaultResourceLoader();
+		loader.addProtocolResolver(new SimpleStorageProtocolResolver(amazonS3));
+		return new PathMatchingSimpleStorageResourcePatternResolver(amazonS3,
+				new PathMatchingResourcePatternResolver(loader));
 	}
 
 }
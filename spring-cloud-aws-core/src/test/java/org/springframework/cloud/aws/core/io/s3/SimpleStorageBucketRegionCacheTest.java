@@ -0,0 +1,78 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.aws.core.io.s3;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SimpleStorageBucketRegionCacheTest {
+
+	@Test
+	void putLocation_withRegionName_storesRegion() {
+		// Arrange
+		SimpleStorageBucketRegionCache cache = new SimpleStorageBucketRegionCache();
+
+		// Act
+		cache.putLocation("bucket", "eu-central-1");
+
+		// Assert
+		assertThat(cache.getRegion("bucket")).isEqualTo("eu-central-1");
+	}
+
+	@Test
+	void putLocation_withLegacyLocationConstraints_storesRegionNames() {
+		// Arrange
+		SimpleStorageBucketRegionCache cache = new SimpleStorageBucketRegionCache();
+
+		// Act
+		cache.putLocation("us", "US");
+		cache.putLocation("eu", "EU");
+		cache.putLocation("default", null);
+
+		// Assert
+		assertThat(cache.getRegion("us")).isEqualTo("us-east-1");
+		assertThat(cache.getRegion("eu")).isEqualTo("eu-west-1");
+		assertThat(cache.getRegion("default")).isEqualTo("us-east-1");
+	}
+
+	@Test
+	void putLocation_withRegionUnknownToSdk_storesLocation() {
+		// Arrange
+		SimpleStorageBucketRegionCache cache = new SimpleStorageBucketRegionCache();
+
+		// Act
+		cache.putLocation("bucket", "xx-future-1");
+
+		// Assert
+		assertThat(cache.getRegion("bucket")).isEqualTo("xx-future-1");
+	}
+
+	@Test
+	void evict_withCachedBucket_removesRegion() {
+		// Arrange
+		SimpleStorageBucketRegionCache cache = new SimpleStorageBucketRegionCache();
+		cache.putRegion("bucket", "eu-west-1");
+
+		// Act
+		cache.evict("bucket");
+
+		// Assert
+		assertThat(cache.containsBucket("bucket")).isFalse();
+	}
+
+}
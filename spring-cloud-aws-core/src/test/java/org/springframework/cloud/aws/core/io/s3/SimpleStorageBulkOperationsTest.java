@@ -0,0 +1,271 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.aws.core.io.s3;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.AmazonS3Exception;
+import com.amazonaws.services.s3.model.CopyObjectRequest;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest;
+import com.amazonaws.services.s3.model.GetObjectMetadataRequest;
+import com.amazonaws.services.s3.model.GetObjectRequest;
+import com.amazonaws.services.s3.model.ListObjectsV2Request;
+import com.amazonaws.services.s3.model.ListObjectsV2Result;
+import com.amazonaws.services.s3.model.PutObjectRequest;
+import com.amazonaws.services.s3.model.S3Object;
+import com.amazonaws.services.s3.model.S3ObjectSummary;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+
+import org.springframework.core.io.Resource;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.util.DigestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SimpleStorageBulkOperationsTest {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void delete_withMoreKeysThanAllowedPerRequest_batchesKeysPerBucket() throws Exception {
+		// Arrange
+		AmazonS3 amazonS3 = mock(AmazonS3.class);
+		List<Resource> resources = new ArrayList<>();
+		for (int i = 0; i < 2500; i++) {
+			resources.add(new SimpleStorageResource(amazonS3, "bucket", "object" + i, new SyncTaskExecutor()));
+		}
+		resources.add(new SimpleStorageResource(amazonS3, "otherBucket", "object", new SyncTaskExecutor(),
+				"version", null));
+		SimpleStorageBulkOperations bulkOperations = new SimpleStorageBulkOperations(amazonS3);
+
+		// Act
+		bulkOperations.delete(resources);
+
+		// Assert
+		ArgumentCaptor<DeleteObjectsRequest> requests = ArgumentCaptor.forClass(DeleteObjectsRequest.class);
+		verify(amazonS3, times(4)).deleteObjects(requests.capture());
+		assertThat(requests.getAllValues()).allMatch(DeleteObjectsRequest::getQuiet);
+		assertThat(requests.getAllValues().stream().map(request -> request.getBucketName() + ":"
+				+ request.getKeys().size())).containsExactlyInAnyOrder("bucket:1000", "bucket:1000", "bucket:500",
+						"otherBucket:1");
+		assertThat(requests.getAllValues().stream().filter(request -> "otherBucket".equals(request.getBucketName()))
+				.findFirst().get().getKeys().get(0).getVersion()).isEqualTo("version");
+	}
+
+	@Test
+	void delete_withFailedRequest_throwsException() {
+		// Arrange
+		AmazonS3 amazonS3 = mock(AmazonS3.class);
+		when(amazonS3.deleteObjects(any(DeleteObjectsRequest.class))).thenThrow(new AmazonS3Exception("Access Denied"));
+		SimpleStorageBulkOperations bulkOperations = new SimpleStorageBulkOperations(amazonS3,
+				new SyncTaskExecutor());
+
+		// Act & Assert
+		assertThatThrownBy(() -> bulkOperations.delete(Collections
+				.singletonList(new SimpleStorageResource(amazonS3, "bucket", "object", new SyncTaskExecutor()))))
+						.isInstanceOf(AmazonS3Exception.class);
+	}
+
+	@Test
+	void copy_withSourceAndTarget_copiesServerSide() throws Exception {
+		// Arrange
+		AmazonS3 amazonS3 = mock(AmazonS3.class);
+		SimpleStorageResource source = new SimpleStorageResource(amazonS3, "bucket", "source",
+				new SyncTaskExecutor(), "version", null);
+		SimpleStorageResource target = new SimpleStorageResource(amazonS3, "otherBucket", "target",
+				new SyncTaskExecutor());
+		SimpleStorageBulkOperations bulkOperations = new SimpleStorageBulkOperations(amazonS3,
+				new SyncTaskExecutor());
+
+		// Act
+		bulkOperations.copy(Collections.singletonMap(source, target));
+
+		// Assert
+		ArgumentCaptor<CopyObjectRequest> request = ArgumentCaptor.forClass(CopyObjectRequest.class);
+		verify(amazonS3).copyObject(request.capture());
+		assertThat(request.getValue().getSourceBucketName()).isEqualTo("bucket");
+		assertThat(request.getValue().getSourceKey()).isEqualTo("source");
+		assertThat(request.getValue().getSourceVersionId()).isEqualTo("version");
+		assertThat(request.getValue().getDestinationBucketName()).isEqualTo("otherBucket");
+		assertThat(request.getValue().getDestinationKey()).isEqualTo("target");
+	}
+
+	@Test
+	void download_withKeyPrefix_writesFilesRelativeToDirectory() throws Exception {
+		// Arrange
+		AmazonS3 amazonS3 = mock(AmazonS3.class);
+		when(amazonS3.getObject(any(GetObjectRequest.class))).thenAnswer(invocation -> {
+			GetObjectRequest request = invocation.getArgument(0);
+			S3Object s3Object = new S3Object();
+			s3Object.setObjectContent(
+					new ByteArrayInputStream(request.getKey().getBytes(StandardCharsets.UTF_8)));
+			return s3Object;
+		});
+		List<Resource> resources = Arrays.asList("logs/", "logs/a.txt", "logs/2020/b.txt").stream()
+				.map(key -> new SimpleStorageResource(amazonS3, "bucket", key, new SyncTaskExecutor()))
+				.collect(Collectors.toList());
+		SimpleStorageBulkOperations bulkOperations = new SimpleStorageBulkOperations(amazonS3);
+		bulkOperations.setMaxConcurrentRequests(2);
+
+		// Act
+		List<Path> files = bulkOperations.download(resources, "logs/", this.directory);
+
+		// Assert
+		assertThat(files).containsExactly(this.directory.resolve("a.txt"), this.directory.resolve("2020/b.txt"));
+		assertThat(new String(Files.readAllBytes(files.get(1)), StandardCharsets.UTF_8))
+				.isEqualTo("logs/2020/b.txt");
+		try (Stream<Path> paths = Files.walk(this.directory)) {
+			assertThat(paths.filter(Files::isRegularFile)).hasSize(2);
+		}
+	}
+
+	@Test
+	void download_withKeyOutsideOfDirectory_throwsException() {
+		// Arrange
+		AmazonS3 amazonS3 = mock(AmazonS3.class);
+		SimpleStorageBulkOperations bulkOperations = new SimpleStorageBulkOperations(amazonS3,
+				new SyncTaskExecutor());
+
+		// Act & Assert
+		assertThatThrownBy(() -> bulkOperations.download(Collections.singletonList(
+				new SimpleStorageResource(amazonS3, "bucket", "../outside.txt", new SyncTaskExecutor())),
+				this.directory)).isInstanceOf(IllegalArgumentException.class);
+		verify(amazonS3, never()).getObject(any(GetObjectRequest.class));
+	}
+
+	@Test
+	void syncToDirectory_withExistingFiles_downloadsChangedObjectsOnly() throws Exception {
+		// Arrange
+		AmazonS3 amazonS3 = mock(AmazonS3.class);
+		when(amazonS3.getObject(any(GetObjectRequest.class))).thenAnswer(invocation -> {
+			GetObjectRequest request = invocation.getArgument(0);
+			S3Object s3Object = new S3Object();
+			s3Object.setObjectContent(new ByteArrayInputStream(content(request.getKey())));
+			return s3Object;
+		});
+		Date lastModified = new Date(1577836800000L);
+		Path sameDate = write("sameDate.txt", content("logs/sameDate.txt"));
+		Files.setLastModifiedTime(sameDate, FileTime.fromMillis(lastModified.getTime()));
+		Path sameDigest = write("sameDigest.txt", content("logs/sameDigest.txt"));
+		write("otherSize.txt", "other".getBytes(StandardCharsets.UTF_8));
+		List<Resource> resources = Stream.of("sameDate.txt", "sameDigest.txt", "otherSize.txt", "missing.txt")
+				.map(name -> {
+					SimpleStorageResource resource = new SimpleStorageResource(amazonS3, "bucket", "logs/" + name,
+							new SyncTaskExecutor());
+					resource.setObjectSummary(summary("logs/" + name, lastModified));
+					return resource;
+				}).collect(Collectors.toList());
+		SimpleStorageBulkOperations bulkOperations = new SimpleStorageBulkOperations(amazonS3);
+
+		// Act
+		SimpleStorageSyncResult result = bulkOperations.syncToDirectory(resources, "logs/", this.directory);
+
+		// Assert
+		assertThat(result.getTransferredKeys()).containsExactly("logs/otherSize.txt", "logs/missing.txt");
+		assertThat(result.getUnchangedKeys()).containsExactly("logs/sameDate.txt", "logs/sameDigest.txt");
+		assertThat(result.getTransferredBytes()).isEqualTo(content("logs/otherSize.txt").length
+				+ content("logs/missing.txt").length);
+		ArgumentCaptor<GetObjectRequest> requests = ArgumentCaptor.forClass(GetObjectRequest.class);
+		verify(amazonS3, times(2)).getObject(requests.capture());
+		assertThat(requests.getAllValues()).extracting(GetObjectRequest::getKey)
+				.containsExactlyInAnyOrder("logs/otherSize.txt", "logs/missing.txt");
+		verify(amazonS3, never()).getObjectMetadata(any(GetObjectMetadataRequest.class));
+		assertThat(Files.readAllBytes(this.directory.resolve("otherSize.txt")))
+				.isEqualTo(content("logs/otherSize.txt"));
+		assertThat(Files.getLastModifiedTime(sameDigest).toMillis()).isEqualTo(lastModified.getTime());
+		assertThat(Files.getLastModifiedTime(this.directory.resolve("missing.txt")).toMillis())
+				.isEqualTo(lastModified.getTime());
+	}
+
+	@Test
+	void syncFromDirectory_withExistingObjects_uploadsChangedFilesOnly() throws Exception {
+		// Arrange
+		AmazonS3 amazonS3 = mock(AmazonS3.class);
+		Path olderThanObject = write("olderThanObject.txt", content("logs/olderThanObject.txt"));
+		Files.setLastModifiedTime(olderThanObject, FileTime.fromMillis(1577836800000L));
+		write("sameDigest.txt", content("logs/sameDigest.txt"));
+		write("otherSize.txt", "other".getBytes(StandardCharsets.UTF_8));
+		write("2020/missing.txt", content("logs/2020/missing.txt"));
+		Date lastModified = new Date(1577836800000L);
+		ListObjectsV2Result firstPage = new ListObjectsV2Result();
+		firstPage.getObjectSummaries().add(summary("logs/olderThanObject.txt", lastModified));
+		firstPage.getObjectSummaries().add(summary("logs/sameDigest.txt", lastModified));
+		firstPage.setTruncated(true);
+		firstPage.setNextContinuationToken("next");
+		ListObjectsV2Result secondPage = new ListObjectsV2Result();
+		secondPage.getObjectSummaries().add(summary("logs/otherSize.txt", lastModified));
+		when(amazonS3.listObjectsV2(any(ListObjectsV2Request.class))).thenReturn(firstPage, secondPage);
+		SimpleStorageBulkOperations bulkOperations = new SimpleStorageBulkOperations(amazonS3);
+
+		// Act
+		SimpleStorageSyncResult result = bulkOperations.syncFromDirectory(this.directory, "bucket", "logs/");
+
+		// Assert
+		assertThat(result.getTransferredKeys()).containsExactly("logs/2020/missing.txt", "logs/otherSize.txt");
+		assertThat(result.getUnchangedKeys()).containsExactly("logs/olderThanObject.txt", "logs/sameDigest.txt");
+		ArgumentCaptor<ListObjectsV2Request> listRequests = ArgumentCaptor.forClass(ListObjectsV2Request.class);
+		verify(amazonS3, times(2)).listObjectsV2(listRequests.capture());
+		assertThat(listRequests.getValue().getPrefix()).isEqualTo("logs/");
+		ArgumentCaptor<PutObjectRequest> uploads = ArgumentCaptor.forClass(PutObjectRequest.class);
+		verify(amazonS3, times(2)).putObject(uploads.capture());
+		assertThat(uploads.getAllValues()).extracting(PutObjectRequest::getKey)
+				.containsExactlyInAnyOrder("logs/2020/missing.txt", "logs/otherSize.txt");
+	}
+
+	private Path write(String name, byte[] content) throws IOException {
+		Path file = this.directory.resolve(name);
+		Files.createDirectories(file.getParent());
+		return Files.write(file, content);
+	}
+
+	private static byte[] content(String key) {
+		return ("content of " + key).getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static S3ObjectSummary summary(String key, Date lastModified) {
+		S3ObjectSummary summary = new S3ObjectSummary();
+		summary.setKey(key);
+		summary.setSize(content(key).length);
+		summary.setLastModified(lastModified);
+		summary.setETag(DigestUtils.md5DigestAsHex(content(key)));
+		return summary;
+	}
+
+}
@@ -0,0 +1,275 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.aws.core.io.s3;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.AmazonS3Exception;
+import com.amazonaws.services.s3.model.GetObjectRequest;
+import com.amazonaws.services.s3.model.S3Object;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+
+import org.springframework.util.StreamUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SimpleStorageFileCacheTest {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void getFile_withUnmodifiedObject_validatesWithETagAndServesCachedFile() throws Exception {
+		// Arrange
+		AmazonS3 amazonS3 = mock(AmazonS3.class);
+		when(amazonS3.getObject(any(GetObjectRequest.class))).thenReturn(createS3Object("content", "etag1"),
+				(S3Object) null);
+		SimpleStorageFileCache fileCache = new SimpleStorageFileCache(this.directory, 1024);
+
+		// Act
+		File first = fileCache.getFile(amazonS3, "bucket", "object", null);
+		File second = fileCache.getFile(amazonS3, "bucket", "object", null);
+
+		// Assert
+		assertThat(second).isEqualTo(first);
+		assertThat(new String(Files.readAllBytes(second.toPath()), StandardCharsets.UTF_8)).isEqualTo("content");
+		ArgumentCaptor<GetObjectRequest> requests = ArgumentCaptor.forClass(GetObjectRequest.class);
+		verify(amazonS3, times(2)).getObject(requests.capture());
+		assertThat(requests.getAllValues().get(0).getNonmatchingETagConstraints()).isEmpty();
+		assertThat(requests.getAllValues().get(1).getNonmatchingETagConstraints()).containsExactly("etag1");
+	}
+
+	@Test
+	void getInputStream_withModifiedObject_downloadsNewContent() throws Exception {
+		// Arrange
+		AmazonS3 amazonS3 = mock(AmazonS3.class);
+		when(amazonS3.getObject(any(GetObjectRequest.class))).thenReturn(createS3Object("first", "etag1"),
+				createS3Object("second", "etag2"));
+		SimpleStorageFileCache fileCache = new SimpleStorageFileCache(this.directory, 1024);
+		fileCache.getFile(amazonS3, "bucket", "object", null);
+
+		// Act
+		String content;
+		try (InputStream inputStream = fileCache.getInputStream(amazonS3, "bucket", "object", null)) {
+			content = StreamUtils.copyToString(inputStream, StandardCharsets.UTF_8);
+		}
+
+		// Assert
+		assertThat(content).isEqualTo("second");
+		assertThat(fileCache.getSize()).isEqualTo(6);
+	}
+
+	@Test
+	void getFile_withVersionId_servesCachedFileWithoutValidation() throws Exception {
+		// Arrange
+		AmazonS3 amazonS3 = mock(AmazonS3.class);
+		when(amazonS3.getObject(any(GetObjectRequest.class))).thenReturn(createS3Object("content", "etag1"));
+		SimpleStorageFileCache fileCache = new SimpleStorageFileCache(this.directory, 1024);
+
+		// Act
+		fileCache.getFile(amazonS3, "bucket", "object", "version");
+		fileCache.getFile(amazonS3, "bucket", "object", "version");
+
+		// Assert
+		verify(amazonS3, times(1)).getObject(any(GetObjectRequest.class));
+	}
+
+	@Test
+	void getFile_exceedingMaxSize_evictsLeastRecentlyUsedFile() throws Exception {
+		// Arrange
+		AmazonS3 amazonS3 = mock(AmazonS3.class);
+		when(amazonS3.getObject(any(GetObjectRequest.class))).thenReturn(createS3Object("aaaaa", "etag1"),
+				createS3Object("bbbbb", "etag2"), null, createS3Object("ccccc", "etag3"));
+		SimpleStorageFileCache fileCache = new SimpleStorageFileCache(this.directory, 10);
+		File first = fileCache.getFile(amazonS3, "bucket", "first", null);
+		File second = fileCache.getFile(amazonS3, "bucket", "second", null);
+		fileCache.getFile(amazonS3, "bucket", "first", null);
+
+		// Act
+		File third = fileCache.getFile(amazonS3, "bucket", "third", null);
+
+		// Assert
+		assertThat(fileCache.getSize()).isEqualTo(10);
+		assertThat(first).exists();
+		assertThat(second).doesNotExist();
+		assertThat(third).exists();
+	}
+
+	@Test
+	void getInputStream_withObjectLargerThanMaxSize_servesObjectWithoutCachingIt() throws Exception {
+		// Arrange
+		AmazonS3 amazonS3 = mock(AmazonS3.class);
+		when(amazonS3.getObject(any(GetObjectRequest.class))).thenReturn(createS3Object("aaaaa", "etag1"),
+				createS3Object("bbbbbbbbbbbbbbbbbbbb", "etag2"));
+		SimpleStorageFileCache fileCache = new SimpleStorageFileCache(this.directory, 10);
+		File small = fileCache.getFile(amazonS3, "bucket", "small", null);
+
+		// Act
+		String content;
+		try (InputStream inputStream = fileCache.getInputStream(amazonS3, "bucket", "large", null)) {
+			content = StreamUtils.copyToString(inputStream, StandardCharsets.UTF_8);
+		}
+
+		// Assert
+		assertThat(content).isEqualTo("bbbbbbbbbbbbbbbbbbbb");
+		assertThat(fileCache.getSize()).isEqualTo(5);
+		assertThat(small).exists();
+		try (Stream<Path> files = Files.list(this.directory)) {
+			assertThat(files.map(file -> file.getFileName().toString())).noneMatch(name -> name.endsWith(".tmp"));
+		}
+	}
+
+	@Test
+	void getFile_withObjectLargerThanMaxSize_keepsCacheWithinMaxSize() throws Exception {
+		// Arrange
+		AmazonS3 amazonS3 = mock(AmazonS3.class);
+		when(amazonS3.getObject(any(GetObjectRequest.class))).thenReturn(createS3Object("aaaaa", "etag1"),
+				createS3Object("bbbbbbbbbbbbbbbbbbbb", "etag2"));
+		SimpleStorageFileCache fileCache = new SimpleStorageFileCache(this.directory, 10);
+		File small = fileCache.getFile(amazonS3, "bucket", "small", null);
+
+		// Act
+		File large = fileCache.getFile(amazonS3, "bucket", "large", null);
+
+		// Assert
+		assertThat(new String(Files.readAllBytes(large.toPath()), StandardCharsets.UTF_8))
+				.isEqualTo("bbbbbbbbbbbbbbbbbbbb");
+		assertThat(fileCache.getSize()).isLessThanOrEqualTo(10);
+		assertThat(small).exists();
+	}
+
+	@Test
+	void getFile_afterRestart_reusesCachedFiles() throws Exception {
+		// Arrange
+		AmazonS3 amazonS3 = mock(AmazonS3.class);
+		when(amazonS3.getObject(any(GetObjectRequest.class))).thenReturn(createS3Object("content", "etag1"),
+				(S3Object) null);
+		new SimpleStorageFileCache(this.directory, 1024).getFile(amazonS3, "bucket", "object", null);
+
+		// Act
+		SimpleStorageFileCache fileCache = new SimpleStorageFileCache(this.directory, 1024);
+		File file = fileCache.getFile(amazonS3, "bucket", "object", null);
+
+		// Assert
+		assertThat(fileCache.getSize()).isEqualTo(7);
+		assertThat(new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8)).isEqualTo("content");
+	}
+
+	@Test
+	void getInputStream_withFileEvictedDuringValidation_downloadsObjectAgain() throws Exception {
+		// Arrange
+		AmazonS3 amazonS3 = mock(AmazonS3.class);
+		when(amazonS3.getObject(any(GetObjectRequest.class))).thenReturn(createS3Object("first", "etag1"));
+		SimpleStorageFileCache fileCache = new SimpleStorageFileCache(this.directory, 1024);
+		File file = fileCache.getFile(amazonS3, "bucket", "object", null);
+		when(amazonS3.getObject(any(GetObjectRequest.class))).thenAnswer(invocation -> {
+			// Simulates the eviction of the file by a concurrent download
+			Files.delete(file.toPath());
+			return null;
+		}).thenReturn(createS3Object("second", "etag2"));
+
+		// Act
+		String content;
+		try (InputStream inputStream = fileCache.getInputStream(amazonS3, "bucket", "object", null)) {
+			content = StreamUtils.copyToString(inputStream, StandardCharsets.UTF_8);
+		}
+
+		// Assert
+		assertThat(content).isEqualTo("second");
+		assertThat(fileCache.getSize()).isEqualTo(6);
+		ArgumentCaptor<GetObjectRequest> requests = ArgumentCaptor.forClass(GetObjectRequest.class);
+		verify(amazonS3, times(3)).getObject(requests.capture());
+		assertThat(requests.getAllValues().get(1).getNonmatchingETagConstraints()).containsExactly("etag1");
+		assertThat(requests.getAllValues().get(2).getNonmatchingETagConstraints()).isEmpty();
+	}
+
+	@Test
+	void getFile_withCachedFileDeletedOutsideOfCache_downloadsObjectAgain() throws Exception {
+		// Arrange
+		AmazonS3 amazonS3 = mock(AmazonS3.class);
+		when(amazonS3.getObject(any(GetObjectRequest.class))).thenReturn(createS3Object("first", "etag1"),
+				createS3Object("second", "etag2"));
+		SimpleStorageFileCache fileCache = new SimpleStorageFileCache(this.directory, 1024);
+		Files.delete(fileCache.getFile(amazonS3, "bucket", "object", "version").toPath());
+
+		// Act
+		File file = fileCache.getFile(amazonS3, "bucket", "object", "version");
+
+		// Assert
+		assertThat(new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8)).isEqualTo("second");
+		assertThat(fileCache.getSize()).isEqualTo(6);
+	}
+
+	@Test
+	void constructor_withFilesOfInterruptedDownloads_deletesUntrackedFiles() throws Exception {
+		// Arrange
+		AmazonS3 amazonS3 = mock(AmazonS3.class);
+		when(amazonS3.getObject(any(GetObjectRequest.class))).thenReturn(createS3Object("content", "etag1"));
+		File cached = new SimpleStorageFileCache(this.directory, 1024).getFile(amazonS3, "bucket", "object", null);
+		Path untrackedData = Files.write(this.directory.resolve("untracked.data"), new byte[10]);
+		Path untrackedETag = Files.write(this.directory.resolve("other.etag"), new byte[3]);
+		Path tempFile = Files.write(this.directory.resolve("untracked123.tmp"), new byte[10]);
+
+		// Act
+		SimpleStorageFileCache fileCache = new SimpleStorageFileCache(this.directory, 1024);
+
+		// Assert
+		assertThat(fileCache.getSize()).isEqualTo(7);
+		assertThat(cached).exists();
+		assertThat(untrackedData).doesNotExist();
+		assertThat(untrackedETag).doesNotExist();
+		assertThat(tempFile).doesNotExist();
+	}
+
+	@Test
+	void getFile_withoutExistingObject_reportsFileNotFound() throws Exception {
+		// Arrange
+		AmazonS3 amazonS3 = mock(AmazonS3.class);
+		AmazonS3Exception notFound = new AmazonS3Exception("Not Found");
+		notFound.setStatusCode(404);
+		when(amazonS3.getObject(any(GetObjectRequest.class))).thenThrow(notFound);
+		SimpleStorageFileCache fileCache = new SimpleStorageFileCache(this.directory, 1024);
+
+		// Act & Assert
+		assertThatThrownBy(() -> fileCache.getFile(amazonS3, "bucket", "object", null))
+				.isInstanceOf(FileNotFoundException.class);
+	}
+
+	private static S3Object createS3Object(String content, String eTag) {
+		S3Object s3Object = new S3Object();
+		s3Object.setObjectContent(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+		s3Object.getObjectMetadata().setHeader("ETag", eTag);
+		return s3Object;
+	}
+
+}
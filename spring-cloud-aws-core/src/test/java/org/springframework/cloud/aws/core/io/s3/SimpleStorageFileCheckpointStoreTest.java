@@ -0,0 +1,117 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.aws.core.io.s3;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.amazonaws.services.s3.model.PartETag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+class SimpleStorageFileCheckpointStoreTest {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void load_afterSaveAndAddPart_returnsCheckpointWithParts() throws Exception {
+		// Arrange
+		SimpleStorageFileCheckpointStore store = new SimpleStorageFileCheckpointStore(this.directory);
+		store.save(new SimpleStorageUploadCheckpoint("bucket", "backups/2020 full\nbackup.tar", "uploadId",
+				1024 * 1024 * 5, Collections.singletonMap(1, "\"etag1\"")));
+		store.addPart("bucket", "backups/2020 full\nbackup.tar", "uploadId", new PartETag(2, "\"etag2\""));
+
+		// Act
+		SimpleStorageUploadCheckpoint checkpoint = new SimpleStorageFileCheckpointStore(this.directory)
+				.load("bucket", "backups/2020 full\nbackup.tar");
+
+		// Assert
+		assertThat(checkpoint.getUploadId()).isEqualTo("uploadId");
+		assertThat(checkpoint.getPartSize()).isEqualTo(1024 * 1024 * 5);
+		assertThat(checkpoint.getPartETags()).containsExactly(entry(1, "\"etag1\""), entry(2, "\"etag2\""));
+	}
+
+	@Test
+	void load_withPartsOfOtherUploadAndIncompleteLine_ignoresThoseParts() throws Exception {
+		// Arrange
+		SimpleStorageFileCheckpointStore store = new SimpleStorageFileCheckpointStore(this.directory);
+		store.save(new SimpleStorageUploadCheckpoint("bucket", "object", "uploadId", 1024 * 1024 * 5,
+				Collections.emptyMap()));
+		store.addPart("bucket", "object", "uploadId", new PartETag(1, "\"etag1\""));
+		store.addPart("bucket", "object", "otherUploadId", new PartETag(2, "\"etag2\""));
+		Files.write(getCheckpointFile(), "part 3 \"etag3\"".getBytes(StandardCharsets.UTF_8),
+				StandardOpenOption.APPEND);
+
+		// Act
+		SimpleStorageUploadCheckpoint checkpoint = store.load("bucket", "object");
+
+		// Assert
+		assertThat(checkpoint.getPartETags()).containsOnly(entry(1, "\"etag1\""));
+	}
+
+	@Test
+	void load_withCorruptHeader_returnsNull() throws Exception {
+		// Arrange
+		SimpleStorageFileCheckpointStore store = new SimpleStorageFileCheckpointStore(this.directory);
+		store.save(new SimpleStorageUploadCheckpoint("bucket", "object", "uploadId", 1024 * 1024 * 5,
+				Collections.singletonMap(1, "\"etag1\"")));
+		Path checkpointFile = getCheckpointFile();
+		List<String> lines = Files.readAllLines(checkpointFile, StandardCharsets.UTF_8);
+		lines.set(3, "5MB");
+		Files.write(checkpointFile, lines, StandardCharsets.UTF_8);
+
+		// Act
+		SimpleStorageUploadCheckpoint checkpoint = store.load("bucket", "object");
+
+		// Assert
+		assertThat(checkpoint).isNull();
+	}
+
+	@Test
+	void load_afterDelete_returnsNull() throws Exception {
+		// Arrange
+		SimpleStorageFileCheckpointStore store = new SimpleStorageFileCheckpointStore(this.directory);
+		store.save(new SimpleStorageUploadCheckpoint("bucket", "object", "uploadId", 1024 * 1024 * 5,
+				Collections.emptyMap()));
+
+		// Act
+		store.delete("bucket", "object");
+
+		// Assert
+		assertThat(store.load("bucket", "object")).isNull();
+		assertThat(store.load("bucket", "otherObject")).isNull();
+	}
+
+	private Path getCheckpointFile() throws Exception {
+		try (Stream<Path> files = Files.list(this.directory)) {
+			List<Path> checkpointFiles = files.collect(Collectors.toList());
+			assertThat(checkpointFiles).hasSize(1);
+			return checkpointFiles.get(0);
+		}
+	}
+
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.aws.core.io.s3;
+
+import java.time.Duration;
+
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SimpleStorageMetadataCacheTest {
+
+	@Test
+	void get_withCachedMetadata_returnsMetadata() {
+		// Arrange
+		SimpleStorageMetadataCache cache = new SimpleStorageMetadataCache();
+		ObjectMetadata metadata = new ObjectMetadata();
+		cache.put("bucket", "object", null, metadata);
+
+		// Act
+		ObjectMetadata cached = cache.get("bucket", "object", null);
+
+		// Assert
+		assertThat(cached).isSameAs(metadata);
+	}
+
+	@Test
+	void get_withDifferentVersion_returnsNull() {
+		// Arrange
+		SimpleStorageMetadataCache cache = new SimpleStorageMetadataCache();
+		cache.put("bucket", "object", "v1", new ObjectMetadata());
+
+		// Act
+		ObjectMetadata cached = cache.get("bucket", "object", "v2");
+
+		// Assert
+		assertThat(cached).isNull();
+	}
+
+	@Test
+	void get_withExpiredEntry_returnsNull() throws Exception {
+		// Arrange
+		SimpleStorageMetadataCache cache = new SimpleStorageMetadataCache(10, Duration.ofMillis(1));
+		cache.put("bucket", "object", null, new ObjectMetadata());
+		Thread.sleep(10);
+
+		// Act
+		ObjectMetadata cached = cache.get("bucket", "object", null);
+
+		// Assert
+		assertThat(cached).isNull();
+		assertThat(cache.size()).isZero();
+	}
+
+	@Test
+	void put_withMaxSizeReached_evictsOldestEntry() {
+		// Arrange
+		SimpleStorageMetadataCache cache = new SimpleStorageMetadataCache(2, Duration.ofMinutes(1));
+
+		// Act
+		cache.put("bucket", "first", null, new ObjectMetadata());
+		cache.put("bucket", "second", null, new ObjectMetadata());
+		cache.put("bucket", "third", null, new ObjectMetadata());
+
+		// Assert
+		assertThat(cache.size()).isEqualTo(2);
+		assertThat(cache.get("bucket", "first", null)).isNull();
+		assertThat(cache.get("bucket", "third", null)).isNotNull();
+	}
+
+	@Test
+	void evict_withCachedMetadata_removesEntry() {
+		// Arrange
+		SimpleStorageMetadataCache cache = new SimpleStorageMetadataCache();
+		cache.put("bucket", "object", null, new ObjectMetadata());
+
+		// Act
+		cache.evict("bucket", "object", null);
+
+		// Assert
+		assertThat(cache.get("bucket", "object", null)).isNull();
+	}
+
+	@Test
+	void new_withZeroTimeToLive_reportsError() {
+		// Act & Assert
+		assertThatThrownBy(() -> new SimpleStorageMetadataCache(10, Duration.ZERO))
+				.isInstanceOf(IllegalArgumentException.class).hasMessageContaining("timeToLive");
+	}
+
+}
@@ -68,6 +68,26 @@ class SimpleStorageProtocolResolverTest {
 		assertThat(resource).isNotNull();
 	}
 
+	@Test
+	void testGetResourceWithTransferSettings() {
+		AmazonS3 amazonS3 = mock(AmazonS3.class);
+
+		SimpleStorageProtocolResolver resourceLoader = new SimpleStorageProtocolResolver(amazonS3);
+		resourceLoader.setUploadPartSize(1024 * 1024 * 16);
+		resourceLoader.setMaxConcurrentUploadParts(8);
+		resourceLoader.setDownloadRangeSize(1024 * 1024 * 4);
+		resourceLoader.setMaxConcurrentDownloadRanges(6);
+		resourceLoader.afterPropertiesSet();
+
+		SimpleStorageResource resource = (SimpleStorageResource) resourceLoader.resolve("s3://bucket/object",
+				new DefaultResourceLoader());
+
+		assertThat(resource.getUploadPartSize()).isEqualTo(1024 * 1024 * 16);
+		assertThat(resource.getMaxConcurrentUploadParts()).isEqualTo(8);
+		assertThat(resource.getDownloadRangeSize()).isEqualTo(1024 * 1024 * 4);
+		assertThat(resource.getMaxConcurrentDownloadRanges()).isEqualTo(6);
+	}
+
 	@Test
 	void testGetResourceWithVersionId() {
 		AmazonS3 amazonS3 = mock(AmazonS3.class);
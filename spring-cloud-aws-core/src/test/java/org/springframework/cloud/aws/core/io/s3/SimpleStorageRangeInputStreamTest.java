@@ -0,0 +1,111 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.aws.core.io.s3;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Random;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.GetObjectRequest;
+import com.amazonaws.services.s3.model.S3Object;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.util.StreamUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SimpleStorageRangeInputStreamTest {
+
+	@Test
+	void read_withMultipleRanges_returnsContentInOrder() throws Exception {
+		// Arrange
+		byte[] content = new byte[10_000];
+		new Random().nextBytes(content);
+		AmazonS3 amazonS3 = mockRangedGetObject(content);
+
+		// Act
+		byte[] result;
+		try (InputStream inputStream = new SimpleStorageRangeInputStream(
+				new SimpleStorageRangeReader(amazonS3, "bucket", "object", null, "etag", null), content.length, 1024, 3,
+				new SimpleAsyncTaskExecutor())) {
+			result = StreamUtils.copyToByteArray(inputStream);
+		}
+
+		// Assert
+		assertThat(result).isEqualTo(content);
+		ArgumentCaptor<GetObjectRequest> requests = ArgumentCaptor.forClass(GetObjectRequest.class);
+		verify(amazonS3, times(10)).getObject(requests.capture());
+		assertThat(requests.getAllValues()).allSatisfy(
+				request -> assertThat(request.getMatchingETagConstraints()).containsExactly("etag"));
+	}
+
+	@Test
+	void read_singleBytes_returnsContentInOrder() throws Exception {
+		// Arrange
+		byte[] content = { 1, 2, 3, (byte) 255, 5 };
+		AmazonS3 amazonS3 = mockRangedGetObject(content);
+		InputStream inputStream = new SimpleStorageRangeInputStream(
+				new SimpleStorageRangeReader(amazonS3, "bucket", "object", "version", null, null), content.length, 2, 2,
+				new SyncTaskExecutor());
+
+		// Act & Assert
+		assertThat(inputStream.read()).isEqualTo(1);
+		assertThat(inputStream.read()).isEqualTo(2);
+		assertThat(inputStream.read()).isEqualTo(3);
+		assertThat(inputStream.read()).isEqualTo(255);
+		assertThat(inputStream.read()).isEqualTo(5);
+		assertThat(inputStream.read()).isEqualTo(-1);
+	}
+
+	@Test
+	void read_withObjectModifiedDuringDownload_reportsError() {
+		// Arrange
+		AmazonS3 amazonS3 = mock(AmazonS3.class);
+		when(amazonS3.getObject(any(GetObjectRequest.class))).thenReturn(null);
+		InputStream inputStream = new SimpleStorageRangeInputStream(
+				new SimpleStorageRangeReader(amazonS3, "bucket", "object", null, "etag", null), 100, 10, 2,
+				new SyncTaskExecutor());
+
+		// Act & Assert
+		assertThatThrownBy(inputStream::read).isInstanceOf(IOException.class).hasMessageContaining("modified");
+	}
+
+	static AmazonS3 mockRangedGetObject(byte[] content) {
+		AmazonS3 amazonS3 = mock(AmazonS3.class);
+		when(amazonS3.getObject(any(GetObjectRequest.class))).thenAnswer(invocation -> {
+			long[] range = invocation.<GetObjectRequest>getArgument(0).getRange();
+			S3Object s3Object = new S3Object();
+			s3Object.setObjectContent(new ByteArrayInputStream(
+					Arrays.copyOfRange(content, (int) range[0], (int) range[1] + 1)));
+			return s3Object;
+		});
+		return amazonS3;
+	}
+
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.aws.core.io.s3;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.GetObjectRequest;
+import com.amazonaws.services.s3.model.S3Object;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SimpleStorageRangeReaderTest {
+
+	@Test
+	void read_withVersionId_requestsRangeOfVersion() throws Exception {
+		// Arrange
+		AmazonS3 amazonS3 = mock(AmazonS3.class);
+		S3Object s3Object = new S3Object();
+		s3Object.setObjectContent(new ByteArrayInputStream(new byte[] { 1, 2, 3 }));
+		when(amazonS3.getObject(any(GetObjectRequest.class))).thenReturn(s3Object);
+		SimpleStorageRangeReader rangeReader = new SimpleStorageRangeReader(amazonS3, "bucket", "object", "version",
+				"etag", null);
+
+		// Act
+		byte[] content = rangeReader.read(10, 12);
+
+		// Assert
+		assertThat(content).containsExactly(1, 2, 3);
+		ArgumentCaptor<GetObjectRequest> request = ArgumentCaptor.forClass(GetObjectRequest.class);
+		verify(amazonS3).getObject(request.capture());
+		assertThat(request.getValue().getRange()).containsExactly(10, 12);
+		assertThat(request.getValue().getVersionId()).isEqualTo("version");
+		assertThat(request.getValue().getMatchingETagConstraints()).isEmpty();
+	}
+
+	@Test
+	void read_withMetrics_recordsBytesOfRange() throws Exception {
+		// Arrange
+		AmazonS3 amazonS3 = mock(AmazonS3.class);
+		S3Object s3Object = new S3Object();
+		s3Object.setObjectContent(new ByteArrayInputStream(new byte[] { 1, 2, 3 }));
+		when(amazonS3.getObject(any(GetObjectRequest.class))).thenReturn(s3Object);
+		SimpleStorageMetrics metrics = mock(SimpleStorageMetrics.class);
+		SimpleStorageRangeReader rangeReader = new SimpleStorageRangeReader(amazonS3, "bucket", "object", null,
+				"etag", metrics);
+
+		// Act
+		rangeReader.read(10, 12);
+
+		// Assert
+		verify(metrics).recordBytesRead("bucket", 3);
+	}
+
+	@Test
+	void read_withObjectModified_reportsError() {
+		// Arrange
+		AmazonS3 amazonS3 = mock(AmazonS3.class);
+		when(amazonS3.getObject(any(GetObjectRequest.class))).thenReturn(null);
+		SimpleStorageRangeReader rangeReader = new SimpleStorageRangeReader(amazonS3, "bucket", "object", null,
+				"etag", null);
+
+		// Act & Assert
+		assertThatThrownBy(() -> rangeReader.read(0, 9)).isInstanceOf(IOException.class)
+				.hasMessageContaining("modified");
+	}
+
+	@Test
+	void read_withShortResponse_reportsError() {
+		// Arrange
+		AmazonS3 amazonS3 = mock(AmazonS3.class);
+		S3Object s3Object = new S3Object();
+		s3Object.setObjectContent(new ByteArrayInputStream(new byte[] { 1 }));
+		when(amazonS3.getObject(any(GetObjectRequest.class))).thenReturn(s3Object);
+		SimpleStorageRangeReader rangeReader = new SimpleStorageRangeReader(amazonS3, "bucket", "object", null,
+				"etag", null);
+
+		// Act & Assert
+		assertThatThrownBy(() -> rangeReader.read(0, 9)).isInstanceOf(IOException.class)
+				.hasMessageContaining("Premature end");
+	}
+
+}
@@ -17,37 +17,76 @@
 package org.springframework.cloud.aws.core.io.s3;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.net.URI;
 import java.net.URL;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
+import com.amazonaws.DefaultRequest;
+import com.amazonaws.metrics.RequestMetricCollector;
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.AmazonS3Client;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
+import com.amazonaws.services.s3.model.AmazonS3Exception;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
 import com.amazonaws.services.s3.model.GetObjectMetadataRequest;
 import com.amazonaws.services.s3.model.GetObjectRequest;
 import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
 import com.amazonaws.services.s3.model.InitiateMultipartUploadResult;
 import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PartETag;
+import com.amazonaws.services.s3.model.PutObjectRequest;
 import com.amazonaws.services.s3.model.PutObjectResult;
 import com.amazonaws.services.s3.model.Region;
 import com.amazonaws.services.s3.model.S3Object;
+import com.amazonaws.services.s3.model.S3ObjectSummary;
+import com.amazonaws.services.s3.model.UploadPartRequest;
+import com.amazonaws.services.s3.model.UploadPartResult;
+import com.amazonaws.util.AWSRequestMetrics;
+import com.amazonaws.util.AWSRequestMetricsFullSupport;
+import com.amazonaws.util.BinaryUtils;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.ArgumentCaptor;
 import org.mockito.stubbing.Answer;
 
 import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.util.StreamUtils;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 /**
@@ -180,6 +219,80 @@ class SimpleStorageResourceTest {
 		assertThat(simpleStorageResource.getInputStream().read()).isEqualTo(42);
 	}
 
+	@Test
+	void getInputStream_withMetrics_recordsHeadRequestAndBytesRead() throws Exception {
+		// Arrange
+		AmazonS3 amazonS3 = mock(AmazonS3.class);
+		ObjectMetadata objectMetadata = new ObjectMetadata();
+		objectMetadata.setContentLength(3);
+		when(amazonS3.getObjectMetadata(any(GetObjectMetadataRequest.class))).thenReturn(objectMetadata);
+		S3Object s3Object = new S3Object();
+		s3Object.setObjectMetadata(objectMetadata);
+		s3Object.setObjectContent(new ByteArrayInputStream(new byte[] { 1, 2, 3 }));
+		when(amazonS3.getObject(any(GetObjectRequest.class))).thenReturn(s3Object);
+		SimpleStorageMetrics metrics = mock(SimpleStorageMetrics.class);
+		SimpleStorageResource simpleStorageResource = new SimpleStorageResource(amazonS3, "bucket", "object",
+				new SyncTaskExecutor());
+		simpleStorageResource.setMetrics(metrics);
+
+		// Act
+		assertThat(simpleStorageResource.exists()).isTrue();
+		try (InputStream inputStream = simpleStorageResource.getInputStream()) {
+			assertThat(StreamUtils.copyToByteArray(inputStream)).containsExactly(1, 2, 3);
+		}
+
+		// Assert
+		verify(metrics).recordHeadRequest("bucket");
+		verify(metrics).recordBytesRead("bucket", 3);
+	}
+
+	@Test
+	void getInputStream_withConcurrentDownloadRangesAndLargeObject_returnsRangedInputStream() throws Exception {
+		// Arrange
+		AmazonS3 amazonS3 = mock(AmazonS3.class);
+		ObjectMetadata objectMetadata = new ObjectMetadata();
+		objectMetadata.setContentLength(1024 * 1024 * 20);
+		when(amazonS3.getObjectMetadata(any(GetObjectMetadataRequest.class))).thenReturn(objectMetadata);
+		SimpleStorageResource simpleStorageResource = new SimpleStorageResource(amazonS3, "bucket", "object",
+				new SyncTaskExecutor());
+		simpleStorageResource.setMaxConcurrentDownloadRanges(4);
+
+		// Act
+		InputStream inputStream = simpleStorageResource.getInputStream();
+
+		// Assert
+		assertThat(inputStream).isInstanceOf(SimpleStorageRangeInputStream.class);
+	}
+
+	@Test
+	void readableChannel_existingObject_returnsSeekableChannelWithObjectSize() throws Exception {
+		// Arrange
+		AmazonS3 amazonS3 = mock(AmazonS3.class);
+		ObjectMetadata objectMetadata = new ObjectMetadata();
+		objectMetadata.setContentLength(1234);
+		when(amazonS3.getObjectMetadata(any(GetObjectMetadataRequest.class))).thenReturn(objectMetadata);
+		SimpleStorageResource simpleStorageResource = new SimpleStorageResource(amazonS3, "bucket", "object",
+				new SyncTaskExecutor());
+
+		// Act
+		SeekableByteChannel channel = simpleStorageResource.readableChannel();
+
+		// Assert
+		assertThat(channel.size()).isEqualTo(1234);
+		assertThat(channel.position()).isZero();
+	}
+
+	@Test
+	void readableChannel_withoutExistingObject_reportsError() {
+		// Arrange
+		AmazonS3 amazonS3 = mock(AmazonS3.class);
+		SimpleStorageResource simpleStorageResource = new SimpleStorageResource(amazonS3, "bucket", "object",
+				new SyncTaskExecutor());
+
+		// Act & Assert
+		assertThatThrownBy(simpleStorageResource::readableChannel).isInstanceOf(FileNotFoundException.class);
+	}
+
 	@Test
 	void getDescription_withoutObjectMetaData_returnsDescriptiveDescription() throws Exception {
 		// Arrange
@@ -244,6 +357,87 @@ class SimpleStorageResourceTest {
 
 	}
 
+	@Test
+	void getFile_withFileCache_returnsCachedFile(@TempDir Path cacheDirectory) throws Exception {
+		// Arrange
+		AmazonS3 amazonS3 = mock(AmazonS3.class);
+		S3Object s3Object = new S3Object();
+		s3Object.setObjectContent(new ByteArrayInputStream("content".getBytes()));
+		when(amazonS3.getObject(any(GetObjectRequest.class))).thenReturn(s3Object);
+		SimpleStorageResource simpleStorageResource = new SimpleStorageResource(amazonS3, "bucket", "object",
+				new SyncTaskExecutor());
+		simpleStorageResource.setFileCache(new SimpleStorageFileCache(cacheDirectory, 1024));
+
+		// Act
+		File file = simpleStorageResource.getFile();
+
+		// Assert
+		assertThat(file.toPath().getParent()).isEqualTo(cacheDirectory);
+		assertThat(Files.readAllBytes(file.toPath())).isEqualTo("content".getBytes());
+	}
+
+	@Test
+	void exists_withSharedMetadataCache_requestsMetadataOnlyOnce() throws Exception {
+		// Arrange
+		AmazonS3 amazonS3 = mock(AmazonS3.class);
+		when(amazonS3.getObjectMetadata(any(GetObjectMetadataRequest.class))).thenReturn(new ObjectMetadata());
+		SimpleStorageMetadataCache metadataCache = new SimpleStorageMetadataCache();
+		SimpleStorageResource first = new SimpleStorageResource(amazonS3, "bucket", "object", new SyncTaskExecutor());
+		first.setMetadataCache(metadataCache);
+		SimpleStorageResource second = new SimpleStorageResource(amazonS3, "bucket", "object",
+				new SyncTaskExecutor());
+		second.setMetadataCache(metadataCache);
+
+		// Act
+		boolean firstExists = first.exists();
+		boolean secondExists = second.exists();
+
+		// Assert
+		assertThat(firstExists).isTrue();
+		assertThat(secondExists).isTrue();
+		verify(amazonS3, times(1)).getObjectMetadata(any(GetObjectMetadataRequest.class));
+	}
+
+	@Test
+	void contentLength_withObjectSummary_doesNotRequestMetadata() throws Exception {
+		// Arrange
+		AmazonS3 amazonS3 = mock(AmazonS3.class);
+		S3ObjectSummary objectSummary = new S3ObjectSummary();
+		objectSummary.setSize(1234);
+		objectSummary.setLastModified(new Date(5000));
+		objectSummary.setETag("etag");
+		SimpleStorageResource simpleStorageResource = new SimpleStorageResource(amazonS3, "bucket", "object",
+				new SyncTaskExecutor());
+
+		// Act
+		simpleStorageResource.setObjectSummary(objectSummary);
+
+		// Assert
+		assertThat(simpleStorageResource.exists()).isTrue();
+		assertThat(simpleStorageResource.contentLength()).isEqualTo(1234);
+		assertThat(simpleStorageResource.lastModified()).isEqualTo(5000);
+		verify(amazonS3, never()).getObjectMetadata(any(GetObjectMetadataRequest.class));
+	}
+
+	@Test
+	void writeFile_withMetadataCache_evictsCachedMetadata() throws Exception {
+		// Arrange
+		AmazonS3 amazonS3 = mock(AmazonS3.class);
+		SimpleStorageMetadataCache metadataCache = new SimpleStorageMetadataCache();
+		metadataCache.put("bucket", "object", null, new ObjectMetadata());
+		SimpleStorageResource simpleStorageResource = new SimpleStorageResource(amazonS3, "bucket", "object",
+				new SyncTaskExecutor());
+		simpleStorageResource.setMetadataCache(metadataCache);
+
+		// Act
+		try (OutputStream outputStream = simpleStorageResource.getOutputStream()) {
+			outputStream.write("content".getBytes());
+		}
+
+		// Assert
+		assertThat(metadataCache.get("bucket", "object", null)).isNull();
+	}
+
 	@Test
 	void createRelative_existingObject_returnsRelativeCreatedFile() throws IOException {
 
@@ -287,6 +481,30 @@ class SimpleStorageResourceTest {
 		assertThat(objectMetadataArgumentCaptor.getValue().getContentType()).isNull();
 	}
 
+	@Test
+	void writeFile_withSingleBytesAndArrays_setsContentMd5OfWrittenBytes() throws Exception {
+		// Arrange
+		AmazonS3 amazonS3 = mock(AmazonS3.class);
+		SimpleStorageResource simpleStorageResource = new SimpleStorageResource(amazonS3, "bucketName", "objectName",
+				new SyncTaskExecutor());
+		byte[] content = new byte[1024 * 64];
+		new Random().nextBytes(content);
+
+		// Act
+		try (OutputStream outputStream = simpleStorageResource.getOutputStream()) {
+			outputStream.write(content[0]);
+			outputStream.write(content, 1, content.length - 1);
+		}
+
+		// Assert
+		ArgumentCaptor<ObjectMetadata> objectMetadata = ArgumentCaptor.forClass(ObjectMetadata.class);
+		verify(amazonS3).putObject(eq("bucketName"), eq("objectName"), any(InputStream.class),
+				objectMetadata.capture());
+		assertThat(objectMetadata.getValue().getContentMD5())
+				.isEqualTo(BinaryUtils.toBase64(MessageDigest.getInstance("MD5").digest(content)));
+		assertThat(objectMetadata.getValue().getContentLength()).isEqualTo(content.length);
+	}
+
 	@Test
 	public void writeFile_simpleUpload_setsContentType() throws Exception {
 		// Arrange
@@ -340,6 +558,531 @@ class SimpleStorageResourceTest {
 		// Assert
 	}
 
+	@Test
+	void writeFile_multipartUploadWithBulkWrites_uploadsAllPartsInOrder() throws Exception {
+		// Arrange
+		AmazonS3 amazonS3 = mock(AmazonS3.class);
+		SimpleStorageResource simpleStorageResource = new SimpleStorageResource(amazonS3, "bucketName", "objectName",
+				new SyncTaskExecutor());
+
+		byte[] content = new byte[(1024 * 1024 * 12) + 3];
+		new Random().nextBytes(content);
+
+		when(amazonS3.initiateMultipartUpload(any(InitiateMultipartUploadRequest.class)))
+				.thenReturn(new InitiateMultipartUploadResult());
+		ByteArrayOutputStream uploadedContent = new ByteArrayOutputStream();
+		List<Long> partSizes = new ArrayList<>();
+		when(amazonS3.uploadPart(any(UploadPartRequest.class))).thenAnswer(invocation -> {
+			UploadPartRequest request = invocation.getArgument(0);
+			partSizes.add(request.getPartSize());
+			StreamUtils.copy(request.getInputStream(), uploadedContent);
+			UploadPartResult result = new UploadPartResult();
+			result.setPartNumber(request.getPartNumber());
+			result.setETag("etag-" + request.getPartNumber());
+			return result;
+		});
+		OutputStream outputStream = simpleStorageResource.getOutputStream();
+
+		// Act
+		for (int offset = 0; offset < content.length; offset += 4096) {
+			outputStream.write(content, offset, Math.min(4096, content.length - offset));
+		}
+		outputStream.close();
+
+		// Assert
+		assertThat(partSizes).containsExactly(1024L * 1024 * 5, 1024L * 1024 * 5, 1024L * 1024 * 2 + 3);
+		assertThat(uploadedContent.toByteArray()).isEqualTo(content);
+		verify(amazonS3).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+	}
+
+	@Test
+	void upload_withSmallFile_putsFileWithSingleRequest(@TempDir Path directory) throws Exception {
+		// Arrange
+		AmazonS3 amazonS3 = mock(AmazonS3.class);
+		SimpleStorageResource simpleStorageResource = new SimpleStorageResource(amazonS3, "bucketName", "objectName",
+				new SyncTaskExecutor(), null, "text/plain");
+		Path file = Files.write(directory.resolve("file.txt"), "content".getBytes());
+
+		// Act
+		simpleStorageResource.upload(file);
+
+		// Assert
+		ArgumentCaptor<PutObjectRequest> request = ArgumentCaptor.forClass(PutObjectRequest.class);
+		verify(amazonS3).putObject(request.capture());
+		assertThat(request.getValue().getFile()).isEqualTo(file.toFile());
+		assertThat(request.getValue().getInputStream()).isNull();
+		assertThat(request.getValue().getMetadata().getContentType()).isEqualTo("text/plain");
+	}
+
+	@Test
+	void upload_withLargeFile_uploadsFileRegionsAsParts(@TempDir Path directory) throws Exception {
+		// Arrange
+		AmazonS3 amazonS3 = mock(AmazonS3.class);
+		SimpleStorageResource simpleStorageResource = new SimpleStorageResource(amazonS3, "bucketName", "objectName",
+				new SyncTaskExecutor());
+		Path file = Files.write(directory.resolve("file.bin"), new byte[(1024 * 1024 * 12) + 3]);
+		InitiateMultipartUploadResult multipartUpload = new InitiateMultipartUploadResult();
+		multipartUpload.setUploadId("uploadId");
+		when(amazonS3.initiateMultipartUpload(any(InitiateMultipartUploadRequest.class))).thenReturn(multipartUpload);
+		when(amazonS3.uploadPart(any(UploadPartRequest.class))).thenAnswer(invocation -> {
+			UploadPartRequest request = invocation.getArgument(0);
+			UploadPartResult result = new UploadPartResult();
+			result.setPartNumber(request.getPartNumber());
+			result.setETag("etag-" + request.getPartNumber());
+			return result;
+		});
+
+		// Act
+		simpleStorageResource.upload(file);
+
+		// Assert
+		ArgumentCaptor<UploadPartRequest> parts = ArgumentCaptor.forClass(UploadPartRequest.class);
+		verify(amazonS3, times(3)).uploadPart(parts.capture());
+		assertThat(parts.getAllValues()).allMatch(part -> file.toFile().equals(part.getFile()))
+				.allMatch(part -> part.getInputStream() == null);
+		assertThat(parts.getAllValues()).extracting(UploadPartRequest::getFileOffset).containsExactly(0L,
+				1024L * 1024 * 5, 1024L * 1024 * 10);
+		assertThat(parts.getAllValues()).extracting(UploadPartRequest::getPartSize).containsExactly(1024L * 1024 * 5,
+				1024L * 1024 * 5, 1024L * 1024 * 2 + 3);
+		assertThat(parts.getAllValues().get(2).isLastPart()).isTrue();
+		ArgumentCaptor<CompleteMultipartUploadRequest> complete = ArgumentCaptor
+				.forClass(CompleteMultipartUploadRequest.class);
+		verify(amazonS3).completeMultipartUpload(complete.capture());
+		assertThat(complete.getValue().getUploadId()).isEqualTo("uploadId");
+		assertThat(complete.getValue().getPartETags()).extracting(PartETag::getETag).containsExactly("etag-1",
+				"etag-2", "etag-3");
+	}
+
+	@Test
+	void upload_withChannelLargerThanPartSize_streamsPartsInOrderWithoutClosingChannel() throws Exception {
+		// Arrange
+		AmazonS3 amazonS3 = mock(AmazonS3.class);
+		SimpleStorageResource simpleStorageResource = new SimpleStorageResource(amazonS3, "bucketName", "objectName",
+				new SyncTaskExecutor());
+		byte[] content = new byte[(1024 * 1024 * 5) + 3];
+		new Random().nextBytes(content);
+		ReadableByteChannel channel = Channels.newChannel(new ByteArrayInputStream(content));
+		when(amazonS3.initiateMultipartUpload(any(InitiateMultipartUploadRequest.class)))
+				.thenReturn(new InitiateMultipartUploadResult());
+		ByteArrayOutputStream uploadedContent = new ByteArrayOutputStream();
+		when(amazonS3.uploadPart(any(UploadPartRequest.class))).thenAnswer(invocation -> {
+			UploadPartRequest request = invocation.getArgument(0);
+			// The SDK reads the part size from the stream and closes it afterwards
+			byte[] part = new byte[(int) request.getPartSize()];
+			new DataInputStream(request.getInputStream()).readFully(part);
+			request.getInputStream().close();
+			uploadedContent.write(part);
+			UploadPartResult result = new UploadPartResult();
+			result.setPartNumber(request.getPartNumber());
+			return result;
+		});
+
+		// Act
+		simpleStorageResource.upload(channel, content.length);
+
+		// Assert
+		assertThat(uploadedContent.toByteArray()).isEqualTo(content);
+		assertThat(channel.isOpen()).isTrue();
+		verify(amazonS3).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+	}
+
+	@Test
+	void upload_withMetrics_recordsPartUploadsAndBytesWritten(@TempDir Path directory) throws Exception {
+		// Arrange
+		AmazonS3 amazonS3 = mock(AmazonS3.class);
+		SimpleStorageMetrics metrics = mock(SimpleStorageMetrics.class);
+		SimpleStorageResource simpleStorageResource = new SimpleStorageResource(amazonS3, "bucketName", "objectName",
+				new SyncTaskExecutor());
+		simpleStorageResource.setMetrics(metrics);
+		Path file = Files.write(directory.resolve("file.bin"), new byte[(1024 * 1024 * 5) + 3]);
+		when(amazonS3.initiateMultipartUpload(any(InitiateMultipartUploadRequest.class)))
+				.thenReturn(new InitiateMultipartUploadResult());
+		when(amazonS3.uploadPart(any(UploadPartRequest.class))).thenAnswer(invocation -> {
+			UploadPartRequest request = invocation.getArgument(0);
+			assertThat(request.getRequestMetricCollector()).isNotNull();
+			UploadPartResult result = new UploadPartResult();
+			result.setPartNumber(request.getPartNumber());
+			return result;
+		}).thenThrow(new AmazonS3Exception("Internal Error"));
+
+		// Act
+		assertThatThrownBy(() -> simpleStorageResource.upload(file)).isInstanceOf(IOException.class);
+
+		// Assert
+		verify(metrics, times(2)).partUploadStarted("bucketName");
+		verify(metrics).partUploadFinished(eq("bucketName"), anyLong(), eq(0), eq(true));
+		verify(metrics).partUploadFinished(eq("bucketName"), anyLong(), eq(0), eq(false));
+		verify(metrics).recordBytesWritten("bucketName", 1024L * 1024 * 5);
+		verifyNoMoreInteractions(metrics);
+	}
+
+	@Test
+	void upload_withMetricsAndRetriedPart_recordsRetriesAndForwardsToClientCollector(@TempDir Path directory)
+			throws Exception {
+		// Arrange
+		AmazonS3Client amazonS3 = mock(AmazonS3Client.class);
+		RequestMetricCollector clientCollector = mock(RequestMetricCollector.class);
+		when(amazonS3.getRequestMetricsCollector()).thenReturn(clientCollector);
+		SimpleStorageMetrics metrics = mock(SimpleStorageMetrics.class);
+		SimpleStorageResource simpleStorageResource = new SimpleStorageResource(amazonS3, "bucketName", "objectName",
+				new SyncTaskExecutor());
+		simpleStorageResource.setMetrics(metrics);
+		Path file = Files.write(directory.resolve("file.bin"), new byte[(1024 * 1024 * 5) + 3]);
+		when(amazonS3.initiateMultipartUpload(any(InitiateMultipartUploadRequest.class)))
+				.thenReturn(new InitiateMultipartUploadResult());
+		DefaultRequest<UploadPartRequest> sdkRequest = new DefaultRequest<>("Amazon S3");
+		AWSRequestMetricsFullSupport requestMetrics = new AWSRequestMetricsFullSupport();
+		requestMetrics.setCounter(AWSRequestMetrics.Field.RequestCount, 3);
+		sdkRequest.setAWSRequestMetrics(requestMetrics);
+		when(amazonS3.uploadPart(any(UploadPartRequest.class))).thenAnswer(invocation -> {
+			UploadPartRequest request = invocation.getArgument(0);
+			request.getRequestMetricCollector().collectMetrics(sdkRequest, null);
+			UploadPartResult result = new UploadPartResult();
+			result.setPartNumber(request.getPartNumber());
+			return result;
+		});
+
+		// Act
+		simpleStorageResource.upload(file);
+
+		// Assert
+		verify(metrics, times(2)).partUploadFinished(eq("bucketName"), anyLong(), eq(2), eq(true));
+		verify(clientCollector, times(2)).collectMetrics(sdkRequest, null);
+	}
+
+	@Test
+	void upload_withFailedPart_abortsMultipartUpload(@TempDir Path directory) throws Exception {
+		// Arrange
+		AmazonS3 amazonS3 = mock(AmazonS3.class);
+		SimpleStorageResource simpleStorageResource = new SimpleStorageResource(amazonS3, "bucketName", "objectName",
+				new SyncTaskExecutor());
+		Path file = Files.write(directory.resolve("file.bin"), new byte[(1024 * 1024 * 5) + 1]);
+		when(amazonS3.initiateMultipartUpload(any(InitiateMultipartUploadRequest.class)))
+				.thenReturn(new InitiateMultipartUploadResult());
+		when(amazonS3.uploadPart(any(UploadPartRequest.class))).thenThrow(new AmazonS3Exception("Internal Error"));
+
+		// Act & Assert
+		assertThatThrownBy(() -> simpleStorageResource.upload(file)).isInstanceOf(IOException.class)
+				.hasCauseInstanceOf(AmazonS3Exception.class);
+		verify(amazonS3).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+		verify(amazonS3, never()).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+	}
+
+	@Test
+	void writeFile_withCheckpointStoreAndFailedPart_keepsUploadForNextAttempt(@TempDir Path directory)
+			throws Exception {
+		// Arrange
+		AmazonS3 amazonS3 = mock(AmazonS3.class);
+		SimpleStorageResource simpleStorageResource = new SimpleStorageResource(amazonS3, "bucketName", "objectName",
+				new SyncTaskExecutor());
+		SimpleStorageFileCheckpointStore checkpointStore = new SimpleStorageFileCheckpointStore(directory);
+		simpleStorageResource.setUploadCheckpointStore(checkpointStore);
+		InitiateMultipartUploadResult multipartUpload = new InitiateMultipartUploadResult();
+		multipartUpload.setUploadId("uploadId");
+		when(amazonS3.initiateMultipartUpload(any(InitiateMultipartUploadRequest.class))).thenReturn(multipartUpload);
+		when(amazonS3.uploadPart(any(UploadPartRequest.class))).thenAnswer(invocation -> {
+			UploadPartRequest request = invocation.getArgument(0);
+			if (request.getPartNumber() == 2) {
+				throw new AmazonS3Exception("Connection reset");
+			}
+			UploadPartResult result = new UploadPartResult();
+			result.setPartNumber(request.getPartNumber());
+			result.setETag("etag-" + request.getPartNumber());
+			return result;
+		});
+		OutputStream outputStream = simpleStorageResource.getOutputStream();
+		outputStream.write(new byte[(1024 * 1024 * 5) + 1]);
+
+		// Act & Assert
+		assertThatThrownBy(outputStream::close).isInstanceOf(IOException.class);
+		verify(amazonS3, never()).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+		SimpleStorageUploadCheckpoint checkpoint = checkpointStore.load("bucketName", "objectName");
+		assertThat(checkpoint.getUploadId()).isEqualTo("uploadId");
+		assertThat(checkpoint.getPartETags()).containsOnlyKeys(1).containsValue("etag-1");
+	}
+
+	@Test
+	void writeFile_withCheckpoint_skipsPartsWithSameContent(@TempDir Path directory) throws Exception {
+		// Arrange
+		AmazonS3 amazonS3 = mock(AmazonS3.class);
+		SimpleStorageResource simpleStorageResource = new SimpleStorageResource(amazonS3, "bucketName", "objectName",
+				new SyncTaskExecutor());
+		SimpleStorageFileCheckpointStore checkpointStore = new SimpleStorageFileCheckpointStore(directory);
+		simpleStorageResource.setUploadCheckpointStore(checkpointStore);
+		byte[] content = new byte[(1024 * 1024 * 10) + 3];
+		new Random().nextBytes(content);
+		Map<Integer, String> partETags = new HashMap<>();
+		partETags.put(1, "\"" + BinaryUtils.toHex(MessageDigest.getInstance("MD5").digest(
+				Arrays.copyOf(content, 1024 * 1024 * 5))) + "\"");
+		partETags.put(2, "\"changed\"");
+		checkpointStore.save(new SimpleStorageUploadCheckpoint("bucketName", "objectName", "uploadId",
+				1024 * 1024 * 5, partETags));
+		when(amazonS3.uploadPart(any(UploadPartRequest.class))).thenAnswer(invocation -> {
+			UploadPartRequest request = invocation.getArgument(0);
+			UploadPartResult result = new UploadPartResult();
+			result.setPartNumber(request.getPartNumber());
+			result.setETag("etag-" + request.getPartNumber());
+			return result;
+		});
+
+		// Act
+		try (OutputStream outputStream = simpleStorageResource.getOutputStream()) {
+			outputStream.write(content);
+		}
+
+		// Assert
+		verify(amazonS3, never()).initiateMultipartUpload(any(InitiateMultipartUploadRequest.class));
+		ArgumentCaptor<UploadPartRequest> parts = ArgumentCaptor.forClass(UploadPartRequest.class);
+		verify(amazonS3, times(2)).uploadPart(parts.capture());
+		assertThat(parts.getAllValues()).extracting(UploadPartRequest::getPartNumber).containsExactly(2, 3);
+		assertThat(parts.getAllValues()).extracting(UploadPartRequest::getUploadId).containsOnly("uploadId");
+		ArgumentCaptor<CompleteMultipartUploadRequest> complete = ArgumentCaptor
+				.forClass(CompleteMultipartUploadRequest.class);
+		verify(amazonS3).completeMultipartUpload(complete.capture());
+		assertThat(complete.getValue().getPartETags()).extracting(PartETag::getETag)
+				.containsExactly(partETags.get(1), "etag-2", "etag-3");
+		assertThat(checkpointStore.load("bucketName", "objectName")).isNull();
+	}
+
+	@Test
+	void upload_withCheckpoint_skipsFileRegionsWithSameContent(@TempDir Path directory) throws Exception {
+		// Arrange
+		AmazonS3 amazonS3 = mock(AmazonS3.class);
+		SimpleStorageResource simpleStorageResource = new SimpleStorageResource(amazonS3, "bucketName", "objectName",
+				new SyncTaskExecutor());
+		SimpleStorageFileCheckpointStore checkpointStore = new SimpleStorageFileCheckpointStore(
+				directory.resolve("checkpoints"));
+		simpleStorageResource.setUploadCheckpointStore(checkpointStore);
+		byte[] content = new byte[(1024 * 1024 * 5) + 3];
+		new Random().nextBytes(content);
+		Path file = Files.write(directory.resolve("file.bin"), content);
+		checkpointStore.save(new SimpleStorageUploadCheckpoint("bucketName", "objectName", "uploadId",
+				1024 * 1024 * 5, Collections.singletonMap(1, BinaryUtils.toHex(
+						MessageDigest.getInstance("MD5").digest(Arrays.copyOf(content, 1024 * 1024 * 5))))));
+		when(amazonS3.uploadPart(any(UploadPartRequest.class))).thenReturn(new UploadPartResult());
+
+		// Act
+		simpleStorageResource.upload(file);
+
+		// Assert
+		ArgumentCaptor<UploadPartRequest> parts = ArgumentCaptor.forClass(UploadPartRequest.class);
+		verify(amazonS3).uploadPart(parts.capture());
+		assertThat(parts.getValue().getPartNumber()).isEqualTo(2);
+		assertThat(parts.getValue().getFileOffset()).isEqualTo(1024L * 1024 * 5);
+		verify(amazonS3).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+	}
+
+	@Test
+	void writeFile_afterClose_reportsError() throws Exception {
+		// Arrange
+		AmazonS3 amazonS3 = mock(AmazonS3.class);
+		SimpleStorageResource simpleStorageResource = new SimpleStorageResource(amazonS3, "bucketName", "objectName",
+				new SyncTaskExecutor());
+		OutputStream outputStream = simpleStorageResource.getOutputStream();
+		outputStream.write("myFileContent".getBytes());
+		outputStream.close();
+
+		// Act & Assert
+		assertThatThrownBy(() -> outputStream.write(1)).isInstanceOf(IOException.class)
+				.hasMessageContaining("closed");
+	}
+
+	@Test
+	void getUploadPartSize_withManyParts_doublesPartSizeEveryThousandParts() {
+		// Arrange
+		SimpleStorageResource simpleStorageResource = new SimpleStorageResource(mock(AmazonS3.class), "bucketName",
+				"objectName", new SyncTaskExecutor());
+		simpleStorageResource.setUploadPartSize(1024 * 1024 * 8);
+
+		// Act & Assert
+		assertThat(simpleStorageResource.getUploadPartSize(1)).isEqualTo(1024 * 1024 * 8);
+		assertThat(simpleStorageResource.getUploadPartSize(1000)).isEqualTo(1024 * 1024 * 8);
+		assertThat(simpleStorageResource.getUploadPartSize(1001)).isEqualTo(1024 * 1024 * 16);
+		assertThat(simpleStorageResource.getUploadPartSize(10000)).isEqualTo(1024 * 1024 * 1024);
+	}
+
+	@Test
+	void setUploadPartSize_belowMinimumPartSize_reportsError() {
+		// Arrange
+		SimpleStorageResource simpleStorageResource = new SimpleStorageResource(mock(AmazonS3.class), "bucketName",
+				"objectName", new SyncTaskExecutor());
+
+		// Act & Assert
+		assertThatThrownBy(() -> simpleStorageResource.setUploadPartSize(1024))
+				.isInstanceOf(IllegalArgumentException.class).hasMessageContaining("uploadPartSize");
+	}
+
+	@Test
+	void getAsyncOutputStream_close_returnsBeforeMultipartUploadIsCompleted() throws Exception {
+		// Arrange
+		AmazonS3 amazonS3 = mock(AmazonS3.class);
+		ThreadPoolTaskExecutor taskExecutor = new ThreadPoolTaskExecutor();
+		taskExecutor.setCorePoolSize(1);
+		taskExecutor.afterPropertiesSet();
+		SimpleStorageResource simpleStorageResource = new SimpleStorageResource(amazonS3, "bucketName", "objectName",
+				taskExecutor);
+		CountDownLatch partUploadsReleased = new CountDownLatch(1);
+		when(amazonS3.initiateMultipartUpload(any(InitiateMultipartUploadRequest.class)))
+				.thenReturn(new InitiateMultipartUploadResult());
+		when(amazonS3.uploadPart(any(UploadPartRequest.class))).thenAnswer(invocation -> {
+			partUploadsReleased.await();
+			UploadPartResult result = new UploadPartResult();
+			result.setPartNumber(((UploadPartRequest) invocation.getArgument(0)).getPartNumber());
+			return result;
+		});
+		SimpleStorageAsyncOutputStream outputStream = simpleStorageResource.getAsyncOutputStream();
+
+		try {
+			// Act
+			outputStream.write(new byte[(1024 * 1024 * 5) + 1]);
+			outputStream.close();
+
+			// Assert
+			assertThat(outputStream.getCompletion()).isNotDone();
+			verify(amazonS3, never()).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+			partUploadsReleased.countDown();
+			outputStream.getCompletion().get(10, TimeUnit.SECONDS);
+			ArgumentCaptor<CompleteMultipartUploadRequest> request = ArgumentCaptor
+					.forClass(CompleteMultipartUploadRequest.class);
+			verify(amazonS3).completeMultipartUpload(request.capture());
+			assertThat(request.getValue().getPartETags()).extracting(PartETag::getPartNumber).containsExactly(1, 2);
+		}
+		finally {
+			taskExecutor.shutdown();
+		}
+	}
+
+	@Test
+	void getAsyncOutputStream_withFailedPartUpload_completesExceptionallyAndAbortsUpload() throws Exception {
+		// Arrange
+		AmazonS3 amazonS3 = mock(AmazonS3.class);
+		SimpleStorageResource simpleStorageResource = new SimpleStorageResource(amazonS3, "bucketName", "objectName",
+				new SyncTaskExecutor());
+		when(amazonS3.initiateMultipartUpload(any(InitiateMultipartUploadRequest.class)))
+				.thenReturn(new InitiateMultipartUploadResult());
+		when(amazonS3.uploadPart(any(UploadPartRequest.class))).thenThrow(new AmazonS3Exception("Internal Error"));
+		SimpleStorageAsyncOutputStream outputStream = simpleStorageResource.getAsyncOutputStream();
+
+		// Act
+		outputStream.write(new byte[(1024 * 1024 * 5) + 1]);
+		outputStream.close();
+
+		// Assert
+		assertThatThrownBy(() -> outputStream.getCompletion().get()).hasCauseInstanceOf(IOException.class)
+				.hasRootCauseInstanceOf(AmazonS3Exception.class);
+		verify(amazonS3).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+		verify(amazonS3, never()).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+	}
+
+	@Test
+	void getAsyncOutputStream_withWriterInterruptedWhileWaitingForPartBuffer_completesExceptionally()
+			throws Exception {
+		// Arrange
+		AmazonS3 amazonS3 = mock(AmazonS3.class);
+		ThreadPoolTaskExecutor taskExecutor = new ThreadPoolTaskExecutor();
+		taskExecutor.setCorePoolSize(1);
+		taskExecutor.afterPropertiesSet();
+		SimpleStorageResource simpleStorageResource = new SimpleStorageResource(amazonS3, "bucketName", "objectName",
+				taskExecutor);
+		simpleStorageResource.setMaxConcurrentUploadParts(1);
+		CountDownLatch partUploadsReleased = new CountDownLatch(1);
+		when(amazonS3.initiateMultipartUpload(any(InitiateMultipartUploadRequest.class)))
+				.thenReturn(new InitiateMultipartUploadResult());
+		when(amazonS3.uploadPart(any(UploadPartRequest.class))).thenAnswer(invocation -> {
+			partUploadsReleased.await();
+			UploadPartResult result = new UploadPartResult();
+			result.setPartNumber(((UploadPartRequest) invocation.getArgument(0)).getPartNumber());
+			return result;
+		});
+		SimpleStorageAsyncOutputStream outputStream = simpleStorageResource.getAsyncOutputStream();
+		AtomicReference<Throwable> writeFailure = new AtomicReference<>();
+		Thread writer = new Thread(() -> {
+			try {
+				outputStream.write(new byte[(1024 * 1024 * 5 * 3) + 1]);
+			}
+			catch (Throwable e) {
+				writeFailure.set(e);
+			}
+		});
+
+		try {
+			writer.start();
+			long deadline = System.currentTimeMillis() + 10_000;
+			while (writer.getState() != Thread.State.WAITING && System.currentTimeMillis() < deadline) {
+				Thread.sleep(10);
+			}
+
+			// Act
+			writer.interrupt();
+			writer.join(10_000);
+
+			// Assert
+			assertThat(writeFailure.get()).isInstanceOf(InterruptedIOException.class);
+			assertThat(outputStream.getCompletion()).isCompletedExceptionally();
+			assertThatThrownBy(() -> outputStream.getCompletion().get(10, TimeUnit.SECONDS))
+					.hasCauseInstanceOf(InterruptedIOException.class);
+			verify(amazonS3).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+		}
+		finally {
+			partUploadsReleased.countDown();
+			taskExecutor.shutdown();
+		}
+	}
+
+	@Test
+	void getAsyncOutputStream_withSimpleUpload_completesAfterObjectIsStored() throws Exception {
+		// Arrange
+		AmazonS3 amazonS3 = mock(AmazonS3.class);
+		SimpleStorageResource simpleStorageResource = new SimpleStorageResource(amazonS3, "bucketName", "objectName",
+				new SyncTaskExecutor());
+		SimpleStorageAsyncOutputStream outputStream = simpleStorageResource.getAsyncOutputStream();
+
+		// Act
+		outputStream.write("content".getBytes());
+		outputStream.close();
+
+		// Assert
+		assertThat(outputStream.getCompletion()).isCompleted();
+		verify(amazonS3).putObject(eq("bucketName"), eq("objectName"), any(InputStream.class),
+				any(ObjectMetadata.class));
+	}
+
+	@Test
+	void writeFile_withConfiguredPartSizeAndAsyncExecutor_uploadsPartsConcurrently() throws Exception {
+		// Arrange
+		AmazonS3 amazonS3 = mock(AmazonS3.class);
+		ThreadPoolTaskExecutor taskExecutor = new ThreadPoolTaskExecutor();
+		taskExecutor.setCorePoolSize(2);
+		taskExecutor.afterPropertiesSet();
+		SimpleStorageResource simpleStorageResource = new SimpleStorageResource(amazonS3, "bucketName", "objectName",
+				taskExecutor);
+		simpleStorageResource.setUploadPartSize(1024 * 1024 * 6);
+		simpleStorageResource.setMaxConcurrentUploadParts(2);
+
+		when(amazonS3.initiateMultipartUpload(any(InitiateMultipartUploadRequest.class)))
+				.thenReturn(new InitiateMultipartUploadResult());
+		List<Long> partSizes = Collections.synchronizedList(new ArrayList<>());
+		when(amazonS3.uploadPart(any(UploadPartRequest.class))).thenAnswer(invocation -> {
+			UploadPartRequest request = invocation.getArgument(0);
+			partSizes.add(request.getPartSize());
+			UploadPartResult result = new UploadPartResult();
+			result.setPartNumber(request.getPartNumber());
+			return result;
+		});
+
+		// Act
+		try (OutputStream outputStream = simpleStorageResource.getOutputStream()) {
+			outputStream.write(new byte[(1024 * 1024 * 20) + 1]);
+		}
+		finally {
+			taskExecutor.shutdown();
+		}
+
+		// Assert
+		assertThat(partSizes).hasSize(4).containsOnly(1024L * 1024 * 6, 1024L * 1024 * 2 + 1);
+		verify(amazonS3).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+	}
+
 	@Test
 	void getUri_encodes_objectName() throws Exception {
 		AmazonS3 s3 = mock(AmazonS3.class);
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.aws.core.io.s3;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.NonWritableChannelException;
+import java.util.Arrays;
+import java.util.Random;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.GetObjectRequest;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.cloud.aws.core.io.s3.SimpleStorageRangeInputStreamTest.mockRangedGetObject;
+
+class SimpleStorageSeekableByteChannelTest {
+
+	private final byte[] content = createContent();
+
+	@Test
+	void read_afterSeekToEnd_readsOnlyTheLastBlock() throws Exception {
+		// Arrange
+		AmazonS3 amazonS3 = mockRangedGetObject(this.content);
+		SimpleStorageSeekableByteChannel channel = createChannel(amazonS3);
+		ByteBuffer footer = ByteBuffer.allocate(22);
+
+		// Act
+		channel.position(this.content.length - 22);
+		int read = channel.read(footer);
+
+		// Assert
+		assertThat(read).isEqualTo(22);
+		assertThat(footer.array()).isEqualTo(Arrays.copyOfRange(this.content, this.content.length - 22,
+				this.content.length));
+		assertThat(channel.position()).isEqualTo(this.content.length);
+		assertThat(channel.read(ByteBuffer.allocate(1))).isEqualTo(-1);
+		verify(amazonS3, times(1)).getObject(any(GetObjectRequest.class));
+	}
+
+	@Test
+	void read_smallReadsWithinSameBlock_areServedFromTheBlockCache() throws Exception {
+		// Arrange
+		AmazonS3 amazonS3 = mockRangedGetObject(this.content);
+		SimpleStorageSeekableByteChannel channel = createChannel(amazonS3);
+
+		// Act
+		channel.position(10).read(ByteBuffer.allocate(10));
+		channel.position(50).read(ByteBuffer.allocate(10));
+		channel.position(0).read(ByteBuffer.allocate(10));
+
+		// Assert
+		verify(amazonS3, times(1)).getObject(any(GetObjectRequest.class));
+	}
+
+	@Test
+	void read_acrossBlockBoundaries_returnsContiguousContent() throws Exception {
+		// Arrange
+		SimpleStorageSeekableByteChannel channel = createChannel(mockRangedGetObject(this.content));
+		ByteBuffer buffer = ByteBuffer.allocateDirect(150);
+
+		// Act
+		channel.position(90);
+		int read = channel.read(buffer);
+
+		// Assert
+		assertThat(read).isEqualTo(150);
+		byte[] result = new byte[150];
+		buffer.flip();
+		buffer.get(result);
+		assertThat(result).isEqualTo(Arrays.copyOfRange(this.content, 90, 240));
+	}
+
+	@Test
+	void read_withBufferLargerThanBlock_readsRangeDirectlyIntoBuffer() throws Exception {
+		// Arrange
+		AmazonS3 amazonS3 = mockRangedGetObject(this.content);
+		SimpleStorageSeekableByteChannel channel = createChannel(amazonS3);
+		ByteBuffer buffer = ByteBuffer.allocate(this.content.length);
+
+		// Act
+		int read = channel.read(buffer);
+
+		// Assert
+		assertThat(read).isEqualTo(this.content.length);
+		assertThat(buffer.array()).isEqualTo(this.content);
+		verify(amazonS3, times(1)).getObject(any(GetObjectRequest.class));
+	}
+
+	@Test
+	void write_onReadOnlyChannel_reportsError() {
+		// Arrange
+		SimpleStorageSeekableByteChannel channel = createChannel(mockRangedGetObject(this.content));
+
+		// Act & Assert
+		assertThatThrownBy(() -> channel.write(ByteBuffer.allocate(1)))
+				.isInstanceOf(NonWritableChannelException.class);
+	}
+
+	@Test
+	void read_afterClose_reportsError() {
+		// Arrange
+		SimpleStorageSeekableByteChannel channel = createChannel(mockRangedGetObject(this.content));
+
+		// Act
+		channel.close();
+
+		// Assert
+		assertThat(channel.isOpen()).isFalse();
+		assertThatThrownBy(() -> channel.read(ByteBuffer.allocate(1))).isInstanceOf(ClosedChannelException.class);
+	}
+
+	private SimpleStorageSeekableByteChannel createChannel(AmazonS3 amazonS3) {
+		return new SimpleStorageSeekableByteChannel(
+				new SimpleStorageRangeReader(amazonS3, "bucket", "object", null, "etag", null), this.content.length, 100, 2);
+	}
+
+	private static byte[] createContent() {
+		byte[] content = new byte[1000];
+		new Random().nextBytes(content);
+		return content;
+	}
+
+}
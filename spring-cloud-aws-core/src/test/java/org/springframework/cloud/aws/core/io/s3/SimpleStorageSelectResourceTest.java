@@ -0,0 +1,185 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.aws.core.io.s3;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.internal.eventstreaming.HeaderValue;
+import com.amazonaws.services.s3.internal.eventstreaming.Message;
+import com.amazonaws.services.s3.model.CSVInput;
+import com.amazonaws.services.s3.model.InputSerialization;
+import com.amazonaws.services.s3.model.JSONOutput;
+import com.amazonaws.services.s3.model.OutputSerialization;
+import com.amazonaws.services.s3.model.S3ObjectInputStream;
+import com.amazonaws.services.s3.model.SelectObjectContentEventStream;
+import com.amazonaws.services.s3.model.SelectObjectContentRequest;
+import com.amazonaws.services.s3.model.SelectObjectContentResult;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.util.StreamUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SimpleStorageSelectResourceTest {
+
+	@Test
+	void getInputStream_withCompressedCsvObject_returnsSelectedRecordsOnly() throws Exception {
+		// Arrange
+		AmazonS3 amazonS3 = mock(AmazonS3.class);
+		when(amazonS3.selectObjectContent(any(SelectObjectContentRequest.class)))
+				.thenReturn(createResult(true, "12:00,ERROR\n", "12:05,ERROR\n"));
+		SimpleStorageResource resource = new SimpleStorageResource(amazonS3, "bucket", "logs/app.csv.gz",
+				new SyncTaskExecutor());
+
+		// Act
+		String records;
+		try (InputStream inputStream = resource.select("SELECT s.time, s.level FROM S3Object s WHERE s.level = 'ERROR'")
+				.getInputStream()) {
+			records = StreamUtils.copyToString(inputStream, StandardCharsets.UTF_8);
+		}
+
+		// Assert
+		assertThat(records).isEqualTo("12:00,ERROR\n12:05,ERROR\n");
+		ArgumentCaptor<SelectObjectContentRequest> request = ArgumentCaptor.forClass(SelectObjectContentRequest.class);
+		verify(amazonS3).selectObjectContent(request.capture());
+		assertThat(request.getValue().getBucketName()).isEqualTo("bucket");
+		assertThat(request.getValue().getKey()).isEqualTo("logs/app.csv.gz");
+		assertThat(request.getValue().getExpression())
+				.isEqualTo("SELECT s.time, s.level FROM S3Object s WHERE s.level = 'ERROR'");
+		assertThat(request.getValue().getExpressionType()).isEqualTo("SQL");
+		assertThat(request.getValue().getInputSerialization().getCompressionType()).isEqualTo("GZIP");
+		assertThat(request.getValue().getInputSerialization().getCsv().getFileHeaderInfo()).isEqualTo("USE");
+		assertThat(request.getValue().getOutputSerialization().getCsv()).isNotNull();
+	}
+
+	@Test
+	void getInputStream_withResponseWithoutEndEvent_reportsError() throws Exception {
+		// Arrange
+		AmazonS3 amazonS3 = mock(AmazonS3.class);
+		when(amazonS3.selectObjectContent(any(SelectObjectContentRequest.class)))
+				.thenReturn(createResult(false, "{\"level\":\"ERROR\"}\n"));
+		SimpleStorageResource resource = new SimpleStorageResource(amazonS3, "bucket", "logs/app.jsonl",
+				new SyncTaskExecutor());
+
+		// Act
+		InputStream inputStream = resource.select("SELECT * FROM S3Object s WHERE s.level = 'ERROR'")
+				.getInputStream();
+
+		// Assert
+		assertThatThrownBy(() -> StreamUtils.copyToByteArray(inputStream)).isInstanceOf(IOException.class)
+				.hasMessageContaining("ended before all records were received");
+	}
+
+	@Test
+	void select_withJsonLinesObject_returnsJsonRecords() throws Exception {
+		// Arrange
+		SimpleStorageResource resource = new SimpleStorageResource(mock(AmazonS3.class), "bucket", "events.ndjson",
+				new SyncTaskExecutor());
+
+		// Act
+		SimpleStorageSelectResource selectResource = resource.select("SELECT * FROM S3Object s");
+
+		// Assert
+		assertThat(selectResource.getInputSerialization().getJson().getType()).isEqualTo("LINES");
+		assertThat(selectResource.getInputSerialization().getCompressionType()).isEqualTo("NONE");
+		assertThat(selectResource.getOutputSerialization().getJson()).isNotNull();
+		assertThat(selectResource.getFilename()).isEqualTo("events.ndjson");
+		assertThat(selectResource.getDescription()).contains("SELECT * FROM S3Object s").contains("events.ndjson");
+	}
+
+	@Test
+	void select_withExplicitSerialization_usesSerializationForObjectWithoutKnownExtension() throws Exception {
+		// Arrange
+		AmazonS3 amazonS3 = mock(AmazonS3.class);
+		when(amazonS3.selectObjectContent(any(SelectObjectContentRequest.class)))
+				.thenReturn(createResult(true, "{\"id\":\"1\"}\n"));
+		SimpleStorageResource resource = new SimpleStorageResource(amazonS3, "bucket", "export",
+				new SyncTaskExecutor());
+		InputSerialization inputSerialization = new InputSerialization().withCsv(new CSVInput());
+
+		// Act
+		SimpleStorageSelectResource selectResource = resource.select("SELECT s._1 AS id FROM S3Object s",
+				inputSerialization, new OutputSerialization().withJson(new JSONOutput()));
+		selectResource.getInputStream().close();
+
+		// Assert
+		ArgumentCaptor<SelectObjectContentRequest> request = ArgumentCaptor.forClass(SelectObjectContentRequest.class);
+		verify(amazonS3).selectObjectContent(request.capture());
+		assertThat(request.getValue().getInputSerialization()).isEqualTo(inputSerialization);
+		assertThat(request.getValue().getOutputSerialization().getJson()).isNotNull();
+	}
+
+	@Test
+	void select_withUnknownExtension_reportsError() throws Exception {
+		// Arrange
+		SimpleStorageResource resource = new SimpleStorageResource(mock(AmazonS3.class), "bucket", "data.bin",
+				new SyncTaskExecutor());
+
+		// Act & Assert
+		assertThatThrownBy(() -> resource.select("SELECT * FROM S3Object s"))
+				.isInstanceOf(IllegalArgumentException.class).hasMessageContaining("data.bin");
+	}
+
+	@Test
+	void select_withVersionedResource_reportsError() throws Exception {
+		// Arrange
+		SimpleStorageResource resource = new SimpleStorageResource(mock(AmazonS3.class), "bucket", "data.csv",
+				new SyncTaskExecutor(), "version", null);
+
+		// Act & Assert
+		assertThatThrownBy(() -> resource.select("SELECT * FROM S3Object s"))
+				.isInstanceOf(IllegalStateException.class);
+	}
+
+	private static SelectObjectContentResult createResult(boolean complete, String... records) throws Exception {
+		ByteArrayOutputStream events = new ByteArrayOutputStream();
+		for (String record : records) {
+			createEvent("Records", record).encode(events);
+		}
+		createEvent("Stats", "<Stats><BytesScanned>1000</BytesScanned><BytesProcessed>1000</BytesProcessed>"
+				+ "<BytesReturned>24</BytesReturned></Stats>").encode(events);
+		if (complete) {
+			createEvent("End", "").encode(events);
+		}
+		SelectObjectContentResult result = new SelectObjectContentResult();
+		result.setPayload(new SelectObjectContentEventStream(
+				new S3ObjectInputStream(new ByteArrayInputStream(events.toByteArray()), null)));
+		return result;
+	}
+
+	private static Message createEvent(String eventType, String payload) {
+		Map<String, HeaderValue> headers = new HashMap<>();
+		headers.put(":message-type", HeaderValue.fromString("event"));
+		headers.put(":event-type", HeaderValue.fromString(eventType));
+		return new Message(headers, payload.getBytes(StandardCharsets.UTF_8));
+	}
+
+}
@@ -29,6 +29,7 @@ import org.springframework.cloud.aws.messaging.core.QueueMessagingTemplate;
 import org.springframework.cloud.aws.messaging.listener.QueueMessageHandler;
 import org.springframework.cloud.aws.messaging.listener.SendToHandlerMethodReturnValueHandler;
 import org.springframework.cloud.aws.messaging.listener.SqsMessageDeletionPolicy;
+import org.springframework.cloud.aws.messaging.support.converter.CachingMappingJackson2MessageConverter;
 import org.springframework.messaging.converter.MappingJackson2MessageConverter;
 import org.springframework.messaging.converter.MessageConverter;
 import org.springframework.messaging.core.DestinationResolvingMessageSendingOperations;
@@ -190,7 +191,7 @@ public class QueueMessageHandlerFactory {
 	/**
 	 * Configures a {@link MessageConverter}s that should be used to deserialize incoming
 	 * message payloads and serialize messages in {@link QueueMessagingTemplate}. If not
-	 * set, default {@link MappingJackson2MessageConverter} is used.
+	 * set, default {@link CachingMappingJackson2MessageConverter} is used.
 	 * @param messageConverters - the converters used for message conversion
 	 */
 	public void setMessageConverters(List<MessageConverter> messageConverters) {
@@ -198,7 +199,7 @@ public class QueueMessageHandlerFactory {
 	}
 
 	private MappingJackson2MessageConverter getDefaultMappingJackson2MessageConverter(ObjectMapper objectMapper) {
-		MappingJackson2MessageConverter jacksonMessageConverter = new MappingJackson2MessageConverter();
+		MappingJackson2MessageConverter jacksonMessageConverter = new CachingMappingJackson2MessageConverter();
 		jacksonMessageConverter.setSerializedPayloadClass(String.class);
 		jacksonMessageConverter.setStrictContentTypeMatch(true);
 
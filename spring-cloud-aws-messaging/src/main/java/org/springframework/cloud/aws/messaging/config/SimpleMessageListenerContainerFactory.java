@@ -20,6 +20,7 @@ import com.amazonaws.services.sqs.AmazonSQS;
 import com.amazonaws.services.sqs.AmazonSQSAsync;
 
 import org.springframework.cloud.aws.core.env.ResourceIdResolver;
+import org.springframework.cloud.aws.messaging.listener.MessageDeduplicationStore;
 import org.springframework.cloud.aws.messaging.listener.QueueMessageHandler;
 import org.springframework.cloud.aws.messaging.listener.SimpleMessageListenerContainer;
 import org.springframework.core.task.AsyncTaskExecutor;
@@ -56,6 +57,10 @@ public class SimpleMessageListenerContainerFactory {
 
 	private Long backOffTime;
 
+	private MessageDeduplicationStore messageDeduplicationStore;
+
+	private String deduplicationKeyHeader;
+
 	/**
 	 * Configures the {@link TaskExecutor} which is used to poll messages and execute them
 	 * by calling the handler methods. If no {@link TaskExecutor} is set, a default one is
@@ -196,6 +201,32 @@ public class SimpleMessageListenerContainerFactory {
 		this.backOffTime = backOffTime;
 	}
 
+	public MessageDeduplicationStore getMessageDeduplicationStore() {
+		return this.messageDeduplicationStore;
+	}
+
+	/**
+	 * Configures a store used to skip messages that have already been processed. No
+	 * deduplication takes place if no store is configured.
+	 * @param messageDeduplicationStore the store for the keys of processed messages
+	 */
+	public void setMessageDeduplicationStore(MessageDeduplicationStore messageDeduplicationStore) {
+		this.messageDeduplicationStore = messageDeduplicationStore;
+	}
+
+	public String getDeduplicationKeyHeader() {
+		return this.deduplicationKeyHeader;
+	}
+
+	/**
+	 * The message header whose value is used as deduplication key. Default is the SQS
+	 * {@code MessageId}.
+	 * @param deduplicationKeyHeader the name of the header
+	 */
+	public void setDeduplicationKeyHeader(String deduplicationKeyHeader) {
+		this.deduplicationKeyHeader = deduplicationKeyHeader;
+	}
+
 	public SimpleMessageListenerContainer createSimpleMessageListenerContainer() {
 		Assert.notNull(this.amazonSqs, "amazonSqs must not be null");
 
@@ -227,6 +258,12 @@ public class SimpleMessageListenerContainerFactory {
 		if (this.backOffTime != null) {
 			simpleMessageListenerContainer.setBackOffTime(this.backOffTime);
 		}
+		if (this.messageDeduplicationStore != null) {
+			simpleMessageListenerContainer.setMessageDeduplicationStore(this.messageDeduplicationStore);
+		}
+		if (this.deduplicationKeyHeader != null) {
+			simpleMessageListenerContainer.setDeduplicationKeyHeader(this.deduplicationKeyHeader);
+		}
 
 		return simpleMessageListenerContainer;
 	}
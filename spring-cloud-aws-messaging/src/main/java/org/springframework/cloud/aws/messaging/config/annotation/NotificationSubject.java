@@ -28,4 +28,15 @@ import java.lang.annotation.Target;
 @Target(ElementType.PARAMETER)
 public @interface NotificationSubject {
 
+	/**
+	 * Whether the queue is subscribed to the topic with raw message delivery, in which
+	 * case the message body is used as is instead of being unwrapped from the SNS
+	 * envelope. Raw messages sent by the
+	 * {@link org.springframework.cloud.aws.messaging.core.NotificationMessagingTemplate}
+	 * with a subject are detected without this flag.
+	 * @return {@code true} if the messages are delivered without an envelope
+	 * @since 3.0
+	 */
+	boolean rawMessageDelivery() default false;
+
 }
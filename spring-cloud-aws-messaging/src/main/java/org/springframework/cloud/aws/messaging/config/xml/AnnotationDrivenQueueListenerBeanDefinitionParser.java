@@ -30,6 +30,7 @@ import org.springframework.cloud.aws.messaging.core.QueueMessagingTemplate;
 import org.springframework.cloud.aws.messaging.listener.QueueMessageHandler;
 import org.springframework.cloud.aws.messaging.listener.SendToHandlerMethodReturnValueHandler;
 import org.springframework.cloud.aws.messaging.listener.SimpleMessageListenerContainer;
+import org.springframework.cloud.aws.messaging.support.converter.CachingMappingJackson2MessageConverter;
 import org.springframework.core.Conventions;
 import org.springframework.util.StringUtils;
 import org.springframework.util.xml.DomUtils;
@@ -71,7 +72,7 @@ public class AnnotationDrivenQueueListenerBeanDefinitionParser extends AbstractB
 		}
 		else {
 			BeanDefinitionBuilder mapper = BeanDefinitionBuilder
-					.genericBeanDefinition("org.springframework.messaging.converter.MappingJackson2MessageConverter");
+					.genericBeanDefinition(CachingMappingJackson2MessageConverter.class);
 			mapper.addPropertyValue("serializedPayloadClass", "java.lang.String");
 			mapper.addPropertyValue("strictContentTypeMatch", true);
 			queueMessageHandlerDefinitionBuilder.addConstructorArgValue(mapper.getBeanDefinition());
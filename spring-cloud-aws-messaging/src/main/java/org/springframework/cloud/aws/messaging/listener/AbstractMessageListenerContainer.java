@@ -289,7 +289,8 @@ abstract class AbstractMessageListenerContainer
 			for (QueueMessageHandler.MappingInformation mappingInformation : this.messageHandler.getHandlerMethods()
 					.keySet()) {
 				for (String queue : mappingInformation.getLogicalResourceIds()) {
-					QueueAttributes queueAttributes = queueAttributes(queue, mappingInformation.getDeletionPolicy());
+					QueueAttributes queueAttributes = queueAttributes(queue, mappingInformation.getDeletionPolicy(),
+							mappingInformation.getRetryPolicy());
 
 					if (queueAttributes != null) {
 						this.registeredQueues.put(queue, queueAttributes);
@@ -312,7 +313,8 @@ abstract class AbstractMessageListenerContainer
 		doStart();
 	}
 
-	private QueueAttributes queueAttributes(String queue, SqsMessageDeletionPolicy deletionPolicy) {
+	private QueueAttributes queueAttributes(String queue, SqsMessageDeletionPolicy deletionPolicy,
+			MessageRetryPolicy retryPolicy) {
 		String destinationUrl;
 		try {
 			destinationUrl = getDestinationResolver().resolveDestination(queue);
@@ -327,13 +329,26 @@ abstract class AbstractMessageListenerContainer
 			return null;
 		}
 
+		String deadLetterQueueUrl = null;
+		if (retryPolicy != null && retryPolicy.getDeadLetterQueue() != null) {
+			// Ignoring the queue would silently stop the listener, so a misconfigured dead
+			// letter queue fails the startup
+			try {
+				deadLetterQueueUrl = getDestinationResolver().resolveDestination(retryPolicy.getDeadLetterQueue());
+			}
+			catch (DestinationResolutionException e) {
+				throw new IllegalStateException("Dead letter queue '" + retryPolicy.getDeadLetterQueue()
+						+ "' of the retry policy of queue '" + queue + "' can not be resolved: " + e.getMessage(), e);
+			}
+		}
+
 		GetQueueAttributesResult queueAttributes = getAmazonSqs().getQueueAttributes(
 				new GetQueueAttributesRequest(destinationUrl).withAttributeNames(QueueAttributeName.RedrivePolicy));
 		boolean hasRedrivePolicy = queueAttributes.getAttributes()
 				.containsKey(QueueAttributeName.RedrivePolicy.toString());
 
 		return new QueueAttributes(hasRedrivePolicy, deletionPolicy, destinationUrl, getMaxNumberOfMessages(),
-				getVisibilityTimeout(), getWaitTimeOut());
+				getVisibilityTimeout(), getWaitTimeOut(), retryPolicy, deadLetterQueueUrl);
 	}
 
 	@Override
@@ -384,14 +399,27 @@ abstract class AbstractMessageListenerContainer
 
 		private final Integer waitTimeOut;
 
+		private final MessageRetryPolicy retryPolicy;
+
+		private final String deadLetterQueueUrl;
+
 		public QueueAttributes(boolean hasRedrivePolicy, SqsMessageDeletionPolicy deletionPolicy, String destinationUrl,
 				Integer maxNumberOfMessages, Integer visibilityTimeout, Integer waitTimeOut) {
+			this(hasRedrivePolicy, deletionPolicy, destinationUrl, maxNumberOfMessages, visibilityTimeout, waitTimeOut,
+					null, null);
+		}
+
+		public QueueAttributes(boolean hasRedrivePolicy, SqsMessageDeletionPolicy deletionPolicy, String destinationUrl,
+				Integer maxNumberOfMessages, Integer visibilityTimeout, Integer waitTimeOut,
+				MessageRetryPolicy retryPolicy, String deadLetterQueueUrl) {
 			this.hasRedrivePolicy = hasRedrivePolicy;
 			this.deletionPolicy = deletionPolicy;
 			this.destinationUrl = destinationUrl;
 			this.maxNumberOfMessages = maxNumberOfMessages;
 			this.visibilityTimeout = visibilityTimeout;
 			this.waitTimeOut = waitTimeOut;
+			this.retryPolicy = retryPolicy;
+			this.deadLetterQueueUrl = deadLetterQueueUrl;
 		}
 
 		public boolean hasRedrivePolicy() {
@@ -424,6 +452,14 @@ abstract class AbstractMessageListenerContainer
 			return this.deletionPolicy;
 		}
 
+		public MessageRetryPolicy getRetryPolicy() {
+			return this.retryPolicy;
+		}
+
+		public String getDeadLetterQueueUrl() {
+			return this.deadLetterQueueUrl;
+		}
+
 	}
 
 }
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.aws.messaging.listener;
+
+import java.time.Clock;
+import java.time.Duration;
+
+import org.springframework.cache.Cache;
+import org.springframework.util.Assert;
+
+/**
+ * {@link MessageDeduplicationStore} backed by a Spring {@link Cache}, e.g. one of the
+ * ElastiCache caches created by Spring Cloud AWS. This allows to share the processed
+ * message keys between multiple instances of an application. The expiration of the keys
+ * is defined by the cache configuration. Completed keys are stored as {@code true}.
+ * <p>
+ * Keys in progress are stored with the time at which their lease ends, as epoch
+ * milliseconds. A key whose lease has ended is treated as absent, so that a message is
+ * processed again if the instance that processed it crashed without releasing the key.
+ * The lease time should therefore be longer than the processing of a message takes.
+ *
+ * @since 3.0
+ */
+public class CacheMessageDeduplicationStore implements MessageDeduplicationStore {
+
+	private static final Duration DEFAULT_LEASE_TIME = Duration.ofMinutes(5);
+
+	private final Cache cache;
+
+	private final long leaseTimeMillis;
+
+	private final Clock clock;
+
+	public CacheMessageDeduplicationStore(Cache cache) {
+		this(cache, DEFAULT_LEASE_TIME);
+	}
+
+	public CacheMessageDeduplicationStore(Cache cache, Duration leaseTime) {
+		this(cache, leaseTime, Clock.systemUTC());
+	}
+
+	CacheMessageDeduplicationStore(Cache cache, Duration leaseTime, Clock clock) {
+		Assert.notNull(cache, "cache must not be null");
+		Assert.isTrue(leaseTime != null && !leaseTime.isNegative() && !leaseTime.isZero(),
+				"leaseTime must be positive");
+		this.cache = cache;
+		this.leaseTimeMillis = leaseTime.toMillis();
+		this.clock = clock;
+	}
+
+	@Override
+	public boolean putIfAbsent(String key) {
+		long now = this.clock.millis();
+		Cache.ValueWrapper existing = this.cache.putIfAbsent(key, now + this.leaseTimeMillis);
+		if (existing == null) {
+			return true;
+		}
+		Object value = existing.get();
+		if (value instanceof Long && (Long) value <= now) {
+			// The lease of a failed processing has ended, the cache does not support an
+			// atomic replace, so instances that take over the same key concurrently may
+			// both process the message
+			this.cache.put(key, now + this.leaseTimeMillis);
+			return true;
+		}
+		return false;
+	}
+
+	@Override
+	public void complete(String key) {
+		this.cache.put(key, Boolean.TRUE);
+	}
+
+	@Override
+	public boolean isCompleted(String key) {
+		Cache.ValueWrapper value = this.cache.get(key);
+		return value != null && Boolean.TRUE.equals(value.get());
+	}
+
+	@Override
+	public void remove(String key) {
+		this.cache.evict(key);
+	}
+
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.aws.messaging.listener;
+
+import com.amazonaws.handlers.AsyncHandler;
+import com.amazonaws.services.sqs.AmazonSQSAsync;
+import com.amazonaws.services.sqs.model.DeleteMessageRequest;
+import com.amazonaws.services.sqs.model.SendMessageRequest;
+import com.amazonaws.services.sqs.model.SendMessageResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Callback executed once a message has been sent to a dead-letter queue. Deletes the
+ * original message from the source queue.
+ *
+ * @since 3.0
+ */
+class DeadLetterMessageHandler implements AsyncHandler<SendMessageRequest, SendMessageResult> {
+
+	private static final Logger logger = LoggerFactory.getLogger(DeadLetterMessageHandler.class);
+
+	private final AmazonSQSAsync amazonSqs;
+
+	private final String queueUrl;
+
+	private final String receiptHandle;
+
+	DeadLetterMessageHandler(AmazonSQSAsync amazonSqs, String queueUrl, String receiptHandle) {
+		this.amazonSqs = amazonSqs;
+		this.queueUrl = queueUrl;
+		this.receiptHandle = receiptHandle;
+	}
+
+	@Override
+	public void onError(Exception exception) {
+		logger.warn("An exception occurred while sending '{}' receiptHandle to the dead-letter queue",
+				this.receiptHandle, exception);
+	}
+
+	@Override
+	public void onSuccess(SendMessageRequest request, SendMessageResult sendMessageResult) {
+		logger.trace("'{}' receiptHandle is sent to dead-letter queue '{}'", this.receiptHandle,
+				request.getQueueUrl());
+		this.amazonSqs.deleteMessageAsync(new DeleteMessageRequest(this.queueUrl, this.receiptHandle),
+				new DeleteMessageHandler(this.receiptHandle));
+	}
+
+}
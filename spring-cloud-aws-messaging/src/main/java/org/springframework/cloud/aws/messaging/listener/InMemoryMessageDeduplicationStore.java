@@ -0,0 +1,138 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.aws.messaging.listener;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.util.Assert;
+
+/**
+ * {@link MessageDeduplicationStore} that keeps the keys in memory. The number of keys is
+ * bounded, once the maximum size is reached the oldest key is evicted. Keys also expire
+ * after the configured time to live, which should be chosen based on the window in which
+ * duplicates are expected (e.g. a multiple of the visibility timeout of the queue).
+ * <p>
+ * The store is local to the application instance, use a
+ * {@link CacheMessageDeduplicationStore} to share the keys between instances.
+ *
+ * @since 3.0
+ */
+public class InMemoryMessageDeduplicationStore implements MessageDeduplicationStore {
+
+	private static final int DEFAULT_MAX_SIZE = 10000;
+
+	private static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofMinutes(5);
+
+	private final int maxSize;
+
+	private final long timeToLiveNanos;
+
+	private final LinkedHashMap<String, KeyEntry> entryByKey;
+
+	public InMemoryMessageDeduplicationStore(int maxSize, Duration timeToLive) {
+		Assert.isTrue(maxSize > 0, "maxSize must be greater than 0");
+		Assert.isTrue(timeToLive != null && !timeToLive.isNegative() && !timeToLive.isZero(),
+				"timeToLive must be positive");
+		this.maxSize = maxSize;
+		this.timeToLiveNanos = timeToLive.toNanos();
+		this.entryByKey = new LinkedHashMap<String, KeyEntry>(16, 0.75f, false) {
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, KeyEntry> eldest) {
+				return size() > InMemoryMessageDeduplicationStore.this.maxSize;
+			}
+
+		};
+	}
+
+	public InMemoryMessageDeduplicationStore() {
+		this(DEFAULT_MAX_SIZE, DEFAULT_TIME_TO_LIVE);
+	}
+
+	@Override
+	public boolean putIfAbsent(String key) {
+		long now = System.nanoTime();
+		synchronized (this.entryByKey) {
+			removeExpiredKeys(now);
+			if (this.entryByKey.containsKey(key)) {
+				return false;
+			}
+			this.entryByKey.put(key, new KeyEntry(now + this.timeToLiveNanos));
+			return true;
+		}
+	}
+
+	@Override
+	public void complete(String key) {
+		long now = System.nanoTime();
+		synchronized (this.entryByKey) {
+			removeExpiredKeys(now);
+			// The key may have expired or been evicted while the message was processed
+			this.entryByKey.computeIfAbsent(key, k -> new KeyEntry(now + this.timeToLiveNanos)).completed = true;
+		}
+	}
+
+	@Override
+	public boolean isCompleted(String key) {
+		synchronized (this.entryByKey) {
+			removeExpiredKeys(System.nanoTime());
+			KeyEntry entry = this.entryByKey.get(key);
+			return entry != null && entry.completed;
+		}
+	}
+
+	@Override
+	public void remove(String key) {
+		synchronized (this.entryByKey) {
+			this.entryByKey.remove(key);
+		}
+	}
+
+	int size() {
+		synchronized (this.entryByKey) {
+			return this.entryByKey.size();
+		}
+	}
+
+	// Keys are kept in insertion order and share the same time to live, so the
+	// expired keys are always at the head of the map.
+	private void removeExpiredKeys(long now) {
+		Iterator<KeyEntry> entries = this.entryByKey.values().iterator();
+		while (entries.hasNext()) {
+			if (entries.next().expiration - now > 0) {
+				return;
+			}
+			entries.remove();
+		}
+	}
+
+	private static final class KeyEntry {
+
+		private final long expiration;
+
+		private boolean completed;
+
+		private KeyEntry(long expiration) {
+			this.expiration = expiration;
+		}
+
+	}
+
+}
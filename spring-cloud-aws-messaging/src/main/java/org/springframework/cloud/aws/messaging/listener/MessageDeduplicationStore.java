@@ -0,0 +1,65 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.aws.messaging.listener;
+
+/**
+ * Strategy used by the {@link SimpleMessageListenerContainer} to detect messages that
+ * have already been processed. Standard SQS queues deliver messages at least once, a
+ * store allows the container to skip duplicate deliveries before the listener method is
+ * invoked.
+ * <p>
+ * A key is either in progress, while the first delivery of the message is processed, or
+ * completed once the processing succeeded. Only deliveries of completed messages are
+ * deleted as duplicates, deliveries that arrive while the message is in progress are left
+ * in the queue, because the processing may still fail.
+ *
+ * @since 3.0
+ * @see InMemoryMessageDeduplicationStore
+ * @see CacheMessageDeduplicationStore
+ */
+public interface MessageDeduplicationStore {
+
+	/**
+	 * Records the key of a message that is about to be processed as in progress.
+	 * @param key the deduplication key of the message
+	 * @return {@code true} if the key was not present and the message must be processed,
+	 * {@code false} if the message is in progress or completed
+	 */
+	boolean putIfAbsent(String key);
+
+	/**
+	 * Marks a key as completed, called once the message was processed successfully.
+	 * @param key the deduplication key of the message
+	 */
+	void complete(String key);
+
+	/**
+	 * Checks whether the message of a key was processed successfully.
+	 * @param key the deduplication key of the message
+	 * @return {@code true} if the key is completed, {@code false} if it is in progress or
+	 * absent
+	 */
+	boolean isCompleted(String key);
+
+	/**
+	 * Removes a key, called if the processing of the message failed so that a
+	 * redelivery of the message is processed again.
+	 * @param key the deduplication key of the message
+	 */
+	void remove(String key);
+
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.aws.messaging.listener;
+
+import org.springframework.cloud.aws.messaging.listener.annotation.SqsRetryPolicy;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * Redelivery settings of a listener method, usually created from a
+ * {@link SqsRetryPolicy} annotation.
+ *
+ * @since 3.0
+ */
+public class MessageRetryPolicy {
+
+	/**
+	 * Maximum visibility timeout supported by SQS (12 hours).
+	 */
+	static final int MAX_VISIBILITY_TIMEOUT_SECONDS = 43200;
+
+	private final int initialBackOffSeconds;
+
+	private final double backOffMultiplier;
+
+	private final int maxBackOffSeconds;
+
+	private final int maxReceiveCount;
+
+	private final String deadLetterQueue;
+
+	public MessageRetryPolicy(int initialBackOffSeconds, double backOffMultiplier, int maxBackOffSeconds,
+			int maxReceiveCount, String deadLetterQueue) {
+		Assert.isTrue(initialBackOffSeconds >= 0, "initialBackOffSeconds must not be negative");
+		Assert.isTrue(backOffMultiplier >= 1, "backOffMultiplier must be greater than or equal to 1");
+		Assert.isTrue(maxBackOffSeconds >= initialBackOffSeconds,
+				"maxBackOffSeconds must be greater than or equal to initialBackOffSeconds");
+		Assert.isTrue(maxReceiveCount >= 0, "maxReceiveCount must not be negative");
+		this.initialBackOffSeconds = initialBackOffSeconds;
+		this.backOffMultiplier = backOffMultiplier;
+		this.maxBackOffSeconds = Math.min(maxBackOffSeconds, MAX_VISIBILITY_TIMEOUT_SECONDS);
+		this.maxReceiveCount = maxReceiveCount;
+		this.deadLetterQueue = StringUtils.hasText(deadLetterQueue) ? deadLetterQueue : null;
+	}
+
+	public static MessageRetryPolicy from(SqsRetryPolicy annotation) {
+		return new MessageRetryPolicy(annotation.initialBackOffSeconds(), annotation.backOffMultiplier(),
+				annotation.maxBackOffSeconds(), annotation.maxReceiveCount(), annotation.deadLetterQueue());
+	}
+
+	/**
+	 * Computes the visibility timeout for a message that failed on its
+	 * {@code receiveCount}-th delivery.
+	 * @param receiveCount the approximate receive count of the message, starting at 1
+	 * @return the back-off in seconds
+	 */
+	public int getBackOffSeconds(long receiveCount) {
+		double backOff = this.initialBackOffSeconds * Math.pow(this.backOffMultiplier, Math.max(0, receiveCount - 1));
+		return (int) Math.min(backOff, this.maxBackOffSeconds);
+	}
+
+	/**
+	 * @param receiveCount the approximate receive count of the message
+	 * @return {@code true} if the message must not be retried anymore
+	 */
+	public boolean isExhausted(long receiveCount) {
+		return this.maxReceiveCount > 0 && receiveCount >= this.maxReceiveCount;
+	}
+
+	public int getMaxReceiveCount() {
+		return this.maxReceiveCount;
+	}
+
+	public String getDeadLetterQueue() {
+		return this.deadLetterQueue;
+	}
+
+}
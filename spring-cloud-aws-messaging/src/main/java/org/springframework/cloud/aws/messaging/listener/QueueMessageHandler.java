@@ -29,16 +29,21 @@ import java.util.stream.Collectors;
 import org.springframework.beans.factory.config.BeanExpressionContext;
 import org.springframework.beans.factory.config.BeanExpressionResolver;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
+import org.springframework.cloud.aws.messaging.config.annotation.NotificationMessage;
 import org.springframework.cloud.aws.messaging.listener.annotation.SqsListener;
+import org.springframework.cloud.aws.messaging.listener.annotation.SqsRetryPolicy;
 import org.springframework.cloud.aws.messaging.listener.support.AcknowledgmentHandlerMethodArgumentResolver;
 import org.springframework.cloud.aws.messaging.listener.support.VisibilityHandlerMethodArgumentResolver;
 import org.springframework.cloud.aws.messaging.support.NotificationMessageArgumentResolver;
 import org.springframework.cloud.aws.messaging.support.NotificationSubjectArgumentResolver;
 import org.springframework.cloud.aws.messaging.support.SqsHeadersMethodArgumentResolver;
+import org.springframework.cloud.aws.messaging.support.converter.CachingMappingJackson2MessageConverter;
 import org.springframework.cloud.aws.messaging.support.converter.ObjectMessageConverter;
 import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.MethodParameter;
 import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
 import org.springframework.messaging.MessagingException;
 import org.springframework.messaging.converter.CompositeMessageConverter;
 import org.springframework.messaging.converter.MessageConverter;
@@ -46,6 +51,7 @@ import org.springframework.messaging.converter.SimpleMessageConverter;
 import org.springframework.messaging.converter.StringMessageConverter;
 import org.springframework.messaging.handler.HandlerMethod;
 import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.messaging.handler.annotation.support.AnnotationExceptionHandlerMethodResolver;
 import org.springframework.messaging.handler.annotation.support.HeaderMethodArgumentResolver;
 import org.springframework.messaging.handler.annotation.support.MessageMethodArgumentResolver;
@@ -141,7 +147,9 @@ public class QueueMessageHandler extends AbstractMethodMessageHandler<QueueMessa
 						+ method.getDeclaringClass().getName()
 						+ "' has deletion policy 'NEVER' but does not have a parameter of type Acknowledgment.");
 			}
-			return new MappingInformation(resolveDestinationNames(sqsListenerAnnotation.value()), tempDeletionPolicy);
+			SqsRetryPolicy sqsRetryPolicyAnnotation = AnnotationUtils.findAnnotation(method, SqsRetryPolicy.class);
+			return new MappingInformation(resolveDestinationNames(sqsListenerAnnotation.value()), tempDeletionPolicy,
+					sqsRetryPolicyAnnotation != null ? MessageRetryPolicy.from(sqsRetryPolicyAnnotation) : null);
 		}
 
 		MessageMapping messageMappingAnnotation = AnnotationUtils.findAnnotation(method, MessageMapping.class);
@@ -153,6 +161,34 @@ public class QueueMessageHandler extends AbstractMethodMessageHandler<QueueMessa
 		return null;
 	}
 
+	@Override
+	protected void registerHandlerMethod(Object handler, Method method, MappingInformation mapping) {
+		super.registerHandlerMethod(handler, method, mapping);
+		for (int i = 0; i < method.getParameterCount(); i++) {
+			MethodParameter methodParameter = new MethodParameter(method, i);
+			if (isPayloadParameter(methodParameter)) {
+				for (MessageConverter messageConverter : this.messageConverters) {
+					if (messageConverter instanceof CachingMappingJackson2MessageConverter) {
+						((CachingMappingJackson2MessageConverter) messageConverter)
+								.registerPayloadType(methodParameter);
+					}
+				}
+			}
+		}
+	}
+
+	private static boolean isPayloadParameter(MethodParameter methodParameter) {
+		if (methodParameter.hasParameterAnnotation(Payload.class)
+				|| methodParameter.hasParameterAnnotation(NotificationMessage.class)) {
+			return true;
+		}
+		Class<?> parameterType = methodParameter.getParameterType();
+		return !methodParameter.hasParameterAnnotations() && !Message.class.isAssignableFrom(parameterType)
+				&& !MessageHeaders.class.isAssignableFrom(parameterType)
+				&& !Acknowledgment.class.isAssignableFrom(parameterType)
+				&& !Visibility.class.isAssignableFrom(parameterType);
+	}
+
 	private boolean hasNoAcknowledgmentParameter(Class<?>[] parameterTypes) {
 		for (Class<?> parameterType : parameterTypes) {
 			if (ClassUtils.isAssignable(Acknowledgment.class, parameterType)) {
@@ -265,9 +301,17 @@ public class QueueMessageHandler extends AbstractMethodMessageHandler<QueueMessa
 
 		private final SqsMessageDeletionPolicy deletionPolicy;
 
+		private final MessageRetryPolicy retryPolicy;
+
 		public MappingInformation(Set<String> logicalResourceIds, SqsMessageDeletionPolicy deletionPolicy) {
+			this(logicalResourceIds, deletionPolicy, null);
+		}
+
+		public MappingInformation(Set<String> logicalResourceIds, SqsMessageDeletionPolicy deletionPolicy,
+				MessageRetryPolicy retryPolicy) {
 			this.logicalResourceIds = Collections.unmodifiableSet(logicalResourceIds);
 			this.deletionPolicy = deletionPolicy;
+			this.retryPolicy = retryPolicy;
 		}
 
 		public Set<String> getLogicalResourceIds() {
@@ -278,6 +322,10 @@ public class QueueMessageHandler extends AbstractMethodMessageHandler<QueueMessa
 			return this.deletionPolicy;
 		}
 
+		public MessageRetryPolicy getRetryPolicy() {
+			return this.retryPolicy;
+		}
+
 		@SuppressWarnings("NullableProblems")
 		@Override
 		public int compareTo(MappingInformation o) {
@@ -25,10 +25,14 @@ import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
+import com.amazonaws.services.sqs.model.ChangeMessageVisibilityRequest;
 import com.amazonaws.services.sqs.model.DeleteMessageRequest;
 import com.amazonaws.services.sqs.model.Message;
+import com.amazonaws.services.sqs.model.MessageSystemAttributeName;
 import com.amazonaws.services.sqs.model.ReceiveMessageResult;
+import com.amazonaws.services.sqs.model.SendMessageRequest;
 
+import org.springframework.cloud.aws.messaging.core.SqsMessageHeaders;
 import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.messaging.MessagingException;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
@@ -47,6 +51,8 @@ public class SimpleMessageListenerContainer extends AbstractMessageListenerConta
 
 	private static final int DEFAULT_WORKER_THREADS = 2;
 
+	private static final String DEFAULT_DEDUPLICATION_KEY_HEADER = "MessageId";
+
 	private static final String DEFAULT_THREAD_NAME_PREFIX = ClassUtils
 			.getShortName(SimpleMessageListenerContainer.class) + "-";
 
@@ -56,6 +62,10 @@ public class SimpleMessageListenerContainer extends AbstractMessageListenerConta
 
 	private long queueStopTimeout = 20000;
 
+	private MessageDeduplicationStore messageDeduplicationStore;
+
+	private String deduplicationKeyHeader = DEFAULT_DEDUPLICATION_KEY_HEADER;
+
 	private AsyncTaskExecutor taskExecutor;
 
 	private ConcurrentHashMap<String, Future<?>> scheduledFutureByQueue;
@@ -107,6 +117,36 @@ public class SimpleMessageListenerContainer extends AbstractMessageListenerConta
 		this.queueStopTimeout = queueStopTimeout;
 	}
 
+	public MessageDeduplicationStore getMessageDeduplicationStore() {
+		return this.messageDeduplicationStore;
+	}
+
+	/**
+	 * Configures a store used to skip messages that have already been processed. If a
+	 * message is a duplicate, the listener method is not invoked and the message is
+	 * handled as if it was processed successfully. No deduplication takes place if no
+	 * store is configured (default).
+	 * @param messageDeduplicationStore the store for the keys of processed messages
+	 */
+	public void setMessageDeduplicationStore(MessageDeduplicationStore messageDeduplicationStore) {
+		this.messageDeduplicationStore = messageDeduplicationStore;
+	}
+
+	public String getDeduplicationKeyHeader() {
+		return this.deduplicationKeyHeader;
+	}
+
+	/**
+	 * The message header whose value is used as key by the
+	 * {@link #setMessageDeduplicationStore(MessageDeduplicationStore) deduplication
+	 * store}. Default is the SQS {@code MessageId}, a message attribute set by the
+	 * producer can be used to also detect messages that were sent twice.
+	 * @param deduplicationKeyHeader the name of the header
+	 */
+	public void setDeduplicationKeyHeader(String deduplicationKeyHeader) {
+		this.deduplicationKeyHeader = deduplicationKeyHeader;
+	}
+
 	@Override
 	protected void initialize() {
 		super.initialize();
@@ -377,25 +417,67 @@ public class SimpleMessageListenerContainer extends AbstractMessageListenerConta
 
 		private final SqsMessageDeletionPolicy deletionPolicy;
 
+		private final MessageRetryPolicy retryPolicy;
+
+		private final String deadLetterQueueUrl;
+
 		private MessageExecutor(String logicalQueueName, Message message, QueueAttributes queueAttributes) {
 			this.logicalQueueName = logicalQueueName;
 			this.message = message;
 			this.queueUrl = queueAttributes.getReceiveMessageRequest().getQueueUrl();
 			this.hasRedrivePolicy = queueAttributes.hasRedrivePolicy();
 			this.deletionPolicy = queueAttributes.getDeletionPolicy();
+			this.retryPolicy = queueAttributes.getRetryPolicy();
+			this.deadLetterQueueUrl = queueAttributes.getDeadLetterQueueUrl();
 		}
 
 		@Override
 		public void run() {
 			String receiptHandle = this.message.getReceiptHandle();
 			org.springframework.messaging.Message<String> queueMessage = getMessageForExecution();
+			String deduplicationKey = getDeduplicationKey(queueMessage);
+			if (deduplicationKey != null && !getMessageDeduplicationStore().putIfAbsent(deduplicationKey)) {
+				if (getMessageDeduplicationStore().isCompleted(deduplicationKey)) {
+					getLogger().debug("Skipping duplicate message with key '{}' from queue '{}'", deduplicationKey,
+							this.logicalQueueName);
+					applyDeletionPolicyOnSuccess(receiptHandle);
+				}
+				else {
+					// The first delivery may still fail, so the duplicate is kept and
+					// becomes visible again after the visibility timeout
+					getLogger().debug("Skipping message with key '{}' from queue '{}' that is being processed",
+							deduplicationKey, this.logicalQueueName);
+				}
+				return;
+			}
+
+			boolean completed = false;
 			try {
 				executeMessage(queueMessage);
+				if (deduplicationKey != null) {
+					getMessageDeduplicationStore().complete(deduplicationKey);
+				}
+				completed = true;
 				applyDeletionPolicyOnSuccess(receiptHandle);
 			}
 			catch (MessagingException messagingException) {
 				applyDeletionPolicyOnError(receiptHandle);
 			}
+			finally {
+				// Any failure, not only a listener exception, releases the key so that
+				// a redelivery of the message is processed again
+				if (deduplicationKey != null && !completed) {
+					getMessageDeduplicationStore().remove(deduplicationKey);
+				}
+			}
+		}
+
+		private String getDeduplicationKey(org.springframework.messaging.Message<String> queueMessage) {
+			if (getMessageDeduplicationStore() == null) {
+				return null;
+			}
+			Object deduplicationKey = queueMessage.getHeaders().get(getDeduplicationKeyHeader());
+			return deduplicationKey != null ? this.logicalQueueName + ":" + deduplicationKey : null;
 		}
 
 		private void applyDeletionPolicyOnSuccess(String receiptHandle) {
@@ -411,6 +493,38 @@ public class SimpleMessageListenerContainer extends AbstractMessageListenerConta
 					|| (this.deletionPolicy == SqsMessageDeletionPolicy.NO_REDRIVE && !this.hasRedrivePolicy)) {
 				deleteMessage(receiptHandle);
 			}
+			else if (this.retryPolicy != null) {
+				applyRetryPolicy(receiptHandle);
+			}
+		}
+
+		private void applyRetryPolicy(String receiptHandle) {
+			long receiveCount = getApproximateReceiveCount();
+			if (!this.retryPolicy.isExhausted(receiveCount)) {
+				getAmazonSqs().changeMessageVisibilityAsync(new ChangeMessageVisibilityRequest(this.queueUrl,
+						receiptHandle, this.retryPolicy.getBackOffSeconds(receiveCount)));
+			}
+			else if (this.deadLetterQueueUrl != null) {
+				sendToDeadLetterQueue(receiptHandle);
+			}
+		}
+
+		private long getApproximateReceiveCount() {
+			String receiveCount = this.message.getAttributes().get(SqsMessageHeaders.SQS_APPROXIMATE_RECEIVE_COUNT);
+			return receiveCount != null ? Long.parseLong(receiveCount) : 1;
+		}
+
+		private void sendToDeadLetterQueue(String receiptHandle) {
+			SendMessageRequest sendMessageRequest = new SendMessageRequest(this.deadLetterQueueUrl,
+					this.message.getBody()).withMessageAttributes(this.message.getMessageAttributes());
+			String messageGroupId = this.message.getAttributes()
+					.get(MessageSystemAttributeName.MessageGroupId.toString());
+			if (messageGroupId != null) {
+				sendMessageRequest.withMessageGroupId(messageGroupId)
+						.withMessageDeduplicationId(this.message.getMessageId());
+			}
+			getAmazonSqs().sendMessageAsync(sendMessageRequest,
+					new DeadLetterMessageHandler(getAmazonSqs(), this.queueUrl, receiptHandle));
 		}
 
 		private void deleteMessage(String receiptHandle) {
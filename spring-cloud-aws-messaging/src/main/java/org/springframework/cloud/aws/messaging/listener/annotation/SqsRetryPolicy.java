@@ -0,0 +1,80 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.aws.messaging.listener.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Configures how messages that could not be processed by a {@link SqsListener} annotated
+ * method are redelivered. Instead of waiting for the full visibility timeout of the
+ * queue, the visibility of a failed message is changed to an exponentially growing
+ * back-off based on the {@code ApproximateReceiveCount} of the message. Once the message
+ * has been received {@link #maxReceiveCount()} times, it is sent to the
+ * {@link #deadLetterQueue()} (if configured) and deleted from the source queue.
+ * <p>
+ * The retry policy only applies to messages that are not deleted on error by the
+ * {@link org.springframework.cloud.aws.messaging.listener.SqsMessageDeletionPolicy} of
+ * the listener.
+ *
+ * @since 3.0
+ * @see org.springframework.cloud.aws.messaging.listener.MessageRetryPolicy
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface SqsRetryPolicy {
+
+	/**
+	 * Visibility timeout in seconds applied after the first failed delivery.
+	 * @return the initial back-off in seconds
+	 */
+	int initialBackOffSeconds() default 1;
+
+	/**
+	 * Multiplier applied to the back-off for every further delivery.
+	 * @return the back-off multiplier
+	 */
+	double backOffMultiplier() default 2.0;
+
+	/**
+	 * Upper bound for the back-off in seconds. Values above the SQS maximum of 12 hours
+	 * are capped.
+	 * @return the maximum back-off in seconds
+	 */
+	int maxBackOffSeconds() default 900;
+
+	/**
+	 * Number of deliveries after which the message is not retried anymore. A value of
+	 * {@code 0} retries the message until it is removed by the redrive policy of the
+	 * queue.
+	 * @return the maximum receive count
+	 */
+	int maxReceiveCount() default 0;
+
+	/**
+	 * Queue (logical/physical name or URL) that receives messages which exceeded the
+	 * {@link #maxReceiveCount()}. If empty, the message is left to the redrive policy of
+	 * the queue. The container fails to start if the queue can not be resolved.
+	 * @return the dead-letter queue
+	 */
+	String deadLetterQueue() default "";
+
+}
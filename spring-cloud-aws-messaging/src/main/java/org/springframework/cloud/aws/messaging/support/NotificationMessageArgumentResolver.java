@@ -30,8 +30,11 @@ public class NotificationMessageArgumentResolver implements HandlerMethodArgumen
 
 	private final MessageConverter converter;
 
+	private final MessageConverter rawMessageConverter;
+
 	public NotificationMessageArgumentResolver(MessageConverter converter) {
 		this.converter = new NotificationRequestConverter(converter);
+		this.rawMessageConverter = new NotificationRequestConverter(converter, true);
 	}
 
 	@Override
@@ -41,7 +44,9 @@ public class NotificationMessageArgumentResolver implements HandlerMethodArgumen
 
 	@Override
 	public Object resolveArgument(MethodParameter par, Message<?> msg) throws Exception {
-		Object object = this.converter.fromMessage(msg, par.getParameterType());
+		MessageConverter converter = par.getParameterAnnotation(NotificationMessage.class).rawMessageDelivery()
+				? this.rawMessageConverter : this.converter;
+		Object object = converter.fromMessage(msg, par.getParameterType());
 		NotificationRequestConverter.NotificationRequest nr = (NotificationRequestConverter.NotificationRequest) object;
 		return nr.getMessage();
 	}
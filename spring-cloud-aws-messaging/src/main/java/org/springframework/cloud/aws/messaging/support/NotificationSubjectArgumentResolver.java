@@ -32,8 +32,11 @@ public class NotificationSubjectArgumentResolver implements HandlerMethodArgumen
 
 	private final MessageConverter converter;
 
+	private final MessageConverter rawMessageConverter;
+
 	public NotificationSubjectArgumentResolver() {
 		this.converter = new NotificationRequestConverter(new StringMessageConverter());
+		this.rawMessageConverter = new NotificationRequestConverter(new StringMessageConverter(), true);
 	}
 
 	@Override
@@ -44,7 +47,9 @@ public class NotificationSubjectArgumentResolver implements HandlerMethodArgumen
 
 	@Override
 	public Object resolveArgument(MethodParameter parameter, Message<?> message) throws Exception {
-		return ((NotificationRequestConverter.NotificationRequest) this.converter.fromMessage(message, String.class))
+		MessageConverter converter = parameter.getParameterAnnotation(NotificationSubject.class).rawMessageDelivery()
+				? this.rawMessageConverter : this.converter;
+		return ((NotificationRequestConverter.NotificationRequest) converter.fromMessage(message, String.class))
 				.getSubject();
 	}
 
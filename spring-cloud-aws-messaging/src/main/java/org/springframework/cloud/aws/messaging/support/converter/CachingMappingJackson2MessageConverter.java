@@ -0,0 +1,110 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.aws.messaging.support.converter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonView;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import org.springframework.core.GenericTypeResolver;
+import org.springframework.core.MethodParameter;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.converter.MessageConversionException;
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+/**
+ * {@link MappingJackson2MessageConverter} that keeps one {@link ObjectReader} per target
+ * type instead of resolving the {@link JavaType} and creating a new reader on every
+ * conversion. Readers can be created upfront through
+ * {@link #registerPayloadType(MethodParameter)} so that the first message of a listener
+ * does not pay for the deserializer lookup either.
+ * <p>
+ * Payloads are read directly from the {@code String} or {@code byte[]} they arrive in,
+ * there is no intermediate copy or re-encoding of the message body. Conversions that
+ * rely on a {@link JsonView} hint are delegated to the parent class.
+ *
+ * @since 3.0
+ */
+public class CachingMappingJackson2MessageConverter extends MappingJackson2MessageConverter {
+
+	private final Map<Type, ObjectReader> readerCache = new ConcurrentReferenceHashMap<>();
+
+	@Override
+	public void setObjectMapper(ObjectMapper objectMapper) {
+		super.setObjectMapper(objectMapper);
+		this.readerCache.clear();
+	}
+
+	/**
+	 * Creates and caches the {@link ObjectReader} for the given handler method parameter.
+	 * Parameters that are converted using a {@link JsonView} are ignored as they are
+	 * handled by the parent class.
+	 * @param parameter the handler method parameter that will receive the payload
+	 */
+	public void registerPayloadType(MethodParameter parameter) {
+		if (!parameter.hasParameterAnnotation(JsonView.class)) {
+			getObjectReader(getResolvedType(parameter.getParameterType(), parameter));
+		}
+	}
+
+	@Override
+	protected Object convertFromInternal(Message<?> message, Class<?> targetClass, Object conversionHint) {
+		if (getSerializationView(conversionHint) != null) {
+			return super.convertFromInternal(message, targetClass, conversionHint);
+		}
+
+		ObjectReader objectReader = getObjectReader(getResolvedType(targetClass, conversionHint));
+		Object payload = message.getPayload();
+		try {
+			if (payload instanceof byte[]) {
+				return objectReader.readValue((byte[]) payload);
+			}
+			else {
+				return objectReader.readValue(payload.toString());
+			}
+		}
+		catch (IOException ex) {
+			throw new MessageConversionException(message, "Could not read JSON: " + ex.getMessage(), ex);
+		}
+	}
+
+	private ObjectReader getObjectReader(Type type) {
+		return this.readerCache.computeIfAbsent(type, key -> {
+			ObjectMapper objectMapper = getObjectMapper();
+			return objectMapper.readerFor(objectMapper.constructType(key));
+		});
+	}
+
+	private static Type getResolvedType(Class<?> targetClass, Object conversionHint) {
+		if (conversionHint instanceof MethodParameter) {
+			MethodParameter parameter = ((MethodParameter) conversionHint).nestedIfOptional();
+			if (Message.class.isAssignableFrom(parameter.getParameterType())) {
+				parameter = parameter.nested();
+			}
+			return GenericTypeResolver.resolveType(parameter.getNestedGenericParameterType(),
+					parameter.getContainingClass());
+		}
+		return targetClass;
+	}
+
+}
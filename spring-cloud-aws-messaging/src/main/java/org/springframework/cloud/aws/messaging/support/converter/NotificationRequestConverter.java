@@ -16,17 +16,19 @@
 
 package org.springframework.cloud.aws.messaging.support.converter;
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.Map;
 import java.util.UUID;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 
 import org.springframework.cloud.aws.messaging.core.MessageAttributeDataTypes;
 import org.springframework.cloud.aws.messaging.core.QueueMessageUtils;
+import org.springframework.cloud.aws.messaging.core.TopicMessageChannel;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageHeaders;
 import org.springframework.messaging.converter.MessageConversionException;
@@ -36,81 +38,180 @@ import org.springframework.util.Assert;
 import org.springframework.util.MimeType;
 
 /**
+ * Converts the JSON envelope of an SNS notification into a {@link NotificationRequest}.
+ * The envelope is read with a streaming parser in a single pass, only the
+ * {@code Type}, {@code Subject}, {@code Message} and {@code MessageAttributes} fields
+ * are extracted and all other fields (e.g. the signature) are skipped without being
+ * materialized. The raw {@code Message} text is handed to the payload converter as is.
+ * <p>
+ * Messages delivered through an SNS subscription with raw message delivery enabled do
+ * not have an envelope. The message body is converted directly for converters that are
+ * created for raw message delivery, and for messages with the
+ * {@link TopicMessageChannel#NOTIFICATION_SUBJECT_HEADER} message attribute that is
+ * forwarded by SNS. The subject is taken from that attribute and is {@code null} for raw
+ * messages without a subject.
+ *
  * @author Agim Emruli
  * @author Alain Sahli
  * @since 1.0
  */
 public class NotificationRequestConverter implements MessageConverter {
 
-	private final ObjectMapper jsonMapper = new ObjectMapper();
+	private final JsonFactory jsonFactory = new JsonFactory();
 
 	private final MessageConverter payloadConverter;
 
+	private final boolean rawMessageDelivery;
+
 	public NotificationRequestConverter(MessageConverter payloadConverter) {
+		this(payloadConverter, false);
+	}
+
+	/**
+	 * Creates a converter for messages with or without SNS envelope.
+	 * @param payloadConverter the converter of the notification message
+	 * @param rawMessageDelivery whether all messages are delivered without envelope
+	 * @since 3.0
+	 */
+	public NotificationRequestConverter(MessageConverter payloadConverter, boolean rawMessageDelivery) {
 		this.payloadConverter = payloadConverter;
+		this.rawMessageDelivery = rawMessageDelivery;
 	}
 
-	private static Map<String, Object> getMessageAttributesAsMessageHeaders(JsonNode message) {
+	private static Map<String, Object> readMessageAttributesAsMessageHeaders(JsonParser parser) throws IOException {
 		Map<String, Object> messageHeaders = new HashMap<>();
-		Iterator<String> fieldNames = message.fieldNames();
-		while (fieldNames.hasNext()) {
-			String attributeName = fieldNames.next();
-			String attributeValue = message.get(attributeName).get("Value").asText();
-			String attributeType = message.get(attributeName).get("Type").asText();
-			if (MessageHeaders.CONTENT_TYPE.equals(attributeName)) {
-				messageHeaders.put(MessageHeaders.CONTENT_TYPE, MimeType.valueOf(attributeValue));
-			}
-			else if (MessageHeaders.ID.equals(attributeName)) {
-				messageHeaders.put(MessageHeaders.ID, UUID.fromString(attributeValue));
+		if (parser.currentToken() != JsonToken.START_OBJECT) {
+			parser.skipChildren();
+			return messageHeaders;
+		}
+
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String attributeName = parser.getCurrentName();
+			String attributeValue = null;
+			String attributeType = null;
+			if (parser.nextToken() == JsonToken.START_OBJECT) {
+				while (parser.nextToken() == JsonToken.FIELD_NAME) {
+					String fieldName = parser.getCurrentName();
+					parser.nextToken();
+					if ("Value".equals(fieldName)) {
+						attributeValue = parser.getText();
+					}
+					else if ("Type".equals(fieldName)) {
+						attributeType = parser.getText();
+					}
+					else {
+						parser.skipChildren();
+					}
+				}
 			}
 			else {
-				if (MessageAttributeDataTypes.STRING.equals(attributeType)) {
-					messageHeaders.put(attributeName, attributeValue);
-				}
-				else if (attributeType.startsWith(MessageAttributeDataTypes.NUMBER)) {
-					messageHeaders.put(attributeName, QueueMessageUtils.getNumberValue(attributeValue, attributeType));
-				}
-				else if (MessageAttributeDataTypes.BINARY.equals(attributeName)) {
-					messageHeaders.put(attributeName, ByteBuffer.wrap(attributeType.getBytes()));
-				}
+				parser.skipChildren();
 			}
+			putMessageAttributeAsMessageHeader(messageHeaders, attributeName, attributeValue, attributeType);
 		}
 
 		return messageHeaders;
 	}
 
+	private static void putMessageAttributeAsMessageHeader(Map<String, Object> messageHeaders, String attributeName,
+			String attributeValue, String attributeType) {
+		if (attributeValue == null || attributeType == null) {
+			throw new MessageConversionException(
+					"Message attribute: '" + attributeName + "' does not contain a Type and a Value", null);
+		}
+
+		if (MessageHeaders.CONTENT_TYPE.equals(attributeName)) {
+			messageHeaders.put(MessageHeaders.CONTENT_TYPE, MimeType.valueOf(attributeValue));
+		}
+		else if (MessageHeaders.ID.equals(attributeName)) {
+			messageHeaders.put(MessageHeaders.ID, UUID.fromString(attributeValue));
+		}
+		else {
+			if (MessageAttributeDataTypes.STRING.equals(attributeType)) {
+				messageHeaders.put(attributeName, attributeValue);
+			}
+			else if (attributeType.startsWith(MessageAttributeDataTypes.NUMBER)) {
+				messageHeaders.put(attributeName, QueueMessageUtils.getNumberValue(attributeValue, attributeType));
+			}
+			else if (MessageAttributeDataTypes.BINARY.equals(attributeName)) {
+				messageHeaders.put(attributeName, ByteBuffer.wrap(attributeType.getBytes()));
+			}
+		}
+	}
+
 	@Override
 	public Object fromMessage(Message<?> message, Class<?> targetClass) {
 		Assert.notNull(message, "message must not be null");
 		Assert.notNull(targetClass, "target class must not be null");
 
-		JsonNode jsonNode;
-		try {
-			jsonNode = this.jsonMapper.readTree(message.getPayload().toString());
+		if (isRawMessageDelivery(message)) {
+			return new NotificationRequest(
+					message.getHeaders().get(TopicMessageChannel.NOTIFICATION_SUBJECT_HEADER, String.class),
+					this.payloadConverter.fromMessage(message, targetClass));
 		}
-		catch (Exception e) {
+
+		String type = null;
+		String subject = "";
+		String messagePayload = null;
+		Map<String, Object> messageHeaders = null;
+		try (JsonParser parser = this.jsonFactory.createParser(message.getPayload().toString())) {
+			if (parser.nextToken() == JsonToken.START_OBJECT) {
+				while (parser.nextToken() == JsonToken.FIELD_NAME) {
+					String fieldName = parser.getCurrentName();
+					parser.nextToken();
+					if ("Type".equals(fieldName)) {
+						type = getScalarText(parser);
+					}
+					else if ("Subject".equals(fieldName)) {
+						subject = getScalarText(parser);
+					}
+					else if ("Message".equals(fieldName)) {
+						messagePayload = getScalarText(parser);
+					}
+					else if ("MessageAttributes".equals(fieldName)) {
+						messageHeaders = readMessageAttributesAsMessageHeaders(parser);
+					}
+					else {
+						parser.skipChildren();
+					}
+				}
+			}
+		}
+		catch (IOException e) {
 			throw new MessageConversionException("Could not read JSON", e);
 		}
-		if (!jsonNode.has("Type")) {
+
+		if (type == null) {
 			throw new MessageConversionException(
 					"Payload: '" + message.getPayload() + "' does not contain a Type attribute", null);
 		}
 
-		if (!"Notification".equals(jsonNode.get("Type").asText())) {
+		if (!"Notification".equals(type)) {
 			throw new MessageConversionException("Payload: '" + message.getPayload() + "' is not a valid notification",
 					null);
 		}
 
-		if (!jsonNode.has("Message")) {
+		if (messagePayload == null) {
 			throw new MessageConversionException("Payload: '" + message.getPayload() + "' does not contain a message",
 					null);
 		}
 
-		String messagePayload = jsonNode.get("Message").asText();
 		GenericMessage<String> genericMessage = new GenericMessage<>(messagePayload,
-				getMessageAttributesAsMessageHeaders(jsonNode.path("MessageAttributes")));
-		return new NotificationRequest(jsonNode.path("Subject").asText(),
-				this.payloadConverter.fromMessage(genericMessage, targetClass));
+				messageHeaders != null ? messageHeaders : new HashMap<>());
+		return new NotificationRequest(subject, this.payloadConverter.fromMessage(genericMessage, targetClass));
+	}
+
+	private boolean isRawMessageDelivery(Message<?> message) {
+		return this.rawMessageDelivery
+				|| message.getHeaders().get(TopicMessageChannel.NOTIFICATION_SUBJECT_HEADER) instanceof String;
+	}
+
+	private static String getScalarText(JsonParser parser) throws IOException {
+		if (parser.currentToken().isStructStart()) {
+			parser.skipChildren();
+			return "";
+		}
+		return parser.getText();
 	}
 
 	@Override
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.aws.messaging.listener;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CacheMessageDeduplicationStoreTest {
+
+	@Test
+	void putIfAbsent_withSameKeyTwice_shouldReportDuplicate() {
+		// Arrange
+		ConcurrentMapCache cache = new ConcurrentMapCache("deduplication");
+		CacheMessageDeduplicationStore store = new CacheMessageDeduplicationStore(cache);
+
+		// Act
+		boolean first = store.putIfAbsent("messageId");
+		boolean second = store.putIfAbsent("messageId");
+
+		// Assert
+		assertThat(first).isTrue();
+		assertThat(second).isFalse();
+		assertThat(cache.get("messageId").get()).isInstanceOf(Long.class);
+		assertThat(store.isCompleted("messageId")).isFalse();
+	}
+
+	@Test
+	void putIfAbsent_withKeyInProgressAfterLeaseEnded_shouldTakeOverKey() {
+		// Arrange
+		ConcurrentMapCache cache = new ConcurrentMapCache("deduplication");
+		Instant start = Instant.parse("2020-06-01T10:00:00Z");
+		CacheMessageDeduplicationStore crashedInstance = new CacheMessageDeduplicationStore(cache,
+				Duration.ofMinutes(5), Clock.fixed(start, ZoneOffset.UTC));
+		crashedInstance.putIfAbsent("messageId");
+		CacheMessageDeduplicationStore duringLease = new CacheMessageDeduplicationStore(cache,
+				Duration.ofMinutes(5), Clock.fixed(start.plusSeconds(299), ZoneOffset.UTC));
+		CacheMessageDeduplicationStore afterLease = new CacheMessageDeduplicationStore(cache, Duration.ofMinutes(5),
+				Clock.fixed(start.plusSeconds(300), ZoneOffset.UTC));
+
+		// Act
+		boolean putDuringLease = duringLease.putIfAbsent("messageId");
+		boolean putAfterLease = afterLease.putIfAbsent("messageId");
+
+		// Assert
+		assertThat(putDuringLease).isFalse();
+		assertThat(putAfterLease).isTrue();
+		assertThat(duringLease.putIfAbsent("messageId")).isFalse();
+	}
+
+	@Test
+	void putIfAbsent_withCompletedKey_shouldReportDuplicateRegardlessOfLease() {
+		// Arrange
+		ConcurrentMapCache cache = new ConcurrentMapCache("deduplication");
+		Instant start = Instant.parse("2020-06-01T10:00:00Z");
+		new CacheMessageDeduplicationStore(cache, Duration.ofMinutes(5), Clock.fixed(start, ZoneOffset.UTC))
+				.complete("messageId");
+		CacheMessageDeduplicationStore store = new CacheMessageDeduplicationStore(cache, Duration.ofMinutes(5),
+				Clock.fixed(start.plus(Duration.ofHours(1)), ZoneOffset.UTC));
+
+		// Act
+		boolean absent = store.putIfAbsent("messageId");
+
+		// Assert
+		assertThat(absent).isFalse();
+		assertThat(store.isCompleted("messageId")).isTrue();
+	}
+
+	@Test
+	void complete_withKeyInProgress_shouldMarkKeyAsCompleted() {
+		// Arrange
+		ConcurrentMapCache cache = new ConcurrentMapCache("deduplication");
+		CacheMessageDeduplicationStore store = new CacheMessageDeduplicationStore(cache);
+		store.putIfAbsent("messageId");
+
+		// Act
+		store.complete("messageId");
+
+		// Assert
+		assertThat(store.isCompleted("messageId")).isTrue();
+		assertThat(store.putIfAbsent("messageId")).isFalse();
+	}
+
+	@Test
+	void remove_withExistingKey_shouldEvictKeyFromCache() {
+		// Arrange
+		ConcurrentMapCache cache = new ConcurrentMapCache("deduplication");
+		CacheMessageDeduplicationStore store = new CacheMessageDeduplicationStore(cache);
+		store.putIfAbsent("messageId");
+
+		// Act
+		store.remove("messageId");
+
+		// Assert
+		assertThat(cache.get("messageId")).isNull();
+		assertThat(store.putIfAbsent("messageId")).isTrue();
+	}
+
+}
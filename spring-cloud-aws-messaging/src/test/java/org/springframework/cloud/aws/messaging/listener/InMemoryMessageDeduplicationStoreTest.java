@@ -0,0 +1,108 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.aws.messaging.listener;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InMemoryMessageDeduplicationStoreTest {
+
+	@Test
+	void putIfAbsent_withSameKeyTwice_shouldReportDuplicate() {
+		// Arrange
+		InMemoryMessageDeduplicationStore store = new InMemoryMessageDeduplicationStore();
+
+		// Act
+		boolean first = store.putIfAbsent("messageId");
+		boolean second = store.putIfAbsent("messageId");
+
+		// Assert
+		assertThat(first).isTrue();
+		assertThat(second).isFalse();
+	}
+
+	@Test
+	void isCompleted_withKeyInProgressAndCompletedKey_shouldReportCompletedKeyOnly() {
+		// Arrange
+		InMemoryMessageDeduplicationStore store = new InMemoryMessageDeduplicationStore();
+		store.putIfAbsent("inProgress");
+		store.putIfAbsent("completed");
+
+		// Act
+		store.complete("completed");
+
+		// Assert
+		assertThat(store.isCompleted("inProgress")).isFalse();
+		assertThat(store.isCompleted("completed")).isTrue();
+		assertThat(store.isCompleted("absent")).isFalse();
+	}
+
+	@Test
+	void putIfAbsent_afterRemove_shouldAcceptKeyAgain() {
+		// Arrange
+		InMemoryMessageDeduplicationStore store = new InMemoryMessageDeduplicationStore();
+		store.putIfAbsent("messageId");
+
+		// Act
+		store.remove("messageId");
+
+		// Assert
+		assertThat(store.putIfAbsent("messageId")).isTrue();
+	}
+
+	@Test
+	void putIfAbsent_withMaxSizeReached_shouldEvictOldestKey() {
+		// Arrange
+		InMemoryMessageDeduplicationStore store = new InMemoryMessageDeduplicationStore(2, Duration.ofMinutes(1));
+
+		// Act
+		store.putIfAbsent("first");
+		store.putIfAbsent("second");
+		store.putIfAbsent("third");
+
+		// Assert
+		assertThat(store.size()).isEqualTo(2);
+		assertThat(store.putIfAbsent("third")).isFalse();
+		assertThat(store.putIfAbsent("first")).isTrue();
+	}
+
+	@Test
+	void putIfAbsent_withExpiredKey_shouldAcceptKeyAgain() throws Exception {
+		// Arrange
+		InMemoryMessageDeduplicationStore store = new InMemoryMessageDeduplicationStore(10, Duration.ofMillis(1));
+		store.putIfAbsent("messageId");
+
+		// Act
+		Thread.sleep(10);
+
+		// Assert
+		assertThat(store.putIfAbsent("messageId")).isTrue();
+		assertThat(store.size()).isEqualTo(1);
+	}
+
+	@Test
+	void instantiation_withNonPositiveTimeToLive_shouldFail() {
+		// Act & Assert
+		assertThatThrownBy(() -> new InMemoryMessageDeduplicationStore(10, Duration.ZERO))
+				.isInstanceOf(IllegalArgumentException.class).hasMessageContaining("timeToLive");
+	}
+
+}
@@ -31,6 +31,7 @@ import org.slf4j.Logger;
 
 import org.springframework.cloud.aws.messaging.listener.AbstractMessageListenerContainer.QueueAttributes;
 import org.springframework.cloud.aws.messaging.listener.annotation.SqsListener;
+import org.springframework.cloud.aws.messaging.listener.annotation.SqsRetryPolicy;
 import org.springframework.cloud.aws.messaging.support.destination.DynamicQueueUrlDestinationResolver;
 import org.springframework.context.support.StaticApplicationContext;
 import org.springframework.messaging.core.CachingDestinationResolverProxy;
@@ -437,6 +438,33 @@ class MessageListenerContainerTest {
 				.isEqualTo("https://anotherTestQueue.amazonaws.com");
 	}
 
+	@Test
+	void afterPropertiesSet_withUnknownDeadLetterQueue_shouldFailWithDeadLetterQueueName() throws Exception {
+		// Arrange
+		AbstractMessageListenerContainer container = new StubAbstractMessageListenerContainer();
+
+		AmazonSQSAsync mock = mock(AmazonSQSAsync.class, withSettings().stubOnly());
+		container.setAmazonSqs(mock);
+		StaticApplicationContext applicationContext = new StaticApplicationContext();
+		QueueMessageHandler messageHandler = new QueueMessageHandler();
+		messageHandler.setApplicationContext(applicationContext);
+		container.setMessageHandler(messageHandler);
+		applicationContext.registerSingleton("messageListener", MessageListenerWithUnknownDeadLetterQueue.class);
+
+		when(mock.getQueueUrl(new GetQueueUrlRequest().withQueueName("testQueue")))
+				.thenReturn(new GetQueueUrlResult().withQueueUrl("https://testQueue.amazonaws.com"));
+		when(mock.getQueueUrl(new GetQueueUrlRequest().withQueueName("unknownDeadLetterQueue")))
+				.thenThrow(new DestinationResolutionException("Queue not found"));
+		when(mock.getQueueAttributes(any(GetQueueAttributesRequest.class))).thenReturn(new GetQueueAttributesResult());
+
+		messageHandler.afterPropertiesSet();
+
+		// Act & Assert
+		assertThatThrownBy(container::afterPropertiesSet).isInstanceOf(IllegalStateException.class)
+				.hasMessageContaining("Dead letter queue 'unknownDeadLetterQueue'")
+				.hasMessageContaining("queue 'testQueue'");
+	}
+
 	private static class StubAbstractMessageListenerContainer extends AbstractMessageListenerContainer {
 
 		private final Logger mock = mock(Logger.class);
@@ -466,6 +494,17 @@ class MessageListenerContainerTest {
 
 	}
 
+	private static class MessageListenerWithUnknownDeadLetterQueue {
+
+		@SuppressWarnings({ "UnusedDeclaration", "EmptyMethod" })
+		@SqsListener("testQueue")
+		@SqsRetryPolicy(maxReceiveCount = 3, deadLetterQueue = "unknownDeadLetterQueue")
+		void listenerMethod(String ignore) {
+
+		}
+
+	}
+
 	private static class AnotherMessageListener {
 
 		@SuppressWarnings({ "UnusedDeclaration", "EmptyMethod" })
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.aws.messaging.listener;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MessageRetryPolicyTest {
+
+	@Test
+	void getBackOffSeconds_withMultiplier_shouldGrowExponentially() {
+		// Arrange
+		MessageRetryPolicy retryPolicy = new MessageRetryPolicy(1, 2.0, 900, 0, "");
+
+		// Act & Assert
+		assertThat(retryPolicy.getBackOffSeconds(1)).isEqualTo(1);
+		assertThat(retryPolicy.getBackOffSeconds(2)).isEqualTo(2);
+		assertThat(retryPolicy.getBackOffSeconds(5)).isEqualTo(16);
+	}
+
+	@Test
+	void getBackOffSeconds_withHighReceiveCount_shouldBeCappedToMaxBackOff() {
+		// Arrange
+		MessageRetryPolicy retryPolicy = new MessageRetryPolicy(10, 3.0, 60, 0, "");
+
+		// Act & Assert
+		assertThat(retryPolicy.getBackOffSeconds(100)).isEqualTo(60);
+	}
+
+	@Test
+	void getBackOffSeconds_withMaxBackOffAboveSqsLimit_shouldBeCappedToMaxVisibilityTimeout() {
+		// Arrange
+		MessageRetryPolicy retryPolicy = new MessageRetryPolicy(10, 2.0, Integer.MAX_VALUE, 0, "");
+
+		// Act & Assert
+		assertThat(retryPolicy.getBackOffSeconds(1000))
+				.isEqualTo(MessageRetryPolicy.MAX_VISIBILITY_TIMEOUT_SECONDS);
+	}
+
+	@Test
+	void isExhausted_withMaxReceiveCount_shouldBeExhaustedOnceReached() {
+		// Arrange
+		MessageRetryPolicy retryPolicy = new MessageRetryPolicy(1, 2.0, 900, 3, "deadLetterQueue");
+
+		// Act & Assert
+		assertThat(retryPolicy.isExhausted(2)).isFalse();
+		assertThat(retryPolicy.isExhausted(3)).isTrue();
+		assertThat(retryPolicy.getDeadLetterQueue()).isEqualTo("deadLetterQueue");
+	}
+
+	@Test
+	void isExhausted_withoutMaxReceiveCount_shouldNeverBeExhausted() {
+		// Arrange
+		MessageRetryPolicy retryPolicy = new MessageRetryPolicy(1, 2.0, 900, 0, "");
+
+		// Act & Assert
+		assertThat(retryPolicy.isExhausted(Long.MAX_VALUE)).isFalse();
+		assertThat(retryPolicy.getDeadLetterQueue()).isNull();
+	}
+
+	@Test
+	void new_withMultiplierLowerThanOne_shouldThrowAnException() {
+		assertThatThrownBy(() -> new MessageRetryPolicy(1, 0.5, 900, 0, ""))
+				.isInstanceOf(IllegalArgumentException.class).hasMessageContaining("backOffMultiplier");
+	}
+
+}
@@ -22,6 +22,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.Logger;
@@ -42,6 +43,7 @@ import com.amazonaws.services.sqs.model.OverLimitException;
 import com.amazonaws.services.sqs.model.QueueAttributeName;
 import com.amazonaws.services.sqs.model.ReceiveMessageRequest;
 import com.amazonaws.services.sqs.model.ReceiveMessageResult;
+import com.amazonaws.services.sqs.model.SendMessageRequest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
@@ -52,6 +54,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.cloud.aws.core.support.documentation.RuntimeUse;
 import org.springframework.cloud.aws.messaging.config.annotation.EnableSqs;
 import org.springframework.cloud.aws.messaging.listener.annotation.SqsListener;
+import org.springframework.cloud.aws.messaging.listener.annotation.SqsRetryPolicy;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -74,6 +77,7 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -662,6 +666,276 @@ class SimpleMessageListenerContainerTest {
 						"ReceiptHandle")), any(AsyncHandler.class));
 	}
 
+	@Test
+	void executeMessage_withDeduplicationStoreAndDuplicateMessage_shouldSkipListenerAndDeleteMessage()
+			throws Exception {
+		// Arrange
+		AtomicInteger executedMessages = new AtomicInteger();
+		SimpleMessageListenerContainer container = new SimpleMessageListenerContainer() {
+
+			@Override
+			protected void executeMessage(org.springframework.messaging.Message<String> stringMessage) {
+				executedMessages.incrementAndGet();
+				super.executeMessage(stringMessage);
+			}
+		};
+
+		AmazonSQSAsync sqs = mock(AmazonSQSAsync.class);
+		container.setAmazonSqs(sqs);
+		container.setMessageDeduplicationStore(new InMemoryMessageDeduplicationStore());
+
+		QueueMessageHandler messageHandler = new QueueMessageHandler();
+		container.setMessageHandler(messageHandler);
+
+		StaticApplicationContext applicationContext = new StaticApplicationContext();
+		applicationContext.registerSingleton("testMessageListener", TestMessageListener.class);
+
+		mockGetQueueUrl(sqs, "testQueue", "https://deduplicationQueue.amazonaws.com");
+		mockGetQueueAttributesWithEmptyResult(sqs, "https://deduplicationQueue.amazonaws.com");
+
+		messageHandler.setApplicationContext(applicationContext);
+		messageHandler.afterPropertiesSet();
+		container.afterPropertiesSet();
+
+		when(sqs.receiveMessage(new ReceiveMessageRequest("https://deduplicationQueue.amazonaws.com")
+				.withAttributeNames("All").withMaxNumberOfMessages(10).withWaitTimeSeconds(20)
+				.withMessageAttributeNames("All"))).thenReturn(
+						new ReceiveMessageResult().withMessages(new Message().withBody("messageContent")
+								.withMessageId("messageId").withReceiptHandle("ReceiptHandle1")),
+						new ReceiveMessageResult().withMessages(new Message().withBody("messageContent")
+								.withMessageId("messageId").withReceiptHandle("ReceiptHandle2")),
+						new ReceiveMessageResult());
+
+		// Act
+		container.start();
+
+		// Assert
+		verify(sqs, timeout(2000).times(2)).deleteMessageAsync(any(DeleteMessageRequest.class),
+				any(AsyncHandler.class));
+		container.stop();
+		assertThat(executedMessages.get()).isEqualTo(1);
+	}
+
+	@Test
+	void executeMessage_withDuplicateInProgressAndFailingFirstDelivery_shouldDeleteNeitherDelivery()
+			throws Exception {
+		// Arrange
+		CountDownLatch duplicateSkipped = new CountDownLatch(1);
+		InMemoryMessageDeduplicationStore deduplicationStore = new InMemoryMessageDeduplicationStore() {
+
+			@Override
+			public boolean putIfAbsent(String key) {
+				boolean absent = super.putIfAbsent(key);
+				if (!absent) {
+					duplicateSkipped.countDown();
+				}
+				return absent;
+			}
+		};
+		AtomicInteger executedMessages = new AtomicInteger();
+		CountDownLatch firstDeliveryFailed = new CountDownLatch(1);
+		SimpleMessageListenerContainer container = new SimpleMessageListenerContainer() {
+
+			@Override
+			protected void executeMessage(org.springframework.messaging.Message<String> stringMessage) {
+				executedMessages.incrementAndGet();
+				try {
+					// Keep the first delivery in progress until the duplicate arrived
+					assertThat(duplicateSkipped.await(2L, TimeUnit.SECONDS)).isTrue();
+					super.executeMessage(stringMessage);
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				finally {
+					firstDeliveryFailed.countDown();
+				}
+			}
+		};
+
+		AmazonSQSAsync sqs = mock(AmazonSQSAsync.class);
+		container.setAmazonSqs(sqs);
+		container.setMessageDeduplicationStore(deduplicationStore);
+
+		QueueMessageHandler messageHandler = new QueueMessageHandler();
+		container.setMessageHandler(messageHandler);
+
+		StaticApplicationContext applicationContext = new StaticApplicationContext();
+		applicationContext.registerSingleton("testMessageListener",
+				TestMessageListenerThatThrowsAnExceptionWithAllExceptOnRedriveDeletionPolicy.class);
+
+		mockGetQueueUrl(sqs, "testQueue", "https://inProgressDeduplicationQueue.amazonaws.com");
+		mockGetQueueAttributesWithRedrivePolicy(sqs, "https://inProgressDeduplicationQueue.amazonaws.com");
+
+		messageHandler.setApplicationContext(applicationContext);
+		messageHandler.afterPropertiesSet();
+		container.afterPropertiesSet();
+
+		when(sqs.receiveMessage(new ReceiveMessageRequest("https://inProgressDeduplicationQueue.amazonaws.com")
+				.withAttributeNames("All").withMaxNumberOfMessages(10).withWaitTimeSeconds(20)
+				.withMessageAttributeNames("All"))).thenReturn(
+						new ReceiveMessageResult().withMessages(
+								new Message().withBody("messageContent").withMessageId("messageId")
+										.withReceiptHandle("ReceiptHandle1"),
+								new Message().withBody("messageContent").withMessageId("messageId")
+										.withReceiptHandle("ReceiptHandle2")),
+						new ReceiveMessageResult());
+
+		// Act
+		container.start();
+
+		// Assert
+		assertThat(firstDeliveryFailed.await(2L, TimeUnit.SECONDS)).isTrue();
+		container.stop();
+		assertThat(executedMessages.get()).isEqualTo(1);
+		verify(sqs, never()).deleteMessageAsync(any(DeleteMessageRequest.class), any(AsyncHandler.class));
+		assertThat(deduplicationStore.putIfAbsent("testQueue:messageId")).isTrue();
+	}
+
+	@Test
+	void executeMessage_withDeduplicationStoreAndNonMessagingFailure_shouldReleaseKey() throws Exception {
+		// Arrange
+		CountDownLatch keyRemoved = new CountDownLatch(1);
+		InMemoryMessageDeduplicationStore deduplicationStore = new InMemoryMessageDeduplicationStore() {
+
+			@Override
+			public void remove(String key) {
+				super.remove(key);
+				keyRemoved.countDown();
+			}
+		};
+		SimpleMessageListenerContainer container = new SimpleMessageListenerContainer() {
+
+			@Override
+			protected void executeMessage(org.springframework.messaging.Message<String> stringMessage) {
+				throw new IllegalStateException("Unexpected failure");
+			}
+		};
+
+		AmazonSQSAsync sqs = mock(AmazonSQSAsync.class);
+		container.setAmazonSqs(sqs);
+		container.setMessageDeduplicationStore(deduplicationStore);
+
+		QueueMessageHandler messageHandler = new QueueMessageHandler();
+		container.setMessageHandler(messageHandler);
+
+		StaticApplicationContext applicationContext = new StaticApplicationContext();
+		applicationContext.registerSingleton("testMessageListener", TestMessageListener.class);
+
+		mockGetQueueUrl(sqs, "testQueue", "https://failingDeduplicationQueue.amazonaws.com");
+		mockGetQueueAttributesWithEmptyResult(sqs, "https://failingDeduplicationQueue.amazonaws.com");
+
+		messageHandler.setApplicationContext(applicationContext);
+		messageHandler.afterPropertiesSet();
+		container.afterPropertiesSet();
+
+		when(sqs.receiveMessage(new ReceiveMessageRequest("https://failingDeduplicationQueue.amazonaws.com")
+				.withAttributeNames("All").withMaxNumberOfMessages(10).withWaitTimeSeconds(20)
+				.withMessageAttributeNames("All"))).thenReturn(
+						new ReceiveMessageResult().withMessages(new Message().withBody("messageContent")
+								.withMessageId("messageId").withReceiptHandle("ReceiptHandle")),
+						new ReceiveMessageResult());
+
+		// Act
+		container.start();
+
+		// Assert
+		assertThat(keyRemoved.await(2L, TimeUnit.SECONDS)).isTrue();
+		container.stop();
+		verify(sqs, never()).deleteMessageAsync(any(DeleteMessageRequest.class), any(AsyncHandler.class));
+		assertThat(deduplicationStore.putIfAbsent("testQueue:messageId")).isTrue();
+	}
+
+	@Test
+	void executeMessage_executionThrowsExceptionAndListenerHasRetryPolicy_shouldChangeVisibilityWithBackOff()
+			throws Exception {
+		// Arrange
+		SimpleMessageListenerContainer container = new SimpleMessageListenerContainer();
+
+		AmazonSQSAsync sqs = mock(AmazonSQSAsync.class, withSettings().stubOnly());
+		container.setAmazonSqs(sqs);
+
+		QueueMessageHandler messageHandler = new QueueMessageHandler();
+		container.setMessageHandler(messageHandler);
+
+		StaticApplicationContext applicationContext = new StaticApplicationContext();
+		applicationContext.registerSingleton("testMessageListener", TestMessageListenerWithRetryPolicy.class);
+
+		mockGetQueueUrl(sqs, "testQueue", "https://retryPolicyQueue.amazonaws.com");
+		mockGetQueueUrl(sqs, "testDeadLetterQueue", "https://retryPolicyDeadLetterQueue.amazonaws.com");
+		mockGetQueueAttributesWithRedrivePolicy(sqs, "https://retryPolicyQueue.amazonaws.com");
+
+		messageHandler.setApplicationContext(applicationContext);
+		messageHandler.afterPropertiesSet();
+		container.afterPropertiesSet();
+
+		AmazonSQSAsync verifiableSqs = mock(AmazonSQSAsync.class);
+		container.setAmazonSqs(verifiableSqs);
+		when(verifiableSqs.receiveMessage(new ReceiveMessageRequest("https://retryPolicyQueue.amazonaws.com")
+				.withAttributeNames("All").withMaxNumberOfMessages(10).withWaitTimeSeconds(20)
+				.withMessageAttributeNames("All")))
+						.thenReturn(new ReceiveMessageResult().withMessages(new Message().withBody("messageContent")
+								.withReceiptHandle("ReceiptHandle").addAttributesEntry("ApproximateReceiveCount", "3")),
+								new ReceiveMessageResult());
+
+		// Act
+		container.start();
+
+		// Assert
+		verify(verifiableSqs, timeout(2000)).changeMessageVisibilityAsync(
+				new ChangeMessageVisibilityRequest("https://retryPolicyQueue.amazonaws.com", "ReceiptHandle", 8));
+		container.stop();
+		verify(verifiableSqs, never()).sendMessageAsync(any(SendMessageRequest.class), any(AsyncHandler.class));
+		verify(verifiableSqs, never()).deleteMessageAsync(any(DeleteMessageRequest.class), any(AsyncHandler.class));
+	}
+
+	@Test
+	void executeMessage_executionThrowsExceptionAndMaxReceiveCountIsReached_shouldSendMessageToDeadLetterQueue()
+			throws Exception {
+		// Arrange
+		SimpleMessageListenerContainer container = new SimpleMessageListenerContainer();
+
+		AmazonSQSAsync sqs = mock(AmazonSQSAsync.class, withSettings().stubOnly());
+		container.setAmazonSqs(sqs);
+
+		QueueMessageHandler messageHandler = new QueueMessageHandler();
+		container.setMessageHandler(messageHandler);
+
+		StaticApplicationContext applicationContext = new StaticApplicationContext();
+		applicationContext.registerSingleton("testMessageListener", TestMessageListenerWithRetryPolicy.class);
+
+		mockGetQueueUrl(sqs, "testQueue", "https://retryPolicyQueue.amazonaws.com");
+		mockGetQueueUrl(sqs, "testDeadLetterQueue", "https://retryPolicyDeadLetterQueue.amazonaws.com");
+		mockGetQueueAttributesWithRedrivePolicy(sqs, "https://retryPolicyQueue.amazonaws.com");
+
+		messageHandler.setApplicationContext(applicationContext);
+		messageHandler.afterPropertiesSet();
+		container.afterPropertiesSet();
+
+		AmazonSQSAsync verifiableSqs = mock(AmazonSQSAsync.class);
+		container.setAmazonSqs(verifiableSqs);
+		MessageAttributeValue attributeValue = new MessageAttributeValue().withDataType("String")
+				.withStringValue("value");
+		when(verifiableSqs.receiveMessage(new ReceiveMessageRequest("https://retryPolicyQueue.amazonaws.com")
+				.withAttributeNames("All").withMaxNumberOfMessages(10).withWaitTimeSeconds(20)
+				.withMessageAttributeNames("All"))).thenReturn(
+						new ReceiveMessageResult().withMessages(new Message().withBody("messageContent")
+								.withReceiptHandle("ReceiptHandle").addAttributesEntry("ApproximateReceiveCount", "5")
+								.addMessageAttributesEntry("attribute", attributeValue)),
+						new ReceiveMessageResult());
+
+		// Act
+		container.start();
+
+		// Assert
+		verify(verifiableSqs, timeout(2000)).sendMessageAsync(
+				eq(new SendMessageRequest("https://retryPolicyDeadLetterQueue.amazonaws.com", "messageContent")
+						.addMessageAttributesEntry("attribute", attributeValue)),
+				any(DeadLetterMessageHandler.class));
+		container.stop();
+		verify(verifiableSqs, never()).changeMessageVisibilityAsync(any(ChangeMessageVisibilityRequest.class));
+	}
+
 	@Test
 	void doStop_containerNotRunning_shouldNotThrowAnException() throws Exception {
 		// Arrange
@@ -1339,6 +1613,25 @@ class SimpleMessageListenerContainerTest {
 
 	}
 
+	@SuppressWarnings("NonExceptionNameEndsWithException")
+	private static class TestMessageListenerWithRetryPolicy {
+
+		@SuppressWarnings("UnusedDeclaration")
+		@SqsListener(value = "testQueue", deletionPolicy = SqsMessageDeletionPolicy.ON_SUCCESS)
+		@SqsRetryPolicy(initialBackOffSeconds = 2, maxReceiveCount = 5, deadLetterQueue = "testDeadLetterQueue")
+		private void handleMessage(String message) {
+			throw new RuntimeException();
+		}
+
+		@RuntimeUse
+		@MessageExceptionHandler(RuntimeException.class)
+		void handle() {
+			// Empty body just to avoid unnecessary log output because no exception
+			// handler was found.
+		}
+
+	}
+
 	@Configuration
 	@EnableSqs
 	protected static class SqsTestConfig {
@@ -119,4 +119,27 @@ class NotificationMessageArgumentResolverTest {
 		assertThat(result).isEqualTo("Hello World!");
 	}
 
+	@Test
+	void resolveArgument_withRawMessageDeliveryAndWithoutSubject_shouldReturnBody() throws Exception {
+		// Arrange
+		NotificationMessageArgumentResolver notificationMessageArgumentResolver = new NotificationMessageArgumentResolver(
+				new StringMessageConverter());
+		Method methodWithRawNotificationMessageArgument = this.getClass()
+				.getDeclaredMethod("methodWithRawNotificationMessageArgument", String.class);
+		MethodParameter methodParameter = new MethodParameter(methodWithRawNotificationMessageArgument, 0);
+		Message<String> message = MessageBuilder.withPayload("{\"orderId\":42}").build();
+
+		// Act
+		Object result = notificationMessageArgumentResolver.resolveArgument(methodParameter, message);
+
+		// Assert
+		assertThat(result).isEqualTo("{\"orderId\":42}");
+	}
+
+	@SuppressWarnings("EmptyMethod")
+	@RuntimeUse
+	private void methodWithRawNotificationMessageArgument(
+			@NotificationMessage(rawMessageDelivery = true) String message) {
+	}
+
 }
@@ -114,4 +114,26 @@ class NotificationSubjectArgumentResolverTest {
 		assertThat(result).isInstanceOf(String.class).isEqualTo("My subject!");
 	}
 
+	@Test
+	void resolveArgument_withRawMessageDeliveryAndWithoutSubject_shouldReturnNull() throws Exception {
+		// Arrange
+		NotificationSubjectArgumentResolver notificationSubjectArgumentResolver = new NotificationSubjectArgumentResolver();
+		Method methodWithRawNotificationSubjectArgument = this.getClass()
+				.getDeclaredMethod("methodWithRawNotificationSubjectArgument", String.class);
+		MethodParameter methodParameter = new MethodParameter(methodWithRawNotificationSubjectArgument, 0);
+		Message<String> message = MessageBuilder.withPayload("message").build();
+
+		// Act
+		Object result = notificationSubjectArgumentResolver.resolveArgument(methodParameter, message);
+
+		// Assert
+		assertThat(result).isNull();
+	}
+
+	@SuppressWarnings("EmptyMethod")
+	@RuntimeUse
+	private void methodWithRawNotificationSubjectArgument(
+			@NotificationSubject(rawMessageDelivery = true) String subject) {
+	}
+
 }
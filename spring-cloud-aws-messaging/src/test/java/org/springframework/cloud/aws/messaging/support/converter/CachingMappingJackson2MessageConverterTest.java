@@ -0,0 +1,144 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.aws.messaging.support.converter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.converter.MessageConversionException;
+import org.springframework.messaging.support.MessageBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class CachingMappingJackson2MessageConverterTest {
+
+	@Test
+	void fromMessage_withStringPayload_shouldConvertPayload() {
+		// Arrange
+		CachingMappingJackson2MessageConverter converter = new CachingMappingJackson2MessageConverter();
+		Message<String> message = MessageBuilder.withPayload("{\"name\":\"Agim\",\"age\":42}").build();
+
+		// Act
+		Person person = (Person) converter.fromMessage(message, Person.class);
+
+		// Assert
+		assertThat(person.getName()).isEqualTo("Agim");
+		assertThat(person.getAge()).isEqualTo(42);
+	}
+
+	@Test
+	void fromMessage_withByteArrayPayload_shouldConvertPayload() {
+		// Arrange
+		CachingMappingJackson2MessageConverter converter = new CachingMappingJackson2MessageConverter();
+		Message<byte[]> message = MessageBuilder
+				.withPayload("{\"name\":\"Alain\",\"age\":7}".getBytes(StandardCharsets.UTF_8)).build();
+
+		// Act
+		Person person = (Person) converter.fromMessage(message, Person.class);
+
+		// Assert
+		assertThat(person.getName()).isEqualTo("Alain");
+		assertThat(person.getAge()).isEqualTo(7);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void fromMessage_withGenericMethodParameter_shouldResolveGenericType() throws Exception {
+		// Arrange
+		CachingMappingJackson2MessageConverter converter = new CachingMappingJackson2MessageConverter();
+		MethodParameter methodParameter = new MethodParameter(
+				CachingMappingJackson2MessageConverterTest.class.getDeclaredMethod("listener", List.class), 0);
+		Message<String> message = MessageBuilder.withPayload("[{\"name\":\"Agim\",\"age\":42}]").build();
+
+		// Act
+		List<Person> persons = (List<Person>) converter.fromMessage(message, List.class, methodParameter);
+
+		// Assert
+		assertThat(persons).hasSize(1);
+		assertThat(persons.get(0)).isInstanceOf(Person.class);
+		assertThat(persons.get(0).getName()).isEqualTo("Agim");
+	}
+
+	@Test
+	void fromMessage_withRegisteredPayloadType_shouldReuseObjectReader() throws Exception {
+		// Arrange
+		ObjectMapper objectMapper = spy(new ObjectMapper());
+		CachingMappingJackson2MessageConverter converter = new CachingMappingJackson2MessageConverter();
+		converter.setObjectMapper(objectMapper);
+		MethodParameter methodParameter = new MethodParameter(
+				CachingMappingJackson2MessageConverterTest.class.getDeclaredMethod("listener", List.class), 0);
+		converter.registerPayloadType(methodParameter);
+
+		// Act
+		converter.fromMessage(MessageBuilder.withPayload("[]").build(), List.class, methodParameter);
+		converter.fromMessage(MessageBuilder.withPayload("[]").build(), List.class, methodParameter);
+
+		// Assert
+		verify(objectMapper, times(1)).readerFor(any(JavaType.class));
+	}
+
+	@Test
+	void fromMessage_withInvalidJson_shouldThrowMessageConversionException() {
+		// Arrange
+		CachingMappingJackson2MessageConverter converter = new CachingMappingJackson2MessageConverter();
+		Message<String> message = MessageBuilder.withPayload("{\"name\":").build();
+
+		// Act & Assert
+		assertThatThrownBy(() -> converter.fromMessage(message, Person.class))
+				.isInstanceOf(MessageConversionException.class).hasMessageContaining("Could not read JSON");
+	}
+
+	@SuppressWarnings("unused")
+	private void listener(List<Person> persons) {
+	}
+
+	static class Person {
+
+		private String name;
+
+		private int age;
+
+		String getName() {
+			return this.name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+
+		int getAge() {
+			return this.age;
+		}
+
+		public void setAge(int age) {
+			this.age = age;
+		}
+
+	}
+
+}
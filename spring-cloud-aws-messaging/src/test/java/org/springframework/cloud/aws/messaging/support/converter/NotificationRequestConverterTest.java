@@ -19,13 +19,20 @@ package org.springframework.cloud.aws.messaging.support.converter;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 
+import org.springframework.cloud.aws.messaging.core.TopicMessageChannel;
+import org.springframework.messaging.Message;
 import org.springframework.messaging.converter.MessageConversionException;
+import org.springframework.messaging.converter.MessageConverter;
 import org.springframework.messaging.converter.StringMessageConverter;
 import org.springframework.messaging.support.MessageBuilder;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 
 /**
  * @author Agim Emruli
@@ -106,6 +113,89 @@ class NotificationRequestConverterTest {
 		assertThat(notificationRequest).isNotNull();
 	}
 
+	@Test
+	void fromMessage_withFullEnvelope_shouldPassRawMessageAndAttributesToPayloadConverter() throws Exception {
+		// Arrange
+		ObjectNode jsonObject = JsonNodeFactory.instance.objectNode();
+		jsonObject.put("Type", "Notification");
+		jsonObject.put("MessageId", "f2c15fec-c617-5b08-b54d-13c4099fec60");
+		jsonObject.put("Subject", "Hello");
+		jsonObject.put("Message", "{\"name\":\"World\"}");
+		jsonObject.put("Signature", "dGVzdA==");
+		jsonObject.set("Unknown", JsonNodeFactory.instance.objectNode().set("Nested",
+				JsonNodeFactory.instance.arrayNode().add(1).add(JsonNodeFactory.instance.objectNode())));
+		ObjectNode messageAttributes = JsonNodeFactory.instance.objectNode();
+		messageAttributes.set("string-attribute",
+				JsonNodeFactory.instance.objectNode().put("Type", "String").put("Value", "foo"));
+		messageAttributes.set("number-attribute",
+				JsonNodeFactory.instance.objectNode().put("Value", "30").put("Type", "Number.long"));
+		jsonObject.set("MessageAttributes", messageAttributes);
+		String payload = jsonObject.toString();
+		MessageConverter payloadConverter = mock(MessageConverter.class);
+
+		// Act
+		Object notificationRequest = new NotificationRequestConverter(payloadConverter)
+				.fromMessage(MessageBuilder.withPayload(payload).build(), String.class);
+
+		// Assert
+		@SuppressWarnings("unchecked")
+		ArgumentCaptor<Message<?>> messageCaptor = ArgumentCaptor.forClass(Message.class);
+		verify(payloadConverter).fromMessage(messageCaptor.capture(), eq(String.class));
+		assertThat(messageCaptor.getValue().getPayload()).isEqualTo("{\"name\":\"World\"}");
+		assertThat(messageCaptor.getValue().getHeaders().get("string-attribute")).isEqualTo("foo");
+		assertThat(messageCaptor.getValue().getHeaders().get("number-attribute")).isEqualTo(30L);
+		assertThat(((NotificationRequestConverter.NotificationRequest) notificationRequest).getSubject())
+				.isEqualTo("Hello");
+	}
+
+	@Test
+	void fromMessage_withRawMessageDelivery_shouldConvertBodyWithoutEnvelope() throws Exception {
+		// Arrange
+		Message<String> message = MessageBuilder.withPayload("World")
+				.setHeader(TopicMessageChannel.NOTIFICATION_SUBJECT_HEADER, "Hello").setHeader("attribute", "foo")
+				.build();
+		MessageConverter payloadConverter = mock(MessageConverter.class);
+
+		// Act
+		Object notificationRequest = new NotificationRequestConverter(payloadConverter).fromMessage(message,
+				String.class);
+
+		// Assert
+		verify(payloadConverter).fromMessage(message, String.class);
+		assertThat(((NotificationRequestConverter.NotificationRequest) notificationRequest).getSubject())
+				.isEqualTo("Hello");
+	}
+
+	@Test
+	void fromMessage_withRawMessageDeliveryAndStringConverter_shouldReturnBody() throws Exception {
+		// Arrange
+		Message<String> message = MessageBuilder.withPayload("{\"Type\":\"Other\"}")
+				.setHeader(TopicMessageChannel.NOTIFICATION_SUBJECT_HEADER, "Hello").build();
+
+		// Act
+		Object notificationRequest = new NotificationRequestConverter(new StringMessageConverter())
+				.fromMessage(message, String.class);
+
+		// Assert
+		assertThat(((NotificationRequestConverter.NotificationRequest) notificationRequest).getMessage())
+				.isEqualTo("{\"Type\":\"Other\"}");
+	}
+
+	@Test
+	void fromMessage_withRawMessageDeliveryConverterAndWithoutSubject_shouldConvertBody() throws Exception {
+		// Arrange
+		Message<String> message = MessageBuilder.withPayload("plain text").build();
+
+		// Act
+		Object notificationRequest = new NotificationRequestConverter(new StringMessageConverter(), true)
+				.fromMessage(message, String.class);
+
+		// Assert
+		assertThat(((NotificationRequestConverter.NotificationRequest) notificationRequest).getMessage())
+				.isEqualTo("plain text");
+		assertThat(((NotificationRequestConverter.NotificationRequest) notificationRequest).getSubject()).isNull();
+	}
+
 	@Test
 	void testNoTypeSupplied() throws Exception {
 		ObjectNode jsonObject = JsonNodeFactory.instance.objectNode();